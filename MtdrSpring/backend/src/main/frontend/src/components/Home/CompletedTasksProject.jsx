@@ -1,105 +1,19 @@
-import React, { useState, useEffect } from 'react';
+import React from 'react';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, Legend, ResponsiveContainer, Cell } from 'recharts';
 
-function CompletedTasksProject() {
-  const [data, setData] = useState([]);
-  const [loading, setLoading] = useState(true);
+const colors = ['#C74634', '#D35F51', '#E27D71', '#BB423E', '#A13A30', '#873026', '#5E2F28'];
 
-  useEffect(() => {
-    fetchCompletedTasksData();
-  }, []);
+function CompletedTasksProject({ dashboard, isLoading: loading }) {
+  const counts = (dashboard && dashboard.completadosPorUsuario) || [];
 
-  const fetchCompletedTasksData = async () => {
-    try {
-      const usersResponse = await fetch('/usuarios');
-      if (!usersResponse.ok) {
-        throw new Error(`Error fetching users: ${usersResponse.status}`);
-      }
-      const users = await usersResponse.json();
-      
-      if (!Array.isArray(users)) {
-        console.error('Users response is not an array:', users);
-        setData([]);
-        setLoading(false);
-        return;
-      }
-
-      if (users.length === 0) {
-        console.log('No users found in the system');
-        setData([]);
-        setLoading(false);
-        return;
-      }
-      
-      const colors = ['#C74634', '#D35F51', '#E27D71', '#BB423E', '#A13A30', '#873026', '#5E2F28'];
-      
-      const userTasksPromises = users.map(async (user, index) => {
-        try {
-          const tasksResponse = await fetch(`/tareas/usuario/${user.userId}`);
-          if (!tasksResponse.ok) {
-            console.warn(`Error fetching tasks for user ${user.userId}: ${tasksResponse.status}`);
-            return {
-              name: `${user.firstName || ''} ${user.lastName || ''}`.trim() || `User ${user.userId}`,
-              value: 0,
-              color: colors[index % colors.length]
-            };
-          }
-          
-          const tasks = await tasksResponse.json();
-          
-          if (!Array.isArray(tasks)) {
-            console.error(`Tasks response for user ${user.userId} is not an array:`, tasks);
-            return {
-              name: `${user.firstName || ''} ${user.lastName || ''}`.trim() || `User ${user.userId}`,
-              value: 0,
-              color: colors[index % colors.length]
-            };
-          }
-          
-          const completedTasks = tasks.filter(task => {
-            const status = task.status?.toLowerCase() || '';
-            return status === 'completed' || 
-                   status === 'done' || 
-                   status === 'finalizada' || 
-                   status === 'completado';
-          }).length;
-          
-          return {
-            name: `${user.firstName || ''} ${user.lastName || ''}`.trim() || `User ${user.userId}`,
-            value: completedTasks,
-            color: colors[index % colors.length]
-          };
-        } catch (error) {
-          console.error(`Error fetching tasks for user ${user.userId}:`, error);
-          return {
-            name: `${user.firstName || ''} ${user.lastName || ''}`.trim() || `User ${user.userId}`,
-            value: 0,
-            color: colors[index % colors.length]
-          };
-        }
-      });
-      
-      const userTasksData = await Promise.all(userTasksPromises);
-      
-      const filteredData = userTasksData
-        .filter(item => item.value > 0)
-        .sort((a, b) => b.value - a.value)
-        .slice(0, 6);
-      
-      console.log('Completed tasks data:', filteredData);
-      setData(filteredData);
-      setLoading(false);
-    } catch (error) {
-      console.error('Error fetching completed tasks data:', error);
-      setLoading(false);
-      
-      setData([{
-        name: 'Error loading data',
-        value: 0,
-        color: '#999999'
-      }]);
-    }
-  };
+  const data = counts
+    .filter(item => item.completadas > 0)
+    .slice(0, 6)
+    .map((item, index) => ({
+      name: `${item.firstName || ''} ${item.lastName || ''}`.trim() || `User ${item.userId}`,
+      value: item.completadas,
+      color: colors[index % colors.length]
+    }));
 
   const CustomTooltip = ({ active, payload }) => {
     if (active && payload && payload.length) {
@@ -1,44 +1,12 @@
-import React, { useState, useEffect } from 'react'
+import React from 'react'
 
-function GeneralOverview() {
-  const [isLoading, setLoading] = useState(false)
-  const [error, setError] = useState()
-  const [counts, setCounts] = useState({ newCount: 0, inProgressCount: 0, completedCount: 0 })
-
-  useEffect(() => {
-    setLoading(true)
-    fetch('/tareas')
-      .then(response => {
-        if (!response.ok) {
-          throw new Error('Something went wrong')
-        }
-        return response.json()
-      })
-      .then(data => {
-        
-        let incompleteCount = 0
-        let inProgressCount = 0
-        let completedCount = 0
-
-        data.forEach(t => {
-          if (t.status === 'Incomplete') incompleteCount++
-          else if (t.status === 'In Progress') inProgressCount++
-          else if (t.status === 'Done') completedCount++
-        })
-        
-        setCounts({ 
-          newCount: incompleteCount, 
-          inProgressCount, 
-          completedCount 
-        })
-        setLoading(false)
-      })
-      .catch(err => {
-        console.error("Error in GeneralOverview:", err);
-        setError(err)
-        setLoading(false)
-      })
-  }, [])
+function GeneralOverview({ dashboard, isLoading, error }) {
+  const estados = (dashboard && dashboard.estados) || {}
+  const counts = {
+    newCount: estados['Incomplete'] || 0,
+    inProgressCount: estados['In Progress'] || 0,
+    completedCount: estados['Done'] || 0
+  }
 
   return (
     <div className="w-full h-full">
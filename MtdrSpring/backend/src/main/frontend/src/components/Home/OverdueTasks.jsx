@@ -1,60 +1,9 @@
-import React, { useState, useEffect } from 'react'
+import React from 'react'
 
-function OverdueTasks() {
-  const [isLoading, setLoading] = useState(false)
-  const [error, setError] = useState()
-  const [count, setCount] = useState(0)
-  const [oldestOverdue, setOldestOverdue] = useState(0)
-
-  useEffect(() => {
-    setLoading(true)
-    fetch('/tareas')
-      .then(response => {
-        if (!response.ok) {
-          throw new Error('Something went wrong')
-        }
-        return response.json()
-      })
-      .then(data => {
-        const now = new Date();
-        
-        const overdueTasks = data.filter(task => {
-          const endDate = new Date(task.endDate);
-
-          const completedStatuses = [
-            'done', 'Done', 'DONE',
-            'completed', 'Completed', 'COMPLETED',
-            'finalizada', 'Finalizada', 'FINALIZADA',
-            'completado', 'Completado', 'COMPLETADO',
-            'finish', 'Finish', 'FINISH',
-            'finished', 'Finished', 'FINISHED'
-          ];
-          
-          const isCompleted = completedStatuses.includes(task.status);
-          
-          return endDate < now && !isCompleted;
-        });
-        
-        let maxDaysOverdue = 0;
-        if (overdueTasks.length > 0) {
-          overdueTasks.forEach(task => {
-            const endDate = new Date(task.endDate);
-            const daysOverdue = Math.floor((now - endDate) / (1000 * 60 * 60 * 24));
-            if (daysOverdue > maxDaysOverdue) {
-              maxDaysOverdue = daysOverdue;
-            }
-          });
-        }
-        
-        setOldestOverdue(maxDaysOverdue);
-        setCount(overdueTasks.length);
-        setLoading(false);
-      })
-      .catch(err => {
-        setError(err);
-        setLoading(false);
-      });
-  }, []);
+function OverdueTasks({ dashboard, isLoading, error }) {
+  const vencidas = (dashboard && dashboard.vencidas) || {}
+  const count = vencidas.total || 0
+  const oldestOverdue = vencidas.diasMasAntigua || 0
 
   const getSeverity = () => {
     if (count === 0) return 'none';
@@ -1,28 +1,7 @@
-import React, { useState, useEffect } from 'react'
+import React from 'react'
 
-function PendingTasks() {
-  const [isLoading, setLoading] = useState(false)
-  const [error, setError] = useState()
-  const [count, setCount] = useState(0)
-
-  useEffect(() => {
-    setLoading(true)
-    fetch('/tareas/estado/Incomplete')
-      .then(response => {
-        if (!response.ok) {
-          throw new Error('Something went wrong')
-        }
-        return response.json()
-      })
-      .then(data => {
-        setCount(data.length)
-        setLoading(false)
-      })
-      .catch(err => {
-        setError(err)
-        setLoading(false)
-      })
-  }, [])
+function PendingTasks({ dashboard, isLoading, error }) {
+  const count = (dashboard && dashboard.estados && dashboard.estados['Incomplete']) || 0
 
   return (
     <div className="w-full h-full flex justify-center items-center">
@@ -1,32 +1,11 @@
-import React, { useState, useEffect } from 'react'
+import React from 'react'
 
-function TasksInProgress() {
-  const [isLoading, setLoading] = useState(false)
-  const [error, setError] = useState()
-  const [tasks, setTasks] = useState([])
+function TasksInProgress({ dashboard, isLoading, error }) {
+  const tasks = (dashboard && dashboard.enProgreso) || []
 
-  useEffect(() => {
-    setLoading(true)
-    fetch('/tareas/estado/In%20Progress')
-      .then(response => {
-        if (!response.ok) {
-          throw new Error('Something went wrong')
-        }
-        return response.json()
-      })
-      .then(data => {
-        setTasks(data)
-        setLoading(false)
-      })
-      .catch(err => {
-        setError(err)
-        setLoading(false)
-      })
-  }, [])
-
-  function formatUserName(user) {
-    if (!user) return ''
-    return user.firstName.charAt(0) + '. ' + user.lastName
+  function formatUserName(task) {
+    if (!task.firstName) return ''
+    return task.firstName.charAt(0) + '. ' + task.lastName
   }
 
   return (
@@ -81,9 +60,9 @@ function TasksInProgress() {
                   <td className="px-3 py-2.5 whitespace-nowrap text-sm text-gray-500">
                     <div className="flex items-center">
                       <div className="flex-shrink-0 h-6 w-6 rounded-full bg-gray-200 flex items-center justify-center text-xs font-medium text-gray-600">
-                        {task.usuario && task.usuario.firstName ? task.usuario.firstName.charAt(0) : '?'}
+                        {task.firstName ? task.firstName.charAt(0) : '?'}
                       </div>
-                      <div className="ml-2">{formatUserName(task.usuario)}</div>
+                      <div className="ml-2">{formatUserName(task)}</div>
                     </div>
                   </td>
                 </tr>
@@ -1,36 +1,12 @@
-import React, { useState, useEffect } from 'react'
+import React from 'react'
 
-function TicketsByPriority() {
-  const [isLoading, setLoading] = useState(false)
-  const [error, setError] = useState()
-  const [counts, setCounts] = useState({ High: 0, Medium: 0, Low: 0 })
-
-  useEffect(() => {
-    setLoading(true)
-    fetch('/tareas/estado/Incomplete')
-      .then(response => {
-        if (!response.ok) {
-          throw new Error('Something went wrong')
-        }
-        return response.json()
-      })
-      .then(data => {
-        let high = 0
-        let medium = 0
-        let low = 0
-        data.forEach(t => {
-          if (t.priority === 'High') high++
-          else if (t.priority === 'Medium') medium++
-          else if (t.priority === 'Low') low++
-        })
-        setCounts({ High: high, Medium: medium, Low: low })
-        setLoading(false)
-      })
-      .catch(err => {
-        setError(err)
-        setLoading(false)
-      })
-  }, [])
+function TicketsByPriority({ dashboard, isLoading, error }) {
+  const prioridades = (dashboard && dashboard.prioridadesPendientes) || {}
+  const counts = {
+    High: prioridades['High'] || 0,
+    Medium: prioridades['Medium'] || 0,
+    Low: prioridades['Low'] || 0
+  }
 
   const total = counts.High + counts.Medium + counts.Low
   const highPercent = total === 0 ? 0 : (counts.High / total) * 100
@@ -12,14 +12,9 @@ function ProjectsTable({ onSelectProject }) {
   const [error, setError] = useState(null);
   const [filterOptions, setFilterOptions] = useState({
     status: 'All',
-    activeState: 'All',
     date: ''
   });
   const [allProjects, setAllProjects] = useState([]);
-  const [projectsProgress, setProjectsProgress] = useState({});
-  const progressCache = React.useRef({});
-  const progressTimestamps = React.useRef({});
-  const CACHE_TTL = 60000;
 
    const [showAddProjectPopup, setShowAddProjectPopup] = useState(false);
    const [addProjectForm, setAddProjectForm] = useState({
@@ -63,14 +58,13 @@ function ProjectsTable({ onSelectProject }) {
  
   useEffect(() => {
     setLoading(true);
-    let url = '/proyectos';
+    // El árbol en profundidad 0 ya trae los contadores de tareas de cada proyecto
+    let url = '/proyectos/arbol';
 
     if (filterOptions.status !== 'All' && filterOptions.status) {
-      url = `/proyectos/estado/${filterOptions.status}`;
-    } else if (filterOptions.activeState === 'Active') {
-      url = '/proyectos/activos';
+      url = `/proyectos/arbol?status=${encodeURIComponent(filterOptions.status)}`;
     } else if (searchTerm.trim() !== '') {
-      url = `/proyectos/buscar?term=${encodeURIComponent(searchTerm)}`;
+      url = `/proyectos/arbol?term=${encodeURIComponent(searchTerm)}`;
     }
 
     fetch(url)
@@ -106,7 +100,7 @@ function ProjectsTable({ onSelectProject }) {
       });
 
 
-  }, [filterOptions.status, filterOptions.activeState, searchTerm]);
+  }, [filterOptions.status, searchTerm]);
 
   useEffect(() => {
     filterProjectsByDate(allProjects);
@@ -174,97 +168,6 @@ function ProjectsTable({ onSelectProject }) {
     };
   }, []);
 
-  useEffect(() => {
-    const fetchProgressForProjects = async () => {
-      if (!projects.length) return;
-      
-      const now = Date.now();
-      const progressData = { ...progressCache.current };
-      const projectsToFetch = [];
-      
-      projects.forEach(project => {
-        const projectId = project.projectId;
-        const lastFetchTime = progressTimestamps.current[projectId] || 0;
-        
-        if (!progressData[projectId] || (now - lastFetchTime > CACHE_TTL)) {
-          projectsToFetch.push(project);
-        }
-      });
-      
-      if (projectsToFetch.length === 0) {
-        setProjectsProgress(progressData);
-        return;
-      }
-      
-      const sprintsPromises = projectsToFetch.map(project => 
-        fetch(`/sprints/proyecto/${project.projectId}`)
-          .then(res => res.ok ? res.json() : [])
-          .then(sprints => ({ projectId: project.projectId, sprints }))
-      );
-      
-      const projectsSprints = await Promise.all(sprintsPromises);
-      
-      const allSprintsWithProject = projectsSprints.flatMap(
-        ({ projectId, sprints }) => sprints.map(sprint => ({ 
-          projectId, 
-          sprintId: sprint.sprintId 
-        }))
-      );
-      
-      const tasksPromises = allSprintsWithProject.map(({ projectId, sprintId }) => 
-        fetch(`/tareas/sprint/${sprintId}`)
-          .then(res => res.ok ? res.json() : [])
-          .then(tasks => ({ projectId, sprintId, tasks }))
-      );
-      
-      const allSprintTasks = await Promise.all(tasksPromises);
-      
-      const projectTasks = {};
-      allSprintTasks.forEach(({ projectId, tasks }) => {
-        if (!projectTasks[projectId]) {
-          projectTasks[projectId] = [];
-        }
-        projectTasks[projectId] = [...projectTasks[projectId], ...tasks];
-      });
-      
-      projectsToFetch.forEach(project => {
-        const projectId = project.projectId;
-        const tasks = projectTasks[projectId] || [];
-        
-        if (tasks.length === 0) {
-          progressData[projectId] = { progress: 5, taskCount: 0, completedCount: 0 };
-        } else {
-          const completedTasks = tasks.filter(task => {
-            const status = task.status ? task.status.toLowerCase() : '';
-            return status === 'done' || 
-                   status === 'completed' || 
-                   status === 'finalizado' || 
-                   status === 'terminado' ||
-                   status === 'ready';
-          }).length;
-          
-          const calculatedProgress = Math.round((completedTasks / tasks.length) * 100);
-          const progress = calculatedProgress > 0 ? calculatedProgress : 5;
-          
-          progressData[projectId] = { 
-            progress, 
-            taskCount: tasks.length, 
-            completedCount: completedTasks 
-          };
-        }
-        
-        progressTimestamps.current[projectId] = now;
-      });
-      
-      progressCache.current = progressData;
-      setProjectsProgress(progressData);
-    };
-    
-    if (projects.length > 0) {
-      fetchProgressForProjects();
-    }
-  }, [projects]);
-
   const handleSort = (field) => {
     const newDirection = sortField === field && sortDirection === 'asc' ? 'desc' : 'asc';
     setSortField(field);
@@ -280,24 +183,10 @@ function ProjectsTable({ onSelectProject }) {
   };
 
   const handleFilterChange = (field, value) => {
-    if (field === 'status' && value !== 'All') {
-      setFilterOptions({
-        ...filterOptions,
-        status: value,
-        activeState: 'All'
-      });
-    } else if (field === 'activeState' && value !== 'All') {
-      setFilterOptions({
-        ...filterOptions,
-        status: 'All',
-        activeState: value
-      });
-    } else {
-      setFilterOptions({
-        ...filterOptions,
-        [field]: value
-      });
-    }
+    setFilterOptions({
+      ...filterOptions,
+      [field]: value
+    });
   };
 
   const handleProjectClick = (projectId) => {
@@ -325,10 +214,13 @@ function ProjectsTable({ onSelectProject }) {
       return a[sortField] < b[sortField] ? 1 : -1;
     }
   }).map(project => {
-    const progressInfo = projectsProgress[project.projectId] || { progress: 0 };
+    const taskCount = project.totalTareas || 0;
+    const completedProgress = taskCount > 0
+      ? Math.round(((project.tareasCompletadas || 0) / taskCount) * 100)
+      : 0;
     return {
       ...project,
-      progress: progressInfo.progress,
+      progress: completedProgress > 0 ? completedProgress : 5,
       users: project.users ? project.users.slice(0, 4) : Array(4).fill({ id: 1 })
     };
   });
@@ -407,7 +299,7 @@ function ProjectsTable({ onSelectProject }) {
         type: 'success'
       });
 
-      fetch('/proyectos')
+      fetch('/proyectos/arbol')
         .then(response => response.json())
         .then(data => {
           setAllProjects(data);
@@ -503,7 +395,7 @@ function ProjectsTable({ onSelectProject }) {
         type: 'success'
       });
 
-      fetch('/proyectos')
+      fetch('/proyectos/arbol')
         .then(response => response.json())
         .then(data => {
           setAllProjects(data);
@@ -546,7 +438,7 @@ function ProjectsTable({ onSelectProject }) {
         type: 'success'
       });
 
-      fetch('/proyectos')
+      fetch('/proyectos/arbol')
         .then(response => response.json())
         .then(data => {
           setAllProjects(data);
@@ -577,7 +469,6 @@ function ProjectsTable({ onSelectProject }) {
 
 
   const statusOptions = ['All', ...new Set(allProjects.map(p => p.status).filter(Boolean))];
-  const activeStateOptions = ['All', 'Active'];
 
   return (
     <div className="w-full h-full flex flex-col p-4">
@@ -690,19 +581,6 @@ function ProjectsTable({ onSelectProject }) {
         </select>
       </div>
 
-      <div className="flex flex-col">
-        <label className="block text-sm font-medium text-gray-700 mb-1">State:</label>
-        <select 
-          value={filterOptions.activeState} 
-          onChange={(e) => handleFilterChange('activeState', e.target.value)}
-          className="block w-full pl-3 pr-10 py-2 text-sm border-gray-300 focus:outline-none focus:ring-blue-500 focus:border-blue-500 rounded-md"
-        >
-          {activeStateOptions.map(option => (
-            <option key={option} value={option}>{option}</option>
-          ))}
-        </select>
-      </div>
-
       <div className="flex flex-col">
         <label className="block text-sm font-medium text-gray-700 mb-1">Date:</label>
         <input 
@@ -1,4 +1,4 @@
-import React from 'react'
+import React, { useState, useEffect } from 'react'
 import ActiveProjects from './ActiveProjects'
 import TasksByPriority from '../components/Home/TasksbyPriority'
 import GeneralOverview from '../components/Home/GeneralOverview'
@@ -8,6 +8,31 @@ import CompletedTasksProject from '../components/Home/CompletedTasksProject'
 import TasksInProgress from '../components/Home/TasksInProgress'
 
 function Home() {
+  const [dashboard, setDashboard] = useState(null)
+  const [isLoading, setLoading] = useState(true)
+  const [error, setError] = useState()
+
+  useEffect(() => {
+    fetch('/dashboard/home')
+      .then(response => {
+        if (!response.ok) {
+          throw new Error('Something went wrong')
+        }
+        return response.json()
+      })
+      .then(data => {
+        setDashboard(data)
+        setLoading(false)
+      })
+      .catch(err => {
+        console.error('Error fetching dashboard:', err)
+        setError(err)
+        setLoading(false)
+      })
+  }, [])
+
+  const widgetProps = { dashboard, isLoading, error }
+
   return (
     <div className="w-full min-h-screen flex flex-col bg-gray-50 lg:h-screen lg:overflow-hidden">
       <header className="bg-[#423E3A] h-[65px] min-h-[65px] pl-5 flex items-center shadow-md mb-1 md:mb-2 flex-shrink-0">
@@ -38,7 +63,7 @@ function Home() {
                 General Overview
               </h2>
               <div className="p-2 md:p-4 flex-1 overflow-auto">
-                <GeneralOverview />
+                <GeneralOverview {...widgetProps} />
               </div>
             </div>
 
@@ -50,7 +75,7 @@ function Home() {
                 Completed Tasks by Developer
               </h2>
               <div className="flex-1 overflow-auto p-2 md:p-4">
-                <CompletedTasksProject />
+                <CompletedTasksProject {...widgetProps} />
               </div>
             </div>
           </div>
@@ -66,7 +91,7 @@ function Home() {
                   Tasks By Priority
                 </h2>
                 <div className="p-4 flex-1 overflow-auto">
-                  <TasksByPriority />
+                  <TasksByPriority {...widgetProps} />
                 </div>
               </div>
 
@@ -79,7 +104,7 @@ function Home() {
                     Overdue Tasks
                   </h2>
                   <div className="p-4 flex-1 overflow-auto">
-                    <OverdueTasks />
+                    <OverdueTasks {...widgetProps} />
                   </div>
                 </div>
 
@@ -91,7 +116,7 @@ function Home() {
                     Pending Tasks
                   </h2>
                   <div className="p-4 flex-1 overflow-auto">
-                    <PendingTasks />
+                    <PendingTasks {...widgetProps} />
                   </div>
                 </div>
               </div>
@@ -106,7 +131,7 @@ function Home() {
                 Tasks In Progress
               </h2>
               <div className="p-4 flex-1 overflow-auto">
-                <TasksInProgress />
+                <TasksInProgress {...widgetProps} />
               </div>
             </div>
           </div>
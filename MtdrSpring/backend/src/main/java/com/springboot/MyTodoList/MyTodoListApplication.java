@@ -11,6 +11,10 @@ import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import com.springboot.MyTodoList.bot.ColaEnvios;
+import com.springboot.MyTodoList.bot.DespachadorUpdates;
+import com.springboot.MyTodoList.bot.RepositorioSesiones;
+import com.springboot.MyTodoList.bot.TaskBotWebhook;
 import com.springboot.MyTodoList.controller.TaskBotController;
 import com.springboot.MyTodoList.service.SprintService;
 import com.springboot.MyTodoList.service.TareaService;
@@ -31,6 +35,18 @@ public class MyTodoListApplication implements CommandLineRunner {
     @Autowired
     private SprintService sprintService;
 
+    @Autowired
+    private DespachadorUpdates despachadorUpdates;
+
+    @Autowired
+    private ColaEnvios colaEnvios;
+
+    @Autowired
+    private RepositorioSesiones repositorioSesiones;
+
+    @Autowired(required = false)
+    private TaskBotWebhook taskBotWebhook;
+
     @Value("${telegram.bot.token}")
     private String telegramBotToken;
 
@@ -44,9 +60,16 @@ public class MyTodoListApplication implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         try {
+            if (taskBotWebhook != null) {
+                // Modo webhook: Telegram entrega los updates a TelegramWebhookController
+                taskBotWebhook.registrar();
+                logger.info(BotMessages.BOT_REGISTERED_STARTED.getMessage());
+                return;
+            }
             TelegramBotsApi telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
             telegramBotsApi.registerBot(new TaskBotController(telegramBotToken, botName, 
-                                        tareaService, usuarioService, sprintService));
+                                        tareaService, usuarioService, sprintService, despachadorUpdates, colaEnvios,
+                                        repositorioSesiones));
             logger.info(BotMessages.BOT_REGISTERED_STARTED.getMessage());
         } catch (TelegramApiException e) {
             e.printStackTrace();
@@ -0,0 +1,102 @@
+package com.springboot.MyTodoList.bot;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.springboot.MyTodoList.dto.SesionesMetricasDTO;
+
+/**
+ * ALMACÉN DE SESIONES DEL BOT
+ *
+ * Repositorio de sesiones en memoria. Guarda la sesión de cada chat con dos límites:
+ * - Inactividad: una sesión que no se usa durante el tiempo configurado se descarta y el chat
+ *   vuelve a empezar (tendrá que iniciar sesión otra vez)
+ * - Memoria: la suma de los pesos estimados de las sesiones no pasa del máximo; al llenarse se
+ *   descartan primero las sesiones menos usadas
+ *
+ * Cada sesión solo la modifica el trabajador de su chat (ver DespachadorUpdates). Al terminar
+ * de procesar un update el bot la vuelve a guardar para que el almacén recalcule su peso.
+ */
+public class AlmacenSesiones implements RepositorioSesiones {
+
+    private final Cache<Long, UserSession> sesiones;
+    private final long maxBytes;
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder desalojadas = new LongAdder();
+
+    /**
+     * @param inactividad Tiempo sin updates tras el que se descarta una sesión
+     * @param maxBytes Peso estimado máximo de todas las sesiones juntas
+     */
+    public AlmacenSesiones(Duration inactividad, long maxBytes) {
+        this(inactividad, maxBytes, Ticker.systemTicker());
+    }
+
+    AlmacenSesiones(Duration inactividad, long maxBytes, Ticker reloj) {
+        this.maxBytes = maxBytes;
+        this.sesiones = Caffeine.newBuilder()
+                .expireAfterAccess(inactividad)
+                .maximumWeight(maxBytes)
+                .weigher((Long chatId, UserSession sesion) -> sesion.pesoEstimado())
+                .ticker(reloj)
+                // El mantenimiento es barato; hacerlo en el hilo que llama mantiene exactos los contadores
+                .executor(Runnable::run)
+                .removalListener((Long chatId, UserSession sesion, RemovalCause causa) -> {
+                    if (causa == RemovalCause.EXPIRED) {
+                        expiradas.increment();
+                    } else if (causa == RemovalCause.SIZE) {
+                        desalojadas.increment();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Almacén sin límite de memoria para pruebas y usos sin Spring
+     *
+     * @return Almacén cuyas sesiones expiran tras 24 horas sin uso
+     */
+    public static AlmacenSesiones sinLimites() {
+        return new AlmacenSesiones(Duration.ofHours(24), Long.MAX_VALUE);
+    }
+
+    /**
+     * Devuelve la sesión del chat, creando una vacía si no existe o ya expiró
+     *
+     * @param chatId Chat de Telegram
+     * @return Sesión del chat
+     */
+    @Override
+    public UserSession obtener(long chatId) {
+        return sesiones.get(chatId, id -> new UserSession());
+    }
+
+    /**
+     * Guarda la sesión después de modificarla para que su peso se recalcule
+     *
+     * @param chatId Chat de Telegram
+     * @param sesion Sesión del chat
+     */
+    @Override
+    public void guardar(long chatId, UserSession sesion) {
+        sesiones.put(chatId, sesion);
+    }
+
+    /**
+     * Obtiene las métricas actuales del almacén
+     *
+     * @return Sesiones vivas, bytes estimados y sesiones descartadas por inactividad o por memoria
+     */
+    public SesionesMetricasDTO getMetricas() {
+        sesiones.cleanUp();
+        long bytes = sesiones.policy().eviction()
+                .map(limite -> limite.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new SesionesMetricasDTO(sesiones.estimatedSize(), bytes, maxBytes,
+                expiradas.sum(), desalojadas.sum());
+    }
+}
@@ -0,0 +1,13 @@
+package com.springboot.MyTodoList.bot;
+
+/**
+ * Paso de la conversación en el que está un chat del bot
+ */
+public enum BotState {
+    NONE, WAITING_PASSWORD,
+    WAITING_TITLE, WAITING_DESCRIPTION, WAITING_PRIORITY,
+    WAITING_TYPE, WAITING_USER, WAITING_SPRINT, WAITING_POINTS,
+    WAITING_ESTIMATED_HOURS, WAITING_ACTUAL_HOURS, WAITING_TASK_TO_FINISH,
+    WAITING_ACTUAL_HOURS_INPUT,
+    WAITING_AUDIO
+}
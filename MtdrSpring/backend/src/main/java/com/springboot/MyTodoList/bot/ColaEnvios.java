@@ -0,0 +1,304 @@
+package com.springboot.MyTodoList.bot;
+
+import com.springboot.MyTodoList.dto.EnviosMetricasDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * COLA DE ENVÍOS DEL BOT
+ *
+ * Envía los mensajes del bot con la API asíncrona de Telegram: quien envía solo encola el mensaje
+ * y recibe un CompletableFuture, sin esperar la respuesta HTTP. Cada chat tiene su propia cola y
+ * un solo mensaje en vuelo, así que los mensajes llegan en el orden en que se enviaron.
+ *
+ * Respeta los límites de Telegram con dos cubos de tokens: uno global para todo el bot y uno por
+ * chat. Cuando un cubo está vacío el envío se programa para cuando haya token; ningún hilo duerme
+ * esperando. Si Telegram responde 429, el chat se pausa los segundos que indica retry_after y el
+ * mismo mensaje se reintenta, hasta el máximo de reintentos configurado.
+ *
+ * Los chats sin mensajes pendientes y con el cubo lleno se descartan; si al vaciarse la cola el cubo
+ * aún no se llenó, se programa una revisión para cuando se llene. Así la memoria depende de los
+ * chats activos y no de todos los que alguna vez hablaron con el bot.
+ */
+public class ColaEnvios {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColaEnvios.class);
+
+    private static final int DEMASIADAS_SOLICITUDES = 429;
+
+    /**
+     * Envía un mensaje a Telegram sin bloquear; normalmente executeAsync del bot
+     */
+    public interface Transporte {
+        CompletableFuture<Message> enviar(SendMessage mensaje);
+    }
+
+    private final CuboTokens global;
+    private final int rafagaChat;
+    private final double porSegundoChat;
+    private final int capacidadChat;
+    private final int maxReintentos;
+    private final ScheduledExecutorService programador;
+
+    private final Map<Long, Chat> chats = new ConcurrentHashMap<>();
+
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private final LongAdder demorados = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+
+    /**
+     * @param porSegundoGlobal Mensajes por segundo (y ráfaga) para todo el bot
+     * @param rafagaChat Mensajes seguidos que admite un chat antes de aplicar su límite
+     * @param porSegundoChat Mensajes por segundo de un chat una vez agotada la ráfaga
+     * @param capacidadChat Mensajes pendientes que admite un chat; los siguientes se rechazan
+     * @param maxReintentos Reintentos de un mensaje que recibió 429
+     */
+    public ColaEnvios(int porSegundoGlobal, int rafagaChat, double porSegundoChat, int capacidadChat,
+                      int maxReintentos) {
+        if (capacidadChat < 1 || maxReintentos < 0) {
+            throw new IllegalArgumentException("Configuración inválida de la cola de envíos");
+        }
+        this.global = new CuboTokens(porSegundoGlobal, porSegundoGlobal, System.nanoTime());
+        this.rafagaChat = rafagaChat;
+        this.porSegundoChat = porSegundoChat;
+        this.capacidadChat = capacidadChat;
+        this.maxReintentos = maxReintentos;
+        // El hilo se crea con el primer envío demorado; los envíos que salen al momento no lo usan
+        ScheduledThreadPoolExecutor ejecutor = new ScheduledThreadPoolExecutor(1, tarea -> {
+            Thread hilo = new Thread(tarea, "bot-envios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.setRemoveOnCancelPolicy(true);
+        this.programador = ejecutor;
+    }
+
+    /**
+     * Crea una cola sin límites prácticos: cada mensaje sale en cuanto el anterior del chat termina
+     */
+    public static ColaEnvios sinLimites() {
+        return new ColaEnvios(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Encola un mensaje para su chat
+     *
+     * @param mensaje Mensaje a enviar; su chatId decide la cola
+     * @param transporte Cómo enviarlo a Telegram
+     * @return Mensaje enviado, o error si Telegram lo rechazó, se agotaron los reintentos o la cola del chat estaba llena
+     */
+    public CompletableFuture<Message> enviar(SendMessage mensaje, Transporte transporte) {
+        long chatId = Long.parseLong(mensaje.getChatId());
+        Pendiente pendiente = new Pendiente(mensaje, transporte);
+        while (true) {
+            Chat chat = chats.computeIfAbsent(chatId, id -> new Chat(id, System.nanoTime()));
+            synchronized (chat) {
+                // Un chat descartado mientras se obtenía ya no está en el mapa: se toma uno nuevo
+                if (chat.descartado) {
+                    continue;
+                }
+                if (chat.cola.size() >= capacidadChat) {
+                    rechazados.increment();
+                    pendiente.resultado.completeExceptionally(
+                            new IllegalStateException("Cola de envíos del chat " + chatId + " llena"));
+                    return pendiente.resultado;
+                }
+                chat.cola.add(pendiente);
+            }
+            bombear(chat);
+            return pendiente.resultado;
+        }
+    }
+
+    /**
+     * Envía el siguiente mensaje del chat si no hay otro en vuelo y los límites lo permiten;
+     * si no lo permiten, programa un nuevo intento para cuando haya token
+     */
+    private void bombear(Chat chat) {
+        Pendiente siguiente;
+        synchronized (chat) {
+            if (chat.enVuelo || chat.programado || chat.descartado) {
+                return;
+            }
+            long ahora = System.nanoTime();
+            if (chat.cola.isEmpty()) {
+                long hastaLibre = Math.max(Math.max(chat.pausadoHasta - ahora, 0), chat.cubo.esperaLleno(ahora));
+                if (hastaLibre == 0) {
+                    chat.descartado = true;
+                    chats.remove(chat.id, chat);
+                } else if (!chat.revisionProgramada) {
+                    // Nadie más volverá a mirar este chat si no recibe mensajes: se revisa cuando el
+                    // cubo se llene. La revisión no bloquea los envíos nuevos del chat.
+                    chat.revisionProgramada = true;
+                    programador.schedule(() -> {
+                        synchronized (chat) {
+                            chat.revisionProgramada = false;
+                        }
+                        bombear(chat);
+                    }, hastaLibre, TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+            long espera = Math.max(chat.pausadoHasta - ahora, 0);
+            if (espera == 0) {
+                espera = chat.cubo.espera(ahora);
+            }
+            if (espera == 0) {
+                espera = global.tomar(ahora);
+            }
+            if (espera > 0) {
+                chat.programado = true;
+                demorados.increment();
+                programador.schedule(() -> {
+                    synchronized (chat) {
+                        chat.programado = false;
+                    }
+                    bombear(chat);
+                }, espera, TimeUnit.NANOSECONDS);
+                return;
+            }
+            chat.cubo.tomar(ahora);
+            chat.enVuelo = true;
+            siguiente = chat.cola.peek();
+        }
+
+        CompletableFuture<Message> envio;
+        try {
+            envio = siguiente.transporte.enviar(siguiente.mensaje);
+        } catch (RuntimeException e) {
+            envio = CompletableFuture.failedFuture(e);
+        }
+        envio.whenComplete((enviado, error) -> terminar(chat, siguiente, enviado, error));
+    }
+
+    private void terminar(Chat chat, Pendiente pendiente, Message enviado, Throwable error) {
+        Throwable causa = causa(error);
+        Integer retryAfter = retryAfter(causa);
+        if (retryAfter != null && pendiente.intentos < maxReintentos) {
+            pendiente.intentos++;
+            reintentos.increment();
+            logger.warn("Telegram pidió esperar {} s antes de enviar al chat {}", retryAfter, chat.id);
+            synchronized (chat) {
+                chat.enVuelo = false;
+                chat.pausadoHasta = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter);
+            }
+            bombear(chat);
+            return;
+        }
+
+        synchronized (chat) {
+            chat.cola.poll();
+            chat.enVuelo = false;
+        }
+        if (causa == null) {
+            enviados.increment();
+            pendiente.resultado.complete(enviado);
+        } else {
+            fallidos.increment();
+            pendiente.resultado.completeExceptionally(causa);
+        }
+        bombear(chat);
+    }
+
+    /**
+     * Obtiene el error original de un envío fallido, sin las envolturas de CompletableFuture
+     *
+     * @param error Error recibido en whenComplete, exceptionally o handle
+     * @return Error original, o null si no hubo error
+     */
+    public static Throwable causa(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static Integer retryAfter(Throwable causa) {
+        if (!(causa instanceof TelegramApiRequestException)) {
+            return null;
+        }
+        TelegramApiRequestException respuesta = (TelegramApiRequestException) causa;
+        if (respuesta.getErrorCode() == null || respuesta.getErrorCode() != DEMASIADAS_SOLICITUDES) {
+            return null;
+        }
+        if (respuesta.getParameters() == null || respuesta.getParameters().getRetryAfter() == null) {
+            return 1;
+        }
+        return Math.max(respuesta.getParameters().getRetryAfter(), 0);
+    }
+
+    /**
+     * Obtiene los mensajes enviados, fallidos, rechazados, demorados y reintentados, y los pendientes
+     *
+     * @return Métricas de la cola de envíos
+     */
+    public EnviosMetricasDTO getMetricas() {
+        int pendientes = 0;
+        for (Chat chat : chats.values()) {
+            synchronized (chat) {
+                pendientes += chat.cola.size();
+            }
+        }
+        return new EnviosMetricasDTO(chats.size(), pendientes, enviados.sum(), fallidos.sum(),
+                rechazados.sum(), demorados.sum(), reintentos.sum());
+    }
+
+    /**
+     * Detiene los envíos programados; los mensajes que sigan en cola no se envían
+     */
+    public void cerrar() {
+        programador.shutdownNow();
+    }
+
+    /**
+     * Cola, cubo y estado de envío de un chat; se accede siempre con su monitor tomado
+     */
+    private final class Chat {
+
+        private final long id;
+        private final Queue<Pendiente> cola = new ArrayDeque<>();
+        private final CuboTokens cubo;
+        private boolean enVuelo;
+        private boolean programado;
+        private boolean revisionProgramada;
+        private boolean descartado;
+        private long pausadoHasta;
+
+        Chat(long id, long ahora) {
+            this.id = id;
+            this.cubo = new CuboTokens(rafagaChat, porSegundoChat, ahora);
+            this.pausadoHasta = ahora;
+        }
+    }
+
+    private static final class Pendiente {
+
+        private final SendMessage mensaje;
+        private final Transporte transporte;
+        private final CompletableFuture<Message> resultado = new CompletableFuture<>();
+        private int intentos;
+
+        Pendiente(SendMessage mensaje, Transporte transporte) {
+            this.mensaje = mensaje;
+            this.transporte = transporte;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.springboot.MyTodoList.bot;
+
+/**
+ * CUBO DE TOKENS
+ *
+ * Admite ráfagas de hasta "capacidad" envíos y luego "porSegundo" envíos por segundo.
+ * Los tiempos se reciben en nanosegundos de System.nanoTime.
+ */
+final class CuboTokens {
+
+    private final double capacidad;
+    private final double tokensPorNano;
+    private double tokens;
+    private long ultimaRecarga;
+
+    CuboTokens(double capacidad, double porSegundo, long ahora) {
+        if (capacidad < 1 || porSegundo <= 0) {
+            throw new IllegalArgumentException("El cubo necesita capacidad >= 1 y recarga > 0");
+        }
+        this.capacidad = capacidad;
+        this.tokensPorNano = porSegundo / 1_000_000_000d;
+        this.tokens = capacidad;
+        this.ultimaRecarga = ahora;
+    }
+
+    /**
+     * Calcula cuánto falta para que haya un token, sin tomarlo
+     *
+     * @return 0 si hay un token disponible, o los nanosegundos que faltan para el siguiente
+     */
+    synchronized long espera(long ahora) {
+        recargar(ahora);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPorNano);
+    }
+
+    /**
+     * Toma un token si hay uno disponible
+     *
+     * @return 0 si se tomó, o los nanosegundos que faltan para el siguiente
+     */
+    synchronized long tomar(long ahora) {
+        long espera = espera(ahora);
+        if (espera == 0) {
+            tokens -= 1;
+        }
+        return espera;
+    }
+
+    /**
+     * Calcula cuánto falta para que el cubo vuelva a su capacidad
+     *
+     * @return 0 si ya está lleno, o los nanosegundos que faltan
+     */
+    synchronized long esperaLleno(long ahora) {
+        recargar(ahora);
+        return tokens >= capacidad ? 0 : (long) Math.ceil((capacidad - tokens) / tokensPorNano);
+    }
+
+    private void recargar(long ahora) {
+        if (ahora > ultimaRecarga) {
+            tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) * tokensPorNano);
+            ultimaRecarga = ahora;
+        }
+    }
+}
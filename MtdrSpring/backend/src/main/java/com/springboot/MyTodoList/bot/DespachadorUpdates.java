@@ -0,0 +1,245 @@
+package com.springboot.MyTodoList.bot;
+
+import com.springboot.MyTodoList.dto.DespachadorMetricasDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DESPACHADOR DE UPDATES DEL BOT
+ *
+ * Reparte los updates de Telegram entre un número fijo de trabajadores según el chat: todos los
+ * updates de un chat caen en el mismo trabajador y se procesan en el orden en que llegaron,
+ * mientras que chats de trabajadores distintos se atienden en paralelo. Así un usuario que espera
+ * una consulta, un BCrypt o la descarga de un audio ya no detiene a los demás.
+ *
+ * Cada trabajador tiene un solo hilo y una cola acotada. Si la cola de un chat está llena, el hilo
+ * que recibe los updates espera hasta el tiempo máximo configurado, lo que frena también la lectura
+ * de nuevos updates de Telegram; si aun así no hay lugar, el update se descarta y se cuenta como
+ * rechazado. Las continuaciones que se encolan desde otros hilos (por ejemplo al terminar un
+ * envío) usan despacharContinuacion(), que nunca espera: si la cola está llena la reintenta
+ * poco después, porque perderla dejaría al chat sin el teclado del siguiente paso.
+ *
+ * Con cero trabajadores el update se procesa en el mismo hilo que lo recibe, como antes.
+ */
+public class DespachadorUpdates {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorUpdates.class);
+
+    /**
+     * Milisegundos entre intentos de encolar una continuación en una cola llena
+     */
+    static final long REINTENTO_MS = 50;
+
+    private final Trabajador[] trabajadores;
+    private final ScheduledExecutorService reintentos;
+    private final int capacidadCola;
+    private final long esperaMaximaMs;
+
+    private final LongAdder aceptados = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private final LongAdder esperas = new LongAdder();
+
+    /**
+     * @param trabajadores Número de hilos; 0 procesa cada update en el hilo que lo recibe
+     * @param capacidadCola Updates pendientes que admite cada trabajador
+     * @param esperaMaximaMs Tiempo que se espera lugar en una cola llena antes de descartar el update
+     */
+    public DespachadorUpdates(int trabajadores, int capacidadCola, long esperaMaximaMs) {
+        if (trabajadores < 0 || capacidadCola < 1 || esperaMaximaMs < 0) {
+            throw new IllegalArgumentException("Configuración inválida del despachador de updates");
+        }
+        this.trabajadores = new Trabajador[trabajadores];
+        this.capacidadCola = capacidadCola;
+        this.esperaMaximaMs = esperaMaximaMs;
+        for (int i = 0; i < trabajadores; i++) {
+            this.trabajadores[i] = new Trabajador(i, capacidadCola);
+            this.trabajadores[i].hilo.start();
+        }
+        this.reintentos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "bot-reintentos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Crea un despachador que procesa cada update en el hilo que lo recibe
+     */
+    public static DespachadorUpdates enHiloLlamador() {
+        return new DespachadorUpdates(0, 1, 0);
+    }
+
+    /**
+     * Encola el procesamiento de un update en el trabajador de su chat
+     *
+     * @param chatId Chat al que pertenece el update
+     * @param tarea Procesamiento del update
+     * @return true si se encoló (o se procesó), false si la cola siguió llena durante la espera máxima
+     */
+    public boolean despachar(long chatId, Runnable tarea) {
+        if (trabajadores.length == 0) {
+            aceptados.increment();
+            tarea.run();
+            return true;
+        }
+
+        Trabajador trabajador = trabajadores[indice(chatId)];
+        try {
+            if (!trabajador.cola.offer(tarea)) {
+                esperas.increment();
+                if (!trabajador.cola.offer(tarea, esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                    rechazados.increment();
+                    logger.warn("Cola del trabajador {} llena: se descarta un update del chat {}",
+                            trabajador.indice, chatId);
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rechazados.increment();
+            return false;
+        }
+        aceptados.increment();
+        trabajador.registrarProfundidad();
+        return true;
+    }
+
+    /**
+     * Encola una tarea en el trabajador de su chat sin esperar lugar. Sirve para continuaciones
+     * que corren en hilos ajenos (el del cliente HTTP, el programador de envíos o el propio
+     * trabajador), que no deben bloquearse esperando una cola llena. Si la cola está llena se
+     * vuelve a intentar cada REINTENTO_MS milisegundos hasta que haya lugar o se cierre el
+     * despachador; mientras tanto otros updates del chat pueden adelantarse.
+     *
+     * @param chatId Chat al que pertenece la tarea
+     * @param tarea Tarea a ejecutar
+     */
+    public void despacharContinuacion(long chatId, Runnable tarea) {
+        if (trabajadores.length == 0) {
+            aceptados.increment();
+            tarea.run();
+            return;
+        }
+
+        Trabajador trabajador = trabajadores[indice(chatId)];
+        if (!encolar(trabajador, tarea)) {
+            logger.warn("Cola del trabajador {} llena: se reintentará una continuación del chat {}",
+                    trabajador.indice, chatId);
+            reintentar(trabajador, chatId, tarea);
+        }
+    }
+
+    private void reintentar(Trabajador trabajador, long chatId, Runnable tarea) {
+        esperas.increment();
+        try {
+            reintentos.schedule(() -> {
+                if (!encolar(trabajador, tarea)) {
+                    reintentar(trabajador, chatId, tarea);
+                }
+            }, REINTENTO_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // El despachador se cerró: la continuación ya no se procesará
+            rechazados.increment();
+            logger.warn("Despachador cerrado: se descarta una continuación del chat {}", chatId);
+        }
+    }
+
+    private boolean encolar(Trabajador trabajador, Runnable tarea) {
+        if (!trabajador.cola.offer(tarea)) {
+            return false;
+        }
+        aceptados.increment();
+        trabajador.registrarProfundidad();
+        return true;
+    }
+
+    /**
+     * Obtiene el trabajador que atiende un chat
+     *
+     * @param chatId Chat de Telegram
+     * @return Índice del trabajador entre 0 y el número de trabajadores - 1
+     */
+    int indice(long chatId) {
+        return Math.floorMod(Long.hashCode(chatId), trabajadores.length);
+    }
+
+    /**
+     * Obtiene los updates aceptados, rechazados y pendientes, en total y por trabajador
+     *
+     * @return Métricas del despachador
+     */
+    public DespachadorMetricasDTO getMetricas() {
+        DespachadorMetricasDTO metricas = new DespachadorMetricasDTO(trabajadores.length, capacidadCola,
+                aceptados.sum(), rechazados.sum(), esperas.sum());
+        for (Trabajador trabajador : trabajadores) {
+            metricas.agregar(trabajador.indice, trabajador.cola.size(), trabajador.pico.get(),
+                    trabajador.procesados.sum(), trabajador.fallidos.sum());
+        }
+        return metricas;
+    }
+
+    /**
+     * Detiene los trabajadores; los updates que sigan en cola o esperando reintento no se procesan
+     */
+    public void cerrar() {
+        reintentos.shutdownNow();
+        for (Trabajador trabajador : trabajadores) {
+            trabajador.hilo.interrupt();
+        }
+    }
+
+    /**
+     * Un hilo con su cola: procesa en orden los updates de los chats que le tocan
+     */
+    private static final class Trabajador implements Runnable {
+
+        private final int indice;
+        private final BlockingQueue<Runnable> cola;
+        private final Thread hilo;
+        private final AtomicInteger pico = new AtomicInteger();
+        private final LongAdder procesados = new LongAdder();
+        private final LongAdder fallidos = new LongAdder();
+
+        Trabajador(int indice, int capacidad) {
+            this.indice = indice;
+            this.cola = new ArrayBlockingQueue<>(capacidad);
+            this.hilo = new Thread(this, "bot-updates-" + indice);
+            this.hilo.setDaemon(true);
+        }
+
+        void registrarProfundidad() {
+            pico.accumulateAndGet(cola.size(), Math::max);
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Runnable tarea;
+                try {
+                    tarea = cola.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    tarea.run();
+                } catch (Throwable e) {
+                    // Un update que falla, incluso con un Error como StackOverflowError o
+                    // NoClassDefFoundError, no debe detener al trabajador ni a los demás chats que atiende
+                    fallidos.increment();
+                    logger.error("Error procesando un update en el trabajador {}", indice, e);
+                } finally {
+                    procesados.increment();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.springboot.MyTodoList.bot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * FORMATO BINARIO DE UNA SESIÓN
+ *
+ * Escribe los campos de UserSession uno tras otro con DataOutputStream, sin nombres de clase
+ * ni de campo como la serialización de Java: una sesión en medio de crear una tarea ocupa
+ * unas decenas de bytes y una con una lista de tareas unos pocos KB.
+ *
+ * El primer byte es la versión del formato. Si un cambio en UserSession lo modifica, se sube
+ * la versión y se sigue leyendo la anterior, o se tratan sus sesiones como vacías.
+ */
+final class FormatoSesion {
+
+    static final byte VERSION = 1;
+
+    private FormatoSesion() {
+    }
+
+    static byte[] escribir(UserSession sesion) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(VERSION);
+            salida.writeUTF(sesion.getState().name());
+            escribirPersona(salida, sesion.getAuthenticatedUser());
+
+            UserSession.TareaBorrador borrador = sesion.getCurrentTask();
+            escribirTexto(salida, borrador.getTitle());
+            escribirTexto(salida, borrador.getDescription());
+            escribirTexto(salida, borrador.getStatus());
+            escribirTexto(salida, borrador.getPriority());
+            escribirTexto(salida, borrador.getType());
+            salida.writeInt(borrador.getStoryPoints());
+            escribirDecimal(salida, borrador.getEstimatedHours());
+            escribirDecimal(salida, borrador.getActualHours());
+            escribirPersona(salida, borrador.getUsuario());
+            escribirSprint(salida, borrador.getSprint());
+
+            salida.writeInt(sesion.getAvailableUsers().size());
+            for (UserSession.Persona persona : sesion.getAvailableUsers()) {
+                escribirPersona(salida, persona);
+            }
+            salida.writeInt(sesion.getAvailableSprints().size());
+            for (UserSession.SprintOpcion sprint : sesion.getAvailableSprints()) {
+                escribirSprint(salida, sprint);
+            }
+
+            salida.writeInt(sesion.getCurrentPage());
+            salida.writeInt(sesion.getTaskToFinish());
+            salida.writeInt(sesion.getCurrentTaskList().size());
+            for (UserSession.FilaTarea fila : sesion.getCurrentTaskList()) {
+                salida.writeInt(fila.getTaskId());
+                escribirTexto(salida, fila.getTitle());
+                escribirTexto(salida, fila.getStatus());
+                escribirTexto(salida, fila.getPriority());
+                escribirTexto(salida, fila.getFirstName());
+                escribirTexto(salida, fila.getLastName());
+                escribirTexto(salida, fila.getSprintName());
+                escribirDecimal(salida, fila.getEstimatedHours());
+                escribirDecimal(salida, fila.getActualHours());
+                Date fin = fila.getEndDate();
+                salida.writeBoolean(fin != null);
+                if (fin != null) {
+                    salida.writeLong(fin.getTime());
+                }
+            }
+        } catch (IOException e) {
+            // Un ByteArrayOutputStream no falla al escribir
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param datos Bytes escritos por escribir()
+     * @return Sesión leída, o una vacía si los bytes son de otra versión del formato
+     * @throws IllegalArgumentException Si los bytes están truncados o corruptos
+     */
+    static UserSession leer(byte[] datos) {
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos))) {
+            if (entrada.readByte() != VERSION) {
+                return new UserSession();
+            }
+            UserSession sesion = new UserSession();
+            sesion.setState(BotState.valueOf(entrada.readUTF()));
+            sesion.setAuthenticatedUser(leerPersona(entrada));
+
+            UserSession.TareaBorrador borrador = new UserSession.TareaBorrador();
+            borrador.setTitle(leerTexto(entrada));
+            borrador.setDescription(leerTexto(entrada));
+            borrador.setStatus(leerTexto(entrada));
+            borrador.setPriority(leerTexto(entrada));
+            borrador.setType(leerTexto(entrada));
+            borrador.setStoryPoints(entrada.readInt());
+            borrador.setEstimatedHours(leerDecimal(entrada));
+            borrador.setActualHours(leerDecimal(entrada));
+            borrador.setUsuario(leerPersona(entrada));
+            borrador.setSprint(leerSprint(entrada));
+            sesion.setCurrentTask(borrador);
+
+            int usuarios = entrada.readInt();
+            List<UserSession.Persona> personas = new ArrayList<>(usuarios);
+            for (int i = 0; i < usuarios; i++) {
+                personas.add(leerPersona(entrada));
+            }
+            sesion.setAvailableUsers(personas);
+            int sprints = entrada.readInt();
+            List<UserSession.SprintOpcion> opciones = new ArrayList<>(sprints);
+            for (int i = 0; i < sprints; i++) {
+                opciones.add(leerSprint(entrada));
+            }
+            sesion.setAvailableSprints(opciones);
+
+            sesion.setCurrentPage(entrada.readInt());
+            sesion.setTaskToFinish(entrada.readInt());
+            int tareas = entrada.readInt();
+            List<UserSession.FilaTarea> filas = new ArrayList<>(tareas);
+            for (int i = 0; i < tareas; i++) {
+                filas.add(new UserSession.FilaTarea(entrada.readInt(), leerTexto(entrada), leerTexto(entrada),
+                        leerTexto(entrada), leerTexto(entrada), leerTexto(entrada), leerTexto(entrada),
+                        leerDecimal(entrada), leerDecimal(entrada),
+                        entrada.readBoolean() ? new Date(entrada.readLong()) : null));
+            }
+            sesion.setCurrentTaskList(filas);
+            return sesion;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Sesión guardada ilegible", e);
+        }
+    }
+
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        salida.writeBoolean(texto != null);
+        if (texto != null) {
+            salida.writeUTF(texto);
+        }
+    }
+
+    private static String leerTexto(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+
+    private static void escribirDecimal(DataOutputStream salida, Double valor) throws IOException {
+        salida.writeBoolean(valor != null);
+        if (valor != null) {
+            salida.writeDouble(valor);
+        }
+    }
+
+    private static Double leerDecimal(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readDouble() : null;
+    }
+
+    private static void escribirPersona(DataOutputStream salida, UserSession.Persona persona) throws IOException {
+        salida.writeBoolean(persona != null);
+        if (persona != null) {
+            salida.writeInt(persona.getUserId());
+            escribirTexto(salida, persona.getFirstName());
+            escribirTexto(salida, persona.getLastName());
+        }
+    }
+
+    private static UserSession.Persona leerPersona(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean()
+                ? new UserSession.Persona(entrada.readInt(), leerTexto(entrada), leerTexto(entrada))
+                : null;
+    }
+
+    private static void escribirSprint(DataOutputStream salida, UserSession.SprintOpcion sprint) throws IOException {
+        salida.writeBoolean(sprint != null);
+        if (sprint != null) {
+            salida.writeInt(sprint.getSprintId());
+            escribirTexto(salida, sprint.getName());
+        }
+    }
+
+    private static UserSession.SprintOpcion leerSprint(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? new UserSession.SprintOpcion(entrada.readInt(), leerTexto(entrada)) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.springboot.MyTodoList.bot;
+
+/**
+ * REPOSITORIO DE SESIONES DEL BOT
+ *
+ * Dónde vive la sesión de cada chat. TaskBotController la obtiene al empezar a procesar un
+ * update y la guarda al terminar; entre ambas llamadas solo la toca el trabajador del chat.
+ *
+ * - AlmacenSesiones: en memoria, acotado por inactividad y peso; se pierde al reiniciar
+ * - RepositorioSesionesJdbc: en la base de datos, compartido entre réplicas del bot
+ */
+public interface RepositorioSesiones {
+
+    /**
+     * Devuelve la sesión del chat, o una vacía si no existe o ya expiró
+     *
+     * @param chatId Chat de Telegram
+     * @return Sesión del chat
+     */
+    UserSession obtener(long chatId);
+
+    /**
+     * Guarda la sesión después de procesar un update del chat
+     *
+     * @param chatId Chat de Telegram
+     * @param sesion Sesión del chat
+     */
+    void guardar(long chatId, UserSession sesion);
+}
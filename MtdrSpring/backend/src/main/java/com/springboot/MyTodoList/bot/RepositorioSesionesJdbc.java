@@ -0,0 +1,373 @@
+package com.springboot.MyTodoList.bot;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import com.springboot.MyTodoList.dto.PersistenciaSesionesMetricasDTO;
+
+/**
+ * REPOSITORIO DE SESIONES EN LA BASE DE DATOS
+ *
+ * Guarda cada sesión en la tabla BOT_SESION (ver db/bot_sesion.sql) con el formato binario de
+ * FormatoSesion. Como el estado ya no vive en un solo proceso, varias réplicas del bot pueden
+ * atender el mismo chat y un reinicio no cierra las sesiones a medio flujo.
+ *
+ * Escrituras agrupadas: guardar() no escribe en la base; deja la sesión como pendiente y un hilo
+ * las escribe todas cada "coalescencia" milisegundos con un MERGE por lotes JDBC. Si un chat se
+ * guarda varias veces dentro de la ventana solo se escribe la última. Mientras está pendiente,
+ * esta réplica la lee de memoria; otra réplica puede ver la versión anterior durante esa ventana.
+ *
+ * Cada fila tiene un número de VERSION que aumenta en cada escritura. La réplica recuerda la
+ * versión que leyó o escribió por última vez de cada chat y el MERGE solo reemplaza la fila si
+ * sigue en esa versión (compare-and-set). Si otra réplica guardó el chat entretanto, la sesión
+ * pendiente de esta no se escribe: se registra como conflicto (la respuesta al usuario ya se
+ * envió, así que esa actualización se pierde) y la siguiente lectura vuelve a cargar la sesión
+ * de la base. Los relojes de las réplicas no intervienen en qué escritura gana.
+ *
+ * Si la base no responde las pendientes se conservan y se reintentan en la siguiente ventana,
+ * hasta un máximo de chats; los guardados de chats nuevos por encima de ese máximo se descartan.
+ * Las sesiones sin actividad durante el tiempo de inactividad se ignoran al leer y se borran
+ * periódicamente.
+ */
+public class RepositorioSesionesJdbc implements RepositorioSesiones {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositorioSesionesJdbc.class);
+
+    static final String LEER =
+            "SELECT DATOS, ACTUALIZADA, VERSION FROM BOT_SESION WHERE CHAT_ID = ?";
+    // La sesión no va en el USING: así Oracle la enlaza como BLOB y no como RAW de un SELECT
+    static final String ESCRIBIR =
+            "MERGE INTO BOT_SESION s USING (SELECT CAST(? AS NUMBER(19)) AS CHAT_ID FROM DUAL) n "
+                    + "ON (s.CHAT_ID = n.CHAT_ID) "
+                    + "WHEN MATCHED THEN UPDATE SET s.DATOS = ?, s.ACTUALIZADA = ?, s.VERSION = s.VERSION + 1 "
+                    + "WHERE s.VERSION = ? "
+                    + "WHEN NOT MATCHED THEN INSERT (CHAT_ID, DATOS, ACTUALIZADA, VERSION) VALUES (n.CHAT_ID, ?, ?, ?)";
+    static final String PURGAR =
+            "DELETE FROM BOT_SESION WHERE ACTUALIZADA < ?";
+
+    private static final int TAMANO_LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacciones;
+    private final Duration inactividad;
+    private final int maxPendientes;
+    private final Clock reloj;
+    private final Map<Long, Pendiente> pendientes = new ConcurrentHashMap<>();
+    /**
+     * Última versión de la fila de cada chat que esta réplica leyó o escribió
+     */
+    private final Cache<Long, Long> versiones;
+    private final ScheduledExecutorService programador;
+
+    private final LongAdder lecturas = new LongAdder();
+    private final LongAdder guardados = new LongAdder();
+    private final LongAdder escrituras = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder bytesEscritos = new LongAdder();
+    private final LongAdder purgadas = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+
+    /**
+     * @param jdbcTemplate Acceso a la base donde está BOT_SESION
+     * @param inactividad Tiempo sin updates tras el que una sesión se descarta
+     * @param coalescenciaMs Cada cuántos milisegundos se escriben las sesiones pendientes
+     * @param maxPendientes Chats que pueden quedar pendientes mientras la base no responde
+     */
+    public RepositorioSesionesJdbc(JdbcTemplate jdbcTemplate, Duration inactividad, long coalescenciaMs,
+                                   int maxPendientes) {
+        this(jdbcTemplate, inactividad, coalescenciaMs, maxPendientes, Clock.systemUTC());
+    }
+
+    RepositorioSesionesJdbc(JdbcTemplate jdbcTemplate, Duration inactividad, long coalescenciaMs,
+                            int maxPendientes, Clock reloj) {
+        if (coalescenciaMs < 1) {
+            throw new IllegalArgumentException("La ventana de coalescencia debe ser de al menos 1 ms");
+        }
+        if (maxPendientes < 1) {
+            throw new IllegalArgumentException("Debe admitirse al menos una sesión pendiente");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacciones = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.inactividad = inactividad;
+        this.maxPendientes = maxPendientes;
+        this.reloj = reloj;
+        this.versiones = Caffeine.newBuilder().expireAfterAccess(inactividad).build();
+        this.programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "bot-sesiones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::vaciarPendientes, coalescenciaMs, coalescenciaMs,
+                TimeUnit.MILLISECONDS);
+        long purgaMs = Math.max(60_000L, inactividad.toMillis() / 4);
+        programador.scheduleWithFixedDelay(this::purgarExpiradas, purgaMs, purgaMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lee la sesión del chat: la pendiente de esta réplica si la hay; si no, la de la base,
+     * recordando su versión para la siguiente escritura
+     *
+     * @param chatId Chat de Telegram
+     * @return Sesión del chat, o una vacía si no existe o expiró
+     * @throws DataAccessException Si la base no responde y el chat no tiene sesión pendiente
+     */
+    @Override
+    public UserSession obtener(long chatId) {
+        // vaciar() actualiza la versión antes de quitar la pendiente, así que si ya no está
+        // la fila que se lee a continuación es igual o más nueva que la versión recordada
+        Pendiente pendiente = pendientes.get(chatId);
+        if (pendiente != null) {
+            return FormatoSesion.leer(pendiente.datos);
+        }
+
+        lecturas.increment();
+        List<Fila> filas = jdbcTemplate.query(LEER,
+                (rs, numero) -> new Fila(rs.getBytes(1), rs.getTimestamp(2), rs.getLong(3)), chatId);
+        if (filas.isEmpty()) {
+            versiones.put(chatId, 0L);
+            return new UserSession();
+        }
+        Fila fila = filas.get(0);
+        // Una fila expirada también fija la versión: la siguiente escritura la reemplaza
+        versiones.put(chatId, fila.version);
+        if (fila.actualizada.before(Timestamp.from(reloj.instant().minus(inactividad)))) {
+            return new UserSession();
+        }
+        try {
+            return FormatoSesion.leer(fila.datos);
+        } catch (IllegalArgumentException e) {
+            logger.warn("La sesión guardada del chat " + chatId + " no se pudo leer; se empieza una nueva", e);
+            return new UserSession();
+        }
+    }
+
+    /**
+     * Deja la sesión pendiente de escribir en la siguiente ventana; reemplaza a la anterior
+     * pendiente del mismo chat. Si ya hay el máximo de chats pendientes, la de un chat nuevo
+     * se descarta.
+     *
+     * @param chatId Chat de Telegram
+     * @param sesion Sesión del chat
+     */
+    @Override
+    public void guardar(long chatId, UserSession sesion) {
+        guardados.increment();
+        Pendiente pendiente = new Pendiente(FormatoSesion.escribir(sesion), Timestamp.from(reloj.instant()));
+        if (pendientes.size() >= maxPendientes && pendientes.replace(chatId, pendiente) == null) {
+            descartadas.increment();
+            logger.warn("Hay {} sesiones del bot sin escribir; se descarta la del chat {}", maxPendientes, chatId);
+            return;
+        }
+        pendientes.put(chatId, pendiente);
+    }
+
+    /**
+     * Escribe en lotes todas las sesiones pendientes. Una sesión que se vuelve a guardar
+     * mientras se escribe sigue pendiente para la siguiente ventana. Las que la base rechaza
+     * porque otra réplica cambió su fila se descartan como conflictos.
+     *
+     * @return Sesiones escritas
+     * @throws DataAccessException Si la base rechaza un lote; sus sesiones siguen pendientes
+     */
+    synchronized int vaciar() {
+        List<Escritura> todas = new ArrayList<>(pendientes.size());
+        for (Map.Entry<Long, Pendiente> pendiente : pendientes.entrySet()) {
+            Long version = versiones.getIfPresent(pendiente.getKey());
+            todas.add(new Escritura(pendiente.getKey(), pendiente.getValue(), version == null ? 0 : version));
+        }
+
+        int escritas = 0;
+        for (int inicio = 0; inicio < todas.size(); inicio += TAMANO_LOTE) {
+            List<Escritura> lote = todas.subList(inicio, Math.min(inicio + TAMANO_LOTE, todas.size()));
+            int[] filas;
+            try {
+                filas = transacciones.execute(estado -> jdbcTemplate.batchUpdate(ESCRIBIR,
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                valores(ps, lote.get(i));
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return lote.size();
+                            }
+                        }));
+            } catch (DuplicateKeyException e) {
+                // Otra réplica insertó a la vez la fila de un chat nuevo: el lote se deshizo
+                // y se escribe fila por fila para saber cuál chocó
+                filas = escribirUnaPorUna(lote);
+            }
+
+            int aplicadas = 0;
+            for (int i = 0; i < lote.size(); i++) {
+                Escritura escritura = lote.get(i);
+                if (i < filas.length && filas[i] == 0) {
+                    // La pendiente venía de una versión que otra réplica ya reemplazó
+                    versiones.invalidate(escritura.chatId);
+                    pendientes.remove(escritura.chatId, escritura.pendiente);
+                    conflictos.increment();
+                    logger.warn("Otra réplica guardó antes la sesión del chat {}; se pierde la de esta réplica",
+                            escritura.chatId);
+                } else {
+                    versiones.put(escritura.chatId, escritura.version + 1);
+                    // Solo se quita si no se volvió a guardar mientras se escribía
+                    pendientes.remove(escritura.chatId, escritura.pendiente);
+                    bytesEscritos.add(escritura.pendiente.datos.length);
+                    aplicadas++;
+                }
+            }
+            lotes.increment();
+            escrituras.add(aplicadas);
+            escritas += aplicadas;
+        }
+        return escritas;
+    }
+
+    private int[] escribirUnaPorUna(List<Escritura> lote) {
+        int[] filas = new int[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            Escritura escritura = lote.get(i);
+            try {
+                filas[i] = jdbcTemplate.update(ESCRIBIR, ps -> valores(ps, escritura));
+            } catch (DuplicateKeyException e) {
+                filas[i] = 0;
+            }
+        }
+        return filas;
+    }
+
+    private static void valores(PreparedStatement ps, Escritura escritura) throws SQLException {
+        ps.setLong(1, escritura.chatId);
+        ps.setBytes(2, escritura.pendiente.datos);
+        ps.setTimestamp(3, escritura.pendiente.actualizada);
+        ps.setLong(4, escritura.version);
+        ps.setBytes(5, escritura.pendiente.datos);
+        ps.setTimestamp(6, escritura.pendiente.actualizada);
+        ps.setLong(7, escritura.version + 1);
+    }
+
+    /**
+     * Borra de la base las sesiones sin actividad durante el tiempo de inactividad
+     *
+     * @return Sesiones borradas
+     */
+    int purgar() {
+        int borradas = jdbcTemplate.update(PURGAR, Timestamp.from(reloj.instant().minus(inactividad)));
+        purgadas.add(borradas);
+        return borradas;
+    }
+
+    private void vaciarPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        try {
+            vaciar();
+        } catch (RuntimeException e) {
+            fallos.increment();
+            logger.error("No se pudieron guardar las sesiones del bot; se reintentará", e);
+        }
+    }
+
+    private void purgarExpiradas() {
+        try {
+            purgar();
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron borrar las sesiones expiradas del bot", e);
+        }
+    }
+
+    /**
+     * Obtiene las métricas actuales del repositorio
+     *
+     * @return Lecturas, guardados, escrituras agrupadas, fallos, conflictos y sesiones descartadas
+     */
+    public PersistenciaSesionesMetricasDTO getMetricas() {
+        return new PersistenciaSesionesMetricasDTO(pendientes.size(), lecturas.sum(), guardados.sum(),
+                escrituras.sum(), lotes.sum(), fallos.sum(), bytesEscritos.sum(), purgadas.sum(),
+                conflictos.sum(), descartadas.sum());
+    }
+
+    /**
+     * Detiene el hilo de escritura y escribe las sesiones que quedaban pendientes
+     */
+    public void cerrar() {
+        programador.shutdownNow();
+        try {
+            programador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            vaciar();
+        } catch (RuntimeException e) {
+            logger.error("Se perdieron " + pendientes.size() + " sesiones del bot al cerrar", e);
+        }
+    }
+
+    private static final class Pendiente {
+
+        private final byte[] datos;
+        private final Timestamp actualizada;
+
+        private Pendiente(byte[] datos, Timestamp actualizada) {
+            this.datos = datos;
+            this.actualizada = actualizada;
+        }
+    }
+
+    private static final class Fila {
+
+        private final byte[] datos;
+        private final Timestamp actualizada;
+        private final long version;
+
+        private Fila(byte[] datos, Timestamp actualizada, long version) {
+            this.datos = datos;
+            this.actualizada = actualizada;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Pendiente de un chat y versión de su fila sobre la que se escribe
+     */
+    private static final class Escritura {
+
+        private final long chatId;
+        private final Pendiente pendiente;
+        private final long version;
+
+        private Escritura(long chatId, Pendiente pendiente, long version) {
+            this.chatId = chatId;
+            this.pendiente = pendiente;
+            this.version = version;
+        }
+    }
+}
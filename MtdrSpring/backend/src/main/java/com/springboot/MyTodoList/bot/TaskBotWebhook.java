@@ -0,0 +1,114 @@
+package com.springboot.MyTodoList.bot;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.bots.TelegramWebhookBot;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import com.springboot.MyTodoList.controller.TaskBotController;
+
+/**
+ * BOT DE TAREAS EN MODO WEBHOOK
+ *
+ * En lugar de pedir updates con long polling, Telegram los envía por POST al endpoint
+ * /callback/{ruta} de este servidor (ver TelegramWebhookController). Cada petición se atiende en
+ * un hilo de Tomcat y el update pasa al mismo despachador y la misma máquina de estados de
+ * TaskBotController, así que ambos modos se comportan igual.
+ *
+ * Telegram incluye en cada petición el token secreto registrado con setWebhook; las peticiones
+ * sin ese token se rechazan. max_connections limita cuántas peticiones simultáneas abre Telegram.
+ */
+public class TaskBotWebhook extends TelegramWebhookBot {
+
+    private final TaskBotController bot;
+    private final String ruta;
+    private final String secreto;
+    private final String urlPublica;
+    private final int maxConexiones;
+
+    /**
+     * @param options Opciones del cliente de Telegram (la URL base de la API, entre otras)
+     * @param botToken Token del bot
+     * @param bot Bot cuya máquina de estados atiende los updates
+     * @param ruta Último segmento de la URL del webhook
+     * @param secreto Token que Telegram envía en X-Telegram-Bot-Api-Secret-Token
+     * @param urlPublica Dirección HTTPS por la que Telegram llega a este servidor
+     * @param maxConexiones Peticiones simultáneas que puede abrir Telegram (1 a 100)
+     */
+    public TaskBotWebhook(DefaultBotOptions options, String botToken, TaskBotController bot, String ruta,
+                          String secreto, String urlPublica, int maxConexiones) {
+        super(options, botToken);
+        if (secreto == null || secreto.isEmpty()) {
+            throw new IllegalArgumentException("El modo webhook necesita un token secreto");
+        }
+        if (maxConexiones < 1 || maxConexiones > 100) {
+            throw new IllegalArgumentException("max_connections debe estar entre 1 y 100");
+        }
+        this.bot = bot;
+        this.ruta = ruta;
+        this.secreto = secreto;
+        this.urlPublica = urlPublica;
+        this.maxConexiones = maxConexiones;
+    }
+
+    /**
+     * Registra el webhook en Telegram con el token secreto y el máximo de conexiones.
+     * Telegram deja de entregar updates por long polling mientras el webhook esté activo.
+     *
+     * @throws TelegramApiException Si Telegram rechaza el registro
+     */
+    public void registrar() throws TelegramApiException {
+        setWebhook(SetWebhook.builder()
+                .url(urlPublica)
+                .secretToken(secreto)
+                .maxConnections(maxConexiones)
+                .allowedUpdates(List.of("message"))
+                .build());
+    }
+
+    /**
+     * Compara en tiempo constante el token recibido con el registrado
+     *
+     * @param recibido Valor del encabezado X-Telegram-Bot-Api-Secret-Token
+     * @return true si coincide
+     */
+    public boolean secretoValido(String recibido) {
+        return recibido != null && MessageDigest.isEqual(
+                secreto.getBytes(StandardCharsets.UTF_8), recibido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Entrega un update a la máquina de estados del bot
+     *
+     * @param update Update recibido por el webhook
+     * @return true si se aceptó, false si la cola de su chat estaba llena
+     */
+    public boolean recibir(Update update) {
+        return bot.recibir(update);
+    }
+
+    /**
+     * Las respuestas salen por la cola de envíos del bot, no en la respuesta del webhook
+     */
+    @Override
+    public BotApiMethod<?> onWebhookUpdateReceived(Update update) {
+        recibir(update);
+        return null;
+    }
+
+    @Override
+    public String getBotUsername() {
+        return bot.getBotUsername();
+    }
+
+    @Override
+    public String getBotPath() {
+        return ruta;
+    }
+}
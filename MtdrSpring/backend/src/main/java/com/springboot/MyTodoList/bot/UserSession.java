@@ -0,0 +1,436 @@
+package com.springboot.MyTodoList.bot;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.Usuario;
+
+/**
+ * SESIÓN DE UN CHAT DEL BOT
+ *
+ * Guarda solo IDs y los textos que el bot muestra, nunca entidades: una entidad arrastra sus
+ * relaciones (el sprint con sus tareas, el usuario con su hash) y la memoria de cada sesión
+ * dependería de lo que Hibernate hubiera cargado. Cuando un paso necesita la entidad completa
+ * (finalizar una tarea) la vuelve a leer por su ID.
+ *
+ * pesoEstimado() aproxima los bytes que ocupa la sesión en el heap; AlmacenSesiones lo usa para
+ * acotar la memoria total de las sesiones.
+ */
+public class UserSession {
+
+    // Cabecera de objeto más referencias de un objeto pequeño, y de un String vacío
+    private static final int BYTES_OBJETO = 32;
+    private static final int BYTES_STRING = 40;
+
+    private BotState state = BotState.NONE;
+    private TareaBorrador currentTask = new TareaBorrador();
+    private List<Persona> availableUsers = new ArrayList<>();
+    private List<SprintOpcion> availableSprints = new ArrayList<>();
+    private int currentPage = 0;
+    private List<FilaTarea> currentTaskList = new ArrayList<>();
+    private int taskToFinish;
+    private Persona authenticatedUser;
+
+    public BotState getState() {
+        return state;
+    }
+
+    public void setState(BotState state) {
+        this.state = state;
+    }
+
+    public TareaBorrador getCurrentTask() {
+        return currentTask;
+    }
+
+    public void setCurrentTask(TareaBorrador currentTask) {
+        this.currentTask = currentTask;
+    }
+
+    public List<Persona> getAvailableUsers() {
+        return availableUsers;
+    }
+
+    public void setAvailableUsers(List<Persona> availableUsers) {
+        this.availableUsers = availableUsers;
+    }
+
+    public List<SprintOpcion> getAvailableSprints() {
+        return availableSprints;
+    }
+
+    public void setAvailableSprints(List<SprintOpcion> availableSprints) {
+        this.availableSprints = availableSprints;
+    }
+
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    public void setCurrentPage(int currentPage) {
+        this.currentPage = currentPage;
+    }
+
+    public List<FilaTarea> getCurrentTaskList() {
+        return currentTaskList;
+    }
+
+    public void setCurrentTaskList(List<FilaTarea> currentTaskList) {
+        this.currentTaskList = currentTaskList;
+    }
+
+    public int getTaskToFinish() {
+        return taskToFinish;
+    }
+
+    public void setTaskToFinish(int taskToFinish) {
+        this.taskToFinish = taskToFinish;
+    }
+
+    public boolean isAuthenticated() {
+        return authenticatedUser != null;
+    }
+
+    public Persona getAuthenticatedUser() {
+        return authenticatedUser;
+    }
+
+    public void setAuthenticatedUser(Persona authenticatedUser) {
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    public void clearAuthentication() {
+        this.authenticatedUser = null;
+    }
+
+    /**
+     * Bytes aproximados de la sesión: objetos, referencias de las listas y caracteres de los textos
+     *
+     * @return Peso estimado en bytes
+     */
+    public int pesoEstimado() {
+        int peso = 3 * BYTES_OBJETO + currentTask.pesoEstimado();
+        if (authenticatedUser != null) {
+            peso += authenticatedUser.pesoEstimado();
+        }
+        for (Persona persona : availableUsers) {
+            peso += 8 + persona.pesoEstimado();
+        }
+        for (SprintOpcion sprint : availableSprints) {
+            peso += 8 + sprint.pesoEstimado();
+        }
+        for (FilaTarea fila : currentTaskList) {
+            peso += 8 + fila.pesoEstimado();
+        }
+        return peso;
+    }
+
+    static int pesoTexto(String texto) {
+        return texto == null ? 0 : BYTES_STRING + 2 * texto.length();
+    }
+
+    /**
+     * Usuario con sesión iniciada, o candidato a responsable de una tarea
+     */
+    public static class Persona {
+
+        private final int userId;
+        private final String firstName;
+        private final String lastName;
+
+        public Persona(int userId, String firstName, String lastName) {
+            this.userId = userId;
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+        public static Persona de(Usuario usuario) {
+            return new Persona(usuario.getUserId(), usuario.getFirstName(), usuario.getLastName());
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        int pesoEstimado() {
+            return BYTES_OBJETO + pesoTexto(firstName) + pesoTexto(lastName);
+        }
+    }
+
+    /**
+     * Sprint ofrecido al crear una tarea
+     */
+    public static class SprintOpcion {
+
+        private final int sprintId;
+        private final String name;
+
+        public SprintOpcion(int sprintId, String name) {
+            this.sprintId = sprintId;
+            this.name = name;
+        }
+
+        public static SprintOpcion de(Sprint sprint) {
+            return new SprintOpcion(sprint.getSprintId(), sprint.getName());
+        }
+
+        public int getSprintId() {
+            return sprintId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        int pesoEstimado() {
+            return BYTES_OBJETO + pesoTexto(name);
+        }
+    }
+
+    /**
+     * Tarea que se está creando paso a paso. Responsable y sprint se guardan por ID y nombre;
+     * aTarea() arma la entidad al final con referencias que solo llevan esos datos.
+     */
+    public static class TareaBorrador {
+
+        private String title;
+        private String description;
+        private String status;
+        private String priority;
+        private String type;
+        private int storyPoints;
+        private Double estimatedHours;
+        private Double actualHours;
+        private Persona usuario;
+        private SprintOpcion sprint;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public void setPriority(String priority) {
+            this.priority = priority;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public int getStoryPoints() {
+            return storyPoints;
+        }
+
+        public void setStoryPoints(int storyPoints) {
+            this.storyPoints = storyPoints;
+        }
+
+        public Double getEstimatedHours() {
+            return estimatedHours;
+        }
+
+        public void setEstimatedHours(Double estimatedHours) {
+            this.estimatedHours = estimatedHours;
+        }
+
+        public Double getActualHours() {
+            return actualHours;
+        }
+
+        public void setActualHours(Double actualHours) {
+            this.actualHours = actualHours;
+        }
+
+        public Persona getUsuario() {
+            return usuario;
+        }
+
+        public void setUsuario(Persona usuario) {
+            this.usuario = usuario;
+        }
+
+        public SprintOpcion getSprint() {
+            return sprint;
+        }
+
+        public void setSprint(SprintOpcion sprint) {
+            this.sprint = sprint;
+        }
+
+        /**
+         * Arma la tarea a guardar: empieza hoy y vence en 7 días
+         *
+         * @return Tarea nueva con el responsable y el sprint referenciados por ID
+         */
+        public Tarea aTarea() {
+            Tarea tarea = new Tarea();
+            tarea.setTitle(title);
+            tarea.setDescription(description);
+            tarea.setStatus(status);
+            tarea.setPriority(priority);
+            tarea.setType(type);
+            tarea.setStoryPoints(storyPoints);
+            tarea.setEstimatedHours(estimatedHours);
+            tarea.setActualHours(actualHours);
+
+            Calendar cal = Calendar.getInstance();
+            tarea.setStartDate(cal.getTime());
+            cal.add(Calendar.DAY_OF_MONTH, 7);
+            tarea.setEndDate(cal.getTime());
+
+            if (usuario != null) {
+                Usuario responsable = new Usuario();
+                responsable.setUserId(usuario.getUserId());
+                responsable.setFirstName(usuario.getFirstName());
+                responsable.setLastName(usuario.getLastName());
+                tarea.setUsuario(responsable);
+            }
+            if (sprint != null) {
+                Sprint referencia = new Sprint();
+                referencia.setSprintId(sprint.getSprintId());
+                referencia.setName(sprint.getName());
+                tarea.setSprint(referencia);
+            }
+            return tarea;
+        }
+
+        int pesoEstimado() {
+            return 2 * BYTES_OBJETO + pesoTexto(title) + pesoTexto(description) + pesoTexto(status)
+                    + pesoTexto(priority) + pesoTexto(type);
+        }
+    }
+
+    /**
+     * Fila de la lista de tareas paginada: lo que el bot muestra de cada tarea
+     */
+    public static class FilaTarea {
+
+        private final int taskId;
+        private final String title;
+        private final String status;
+        private final String priority;
+        private final String firstName;
+        private final String lastName;
+        private final String sprintName;
+        private final Double estimatedHours;
+        private final Double actualHours;
+        private final long endDate;
+
+        public FilaTarea(int taskId, String title, String status, String priority, String firstName,
+                         String lastName, String sprintName, Double estimatedHours, Double actualHours,
+                         Date endDate) {
+            this.taskId = taskId;
+            this.title = title;
+            this.status = status;
+            this.priority = priority;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.sprintName = sprintName;
+            this.estimatedHours = estimatedHours;
+            this.actualHours = actualHours;
+            this.endDate = endDate == null ? Long.MIN_VALUE : endDate.getTime();
+        }
+
+        public static FilaTarea de(Tarea tarea) {
+            Usuario usuario = tarea.getUsuario();
+            Sprint sprint = tarea.getSprint();
+            return new FilaTarea(tarea.getTaskId(), tarea.getTitle(), tarea.getStatus(), tarea.getPriority(),
+                    usuario == null ? null : usuario.getFirstName(),
+                    usuario == null ? null : usuario.getLastName(),
+                    sprint == null ? null : sprint.getName(),
+                    tarea.getEstimatedHours(), tarea.getActualHours(), tarea.getEndDate());
+        }
+
+        public static List<FilaTarea> de(List<Tarea> tareas) {
+            List<FilaTarea> filas = new ArrayList<>(tareas.size());
+            for (Tarea tarea : tareas) {
+                filas.add(de(tarea));
+            }
+            return filas;
+        }
+
+        public int getTaskId() {
+            return taskId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getSprintName() {
+            return sprintName;
+        }
+
+        public Double getEstimatedHours() {
+            return estimatedHours;
+        }
+
+        public Double getActualHours() {
+            return actualHours;
+        }
+
+        public Date getEndDate() {
+            return endDate == Long.MIN_VALUE ? null : new Date(endDate);
+        }
+
+        int pesoEstimado() {
+            return 3 * BYTES_OBJETO + pesoTexto(title) + pesoTexto(status) + pesoTexto(priority)
+                    + pesoTexto(firstName) + pesoTexto(lastName) + pesoTexto(sprintName);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * CONFIGURACIÓN DEL BOT DE TELEGRAM
+ *
+ * Define el despachador que reparte los updates del bot entre trabajadores por chat y la
+ * cola por la que salen sus mensajes. El número de trabajadores limita cuántos chats se
+ * atienden a la vez (y cuántas conexiones del pool puede ocupar el bot); los límites de
+ * envío siguen los de Telegram: unos 30 mensajes por segundo en total y 1 por segundo por chat.
+ * Las sesiones de los chats se guardan en memoria, acotadas por inactividad y por peso, o en
+ * la base de datos para compartirlas entre réplicas (bot.sesiones.almacen=jdbc).
+ * Con telegram.bot.modo=webhook define además el bot que recibe los updates por HTTP.
+ */
+package com.springboot.MyTodoList.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+
+import com.springboot.MyTodoList.bot.AlmacenSesiones;
+import com.springboot.MyTodoList.bot.ColaEnvios;
+import com.springboot.MyTodoList.bot.DespachadorUpdates;
+import com.springboot.MyTodoList.bot.RepositorioSesiones;
+import com.springboot.MyTodoList.bot.RepositorioSesionesJdbc;
+import com.springboot.MyTodoList.bot.TaskBotWebhook;
+import com.springboot.MyTodoList.controller.TaskBotController;
+import com.springboot.MyTodoList.service.SprintService;
+import com.springboot.MyTodoList.service.TareaService;
+import com.springboot.MyTodoList.service.UsuarioService;
+
+@Configuration
+public class BotConfig {
+
+    /**
+     * DESPACHADOR DE UPDATES
+     *
+     * - "bot.despachador.trabajadores" hilos (por defecto 8); cada chat siempre cae en el mismo
+     * - Cola acotada de "bot.despachador.capacidad-cola" updates por hilo (por defecto 100)
+     * - Con la cola llena se espera hasta "bot.despachador.espera-maxima-ms" (por defecto 2000)
+     *   antes de descartar el update
+     *
+     * @return Despachador usado por TaskBotController
+     */
+    @Bean(destroyMethod = "cerrar")
+    public DespachadorUpdates despachadorUpdates(
+            @Value("${bot.despachador.trabajadores:8}") int trabajadores,
+            @Value("${bot.despachador.capacidad-cola:100}") int capacidadCola,
+            @Value("${bot.despachador.espera-maxima-ms:2000}") long esperaMaximaMs) {
+        return new DespachadorUpdates(trabajadores, capacidadCola, esperaMaximaMs);
+    }
+
+    /**
+     * COLA DE ENVÍOS
+     *
+     * - "bot.envios.por-segundo" mensajes por segundo para todo el bot (por defecto 30)
+     * - Ráfaga de "bot.envios.rafaga-chat" mensajes por chat (por defecto 5) y luego
+     *   "bot.envios.por-segundo-chat" por segundo (por defecto 1)
+     * - Hasta "bot.envios.capacidad-chat" mensajes pendientes por chat (por defecto 50)
+     * - Hasta "bot.envios.reintentos" reintentos de un mensaje que recibió 429 (por defecto 3)
+     *
+     * @return Cola de envíos usada por TaskBotController
+     */
+    @Bean(destroyMethod = "cerrar")
+    public ColaEnvios colaEnvios(
+            @Value("${bot.envios.por-segundo:30}") int porSegundo,
+            @Value("${bot.envios.rafaga-chat:5}") int rafagaChat,
+            @Value("${bot.envios.por-segundo-chat:1}") double porSegundoChat,
+            @Value("${bot.envios.capacidad-chat:50}") int capacidadChat,
+            @Value("${bot.envios.reintentos:3}") int reintentos) {
+        return new ColaEnvios(porSegundo, rafagaChat, porSegundoChat, capacidadChat, reintentos);
+    }
+
+    /**
+     * ALMACÉN DE SESIONES
+     *
+     * - Existe con "bot.sesiones.almacen=memoria" (por defecto); las sesiones se pierden al reiniciar
+     * - Una sesión sin updates durante "bot.sesiones.inactividad" se descarta (por defecto 2h)
+     * - El peso estimado de todas las sesiones no pasa de "bot.sesiones.max-bytes"
+     *   (por defecto 16MB); al llenarse se descartan las menos usadas
+     *
+     * @return Almacén de sesiones usado por TaskBotController
+     */
+    @Bean
+    @ConditionalOnProperty(name = "bot.sesiones.almacen", havingValue = "memoria", matchIfMissing = true)
+    public AlmacenSesiones almacenSesiones(
+            @Value("${bot.sesiones.inactividad:2h}") Duration inactividad,
+            @Value("${bot.sesiones.max-bytes:16MB}") DataSize maxBytes) {
+        return new AlmacenSesiones(inactividad, maxBytes.toBytes());
+    }
+
+    /**
+     * SESIONES EN LA BASE DE DATOS
+     *
+     * - Solo existe con "bot.sesiones.almacen=jdbc"; necesita la tabla de db/bot_sesion.sql
+     * - Las sesiones guardadas se escriben en lotes cada "bot.sesiones.coalescencia-ms"
+     *   (por defecto 100); si un chat se guarda varias veces en ese tiempo se escribe una vez
+     * - Una sesión sin updates durante "bot.sesiones.inactividad" se ignora y se borra
+     * - Si la base no responde quedan pendientes a lo sumo "bot.sesiones.max-pendientes" chats
+     *
+     * @return Repositorio de sesiones compartido por las réplicas del bot
+     */
+    @Bean(destroyMethod = "cerrar")
+    @ConditionalOnProperty(name = "bot.sesiones.almacen", havingValue = "jdbc")
+    public RepositorioSesionesJdbc repositorioSesionesJdbc(
+            JdbcTemplate jdbcTemplate,
+            @Value("${bot.sesiones.inactividad:2h}") Duration inactividad,
+            @Value("${bot.sesiones.coalescencia-ms:100}") long coalescenciaMs,
+            @Value("${bot.sesiones.max-pendientes:10000}") int maxPendientes) {
+        return new RepositorioSesionesJdbc(jdbcTemplate, inactividad, coalescenciaMs, maxPendientes);
+    }
+
+    /**
+     * BOT EN MODO WEBHOOK
+     *
+     * - Solo existe con "telegram.bot.modo=webhook"; si no, el bot usa long polling
+     * - Telegram entrega los updates en "telegram.webhook.url" + /callback/ + "telegram.webhook.ruta"
+     * - "telegram.webhook.secreto" es obligatorio: sin él el arranque falla
+     * - "telegram.webhook.max-conexiones" peticiones simultáneas de Telegram (por defecto 40)
+     *
+     * @return Bot registrado por MyTodoListApplication y usado por TelegramWebhookController
+     */
+    @Bean
+    @ConditionalOnProperty(name = "telegram.bot.modo", havingValue = "webhook")
+    public TaskBotWebhook taskBotWebhook(
+            @Value("${telegram.bot.token}") String botToken,
+            @Value("${telegram.bot.name}") String botName,
+            @Value("${telegram.webhook.url}") String url,
+            @Value("${telegram.webhook.ruta:chisops}") String ruta,
+            @Value("${telegram.webhook.secreto}") String secreto,
+            @Value("${telegram.webhook.max-conexiones:40}") int maxConexiones,
+            TareaService tareaService, UsuarioService usuarioService, SprintService sprintService,
+            DespachadorUpdates despachadorUpdates, ColaEnvios colaEnvios, RepositorioSesiones repositorioSesiones) {
+        TaskBotController bot = new TaskBotController(botToken, botName, tareaService, usuarioService,
+                sprintService, despachadorUpdates, colaEnvios, repositorioSesiones);
+        return new TaskBotWebhook(new DefaultBotOptions(), botToken, bot, ruta, secreto, url, maxConexiones);
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * CONFIGURACIÓN DE LA CACHÉ DE SEGUNDO NIVEL
+ *
+ * Usuario, Sprint y Proyecto se leen en casi todas las operaciones y cambian poco, así que
+ * Hibernate guarda sus filas (y el resultado de sus listados más usados) en una caché JCache
+ * respaldada por Caffeine. Cada región tiene un tamaño máximo y un tiempo de vida, de modo que
+ * la memoria está acotada y un cambio hecho fuera de la aplicación deja de verse a lo sumo
+ * después del tiempo de vida.
+ *
+ * Las escrituras de los servicios invalidan solas: save actualiza la entrada de la entidad
+ * (estrategia READ_WRITE) y los UPDATE masivos en JPQL vacían la región de la entidad y
+ * marcan su tabla, lo que descarta los resultados de consultas guardados que la usan.
+ */
+package com.springboot.MyTodoList.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Usuario;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Región de los listados de usuarios, sprints y proyectos marcados como cacheables
+     */
+    public static final String REGION_CONSULTAS = "consultas-referencia";
+
+    /**
+     * Entidades con caché; la región de cada una se llama como su clase
+     */
+    public static final List<Class<?>> ENTIDADES = Arrays.asList(Usuario.class, Sprint.class, Proyecto.class);
+
+    /**
+     * ADMINISTRADOR DE CACHÉS DE HIBERNATE
+     *
+     * - Una región por entidad de "cache.entidades.max-size" filas (por defecto 10000)
+     *   que viven "cache.entidades.ttl" (por defecto 10 minutos)
+     * - Regiones de consultas de "cache.consultas.max-size" resultados (por defecto 1000)
+     *   que viven "cache.consultas.ttl" (por defecto 5 minutos)
+     * - Las marcas de actualización por tabla no expiran ni se desalojan: si se perdieran
+     *   antes que los resultados que invalidan, una consulta podría devolver datos viejos.
+     *   Guardan una entrada por tabla, así que su tamaño lo acota el esquema
+     *
+     * Todas las regiones se crean aquí y Hibernate falla al arrancar si falta alguna,
+     * así que ninguna región se crea con la configuración por defecto del proveedor.
+     *
+     * @return Administrador JCache propio de este contexto
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${cache.entidades.max-size:10000}") long maxEntidades,
+            @Value("${cache.entidades.ttl:10m}") Duration ttlEntidades,
+            @Value("${cache.consultas.max-size:1000}") long maxConsultas,
+            @Value("${cache.consultas.ttl:5m}") Duration ttlConsultas) {
+        // Un URI único por contexto: el proveedor comparte los administradores por URI
+        // y dos contextos (por ejemplo, en las pruebas) no deben ver las filas del otro
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("chisops-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (Class<?> entidad : ENTIDADES) {
+            cacheManager.createCache(entidad.getName(), region(maxEntidades, ttlEntidades));
+        }
+        cacheManager.createCache(REGION_CONSULTAS, region(maxConsultas, ttlConsultas));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(maxConsultas, ttlConsultas));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(null, null));
+        return cacheManager;
+    }
+
+    /**
+     * Activa la caché de entidades y de consultas con el administrador anterior
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager hibernateCacheManager) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put(AvailableSettings.JPA_SHARED_CACHE_MODE, "ENABLE_SELECTIVE");
+            propiedades.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * @param maximo Entradas máximas, o null para no desalojar
+     * @param ttl Tiempo de vida de cada entrada, o null para que no expiren
+     */
+    private static CaffeineConfiguration<Object, Object> region(Long maximo, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        if (maximo != null) {
+            configuracion.setMaximumSize(OptionalLong.of(maximo));
+        }
+        if (ttl != null) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuracion.setStatisticsEnabled(true);
+        return configuracion;
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * CONFIGURACIÓN DEL EJECUTOR DEL TABLERO
+ * 
+ * Define el pool de hilos acotado en el que el tablero del Home ejecuta
+ * sus consultas agregadas en paralelo. El tamaño del pool y de la cola
+ * limitan cuántas conexiones puede ocupar una sola carga del Home.
+ */
+package com.springboot.MyTodoList.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class DashboardExecutorConfig {
+
+    /**
+     * EJECUTOR DEL TABLERO
+     * 
+     * - Pool fijo de "dashboard.executor.pool-size" hilos (por defecto 4)
+     * - Cola acotada de "dashboard.executor.queue-capacity" tareas (por defecto 50)
+     * - Si la cola se llena, la subconsulta corre en el hilo que la pidió (CallerRunsPolicy)
+     *   en lugar de crear más hilos o rechazar la petición
+     * 
+     * @return Ejecutor usado por DashboardService
+     */
+    @Bean(name = "dashboardExecutor")
+    public ThreadPoolTaskExecutor dashboardExecutor(
+            @Value("${dashboard.executor.pool-size:4}") int poolSize,
+            @Value("${dashboard.executor.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -4,13 +4,17 @@
  * Esta clase configura el DataSource para la conexión a Oracle Database.
  * Puede usar variables de entorno del contenedor Docker para entornos de producción
  * o la configuración local desde DbSettings para pruebas locales.
+ * Las conexiones se obtienen de un pool UCP configurado con las propiedades
+ * spring.datasource.oracleucp.* (tamaño, validación, caché de sentencias, prefetch y espera).
  * 
  * @author: peter.song@oracle.com
  */
 package com.springboot.MyTodoList.config;
 
 
-import oracle.jdbc.pool.OracleDataSource;
+import oracle.jdbc.OracleConnection;
+import oracle.ucp.jdbc.PoolDataSource;
+import oracle.ucp.jdbc.PoolDataSourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +28,11 @@ import java.sql.SQLException;
 
 @Configuration
 public class OracleConfiguration {
+    /**
+     * Prefijo de las propiedades del pool UCP en application.properties
+     */
+    static final String UCP = "spring.datasource.oracleucp.";
+
     Logger logger = LoggerFactory.getLogger(DbSettings.class);
     @Autowired
     private DbSettings dbSettings;
@@ -33,20 +42,21 @@ public class OracleConfiguration {
     /**
      * CREAR DATA SOURCE PARA ORACLE
      * 
-     * Configura y devuelve un OracleDataSource con los parámetros de conexión.
-     * Actualmente usa variables de entorno del sistema/contenedor.
+     * Configura y devuelve un pool de conexiones UCP (PoolDataSource) con los parámetros de conexión.
+     * Actualmente usa variables de entorno del sistema/contenedor para URL y credenciales.
      * También incluye (comentado) código para usar configuración local de pruebas.
-     * Registra información de conexión en logs para diagnóstico.
+     * Registra información de conexión y del pool en logs para diagnóstico.
      * 
      * @return DataSource configurado para Oracle
      * @throws SQLException si ocurre un error en la configuración del datasource
      */
     @Bean
     public DataSource dataSource() throws SQLException{
-        OracleDataSource ds = new OracleDataSource();
+        PoolDataSource ds = PoolDataSourceFactory.getPoolDataSource();
+        ds.setConnectionFactoryClassName(env.getProperty(UCP + "connection-factory-class-name",
+                "oracle.jdbc.pool.OracleDataSource"));
         // Configuración usando variables de entorno (para producción/Docker)
-        ds.setDriverType(env.getProperty("driver_class_name"));
-        logger.info("Using Driver " + env.getProperty("driver_class_name"));
+        logger.info("Using connection factory " + ds.getConnectionFactoryClassName());
         ds.setURL(env.getProperty("db_url"));
         logger.info("Using URL: " + env.getProperty("db_url"));
         ds.setUser(env.getProperty("db_user"));
@@ -54,7 +64,6 @@ public class OracleConfiguration {
         ds.setPassword(env.getProperty("dbpassword"));
         
 //        // Configuración para pruebas locales (comentada)
-//        ds.setDriverType(dbSettings.getDriver_class_name());
 //        logger.info("Using Driver " + dbSettings.getDriver_class_name());
 //        ds.setURL(dbSettings.getUrl());
 //        logger.info("Using URL: " + dbSettings.getUrl());
@@ -62,6 +71,38 @@ public class OracleConfiguration {
 //        logger.info("Using Username: " + dbSettings.getUsername());
 //        ds.setPassword(dbSettings.getPassword());
         
+        configurarPool(ds);
         return ds;
     }
-}
\ No newline at end of file
+
+    /**
+     * CONFIGURAR POOL UCP
+     * 
+     * Aplica al pool los valores de spring.datasource.oracleucp.*:
+     * - Tamaño: initial-pool-size, min-pool-size, max-pool-size
+     * - Validación al prestar una conexión: validate-connection-on-borrow, sql-for-validate-connection
+     * - Caché de sentencias por conexión: max-statements
+     * - Filas que trae cada viaje a la base: row-prefetch
+     * - Segundos que se espera una conexión libre antes de fallar: connection-wait-timeout
+     * - Segundos antes de cerrar una conexión ociosa: inactive-connection-timeout
+     * 
+     * @param ds Pool a configurar
+     * @throws SQLException si UCP rechaza algún valor
+     */
+    void configurarPool(PoolDataSource ds) throws SQLException {
+        ds.setConnectionPoolName(env.getProperty(UCP + "connection-pool-name", "connectionPoolName1"));
+        ds.setInitialPoolSize(env.getProperty(UCP + "initial-pool-size", Integer.class, 15));
+        ds.setMinPoolSize(env.getProperty(UCP + "min-pool-size", Integer.class, 10));
+        ds.setMaxPoolSize(env.getProperty(UCP + "max-pool-size", Integer.class, 30));
+        ds.setValidateConnectionOnBorrow(env.getProperty(UCP + "validate-connection-on-borrow", Boolean.class, true));
+        ds.setSQLForValidateConnection(env.getProperty(UCP + "sql-for-validate-connection", "select 1 from dual"));
+        ds.setMaxStatements(env.getProperty(UCP + "max-statements", Integer.class, 50));
+        ds.setConnectionWaitTimeout(env.getProperty(UCP + "connection-wait-timeout", Integer.class, 10));
+        ds.setInactiveConnectionTimeout(env.getProperty(UCP + "inactive-connection-timeout", Integer.class, 300));
+        ds.setConnectionProperty(OracleConnection.CONNECTION_PROPERTY_DEFAULT_ROW_PREFETCH,
+                env.getProperty(UCP + "row-prefetch", "50"));
+        logger.info("UCP pool " + ds.getConnectionPoolName() + ": initial=" + ds.getInitialPoolSize()
+                + " min=" + ds.getMinPoolSize() + " max=" + ds.getMaxPoolSize()
+                + " maxStatements=" + ds.getMaxStatements() + " waitTimeout=" + ds.getConnectionWaitTimeout() + "s");
+    }
+}
@@ -0,0 +1,55 @@
+package com.springboot.MyTodoList.controller;
+
+import com.springboot.MyTodoList.service.IndiceBusqueda;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CONTROLADOR REST PARA LA BÚSQUEDA GENERAL
+ *
+ * Este controlador expone una sola búsqueda sobre tareas, proyectos, sprints y usuarios
+ * Utiliza el índice en memoria IndiceBusqueda, así que no consulta la base de datos por cada búsqueda
+ */
+@RestController
+public class BusquedaController {
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    /**
+     * BUSCAR EN TODO EL SISTEMA
+     *
+     * Devuelve los elementos activos que contienen todas las palabras de la consulta, ordenados
+     * por relevancia (primero las coincidencias en el título y las palabras completas).
+     * No distingue mayúsculas ni acentos: "planeacion" encuentra "Planeación".
+     * tipos es una lista opcional separada por comas (tarea, proyecto, sprint, usuario).
+     * Retorna estado 400 (BAD REQUEST) si algún tipo no es válido
+     * Endpoint: GET /buscar?q={texto}&tipos={tipos}&offset={n}&limit={n}
+     */
+    //@CrossOrigin
+    @GetMapping(value = "/buscar")
+    public ResponseEntity<?> buscar(@RequestParam(defaultValue = "") String q,
+                                    @RequestParam(required = false) List<String> tipos,
+                                    @RequestParam(defaultValue = "0") int offset,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Set<IndiceBusqueda.Tipo> filtro = EnumSet.noneOf(IndiceBusqueda.Tipo.class);
+            if (tipos != null) {
+                for (String tipo : tipos) {
+                    if (!tipo.trim().isEmpty()) {
+                        filtro.add(IndiceBusqueda.Tipo.desde(tipo));
+                    }
+                }
+            }
+            return new ResponseEntity<>(indiceBusqueda.buscar(q, filtro, offset, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.springboot.MyTodoList.controller;
+
+import com.springboot.MyTodoList.dto.CompletadosUsuarioDTO;
+import com.springboot.MyTodoList.dto.HomeDashboardDTO;
+import com.springboot.MyTodoList.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * CONTROLADOR REST DEL TABLERO
+ * 
+ * Este controlador expone los datos agregados que consumen los widgets del Home
+ * Utiliza el servicio DashboardService para delegar los cálculos
+ */
+@RestController
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    /**
+     * TAREAS COMPLETADAS POR USUARIO
+     * 
+     * Devuelve por usuario el número de tareas completadas, el total y el desglose por estado
+     * Se puede limitar a un proyecto o a un sprint con los parámetros opcionales
+     * Endpoint: GET /dashboard/completados-por-usuario?proyectoId={id}&sprintId={id}
+     */
+    @GetMapping(value = "/dashboard/completados-por-usuario")
+    public List<CompletadosUsuarioDTO> getCompletadosPorUsuario(
+            @RequestParam(required = false) Integer proyectoId,
+            @RequestParam(required = false) Integer sprintId) {
+        return dashboardService.getCompletadosPorUsuario(proyectoId, sprintId);
+    }
+
+    /**
+     * DATOS DEL HOME
+     * 
+     * Devuelve en un solo payload los datos de todos los widgets del Home
+     * Las subconsultas corren en paralelo y la respuesta incluye cuánto tardó cada una
+     * Endpoint: GET /dashboard/home
+     */
+    @GetMapping(value = "/dashboard/home")
+    public HomeDashboardDTO getHome() {
+        return dashboardService.getHome();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.springboot.MyTodoList.controller;
+
+import com.springboot.MyTodoList.dto.CacheMetricasDTO;
+import com.springboot.MyTodoList.dto.CoalescenciaMetricasDTO;
+import com.springboot.MyTodoList.dto.DespachadorMetricasDTO;
+import com.springboot.MyTodoList.dto.EnviosMetricasDTO;
+import com.springboot.MyTodoList.dto.PersistenciaSesionesMetricasDTO;
+import com.springboot.MyTodoList.dto.PoolMetricasDTO;
+import com.springboot.MyTodoList.dto.SesionesMetricasDTO;
+import com.springboot.MyTodoList.service.MetricasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * CONTROLADOR REST DE MÉTRICAS
+ * 
+ * Este controlador expone métricas de ejecución para diagnóstico y monitoreo
+ * Utiliza el servicio MetricasService para obtenerlas
+ */
+@RestController
+public class MetricasController {
+
+    @Autowired
+    private MetricasService metricasService;
+
+    /**
+     * MÉTRICAS DEL POOL DE CONEXIONES
+     * 
+     * Devuelve conexiones prestadas, disponibles, pico y tiempos de espera del pool UCP
+     * Endpoint: GET /metricas/pool
+     */
+    @GetMapping(value = "/metricas/pool")
+    public PoolMetricasDTO getPool() {
+        return metricasService.getPool();
+    }
+
+    /**
+     * MÉTRICAS DE LA CACHÉ DE SEGUNDO NIVEL
+     * 
+     * Devuelve aciertos, fallos y escrituras de la caché de Usuario, Sprint y Proyecto
+     * y de la caché de consultas, en total y por región
+     * Endpoint: GET /metricas/cache
+     */
+    @GetMapping(value = "/metricas/cache")
+    public CacheMetricasDTO getCache() {
+        return metricasService.getCache();
+    }
+
+    /**
+     * MÉTRICAS DE LECTURAS COMPARTIDAS
+     * 
+     * Devuelve, en total y por método de servicio, cuántas llamadas hubo, cuántas consultas
+     * se ejecutaron y la fracción de llamadas que compartieron una consulta ya en curso
+     * Endpoint: GET /metricas/coalescencia
+     */
+    @GetMapping(value = "/metricas/coalescencia")
+    public CoalescenciaMetricasDTO getCoalescencia() {
+        return metricasService.getCoalescencia();
+    }
+
+    /**
+     * MÉTRICAS DEL BOT
+     * 
+     * Devuelve, en total y por trabajador, los updates en cola, el pico de cada cola y los
+     * updates aceptados, descartados por cola llena y procesados
+     * Endpoint: GET /metricas/bot
+     */
+    @GetMapping(value = "/metricas/bot")
+    public ResponseEntity<DespachadorMetricasDTO> getBot() {
+        DespachadorMetricasDTO metricas = metricasService.getBot();
+        return metricas == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(metricas);
+    }
+
+    /**
+     * MÉTRICAS DE ENVÍOS DEL BOT
+     * 
+     * Devuelve los mensajes enviados a Telegram, fallidos, pendientes, demorados por los
+     * límites de envío y reintentados después de un 429
+     * Endpoint: GET /metricas/bot/envios
+     */
+    @GetMapping(value = "/metricas/bot/envios")
+    public ResponseEntity<EnviosMetricasDTO> getEnviosBot() {
+        EnviosMetricasDTO metricas = metricasService.getEnviosBot();
+        return metricas == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(metricas);
+    }
+
+    /**
+     * MÉTRICAS DE SESIONES DEL BOT
+     * 
+     * Devuelve las sesiones vivas, su peso estimado en bytes y las descartadas por
+     * inactividad o por llegar al máximo de memoria
+     * Endpoint: GET /metricas/bot/sesiones
+     */
+    @GetMapping(value = "/metricas/bot/sesiones")
+    public ResponseEntity<SesionesMetricasDTO> getSesionesBot() {
+        SesionesMetricasDTO metricas = metricasService.getSesionesBot();
+        return metricas == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(metricas);
+    }
+
+    /**
+     * MÉTRICAS DE SESIONES DEL BOT EN LA BASE DE DATOS
+     * 
+     * Devuelve las sesiones pendientes de escribir, las lecturas y las escrituras hechas en
+     * lotes frente a las veces que el bot guardó una sesión
+     * Retorna estado 404 si las sesiones se guardan en memoria
+     * Endpoint: GET /metricas/bot/sesiones/persistencia
+     */
+    @GetMapping(value = "/metricas/bot/sesiones/persistencia")
+    public ResponseEntity<PersistenciaSesionesMetricasDTO> getPersistenciaSesionesBot() {
+        PersistenciaSesionesMetricasDTO metricas = metricasService.getPersistenciaSesionesBot();
+        return metricas == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(metricas);
+    }
+}
@@ -1,14 +1,18 @@
 package com.springboot.MyTodoList.controller;
 
+import com.springboot.MyTodoList.dto.BorradoCascadaDTO;
+import com.springboot.MyTodoList.dto.UsuarioResumenDTO;
 import com.springboot.MyTodoList.model.Proyecto;
 import com.springboot.MyTodoList.service.ProyectoService;
-import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.service.VersionesTablas;
+import com.springboot.MyTodoList.service.VersionesTablas.Tabla;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -27,16 +31,24 @@ public class ProyectoController {
     
     @Autowired
     private ProyectoService proyectoService;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
     
     /**
      * LISTAR TODOS LOS PROYECTOS
      * 
      * Devuelve una lista con todos los proyectos activos registrados en el sistema
+     * Responde 304 sin consultar la base de datos si el cliente ya tiene la versión actual
      * Endpoint: GET /proyectos
      */
     //@CrossOrigin
     @GetMapping(value = "/proyectos")
-    public List<Proyecto> getAllProyectos() {
+    public List<Proyecto> getAllProyectos(WebRequest request) {
+        VersionesTablas.Version version = versionesTablas.version(Tabla.PROYECTO, Tabla.SPRINT, Tabla.TAREA, Tabla.USUARIO);
+        if (version.noModificado(request)) {
+            return null;
+        }
         return proyectoService.findAll();
     }
 
@@ -50,7 +62,7 @@ public class ProyectoController {
     @GetMapping(value = "/proyectos/{proyectoId}/usuarios")
     public ResponseEntity<?> getUsuariosByProyecto(@PathVariable int proyectoId) {
         try {
-            List<Usuario> usuarios = proyectoService.getUsuariosByProyecto(proyectoId);
+            List<UsuarioResumenDTO> usuarios = proyectoService.getUsuariosByProyecto(proyectoId);
             return new ResponseEntity<>(usuarios, HttpStatus.OK);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
@@ -128,7 +140,7 @@ public class ProyectoController {
     /**
      * ELIMINAR PROYECTO
      * 
-     * Elimina lógicamente un proyecto del sistema por su ID
+     * Elimina lógicamente un proyecto del sistema por su ID, junto con sus sprints, tareas y asignaciones
      * Retorna true y estado 200 (OK) si la eliminación es exitosa, o 404 (NOT FOUND) si falla
      * Endpoint: DELETE /proyectos/{id}
      */
@@ -144,6 +156,35 @@ public class ProyectoController {
         }
     }
     
+    /**
+     * ELIMINAR PROYECTO EN CASCADA
+     * 
+     * Elimina lógicamente un proyecto con sus sprints, tareas y asignaciones y devuelve
+     * cuántas filas cambiaron en cada tabla
+     * Retorna estado 404 (NOT FOUND) si el proyecto no existe o ya estaba eliminado
+     * Endpoint: DELETE /proyectos/{id}/cascada
+     */
+    @DeleteMapping(value = "/proyectos/{id}/cascada")
+    public ResponseEntity<BorradoCascadaDTO> eliminarProyectoEnCascada(@PathVariable("id") int id) {
+        BorradoCascadaDTO resultado = proyectoService.eliminarEnCascada(id);
+        HttpStatus estado = resultado.getProyectos() > 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND;
+        return new ResponseEntity<>(resultado, estado);
+    }
+    
+    /**
+     * RESTAURAR PROYECTO
+     * 
+     * Reactiva un proyecto eliminado junto con los sprints, tareas y asignaciones que se eliminaron con él
+     * Retorna estado 404 (NOT FOUND) si el proyecto no existe o ya estaba activo
+     * Endpoint: PUT /proyectos/{id}/restaurar
+     */
+    @PutMapping(value = "/proyectos/{id}/restaurar")
+    public ResponseEntity<BorradoCascadaDTO> restaurarProyecto(@PathVariable("id") int id) {
+        BorradoCascadaDTO resultado = proyectoService.restaurarEnCascada(id);
+        HttpStatus estado = resultado.getProyectos() > 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND;
+        return new ResponseEntity<>(resultado, estado);
+    }
+    
     /**
      * BUSCAR PROYECTOS POR USUARIO
      * 
@@ -164,7 +205,7 @@ public class ProyectoController {
  */
    @GetMapping(value = "/proyectos/usuario/{userId}/simplificados")
 public ResponseEntity<List<Map<String, Object>>> getProyectosSimplificadosByUsuario(@PathVariable int userId) {
-    List<Proyecto> proyectos = proyectoService.getProyectosByUsuario(userId);
+    List<Proyecto> proyectos = proyectoService.getProyectosBasicosByUsuario(userId);
     List<Map<String, Object>> proyectosSimplificados = proyectos.stream()
         .map((Proyecto proyecto) -> {
             Map<String, Object> proyectoMap = new HashMap<String, Object>();
@@ -242,6 +283,26 @@ public ResponseEntity<List<Map<String, Object>>> getProyectosSimplificadosByUsua
         }
     }
     
+    /**
+     * ÁRBOL DE PROYECTOS
+     * 
+     * Devuelve los proyectos activos con contadores agregados (sprints, tareas, story points)
+     * hasta la profundidad pedida: 0 solo proyectos, 1 con sprints, 2 con sprints y tareas.
+     * Acepta los mismos filtros que /proyectos/estado/{status} y /proyectos/buscar.
+     * Retorna estado 400 (BAD REQUEST) si la profundidad no es válida
+     * Endpoint: GET /proyectos/arbol?depth={0|1|2}&status={status}&term={searchTerm}
+     */
+    @GetMapping(value = "/proyectos/arbol")
+    public ResponseEntity<?> getArbolProyectos(@RequestParam(defaultValue = "0") int depth,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) String term) {
+        try {
+            return new ResponseEntity<>(proyectoService.getArbolProyectos(depth, status, term), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+    
     /**
      * BUSCAR PROYECTOS POR TEXTO
      * 
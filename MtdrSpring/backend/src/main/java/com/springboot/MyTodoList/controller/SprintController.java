@@ -1,13 +1,19 @@
 package com.springboot.MyTodoList.controller;
 
+import com.springboot.MyTodoList.dto.BorradoCascadaDTO;
+import com.springboot.MyTodoList.dto.SprintResumenDTO;
 import com.springboot.MyTodoList.model.Sprint;
 import com.springboot.MyTodoList.service.SprintService;
+import com.springboot.MyTodoList.service.VersionesTablas;
+import com.springboot.MyTodoList.service.VersionesTablas.Tabla;
+import com.springboot.MyTodoList.util.EstadosSprint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Date;
 import java.util.List;
@@ -25,22 +31,42 @@ public class SprintController {
     
     @Autowired
     private SprintService sprintService;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
     
     /**
      * LISTAR TODOS LOS SPRINTS
      * 
      * Devuelve una lista con todos los sprints activos registrados en el sistema
+     * Responde 304 sin consultar la base de datos si el cliente ya tiene la versión actual
      * Endpoint: GET /sprints
      */
     //@CrossOrigin
     @GetMapping(value = "/sprints")
-    public List<Sprint> getAllSprints() {
+    public List<Sprint> getAllSprints(WebRequest request) {
+        VersionesTablas.Version version = versionesTablas.version(Tabla.SPRINT, Tabla.TAREA, Tabla.USUARIO);
+        if (version.noModificado(request)) {
+            return null;
+        }
         List<Sprint> sprints = sprintService.findAll();
         return sprints.stream()
                 .map(this::normalizeSprintStatus)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * RESUMEN DE SPRINTS
+     * 
+     * Devuelve los datos de cada sprint activo con sus contadores de tareas y story points,
+     * sin serializar las tareas. Se calcula con una sola consulta agregada.
+     * Endpoint: GET /sprints/resumen?proyectoId={proyectoId} (proyectoId es opcional)
+     */
+    @GetMapping(value = "/sprints/resumen")
+    public List<SprintResumenDTO> getResumenSprints(@RequestParam(required = false) Integer proyectoId) {
+        return sprintService.getResumenSprints(proyectoId);
+    }
+    
     /**
      * BUSCAR SPRINT POR ID
      * 
@@ -110,52 +136,24 @@ public class SprintController {
         }
     }
     
+    /**
+     * Devuelve una copia del sprint con el estado normalizado; el original no se modifica porque
+     * los listados compartidos (LecturaCompartida) entregan la misma entidad a varias peticiones
+     */
     private Sprint normalizeSprintStatus(Sprint sprint) {
         if (sprint == null) return null;
         
-        String currentStatus = sprint.getStatus();
-        if (currentStatus == null) {
-            sprint.setStatus("Pending");
-            return sprint;
-        }
-        
-        String normalizedStatus;
-        switch (currentStatus.toLowerCase()) {
-            case "completed":
-            case "completado":
-            case "complete":
-            case "done":
-            case "finalizado":
-                normalizedStatus = "Completed";
-                break;
-            case "in progress":
-            case "inprogress":
-            case "en progreso":
-            case "active":
-            case "activo":
-                normalizedStatus = "In Progress";
-                break;
-            case "pending":
-            case "pendiente":
-            case "to do":
-            case "todo":
-            case "planificado":
-            case "planned":
-                normalizedStatus = "Pending";
-                break;
-            default:
-                normalizedStatus = "Pending";
-                break;
-        }
-        
-        sprint.setStatus(normalizedStatus);
-        return sprint;
+        Sprint copia = new Sprint(sprint.getSprintId(), sprint.getName(), sprint.getStartDate(), sprint.getEndDate(),
+                EstadosSprint.normalizar(sprint.getStatus()), sprint.getProyecto(), sprint.getDeleted());
+        copia.setRowVersion(sprint.getRowVersion());
+        copia.setTareas(sprint.getTareas());
+        return copia;
     }
     
     /**
      * ELIMINAR SPRINT
      * 
-     * Elimina lógicamente un sprint del sistema por su ID
+     * Elimina lógicamente un sprint del sistema por su ID, junto con sus tareas
      * Retorna true y estado 200 (OK) si la eliminación es exitosa, o 404 (NOT FOUND) si falla
      * Endpoint: DELETE /sprints/{id}
      */
@@ -171,15 +169,53 @@ public class SprintController {
         }
     }
     
+    /**
+     * ELIMINAR SPRINT EN CASCADA
+     * 
+     * Elimina lógicamente un sprint con sus tareas y devuelve cuántas filas cambiaron en cada tabla
+     * Retorna estado 404 (NOT FOUND) si el sprint no existe o ya estaba eliminado
+     * Endpoint: DELETE /sprints/{id}/cascada
+     */
+    @DeleteMapping(value = "/sprints/{id}/cascada")
+    public ResponseEntity<BorradoCascadaDTO> eliminarSprintEnCascada(@PathVariable("id") int id) {
+        BorradoCascadaDTO resultado = sprintService.eliminarEnCascada(id);
+        HttpStatus estado = resultado.getSprints() > 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND;
+        return new ResponseEntity<>(resultado, estado);
+    }
+    
+    /**
+     * RESTAURAR SPRINT
+     * 
+     * Reactiva un sprint eliminado junto con las tareas que se eliminaron con él
+     * Retorna estado 404 (NOT FOUND) si el sprint no existe o ya estaba activo,
+     * o 400 (BAD REQUEST) si su proyecto está eliminado
+     * Endpoint: PUT /sprints/{id}/restaurar
+     */
+    @PutMapping(value = "/sprints/{id}/restaurar")
+    public ResponseEntity<?> restaurarSprint(@PathVariable("id") int id) {
+        try {
+            BorradoCascadaDTO resultado = sprintService.restaurarEnCascada(id);
+            HttpStatus estado = resultado.getSprints() > 0 ? HttpStatus.OK : HttpStatus.NOT_FOUND;
+            return new ResponseEntity<>(resultado, estado);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+    
     /**
      * BUSCAR SPRINTS POR PROYECTO
      * 
      * Devuelve todos los sprints asociados a un proyecto específico
+     * Responde 304 sin consultar la base de datos si el cliente ya tiene la versión actual
      * Endpoint: GET /sprints/proyecto/{proyectoId}
      */
     //@CrossOrigin
     @GetMapping(value = "/sprints/proyecto/{proyectoId}")
-    public List<Sprint> getSprintsByProyecto(@PathVariable int proyectoId) {
+    public List<Sprint> getSprintsByProyecto(@PathVariable int proyectoId, WebRequest request) {
+        VersionesTablas.Version version = versionesTablas.version(Tabla.SPRINT, Tabla.TAREA, Tabla.USUARIO);
+        if (version.noModificado(request)) {
+            return null;
+        }
         List<Sprint> sprints = sprintService.getSprintsByProyecto(proyectoId);
         return sprints.stream()
                 .map(this::normalizeSprintStatus)
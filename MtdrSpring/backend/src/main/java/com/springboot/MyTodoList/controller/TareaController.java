@@ -1,25 +1,38 @@
 package com.springboot.MyTodoList.controller;
 
-import com.springboot.MyTodoList.model.Proyecto;
-import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.dto.CambioTareaDTO;
+import com.springboot.MyTodoList.dto.CambiosDTO;
+import com.springboot.MyTodoList.dto.FiltroTareasDTO;
+import com.springboot.MyTodoList.dto.NuevaTareaDTO;
+import com.springboot.MyTodoList.dto.PaginaDTO;
+import com.springboot.MyTodoList.dto.ResultadoImportacionDTO;
+import com.springboot.MyTodoList.dto.ResultadoLoteDTO;
+import com.springboot.MyTodoList.dto.TareasPorSprintDTO;
+import com.springboot.MyTodoList.model.ImportacionTareas;
 import com.springboot.MyTodoList.model.Tarea;
-import com.springboot.MyTodoList.repository.ProyectoRepository;
-import com.springboot.MyTodoList.service.SprintService;
+import com.springboot.MyTodoList.service.ExportacionTareasService;
+import com.springboot.MyTodoList.service.ImportacionTareasService;
 import com.springboot.MyTodoList.service.TareaService;
+import com.springboot.MyTodoList.service.VersionesTablas;
+import com.springboot.MyTodoList.service.VersionesTablas.Tabla;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * CONTROLADOR REST PARA GESTIÓN DE TAREAS
@@ -33,25 +46,62 @@ public class TareaController {
     
     @Autowired
     private TareaService tareaService;
+
+    @Autowired
+    private ExportacionTareasService exportacionTareasService;
+
     @Autowired
-    private SprintService sprintService;
+    private ImportacionTareasService importacionTareasService;
 
     @Autowired
-    private ProyectoRepository proyectoRepository;
+    private VersionesTablas versionesTablas;
     
     
     /**
      * LISTAR TODAS LAS TAREAS
      * 
      * Devuelve una lista con todas las tareas activas registradas en el sistema
+     * Responde 304 sin consultar la base de datos si el cliente ya tiene la versión actual
      * Endpoint: GET /tareas
      */
     //@CrossOrigin
     @GetMapping(value = "/tareas")
-    public List<Tarea> getAllTareas() {
+    public List<Tarea> getAllTareas(WebRequest request) {
+        VersionesTablas.Version version = versionesTablas.version(Tabla.TAREA, Tabla.USUARIO);
+        if (version.noModificado(request)) {
+            return null;
+        }
         return tareaService.findAll();
     }
     
+    /**
+     * LISTAR TAREAS PAGINADAS
+     * 
+     * Devuelve una página de tareas activas ordenadas por ID usando un cursor (keyset)
+     * Para pedir la siguiente página se envía el nextCursor recibido como "after"
+     * Endpoint: GET /tareas?after={taskId}&limit={n}
+     */
+    @GetMapping(value = "/tareas", params = "limit")
+    public PaginaDTO<Tarea> getTareasPaginadas(@RequestParam(value = "after", defaultValue = "0") int after,
+                                               @RequestParam("limit") int limit) {
+        return tareaService.findAllPaginado(after, limit);
+    }
+    
+    /**
+     * CAMBIOS DE TAREAS
+     * 
+     * Devuelve las tareas creadas, modificadas o borradas lógicamente desde el cursor recibido,
+     * en orden de versión de fila; las borradas llegan con deleted distinto de 0
+     * Para continuar se envían el since y el after de la respuesta; since=0 trae todas las tareas
+     * Endpoint: GET /tareas/changes?since={version}&after={taskId}&limit={n}
+     */
+    @GetMapping(value = "/tareas/changes")
+    public CambiosDTO<CambioTareaDTO> getCambiosTareas(@RequestParam(value = "since", defaultValue = "0") long since,
+                                                      @RequestParam(value = "after", defaultValue = "0") int after,
+                                                      @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return tareaService.getCambios(since, after, limit);
+    }
+    
     /**
      * BUSCAR TAREA POR ID
      * 
@@ -94,6 +144,25 @@ public class TareaController {
         }
     }
     
+    /**
+     * CREAR TAREAS EN LOTE
+     * 
+     * Crea varias tareas en una sola petición; el usuario y el sprint de cada tarea se indican
+     * con userId y sprintId. Devuelve 200 (OK) con el resultado de cada elemento, o 400 (BAD REQUEST)
+     * si la lista está vacía o supera el máximo permitido
+     * Endpoint: POST /tareas/batch
+     */
+    //@CrossOrigin
+    @PostMapping(value = "/tareas/batch")
+    public ResponseEntity<?> addTareasLote(@RequestBody List<NuevaTareaDTO> tareas) {
+        if (tareas == null || tareas.isEmpty() || tareas.size() > TareaService.MAX_LOTE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("La lista debe contener entre 1 y " + TareaService.MAX_LOTE + " tareas");
+        }
+        ResultadoLoteDTO resultado = tareaService.addTareasLote(tareas);
+        return new ResponseEntity<>(resultado, HttpStatus.OK);
+    }
+    
     /**
      * ACTUALIZAR TAREA EXISTENTE
      * 
@@ -147,18 +216,49 @@ public class TareaController {
         return tareaService.getTareasByUsuario(userId);
     }
     
+    /**
+     * BUSCAR TAREAS POR USUARIO (PAGINADAS)
+     * 
+     * Devuelve una página de las tareas asignadas a un usuario usando un cursor
+     * Endpoint: GET /tareas/usuario/{userId}?after={taskId}&limit={n}
+     */
+    @GetMapping(value = "/tareas/usuario/{userId}", params = "limit")
+    public PaginaDTO<Tarea> getTareasByUsuarioPaginadas(@PathVariable int userId,
+                                                        @RequestParam(value = "after", defaultValue = "0") int after,
+                                                        @RequestParam("limit") int limit) {
+        return tareaService.getTareasByUsuarioPaginado(userId, after, limit);
+    }
+    
     /**
      * BUSCAR TAREAS POR SPRINT
      * 
      * Devuelve todas las tareas asociadas a un sprint específico
+     * Responde 304 sin consultar la base de datos si el cliente ya tiene la versión actual
      * Endpoint: GET /tareas/sprint/{sprintId}
      */
     //@CrossOrigin
     @GetMapping(value = "/tareas/sprint/{sprintId}")
-    public List<Tarea> getTareasBySprint(@PathVariable int sprintId) {
+    public List<Tarea> getTareasBySprint(@PathVariable int sprintId, WebRequest request) {
+        VersionesTablas.Version version = versionesTablas.version(Tabla.TAREA, Tabla.USUARIO);
+        if (version.noModificado(request)) {
+            return null;
+        }
         return tareaService.getTareasBySprint(sprintId);
     }
     
+    /**
+     * BUSCAR TAREAS POR SPRINT (PAGINADAS)
+     * 
+     * Devuelve una página de las tareas de un sprint usando un cursor
+     * Endpoint: GET /tareas/sprint/{sprintId}?after={taskId}&limit={n}
+     */
+    @GetMapping(value = "/tareas/sprint/{sprintId}", params = "limit")
+    public PaginaDTO<Tarea> getTareasBySprintPaginadas(@PathVariable int sprintId,
+                                                       @RequestParam(value = "after", defaultValue = "0") int after,
+                                                       @RequestParam("limit") int limit) {
+        return tareaService.getTareasBySprintPaginado(sprintId, after, limit);
+    }
+    
     /**
      * BUSCAR TAREAS POR ESTADO
      * 
@@ -171,6 +271,19 @@ public class TareaController {
         return tareaService.getTareasByStatus(status);
     }
     
+    /**
+     * BUSCAR TAREAS POR ESTADO (PAGINADAS)
+     * 
+     * Devuelve una página de las tareas con un estado específico usando un cursor
+     * Endpoint: GET /tareas/estado/{status}?after={taskId}&limit={n}
+     */
+    @GetMapping(value = "/tareas/estado/{status}", params = "limit")
+    public PaginaDTO<Tarea> getTareasByStatusPaginadas(@PathVariable String status,
+                                                       @RequestParam(value = "after", defaultValue = "0") int after,
+                                                       @RequestParam("limit") int limit) {
+        return tareaService.getTareasByStatusPaginado(status, after, limit);
+    }
+    
     /**
      * BUSCAR TAREAS POR PRIORIDAD
      * 
@@ -207,6 +320,91 @@ public class TareaController {
         return tareaService.searchTareas(searchTerm);
     }
     
+    /**
+     * EXPORTAR TAREAS
+     * 
+     * Transmite las tareas activas que cumplen los filtros en formato NDJSON (por defecto) o CSV,
+     * conforme se leen de la base de datos, sin cargarlas todas en memoria.
+     * Todos los filtros son opcionales; desde y hasta acotan la fecha de fin (yyyy-MM-dd)
+     * Devuelve 400 (BAD REQUEST) si el formato no es ndjson ni csv
+     * Endpoint: GET /tareas/export?formato={ndjson|csv}&userId=&sprintId=&proyectoId=&status=&desde=&hasta=
+     */
+    //@CrossOrigin
+    @GetMapping(value = "/tareas/export")
+    public ResponseEntity<StreamingResponseBody> exportarTareas(
+            @RequestParam(value = "formato", defaultValue = ExportacionTareasService.NDJSON) String formato,
+            @RequestParam(value = "userId", required = false) Integer userId,
+            @RequestParam(value = "sprintId", required = false) Integer sprintId,
+            @RequestParam(value = "proyectoId", required = false) Integer proyectoId,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date hasta) {
+        if (!ExportacionTareasService.esFormatoValido(formato)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        FiltroTareasDTO filtro = new FiltroTareasDTO(userId, sprintId, proyectoId, status, desde, hasta);
+        boolean csv = ExportacionTareasService.CSV.equals(formato);
+
+        StreamingResponseBody cuerpo = salida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+            exportacionTareasService.exportarTareas(filtro, formato, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tareas." + formato + "\"")
+                .body(cuerpo);
+    }
+    
+    /**
+     * IMPORTAR TAREAS DESDE CSV
+     * 
+     * Lee el CSV del cuerpo de la petición en streaming y crea las tareas por bloques confirmados.
+     * Si la importación se interrumpe, se reanuda enviando el mismo archivo con el importId devuelto
+     * (o listado en GET /tareas/import); las filas ya confirmadas se saltan
+     * Devuelve 200 (OK) con el resumen y los errores por fila, o 400 (BAD REQUEST) si no se pudo completar
+     * Endpoint: POST /tareas/import?proyectoId={proyectoId}&importId={importId}
+     */
+    //@CrossOrigin
+    @PostMapping(value = "/tareas/import")
+    public ResponseEntity<?> importarTareas(@RequestParam("proyectoId") int proyectoId,
+                                            @RequestParam(value = "importId", required = false) Integer importId,
+                                            InputStream cuerpo) {
+        try {
+            ResultadoImportacionDTO resultado = importacionTareasService.importarTareas(
+                    proyectoId, importId, new InputStreamReader(cuerpo, StandardCharsets.UTF_8));
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error al importar las tareas: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * LISTAR IMPORTACIONES PENDIENTES
+     * 
+     * Devuelve las importaciones de un proyecto que quedaron sin completar y se pueden reanudar
+     * Endpoint: GET /tareas/import?proyectoId={proyectoId}
+     */
+    //@CrossOrigin
+    @GetMapping(value = "/tareas/import")
+    public List<ImportacionTareas> getImportacionesPendientes(@RequestParam("proyectoId") int proyectoId) {
+        return importacionTareasService.getImportacionesPendientes(proyectoId);
+    }
+    
+    /**
+     * OBTENER PUNTO DE CONTROL DE UNA IMPORTACIÓN
+     * 
+     * Devuelve cuántas filas lleva confirmadas la importación y su estado, o 404 (NOT FOUND) si no existe
+     * Endpoint: GET /tareas/import/{importId}
+     */
+    //@CrossOrigin
+    @GetMapping(value = "/tareas/import/{importId}")
+    public ResponseEntity<ImportacionTareas> getImportacion(@PathVariable int importId) {
+        ImportacionTareas importacion = importacionTareasService.getImportacion(importId);
+        return importacion == null ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : new ResponseEntity<>(importacion, HttpStatus.OK);
+    }
+    
     /**
      * BUSCAR TAREAS POR USUARIO Y SPRINT
      * 
@@ -220,72 +418,20 @@ public class TareaController {
     }
 
     /**
- * OBTENER TAREAS DE USUARIO POR PROYECTO ORGANIZADAS POR SPRINT
- * 
- * Devuelve un mapa de sprints con sus tareas para un usuario en un proyecto específico
- * Endpoint: GET /tareas/usuario/{userId}/proyecto/{proyectoId}/organizadas
- */
-        @GetMapping(value = "/tareas/usuario/{userId}/proyecto/{proyectoId}/organizadas")
-        public ResponseEntity<Map<String, Object>> getTareasOrganizadasPorSprint(
-                @PathVariable int userId, 
-                @PathVariable int proyectoId) {
-            
-            try {
-                // 1. Obtener todos los sprints del proyecto
-                List<Sprint> sprints = sprintService.getSprintsByProyecto(proyectoId);
-                
-                // 2. Estructura para la respuesta
-                Map<String, Object> response = new HashMap<>();
-                List<Map<String, Object>> sprintsData = new ArrayList<>();
-                
-                // 3. Procesar cada sprint
-                for (Sprint sprint : sprints) {
-                    if (sprint.getDeleted() == 0) { // Solo sprints activos
-                        // Obtener tareas del usuario en este sprint
-                        List<Tarea> tareas = tareaService.getTareasByUsuarioAndSprint(userId, sprint.getSprintId());
-                        
-                        // Convertir tareas a formato simplificado
-                        List<Map<String, Object>> tareasSimplificadas = tareas.stream()
-                            .filter(t -> t.getDeleted() == 0) // Solo tareas activas
-                            .map(t -> {
-                                Map<String, Object> tareaMap = new HashMap<>();
-                                tareaMap.put("taskId", t.getTaskId());
-                                tareaMap.put("title", t.getTitle());
-                                tareaMap.put("description", t.getDescription());
-                                tareaMap.put("status", t.getStatus());
-                                tareaMap.put("priority", t.getPriority());
-                                tareaMap.put("type", t.getType());
-                                tareaMap.put("startDate", t.getStartDate());
-                                tareaMap.put("endDate", t.getEndDate());
-                                tareaMap.put("storyPoints", t.getStoryPoints());
-                                tareaMap.put("estimatedHours", t.getEstimatedHours());
-                                tareaMap.put("actualHours", t.getActualHours());
-                                return tareaMap;
-                            })
-                            .collect(Collectors.toList());
-                        
-                        // Agregar datos del sprint
-                        Map<String, Object> sprintData = new HashMap<>();
-                        sprintData.put("sprintId", sprint.getSprintId());
-                        sprintData.put("sprintName", sprint.getName());
-                        sprintData.put("tasks", tareasSimplificadas);
-                        sprintsData.add(sprintData);
-                    }
-                }
-                
-                // 4. Agregar información del proyecto
-                Optional<Proyecto> proyecto = proyectoRepository.findById(proyectoId);
-                if (proyecto.isPresent() && proyecto.get().getDeleted() == 0) {
-                    response.put("projectId", proyectoId);
-                    response.put("projectName", proyecto.get().getName());
-                }
-                
-                response.put("sprints", sprintsData);
-                
-                return new ResponseEntity<>(response, HttpStatus.OK);
-                
-            } catch (Exception e) {
-                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-            }
+     * OBTENER TAREAS DE USUARIO POR PROYECTO ORGANIZADAS POR SPRINT
+     * 
+     * Devuelve los sprints activos del proyecto con las tareas del usuario en cada uno
+     * Se resuelve con un número fijo de consultas sin importar cuántos sprints tenga el proyecto
+     * Endpoint: GET /tareas/usuario/{userId}/proyecto/{proyectoId}/organizadas
+     */
+    @GetMapping(value = "/tareas/usuario/{userId}/proyecto/{proyectoId}/organizadas")
+    public ResponseEntity<TareasPorSprintDTO> getTareasOrganizadasPorSprint(
+            @PathVariable int userId, 
+            @PathVariable int proyectoId) {
+        try {
+            return new ResponseEntity<>(tareaService.getTareasOrganizadasPorSprint(userId, proyectoId), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
-}
\ No newline at end of file
+    }
+}
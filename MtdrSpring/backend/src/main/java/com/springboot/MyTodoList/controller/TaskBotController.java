@@ -7,13 +7,15 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Update;
@@ -23,6 +25,12 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardRem
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
+import com.springboot.MyTodoList.bot.AlmacenSesiones;
+import com.springboot.MyTodoList.bot.BotState;
+import com.springboot.MyTodoList.bot.ColaEnvios;
+import com.springboot.MyTodoList.bot.DespachadorUpdates;
+import com.springboot.MyTodoList.bot.RepositorioSesiones;
+import com.springboot.MyTodoList.bot.UserSession;
 import com.springboot.MyTodoList.model.Sprint;
 import com.springboot.MyTodoList.model.Tarea;
 import com.springboot.MyTodoList.model.Usuario;
@@ -49,119 +57,109 @@ public class TaskBotController extends TelegramLongPollingBot {
     @Autowired
     private SprintService sprintService;
     private String botName;
+    private final DespachadorUpdates despachador;
+    private final ColaEnvios colaEnvios;
 
-    // Mapa para sesiones de usuario (chatId -> Session)
-    private Map<Long, UserSession> userSessions = new ConcurrentHashMap<>();
-
-    // Enum para los estados del bot
-    private enum BotState {
-        NONE, WAITING_PASSWORD, // Added WAITING_PASSWORD state
-        WAITING_TITLE, WAITING_DESCRIPTION, WAITING_PRIORITY,
-        WAITING_TYPE, WAITING_USER, WAITING_SPRINT, WAITING_POINTS,
-        WAITING_ESTIMATED_HOURS, WAITING_ACTUAL_HOURS, WAITING_TASK_TO_FINISH,
-        WAITING_ACTUAL_HOURS_INPUT,
-        WAITING_AUDIO // <-- Nuevo estado para flujo de audio
-    }
-
-    /**
-     * Clase interna para mantener el estado de la sesión por usuario.
-     */
-    private static class UserSession {
-        private BotState state = BotState.NONE;
-        private Tarea currentTask = new Tarea();
-        private List<Usuario> availableUsers;
-        private List<Sprint> availableSprints;
-        private int currentPage = 0;
-        private List<Tarea> currentTaskList = new ArrayList<>();
-        private boolean isAuthenticated = false; // Track authentication status
-        private Usuario authenticatedUser; // Store authenticated user object
-
-        // Getters and Setters, and clearAuthentication method (as in previous response)
-        public BotState getState() {
-            return state;
-        }
-
-        public void setState(BotState state) {
-            this.state = state;
-        }
-
-        public Tarea getCurrentTask() {
-            return currentTask;
-        }
+    private final RepositorioSesiones sesiones;
 
-        public List<Usuario> getAvailableUsers() {
-            return availableUsers;
-        }
-
-        public void setAvailableUsers(List<Usuario> availableUsers) {
-            this.availableUsers = availableUsers;
-        }
-
-        public List<Sprint> getAvailableSprints() {
-            return availableSprints;
-        }
-
-        public void setAvailableSprints(List<Sprint> availableSprints) {
-            this.availableSprints = availableSprints;
-        }
-
-        public int getCurrentPage() {
-            return currentPage;
-        }
+    public TaskBotController(String botToken, String botName,
+            TareaService tareaService,
+            UsuarioService usuarioService,
+            SprintService sprintService) {
+        this(botToken, botName, tareaService, usuarioService, sprintService, DespachadorUpdates.enHiloLlamador(),
+                ColaEnvios.sinLimites(), AlmacenSesiones.sinLimites());
+    }
 
-        public void setCurrentPage(int currentPage) {
-            this.currentPage = currentPage;
-        }
+    public TaskBotController(String botToken, String botName,
+            TareaService tareaService,
+            UsuarioService usuarioService,
+            SprintService sprintService,
+            DespachadorUpdates despachador,
+            ColaEnvios colaEnvios,
+            RepositorioSesiones sesiones) {
+        this(new DefaultBotOptions(), botToken, botName, tareaService, usuarioService, sprintService, despachador,
+                colaEnvios, sesiones);
+    }
 
-        public List<Tarea> getCurrentTaskList() {
-            return currentTaskList;
-        }
+    public TaskBotController(DefaultBotOptions options, String botToken, String botName,
+            TareaService tareaService,
+            UsuarioService usuarioService,
+            SprintService sprintService,
+            DespachadorUpdates despachador,
+            ColaEnvios colaEnvios,
+            RepositorioSesiones sesiones) {
+        super(options, botToken);
+        this.botName = botName;
+        this.tareaService = tareaService;
+        this.usuarioService = usuarioService;
+        this.sprintService = sprintService;
+        this.despachador = despachador;
+        this.colaEnvios = colaEnvios;
+        this.sesiones = sesiones;
+    }
 
-        public void setCurrentTaskList(List<Tarea> currentTaskList) {
-            this.currentTaskList = currentTaskList;
-        }
+    /**
+     * Entrega el update al trabajador de su chat: los updates de un mismo chat se procesan en
+     * orden y los de chats distintos en paralelo, sin ocupar el hilo que lee de Telegram
+     */
+    @Override
+    public void onUpdateReceived(Update update) {
+        recibir(update);
+    }
 
-        public boolean isAuthenticated() {
-            return isAuthenticated;
-        }
+    /**
+     * Entrega un update al trabajador de su chat. Lo usan tanto el long polling como el webhook.
+     *
+     * @param update Update recibido de Telegram
+     * @return true si se aceptó, false si la cola del chat siguió llena durante la espera máxima
+     */
+    public boolean recibir(Update update) {
+        return despachador.despachar(chatIdDe(update), () -> procesarUpdate(update));
+    }
 
-        public void setAuthenticated(boolean authenticated) {
-            isAuthenticated = authenticated;
+    private static long chatIdDe(Update update) {
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
         }
-
-        public Usuario getAuthenticatedUser() {
-            return authenticatedUser;
+        if (update.hasEditedMessage()) {
+            return update.getEditedMessage().getChatId();
         }
-
-        public void setAuthenticatedUser(Usuario authenticatedUser) {
-            this.authenticatedUser = authenticatedUser;
+        if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null) {
+            return update.getCallbackQuery().getMessage().getChatId();
         }
+        // Updates sin chat (consultas inline, encuestas...): el bot no los atiende, comparten un trabajador
+        return 0L;
+    }
 
-        public void clearAuthentication() {
-            this.isAuthenticated = false;
-            this.authenticatedUser = null;
+    private void procesarUpdate(Update update) {
+        if (!update.hasMessage() || !(update.getMessage().hasVoice() || update.getMessage().hasText())) {
+            return;
         }
+        long chatId = update.getMessage().getChatId();
+        conSesion(chatId, session -> atenderMensaje(chatId, update, session));
     }
 
-    public TaskBotController(String botToken, String botName,
-            TareaService tareaService,
-            UsuarioService usuarioService,
-            SprintService sprintService) {
-        super(botToken);
-        this.botName = botName;
-        this.tareaService = tareaService;
-        this.usuarioService = usuarioService;
-        this.sprintService = sprintService;
+    /**
+     * Ejecuta una acción sobre la sesión del chat y la vuelve a guardar al terminar, aunque la
+     * acción falle: el repositorio recalcula su peso o la persiste
+     *
+     * @param chatId Chat de Telegram
+     * @param accion Acción que lee o modifica la sesión
+     */
+    private void conSesion(long chatId, Consumer<UserSession> accion) {
+        UserSession session = sesiones.obtener(chatId);
+        try {
+            accion.accept(session);
+        } finally {
+            sesiones.guardar(chatId, session);
+        }
     }
 
-    @Override
-    public void onUpdateReceived(Update update) {
+    private void atenderMensaje(long chatId, Update update, UserSession session) {
         // --- Manejo de mensajes de voz: esto debe ir ANTES del bloque hasText() ---
         if (update.hasMessage() && update.getMessage().hasVoice()) {
-            long chatId = update.getMessage().getChatId();
-            UserSession session = userSessions.computeIfAbsent(chatId, k -> new UserSession());
             // Si el estado es el esperado, procesa el audio
-            if (session.state == BotState.WAITING_AUDIO) {
+            if (session.getState() == BotState.WAITING_AUDIO) {
                 handleAudioTaskCreation(chatId, update, session);
             } else {
                 sendMessage(chatId,
@@ -173,7 +171,6 @@ public class TaskBotController extends TelegramLongPollingBot {
         // --- Manejo de mensajes de texto y otros ---
         if (update.hasMessage() && update.getMessage().hasText()) {
             String messageText = update.getMessage().getText();
-            long chatId = update.getMessage().getChatId();
             User telegramUser = update.getMessage().getFrom(); // Get Telegram User info
             String telegramUsername = telegramUser.getUserName(); // Get Telegram Username
             logger.debug("----------------------------------------Telegram Username: " + telegramUsername
@@ -181,19 +178,16 @@ public class TaskBotController extends TelegramLongPollingBot {
             logger.debug(telegramUsername + "----------------------------------------Telegram Username: "
                     + telegramUsername + "--------------------------");
 
-            // Obtener o crear una sesión para este usuario
-            UserSession session = userSessions.computeIfAbsent(chatId, k -> new UserSession());
-
-            logger.debug("-------------------------Estado de la sesión: " + session.state);
+            logger.debug("-------------------------Estado de la sesión: " + session.getState());
 
             if (messageText.equals(BotCommands.START_COMMAND.getCommand())
                     || messageText.equals(BotLabels.SHOW_MAIN_SCREEN.getLabel())) {
-                session.state = BotState.NONE;
+                session.setState(BotState.NONE);
                 showMainMenu(chatId, session); // Pass session to showMainMenu
             } else if (messageText.equals(BotCommands.LOGIN_COMMAND.getCommand())) {
-                session.state = BotState.WAITING_PASSWORD;
+                session.setState(BotState.WAITING_PASSWORD);
                 sendMessageWithKeyboardRemove(chatId, "🔑 Por favor, introduce tu contraseña:");
-            } else if (session.state == BotState.WAITING_PASSWORD) {
+            } else if (session.getState() == BotState.WAITING_PASSWORD) {
                 handleLoginAttempt(chatId, telegramUsername, messageText, session); // Handle login attempt
             } else if (messageText.equals(BotCommands.LOGOUT_COMMAND.getCommand())) {
                 handleLogout(chatId, session);
@@ -202,35 +196,35 @@ public class TaskBotController extends TelegramLongPollingBot {
                     sendLoginRequiredMessage(chatId);
                     return;
                 }
-                session.state = BotState.WAITING_TITLE;
+                session.setState(BotState.WAITING_TITLE);
                 sendMessageWithKeyboardRemove(chatId, BotMessages.ENTER_TASK_TITLE.getMessage());
-            } else if (session.state == BotState.WAITING_TITLE) {
-                session.currentTask.setTitle(messageText);
-                session.state = BotState.WAITING_DESCRIPTION;
+            } else if (session.getState() == BotState.WAITING_TITLE) {
+                session.getCurrentTask().setTitle(messageText);
+                session.setState(BotState.WAITING_DESCRIPTION);
                 sendMessageWithKeyboardRemove(chatId, BotMessages.ENTER_TASK_DESCRIPTION.getMessage());
-            } else if (session.state == BotState.WAITING_DESCRIPTION) {
-                session.currentTask.setDescription(messageText);
-                session.state = BotState.WAITING_PRIORITY;
+            } else if (session.getState() == BotState.WAITING_DESCRIPTION) {
+                session.getCurrentTask().setDescription(messageText);
+                session.setState(BotState.WAITING_PRIORITY);
                 showPriorityOptions(chatId);
-            } else if (session.state == BotState.WAITING_PRIORITY &&
+            } else if (session.getState() == BotState.WAITING_PRIORITY &&
                     (messageText.equals("Low") || messageText.equals("Medium") || messageText.equals("High") ||
                             messageText.equals("Critical"))) {
-                session.currentTask.setPriority(messageText);
-                session.state = BotState.WAITING_TYPE;
+                session.getCurrentTask().setPriority(messageText);
+                session.setState(BotState.WAITING_TYPE);
                 showTypeOptions(chatId);
-            } else if (session.state == BotState.WAITING_TYPE &&
+            } else if (session.getState() == BotState.WAITING_TYPE &&
                     (messageText.equals("Bug") || messageText.equals("Feature") ||
                             messageText.equals("Task") || messageText.equals("Research")
                             || messageText.equals("Enhancement"))) {
-                session.currentTask.setType(messageText);
-                session.state = BotState.WAITING_POINTS;
+                session.getCurrentTask().setType(messageText);
+                session.setState(BotState.WAITING_POINTS);
                 sendMessageWithKeyboardRemove(chatId, BotMessages.ENTER_STORY_POINTS.getMessage());
-            } else if (session.state == BotState.WAITING_POINTS) {
+            } else if (session.getState() == BotState.WAITING_POINTS) {
                 try {
                     int points = Integer.parseInt(messageText);
                     if (points > 0 && points <= 13) {
-                        session.currentTask.setStoryPoints(points);
-                        session.state = BotState.WAITING_ESTIMATED_HOURS;
+                        session.getCurrentTask().setStoryPoints(points);
+                        session.setState(BotState.WAITING_ESTIMATED_HOURS);
                         sendMessageWithKeyboardRemove(chatId,
                                 "Por favor, ingresa las horas estimadas para completar la tarea:");
                     } else {
@@ -239,12 +233,12 @@ public class TaskBotController extends TelegramLongPollingBot {
                 } catch (NumberFormatException e) {
                     sendMessageWithKeyboardRemove(chatId, "Por favor, ingresa un número válido entre 1 y 13:");
                 }
-            } else if (session.state == BotState.WAITING_ESTIMATED_HOURS) {
+            } else if (session.getState() == BotState.WAITING_ESTIMATED_HOURS) {
                 try {
                     double hours = Double.parseDouble(messageText);
                     if (hours > 0) {
-                        session.currentTask.setEstimatedHours(hours);
-                        session.state = BotState.WAITING_ACTUAL_HOURS;
+                        session.getCurrentTask().setEstimatedHours(hours);
+                        session.setState(BotState.WAITING_ACTUAL_HOURS);
                         sendMessageWithKeyboardRemove(chatId,
                                 "Por favor, ingresa las horas reales empleadas (0 si aún no se ha trabajado en la tarea):");
                     } else {
@@ -254,16 +248,20 @@ public class TaskBotController extends TelegramLongPollingBot {
                     sendMessageWithKeyboardRemove(chatId,
                             "Por favor, ingresa un número válido para las horas estimadas:");
                 }
-            } else if (session.state == BotState.WAITING_ACTUAL_HOURS) {
+            } else if (session.getState() == BotState.WAITING_ACTUAL_HOURS) {
                 try {
                     double hours = Double.parseDouble(messageText);
                     if (hours >= 0) {
-                        session.currentTask.setActualHours(hours);
-                        session.state = BotState.WAITING_USER;
+                        session.getCurrentTask().setActualHours(hours);
+                        session.setState(BotState.WAITING_USER);
 
                         // Cargar usuarios disponibles y mostrar opciones
-                        session.availableUsers = usuarioService.findAll();
-                        showUserOptions(chatId, session.availableUsers);
+                        List<UserSession.Persona> usuarios = new ArrayList<>();
+                        for (Usuario usuario : usuarioService.findAll()) {
+                            usuarios.add(UserSession.Persona.de(usuario));
+                        }
+                        session.setAvailableUsers(usuarios);
+                        showUserOptions(chatId, usuarios);
                     } else {
                         sendMessageWithKeyboardRemove(chatId, "Por favor, ingresa un número válido mayor o igual a 0:");
                     }
@@ -273,15 +271,15 @@ public class TaskBotController extends TelegramLongPollingBot {
                 }
             } else if (messageText.equals("⬅️ Anterior")) {
                 // Get session and access stored pagination data
-                if (session.currentPage > 0) {
-                    showTaskList(chatId, session.currentTaskList, session.currentPage - 1);
+                if (session.getCurrentPage() > 0) {
+                    showTaskList(chatId, session, session.getCurrentTaskList(), session.getCurrentPage() - 1);
                 } else {
                     sendMessage(chatId, "Ya estás en la primera página.");
                 }
             } else if (messageText.equals("➡️ Siguiente")) {
-                int totalPages = (int) Math.ceil(session.currentTaskList.size() / 5.0);
-                if (session.currentPage < totalPages - 1) {
-                    showTaskList(chatId, session.currentTaskList, session.currentPage + 1);
+                int totalPages = (int) Math.ceil(session.getCurrentTaskList().size() / 5.0);
+                if (session.getCurrentPage() < totalPages - 1) {
+                    showTaskList(chatId, session, session.getCurrentTaskList(), session.getCurrentPage() + 1);
                 } else {
                     sendMessage(chatId, "Ya estás en la última página.");
                 }
@@ -290,7 +288,7 @@ public class TaskBotController extends TelegramLongPollingBot {
                     sendLoginRequiredMessage(chatId);
                     return;
                 }
-                session.state = BotState.NONE;
+                session.setState(BotState.NONE);
 
                 // Filtrar tareas del usuario con prioridad High o Critical
                 List<Tarea> tareasUsuario = tareaService.getTareasByUsuario(session.getAuthenticatedUser().getUserId());
@@ -309,14 +307,14 @@ public class TaskBotController extends TelegramLongPollingBot {
                     showTaskListOptions(chatId); // Mantener en el contexto de las tareas
                 } else {
                     sendMessage(chatId, "Mostrando " + tareasAltaPrioridad.size() + " tareas de alta prioridad:");
-                    showTaskList(chatId, tareasAltaPrioridad);
+                    showTaskList(chatId, session, tareasAltaPrioridad);
                 }
             } else if (messageText.equals("🟡 Media prioridad")) {
                 if (!session.isAuthenticated()) {
                     sendLoginRequiredMessage(chatId);
                     return;
                 }
-                session.state = BotState.NONE;
+                session.setState(BotState.NONE);
 
                 // Filtrar tareas del usuario con prioridad Medium
                 List<Tarea> tareasUsuario = tareaService.getTareasByUsuario(session.getAuthenticatedUser().getUserId());
@@ -333,78 +331,58 @@ public class TaskBotController extends TelegramLongPollingBot {
                     showTaskListOptions(chatId);
                 } else {
                     sendMessage(chatId, "Mostrando " + tareasPrioridadMedia.size() + " tareas de prioridad media:");
-                    showTaskList(chatId, tareasPrioridadMedia);
+                    showTaskList(chatId, session, tareasPrioridadMedia);
                 }
-            } else if (session.state == BotState.WAITING_USER) {
+            } else if (session.getState() == BotState.WAITING_USER) {
                 // Buscar el usuario seleccionado por su nombre
-                for (Usuario user : session.availableUsers) {
+                for (UserSession.Persona user : session.getAvailableUsers()) {
                     if (messageText.equals(user.getFirstName() + " " + user.getLastName())) {
-                        session.currentTask.setUsuario(user);
-                        session.state = BotState.WAITING_SPRINT;
+                        session.getCurrentTask().setUsuario(user);
+                        session.setState(BotState.WAITING_SPRINT);
 
                         // Cargar TODOS los sprints disponibles en lugar de solo los activos
-                        session.availableSprints = sprintService.findAll();
+                        List<UserSession.SprintOpcion> sprints = new ArrayList<>();
+                        for (Sprint sprint : sprintService.findAllBasicos()) {
+                            sprints.add(UserSession.SprintOpcion.de(sprint));
+                        }
+                        session.setAvailableSprints(sprints);
 
                         // Verifica si hay sprints disponibles
-                        if (session.availableSprints.isEmpty()) {
+                        if (sprints.isEmpty()) {
                             sendMessage(chatId, "No hay sprints disponibles. Contacta al administrador.");
-                            session.state = BotState.NONE;
+                            session.setState(BotState.NONE);
                             showMainMenu(chatId, session);
                         } else {
-                            showSprintOptions(chatId, session.availableSprints);
+                            showSprintOptions(chatId, sprints);
                         }
                         break;
                     }
                 }
 
-                if (session.state != BotState.WAITING_SPRINT) {
+                if (session.getState() != BotState.WAITING_SPRINT) {
                     sendMessage(chatId, BotMessages.INVALID_USER.getMessage());
                 }
-            } else if (session.state == BotState.WAITING_SPRINT) {
+            } else if (session.getState() == BotState.WAITING_SPRINT) {
                 // Buscar el sprint seleccionado
-                for (Sprint sprint : session.availableSprints) {
+                for (UserSession.SprintOpcion sprint : session.getAvailableSprints()) {
                     if (messageText.equals("Sprint " + sprint.getName())) {
-                        session.currentTask.setSprint(sprint);
-                        if (session.currentTask.getStatus() == null) { // Optional: check if already set, though
-                                                                       // unlikely here
-                            session.currentTask.setStatus("Incomplete"); // Set a default status
+                        session.getCurrentTask().setSprint(sprint);
+                        if (session.getCurrentTask().getStatus() == null) { // Optional: check if already set
+                            session.getCurrentTask().setStatus("Incomplete"); // Set a default status
                             logger.debug("Status was null, setting default 'Pendiente'");
                         }
 
                         // Crear la tarea
                         try {
-                            if (session.currentTask.getStartDate() == null) {
-                                Calendar cal = Calendar.getInstance();
-                                session.currentTask.setStartDate(cal.getTime());
-                                logger.debug("startDate era null, se asignó un valor predeterminado: " + cal.getTime());
-                                logger.debug("startDate: " + session.currentTask.getStartDate());
-                            }
-
-                            if (session.currentTask.getEndDate() == null) {
-                                Calendar cal = Calendar.getInstance();
-                                cal.add(Calendar.DAY_OF_MONTH, 7); // Hoy + 7 días
-                                session.currentTask.setEndDate(cal.getTime());
-                                logger.debug("endDate era null, se asignó un valor predeterminado: " + cal.getTime());
-                                logger.debug("endDate: " + session.currentTask.getEndDate());
-                            }
-
-                            Tarea createdTask = tareaService.addTarea(session.currentTask);
+                            Tarea createdTask = tareaService.addTarea(session.getCurrentTask().aTarea());
                             sendTaskConfirmation(chatId, createdTask);
 
                             // Reiniciar el estado
-                            session.state = BotState.NONE;
-                            session.currentTask = new Tarea();
-                            session.currentTask.setDeleted(0);
-
-                            // Establecer echas para la siguiente tarea
-                            Calendar cal = Calendar.getInstance();
-                            session.currentTask.setStartDate(cal.getTime());
-                            logger.debug("Fecha de inicio establecida: " + cal.getTime());
-
-                            cal.add(Calendar.DAY_OF_MONTH, 7);
-                            session.currentTask.setEndDate(cal.getTime());
-                            logger.debug("Fecha de finalización establecida: " + cal.getTime());
-                            session.currentTask.setStatus("Pendiente");
+                            session.setState(BotState.NONE);
+                            session.setCurrentTask(new UserSession.TareaBorrador());
+                            session.getCurrentTask().setStatus("Pendiente");
+                            session.setAvailableUsers(new ArrayList<>());
+                            session.setAvailableSprints(new ArrayList<>());
 
                             // Mostrar el menú principal
                             showMainMenu(chatId, session);
@@ -419,7 +397,7 @@ public class TaskBotController extends TelegramLongPollingBot {
                     }
                 }
 
-                if (session.state != BotState.NONE) {
+                if (session.getState() != BotState.NONE) {
                     sendMessage(chatId, BotMessages.INVALID_SPRINT.getMessage());
                 }
             } else if (messageText.equals(BotLabels.LIST_TASKS.getLabel())) {
@@ -427,7 +405,7 @@ public class TaskBotController extends TelegramLongPollingBot {
                     sendLoginRequiredMessage(chatId);
                     return;
                 }
-                session.state = BotState.NONE;
+                session.setState(BotState.NONE);
                 handleListMyTasks(chatId, session); // Call new method to list user's tasks
 
             } else if (messageText.equals("✅ Finalizar tarea")) {
@@ -435,19 +413,19 @@ public class TaskBotController extends TelegramLongPollingBot {
                     sendLoginRequiredMessage(chatId);
                     return;
                 }
-                session.state = BotState.WAITING_TASK_TO_FINISH;
+                session.setState(BotState.WAITING_TASK_TO_FINISH);
 
                 // Mostrar las tareas del usuario para seleccionar cuál finalizar
                 List<Tarea> userTasks = tareaService.getTareasByUsuario(session.getAuthenticatedUser().getUserId());
                 if (userTasks.isEmpty()) {
                     sendMessage(chatId, "No tienes tareas asignadas para finalizar.");
-                    session.state = BotState.NONE;
+                    session.setState(BotState.NONE);
                     showMainMenu(chatId, session);
                 } else {
                     sendMessage(chatId, "Selecciona la tarea que deseas marcar como finalizada:");
-                    showTaskList(chatId, userTasks);
+                    showTaskList(chatId, session, userTasks);
                 }
-            } else if (session.state == BotState.WAITING_TASK_TO_FINISH) {
+            } else if (session.getState() == BotState.WAITING_TASK_TO_FINISH) {
                 try {
                     int taskId = Integer.parseInt(messageText.replaceAll("[^0-9]", "")); // Extraer el ID de la tarea
                     ResponseEntity<Tarea> tareaResponse = tareaService.getTareaById(taskId);
@@ -456,8 +434,8 @@ public class TaskBotController extends TelegramLongPollingBot {
                         Tarea tarea = tareaResponse.getBody();
                         if (tarea != null
                                 && tarea.getUsuario().getUserId() == session.getAuthenticatedUser().getUserId()) {
-                            session.currentTask = tarea; // Guardar la tarea seleccionada en la sesión
-                            session.state = BotState.WAITING_ACTUAL_HOURS_INPUT; // Cambiar al nuevo estado
+                            session.setTaskToFinish(tarea.getTaskId()); // Guardar el ID de la tarea seleccionada
+                            session.setState(BotState.WAITING_ACTUAL_HOURS_INPUT); // Cambiar al nuevo estado
                             sendMessage(chatId, "Por favor, ingresa las horas reales que te tomó completar la tarea:");
                         } else {
                             sendMessage(chatId, "❌ No puedes finalizar una tarea que no te pertenece.");
@@ -468,11 +446,19 @@ public class TaskBotController extends TelegramLongPollingBot {
                 } catch (NumberFormatException e) {
                     sendMessage(chatId, "❌ Por favor, selecciona un ID de tarea válido.");
                 }
-            } else if (session.state == BotState.WAITING_ACTUAL_HOURS_INPUT) {
+            } else if (session.getState() == BotState.WAITING_ACTUAL_HOURS_INPUT) {
                 try {
                     double actualHours = Double.parseDouble(messageText); // Leer las horas reales ingresadas
                     if (actualHours >= 0) {
-                        Tarea tarea = session.currentTask;
+                        // La sesión solo guarda el ID: se vuelve a leer la tarea para actualizarla completa
+                        ResponseEntity<Tarea> tareaResponse = tareaService.getTareaById(session.getTaskToFinish());
+                        Tarea tarea = tareaResponse.getBody();
+                        if (tareaResponse.getStatusCode() != HttpStatus.OK || tarea == null) {
+                            sendMessage(chatId, "❌ No se encontró la tarea con el ID proporcionado.");
+                            session.setState(BotState.NONE);
+                            showMainMenu(chatId, session);
+                            return;
+                        }
                         tarea.setActualHours(actualHours); // Asignar las horas reales
                         tarea.setStatus("Finalizada"); // Cambiar el estado a "Finalizada"
                         tareaService.updateTarea(tarea.getTaskId(), tarea); // Actualizar la tarea en la base de datos
@@ -489,7 +475,7 @@ public class TaskBotController extends TelegramLongPollingBot {
                 }
 
                 // Reiniciar el estado y mostrar el menú principal
-                session.state = BotState.NONE;
+                session.setState(BotState.NONE);
                 showMainMenu(chatId, session);
             } else if (messageText.equals(BotLabels.HIDE_MAIN_SCREEN.getLabel())) {
                 // Ocultar teclado
@@ -499,17 +485,13 @@ public class TaskBotController extends TelegramLongPollingBot {
                 ReplyKeyboardRemove keyboardRemove = new ReplyKeyboardRemove(true);
                 message.setReplyMarkup(keyboardRemove);
 
-                try {
-                    execute(message);
-                } catch (TelegramApiException e) {
-                    logger.error("Error al enviar mensaje", e);
-                }
+                enviar(message, "Error al enviar mensaje");
             } else if (messageText != null && messageText.equals("🎤 Crear tarea por voz")) {
                 if (!session.isAuthenticated()) {
                     sendLoginRequiredMessage(chatId);
                     return;
                 }
-                session.state = BotState.WAITING_AUDIO;
+                session.setState(BotState.WAITING_AUDIO);
                 sendMessageWithKeyboardRemove(chatId,
                         "🎤 *Creación de tarea por voz*\n\n" +
                                 "Por favor, graba una nota de voz mencionando los siguientes datos:\n\n" +
@@ -547,18 +529,17 @@ public class TaskBotController extends TelegramLongPollingBot {
             Usuario user = userOptional.get();
             if (usuarioService.authenticate(user.getEmail(), password) != null) { // Authenticate using email and
                                                                                   // password
-                session.setAuthenticated(true);
-                session.setAuthenticatedUser(user); // Store the authenticated user in session
-                session.state = BotState.NONE;
+                session.setAuthenticatedUser(UserSession.Persona.de(user)); // Store the authenticated user in session
+                session.setState(BotState.NONE);
                 sendMessage(chatId, "✅ Inicio de sesión exitoso. Bienvenido/a, " + user.getFirstName() + "!");
                 showMainMenu(chatId, session); // Update main menu to show logged-in options
             } else {
                 sendMessage(chatId, "❌ Contraseña incorrecta. Inténtalo de nuevo.");
-                session.state = BotState.WAITING_PASSWORD; // Keep in WAITING_PASSWORD state for retry
+                session.setState(BotState.WAITING_PASSWORD); // Keep in WAITING_PASSWORD state for retry
             }
         } else {
             sendMessage(chatId, "❌ Usuario no registrado. Contacta al administrador.");
-            session.state = BotState.NONE; // Reset state
+            session.setState(BotState.NONE); // Reset state
             showMainMenu(chatId, session); // Show default main menu for non-logged in users
         }
     }
@@ -571,7 +552,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         } else {
             sendMessage(chatId, "ℹ️ No has iniciado sesión.");
         }
-        session.state = BotState.NONE; // Reset state after logout attempt
+        session.setState(BotState.NONE); // Reset state after logout attempt
         showMainMenu(chatId, session); // Update main menu to show logged-out options
     }
 
@@ -608,16 +589,12 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar mensaje", e);
-        }
+        enviar(message, "Error al enviar mensaje");
     }
 
     // --- New method to handle listing tasks for logged-in user ---
     private void handleListMyTasks(long chatId, UserSession session) {
-        Usuario user = session.getAuthenticatedUser();
+        UserSession.Persona user = session.getAuthenticatedUser();
         if (user == null) {
             sendLoginRequiredMessage(chatId);
             return;
@@ -627,7 +604,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         if (tareas.isEmpty()) {
             sendMessage(chatId, "No tienes tareas asignadas.");
         } else {
-            showTaskList(chatId, tareas); // Show task list (existing method)
+            showTaskList(chatId, session, tareas); // Show task list (existing method)
         }
     }
 
@@ -656,11 +633,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar mensaje", e);
-        }
+        enviar(message, "Error al enviar mensaje");
     }
 
     private void showTypeOptions(long chatId) {
@@ -688,14 +661,10 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar mensaje", e);
-        }
+        enviar(message, "Error al enviar mensaje");
     }
 
-    private void showUserOptions(long chatId, List<Usuario> users) {
+    private void showUserOptions(long chatId, List<UserSession.Persona> users) {
         SendMessage message = new SendMessage();
         message.setChatId(chatId);
         message.setText("Selecciona el usuario asignado a la tarea:");
@@ -704,7 +673,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         List<KeyboardRow> keyboard = new ArrayList<>();
 
         // Añadir cada usuario como una opción
-        for (Usuario user : users) {
+        for (UserSession.Persona user : users) {
             KeyboardRow row = new KeyboardRow();
             row.add(user.getFirstName() + " " + user.getLastName());
             keyboard.add(row);
@@ -715,14 +684,10 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar mensaje", e);
-        }
+        enviar(message, "Error al enviar mensaje");
     }
 
-    private void showSprintOptions(long chatId, List<Sprint> sprints) {
+    private void showSprintOptions(long chatId, List<UserSession.SprintOpcion> sprints) {
         SendMessage message = new SendMessage();
         message.setChatId(chatId);
         message.setText("Selecciona el sprint para la tarea:");
@@ -731,7 +696,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         List<KeyboardRow> keyboard = new ArrayList<>();
 
         // Añadir cada sprint como una opción
-        for (Sprint sprint : sprints) {
+        for (UserSession.SprintOpcion sprint : sprints) {
             KeyboardRow row = new KeyboardRow();
             row.add("Sprint " + sprint.getName());
             keyboard.add(row);
@@ -742,11 +707,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar mensaje", e);
-        }
+        enviar(message, "Error al enviar mensaje");
     }
 
     private void sendTaskConfirmation(long chatId, Tarea tarea) {
@@ -948,27 +909,21 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setOneTimeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar teclado de acciones de tarea", e);
-        }
+        enviar(message, "Error al enviar teclado de acciones de tarea");
     }
 
-    private void showTaskList(long chatId, List<Tarea> tareas) {
-        // Call the existing method with page 0 (first page)
-        showTaskList(chatId, tareas, 0);
+    private void showTaskList(long chatId, UserSession session, List<Tarea> tareas) {
+        // La sesión guarda solo las filas que se muestran, no las entidades
+        showTaskList(chatId, session, UserSession.FilaTarea.de(tareas), 0);
     }
 
-    private void showTaskList(long chatId, List<Tarea> tareas, int page) {
+    private void showTaskList(long chatId, UserSession session, List<UserSession.FilaTarea> tareas, int page) {
         final int TASKS_PER_PAGE = 5;
         int totalPages = (int) Math.ceil(tareas.size() / (double) TASKS_PER_PAGE);
 
         // Store current page and full task list in user session
-        UserSession session = userSessions.getOrDefault(chatId, new UserSession());
-        session.currentPage = page;
-        session.currentTaskList = new ArrayList<>(tareas); // Make a copy to avoid reference issues
-        userSessions.put(chatId, session);
+        session.setCurrentPage(page);
+        session.setCurrentTaskList(new ArrayList<>(tareas)); // Make a copy to avoid reference issues
 
         if (tareas.isEmpty()) {
             sendMessage(chatId, "No hay tareas registradas.");
@@ -981,7 +936,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         int endIndex = Math.min(startIndex + TASKS_PER_PAGE, tareas.size());
 
         // Reduce scope to only show tasks for the current page
-        List<Tarea> pagedTasks = tareas.subList(startIndex, endIndex);
+        List<UserSession.FilaTarea> pagedTasks = tareas.subList(startIndex, endIndex);
 
         StringBuilder message = new StringBuilder();
         message.append("📋 *LISTA DE TAREAS*\n");
@@ -990,14 +945,14 @@ public class TaskBotController extends TelegramLongPollingBot {
 
         SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
 
-        for (Tarea tarea : pagedTasks) {
+        for (UserSession.FilaTarea tarea : pagedTasks) {
             message.append("🔹 *").append(tarea.getTaskId()).append(": ").append(tarea.getTitle()).append("*\n");
             message.append("  • *Estado:* ").append(getStatusWithEmoji(tarea.getStatus())).append("\n");
             message.append("  • *Prioridad:* ").append(getPriorityEmoji(tarea.getPriority())).append(" ")
                     .append(tarea.getPriority()).append("\n");
-            message.append("  • *Asignado:* ").append(tarea.getUsuario().getFirstName()).append(" ")
-                    .append(tarea.getUsuario().getLastName()).append("\n");
-            message.append("  • *Sprint:* ").append(tarea.getSprint().getName()).append("\n");
+            message.append("  • *Asignado:* ").append(tarea.getFirstName()).append(" ")
+                    .append(tarea.getLastName()).append("\n");
+            message.append("  • *Sprint:* ").append(tarea.getSprintName()).append("\n");
 
             // Null-safe check for both estimated and actual hours
             if (tarea.getEstimatedHours() != null && tarea.getEstimatedHours() > 0) {
@@ -1026,65 +981,54 @@ public class TaskBotController extends TelegramLongPollingBot {
         taskListMessage.setText(message.toString());
         taskListMessage.enableMarkdown(true);
 
-        try {
-            execute(taskListMessage);
-
-            // Show navigation options with a short delay
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
-
-            showPaginationOptions(chatId, page, totalPages);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar lista de tareas", e);
-
-            // If the message is still too long, try with even fewer tasks
-            if (e.getMessage() != null && e.getMessage().contains("message is too long")) {
+        // La navegación sale cuando Telegram confirma la lista: la cola de envíos respeta el orden
+        // del chat, así que no hace falta esperar entre los dos mensajes
+        despuesDeEnviar(chatId, enviar(taskListMessage, "Error al enviar lista de tareas"), e -> {
+            if (e == null) {
+                showPaginationOptions(chatId, page, totalPages);
+            } else if (e.getMessage() != null && e.getMessage().contains("message is too long")) {
+                // If the message is still too long, try with even fewer tasks
                 if (TASKS_PER_PAGE > 1) {
                     sendMessage(chatId, "Reduciendo el número de tareas por página debido a límites de mensaje.");
-                    showReducedTaskList(chatId, tareas, page);
+                    conSesion(chatId, actual -> showReducedTaskList(chatId, actual, tareas, page));
                 } else {
                     sendMessage(chatId,
                             "No se pueden mostrar las tareas debido a limitaciones de tamaño de mensaje. Por favor, use filtros para reducir el número de tareas.");
                     showTaskListOptions(chatId);
                 }
             } else {
-                showMainMenu(chatId, session);
+                conSesion(chatId, actual -> showMainMenu(chatId, actual));
             }
-        }
+        });
     }
 
     // New method to show a more reduced task list when even 5 tasks are too much
-    private void showReducedTaskList(long chatId, List<Tarea> tareas, int page) {
+    private void showReducedTaskList(long chatId, UserSession session, List<UserSession.FilaTarea> tareas,
+            int page) {
         final int REDUCED_TASKS_PER_PAGE = 3;
         int totalPages = (int) Math.ceil(tareas.size() / (double) REDUCED_TASKS_PER_PAGE);
 
         // Update the session with the new page size
-        UserSession session = userSessions.get(chatId);
-        if (session != null) {
-            session.currentPage = Math.min(page, totalPages - 1); // Ensure valid page
-        }
+        session.setCurrentPage(Math.min(page, totalPages - 1)); // Ensure valid page
 
         // Calculate start and end indices for current page
         int startIndex = page * REDUCED_TASKS_PER_PAGE;
         int endIndex = Math.min(startIndex + REDUCED_TASKS_PER_PAGE, tareas.size());
 
         // Reduce scope to only show tasks for the current page
-        List<Tarea> pagedTasks = tareas.subList(startIndex, endIndex);
+        List<UserSession.FilaTarea> pagedTasks = tareas.subList(startIndex, endIndex);
 
         StringBuilder message = new StringBuilder();
         message.append("📋 *LISTA DE TAREAS* (Vista reducida)\n");
         message.append("Página ").append(page + 1).append(" de ").append(totalPages).append("\n\n");
 
         // Use a more compact format
-        for (Tarea tarea : pagedTasks) {
+        for (UserSession.FilaTarea tarea : pagedTasks) {
             message.append("🔹 *#").append(tarea.getTaskId()).append("* - ");
             message.append(tarea.getTitle()).append("\n");
             message.append("  ").append(getPriorityEmoji(tarea.getPriority())).append(" ");
             message.append(getStatusWithEmoji(tarea.getStatus())).append(" • ");
-            message.append("Asignado: ").append(tarea.getUsuario().getFirstName()).append("\n");
+            message.append("Asignado: ").append(tarea.getFirstName()).append("\n");
             message.append("  ─────────────────\n");
         }
 
@@ -1096,15 +1040,15 @@ public class TaskBotController extends TelegramLongPollingBot {
         taskListMessage.setText(message.toString());
         taskListMessage.enableMarkdown(true);
 
-        try {
-            execute(taskListMessage);
-            showPaginationOptions(chatId, page, totalPages);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar lista reducida de tareas", e);
-            sendMessage(chatId,
-                    "No se pueden mostrar las tareas debido a limitaciones de tamaño. Por favor, use filtros específicos.");
-            showTaskListOptions(chatId);
-        }
+        despuesDeEnviar(chatId, enviar(taskListMessage, "Error al enviar lista reducida de tareas"), e -> {
+            if (e == null) {
+                showPaginationOptions(chatId, page, totalPages);
+            } else {
+                sendMessage(chatId,
+                        "No se pueden mostrar las tareas debido a limitaciones de tamaño. Por favor, use filtros específicos.");
+                showTaskListOptions(chatId);
+            }
+        });
     }
 
     // Updated to simplify the pagination options method
@@ -1154,13 +1098,12 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar opciones de paginación", e);
-            // Fallback to a simpler keyboard if there's an error
-            sendSimpleNavigationKeyboard(chatId);
-        }
+        despuesDeEnviar(chatId, enviar(message, "Error al enviar opciones de paginación"), e -> {
+            if (e != null) {
+                // Fallback to a simpler keyboard if there's an error
+                sendSimpleNavigationKeyboard(chatId);
+            }
+        });
     }
 
     // Simple fallback method for navigation
@@ -1180,11 +1123,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar teclado de navegación simple", e);
-        }
+        enviar(message, "Error al enviar teclado de navegación simple");
     }
 
     // Nuevo método para mostrar opciones después de listar tareas
@@ -1211,15 +1150,12 @@ public class TaskBotController extends TelegramLongPollingBot {
         keyboardMarkup.setResizeKeyboard(true);
         message.setReplyMarkup(keyboardMarkup);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar opciones de lista de tareas", e);
-            // Get the session from the map before using it
-            UserSession session = userSessions.getOrDefault(chatId, new UserSession());
-            // Si falla, mostrar el menú principal como fallback
-            showMainMenu(chatId, session);
-        }
+        despuesDeEnviar(chatId, enviar(message, "Error al enviar opciones de lista de tareas"), e -> {
+            if (e != null) {
+                // Si falla, mostrar el menú principal como fallback
+                conSesion(chatId, actual -> showMainMenu(chatId, actual));
+            }
+        });
     }
 
     private void sendMessage(long chatId, String text) {
@@ -1228,11 +1164,7 @@ public class TaskBotController extends TelegramLongPollingBot {
         message.setText(text);
         message.enableMarkdown(true);
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            logger.error("Error al enviar mensaje", e);
-        }
+        enviar(message, "Error al enviar mensaje");
     }
 
     private void sendMessageWithKeyboardRemove(long chatId, String text) {
@@ -1243,10 +1175,47 @@ public class TaskBotController extends TelegramLongPollingBot {
         ReplyKeyboardRemove keyboardRemove = new ReplyKeyboardRemove(true);
         message.setReplyMarkup(keyboardRemove);
 
+        enviar(message, "Error al enviar mensaje");
+    }
+
+    /**
+     * Encola un mensaje en la cola de envíos sin esperar la respuesta de Telegram
+     *
+     * @param message Mensaje a enviar
+     * @param error Texto con el que se registra el error si el envío falla
+     * @return Resultado del envío
+     */
+    private CompletableFuture<Message> enviar(SendMessage message, String error) {
+        CompletableFuture<Message> envio = colaEnvios.enviar(message, this::ejecutarAsync);
+        envio.whenComplete((enviado, e) -> {
+            if (e != null) {
+                logger.error(error, ColaEnvios.causa(e));
+            }
+        });
+        return envio;
+    }
+
+    /**
+     * Continúa el flujo de un chat cuando termina un envío. La continuación vuelve a pasar por el
+     * despachador, así que se ejecuta en el trabajador del chat y en orden con sus demás updates.
+     * Se encola sin esperar: quien completa el envío puede ser el hilo HTTP, el programador de
+     * envíos o el mismo trabajador, y ninguno debe bloquearse con la cola llena; si no hay lugar,
+     * el despachador la reintenta en lugar de descartarla.
+     *
+     * @param chatId Chat del envío
+     * @param envio Resultado del envío
+     * @param continuacion Recibe el error del envío, o null si fue exitoso
+     */
+    private void despuesDeEnviar(long chatId, CompletableFuture<Message> envio, Consumer<Throwable> continuacion) {
+        envio.whenComplete((enviado, e) ->
+                despachador.despacharContinuacion(chatId, () -> continuacion.accept(ColaEnvios.causa(e))));
+    }
+
+    private CompletableFuture<Message> ejecutarAsync(SendMessage message) {
         try {
-            execute(message);
+            return executeAsync(message);
         } catch (TelegramApiException e) {
-            logger.error("Error al enviar mensaje", e);
+            return CompletableFuture.failedFuture(e);
         }
     }
 
@@ -1279,7 +1248,7 @@ public class TaskBotController extends TelegramLongPollingBot {
 
             // 3. Preparar contexto: usuarios y sprints
             List<Usuario> usuarios = usuarioService.findAll();
-            List<Sprint> sprints = sprintService.findAll();
+            List<Sprint> sprints = sprintService.findAllBasicos();
             // Convertir a JSON simple (solo campos relevantes)
             List<Map<String, Object>> usuariosJson = new ArrayList<>();
             for (Usuario u : usuarios) {
@@ -1389,7 +1358,7 @@ public class TaskBotController extends TelegramLongPollingBot {
                 if (sprintIdObj != null) {
                     try {
                         int sprintId = Integer.parseInt(sprintIdObj.toString());
-                        for (Sprint s : sprintService.findAll()) {
+                        for (Sprint s : sprintService.findAllBasicos()) {
                             if (s.getSprintId() == sprintId) {
                                 tarea.setSprint(s);
                                 break;
@@ -1420,8 +1389,8 @@ public class TaskBotController extends TelegramLongPollingBot {
                 if (tarea.getUsuario() == null && !usuarioService.findAll().isEmpty()) {
                     tarea.setUsuario(usuarioService.findAll().get(0));
                 }
-                if (tarea.getSprint() == null && !sprintService.findAll().isEmpty()) {
-                    tarea.setSprint(sprintService.findAll().get(0));
+                if (tarea.getSprint() == null && !sprintService.findAllBasicos().isEmpty()) {
+                    tarea.setSprint(sprintService.findAllBasicos().get(0));
                 }
                 // Asignar un ID temporal para mostrar (no se guarda en BD aquí)
                 // //tarea.setTaskId(0);
@@ -1442,12 +1411,12 @@ public class TaskBotController extends TelegramLongPollingBot {
             logger.error("Error procesando tarea por audio", ex);
             sendMessage(chatId, "❌ Error procesando el audio: " + ex.getMessage());
         } finally {
-            session.state = BotState.NONE;
+            session.setState(BotState.NONE);
             showMainMenu(chatId, session);
         }
     }
 
-    private void sendUserKpis(long chatId, Usuario user) {
+    private void sendUserKpis(long chatId, UserSession.Persona user) {
         List<Tarea> tareas = tareaService.getTareasByUsuario(user.getUserId());
         if (tareas.isEmpty()) {
             sendMessage(chatId, "No tienes tareas registradas para calcular KPIs.");
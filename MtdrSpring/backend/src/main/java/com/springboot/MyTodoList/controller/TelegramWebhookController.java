@@ -0,0 +1,49 @@
+package com.springboot.MyTodoList.controller;
+
+import com.springboot.MyTodoList.bot.TaskBotWebhook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+/**
+ * CONTROLADOR DEL WEBHOOK DE TELEGRAM
+ *
+ * Recibe los updates que Telegram envía al bot cuando está en modo webhook
+ * (telegram.bot.modo=webhook) y los entrega a TaskBotWebhook
+ */
+@RestController
+@ConditionalOnProperty(name = "telegram.bot.modo", havingValue = "webhook")
+public class TelegramWebhookController {
+
+    @Autowired
+    private TaskBotWebhook taskBotWebhook;
+
+    /**
+     * RECIBIR UPDATE DE TELEGRAM
+     *
+     * Valida el token secreto y encola el update en el trabajador de su chat; responde en cuanto
+     * lo encola, sin esperar a que se procese.
+     * Retorna estado 404 si la ruta no es la del bot, 401 (UNAUTHORIZED) si el token secreto no
+     * coincide y 503 si la cola del chat está llena, para que Telegram reintente la entrega
+     * Endpoint: POST /callback/{ruta}
+     */
+    //@CrossOrigin
+    @PostMapping(value = "/callback/{ruta}")
+    public ResponseEntity<Void> recibir(@PathVariable String ruta,
+                                        @RequestHeader(value = "X-Telegram-Bot-Api-Secret-Token", required = false) String secreto,
+                                        @RequestBody Update update) {
+        if (!taskBotWebhook.getBotPath().equals(ruta)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (!taskBotWebhook.secretoValido(secreto)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        if (!taskBotWebhook.recibir(update)) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
@@ -139,18 +139,19 @@ public class UsuarioProyectoController {
     @GetMapping(value = "/usuarios/{userId}/proyectos/simplificados")
     public ResponseEntity<?> getProyectosSimplificadosByUsuario(@PathVariable int userId) {
         try {
-            List<Proyecto> proyectos = usuarioProyectoService.findProyectosByUsuarioId(userId);
+            // La asignación ya trae el rol; no hace falta volver a buscarla por proyecto
+            List<UsuarioProyecto> asignaciones = usuarioProyectoService.findByUsuarioId(userId);
             
-            List<Map<String, Object>> proyectosSimplificados = proyectos.stream()
-                .map(proyecto -> {
+            List<Map<String, Object>> proyectosSimplificados = asignaciones.stream()
+                .map(asignacion -> {
+                    Proyecto proyecto = asignacion.getProyecto();
                     Map<String, Object> proyectoMap = new HashMap<>();
                     proyectoMap.put("projectId", proyecto.getProjectId());
                     proyectoMap.put("name", proyecto.getName());
                     proyectoMap.put("startDate", proyecto.getStartDate());
                     proyectoMap.put("endDate", proyecto.getEndDate());
                     proyectoMap.put("status", proyecto.getStatus());
-                    usuarioProyectoService.findByUsuarioIdAndProyectoId(userId, proyecto.getProjectId())
-                        .ifPresent(up -> proyectoMap.put("role", up.getRole()));
+                    proyectoMap.put("role", asignacion.getRole());
                     return proyectoMap;
                 })
                 .collect(Collectors.toList());
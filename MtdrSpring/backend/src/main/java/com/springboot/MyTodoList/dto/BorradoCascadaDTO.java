@@ -0,0 +1,42 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * RESULTADO DE UN BORRADO (O RESTAURACIÓN) EN CASCADA
+ *
+ * Cantidad de filas que cambiaron en cada tabla. Si el registro raíz no existía
+ * o ya estaba en el estado pedido, todos los contadores quedan en 0.
+ */
+public class BorradoCascadaDTO {
+
+    private final int proyectos;
+    private final int sprints;
+    private final int tareas;
+    private final int asignaciones;
+
+    public BorradoCascadaDTO(int proyectos, int sprints, int tareas, int asignaciones) {
+        this.proyectos = proyectos;
+        this.sprints = sprints;
+        this.tareas = tareas;
+        this.asignaciones = asignaciones;
+    }
+
+    public static BorradoCascadaDTO vacio() {
+        return new BorradoCascadaDTO(0, 0, 0, 0);
+    }
+
+    public int getProyectos() {
+        return proyectos;
+    }
+
+    public int getSprints() {
+        return sprints;
+    }
+
+    public int getTareas() {
+        return tareas;
+    }
+
+    public int getAsignaciones() {
+        return asignaciones;
+    }
+}
@@ -0,0 +1,119 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * MÉTRICAS DE LA CACHÉ DE SEGUNDO NIVEL
+ *
+ * Aciertos, fallos y escrituras acumulados desde el arranque, en total y por región
+ * (una por entidad cacheada y una por cada región de consultas). Si Hibernate no
+ * genera estadísticas, solo se informa disponible = false.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CacheMetricasDTO {
+
+    private final boolean disponible;
+    private Long aciertos;
+    private Long fallos;
+    private Long escrituras;
+    private Long consultasAciertos;
+    private Long consultasFallos;
+    private final List<Region> regiones = new ArrayList<>();
+
+    public CacheMetricasDTO(boolean disponible) {
+        this.disponible = disponible;
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public Long getAciertos() {
+        return aciertos;
+    }
+
+    public void setAciertos(Long aciertos) {
+        this.aciertos = aciertos;
+    }
+
+    public Long getFallos() {
+        return fallos;
+    }
+
+    public void setFallos(Long fallos) {
+        this.fallos = fallos;
+    }
+
+    public Long getEscrituras() {
+        return escrituras;
+    }
+
+    public void setEscrituras(Long escrituras) {
+        this.escrituras = escrituras;
+    }
+
+    public Long getConsultasAciertos() {
+        return consultasAciertos;
+    }
+
+    public void setConsultasAciertos(Long consultasAciertos) {
+        this.consultasAciertos = consultasAciertos;
+    }
+
+    public Long getConsultasFallos() {
+        return consultasFallos;
+    }
+
+    public void setConsultasFallos(Long consultasFallos) {
+        this.consultasFallos = consultasFallos;
+    }
+
+    public List<Region> getRegiones() {
+        return regiones;
+    }
+
+    /**
+     * Contadores de una región de la caché
+     */
+    public static class Region {
+
+        private final String nombre;
+        private final long aciertos;
+        private final long fallos;
+        private final long escrituras;
+
+        public Region(String nombre, long aciertos, long fallos, long escrituras) {
+            this.nombre = nombre;
+            this.aciertos = aciertos;
+            this.fallos = fallos;
+            this.escrituras = escrituras;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public long getAciertos() {
+            return aciertos;
+        }
+
+        public long getFallos() {
+            return fallos;
+        }
+
+        public long getEscrituras() {
+            return escrituras;
+        }
+
+        /**
+         * Fracción de lecturas resueltas por la caché, entre 0 y 1 (0 si no hubo lecturas)
+         */
+        public double getTasaAciertos() {
+            long lecturas = aciertos + fallos;
+            return lecturas == 0 ? 0 : (double) aciertos / lecturas;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.Date;
+
+/**
+ * CAMBIO DE TAREA
+ *
+ * Estado actual de una tarea que cambió, tal como lo devuelve /tareas/changes: sus datos,
+ * los IDs de su sprint y usuario, si está borrada y la versión de fila que la escribió.
+ */
+public class CambioTareaDTO extends TareaResumenDTO {
+
+    private final int sprintId;
+    private final int userId;
+    private final int deleted;
+    private final long rowVersion;
+
+    public CambioTareaDTO(int taskId, int sprintId, int userId, String title, String description, String status,
+                          String priority, String type, Date startDate, Date endDate, int storyPoints,
+                          Double estimatedHours, Double actualHours, int deleted, long rowVersion) {
+        super(taskId, title, description, status, priority, type, startDate, endDate, storyPoints,
+                estimatedHours, actualHours);
+        this.sprintId = sprintId;
+        this.userId = userId;
+        this.deleted = deleted;
+        this.rowVersion = rowVersion;
+    }
+
+    public int getSprintId() {
+        return sprintId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public long getRowVersion() {
+        return rowVersion;
+    }
+}
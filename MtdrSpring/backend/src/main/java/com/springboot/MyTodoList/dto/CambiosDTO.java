@@ -0,0 +1,67 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * PÁGINA DE CAMBIOS
+ *
+ * Una página del feed de cambios. El cursor es la versión de fila y el ID del último elemento:
+ * el cliente pide la siguiente página, o la siguiente sincronización cuando hasMore es false,
+ * enviando since y after tal como los recibió. Varias filas pueden compartir versión (las que
+ * escribió una misma transacción), por eso el ID desempata.
+ */
+public class CambiosDTO<T> {
+
+    private final List<T> items;
+    private final long since;
+    private final int after;
+    private final boolean hasMore;
+
+    public CambiosDTO(List<T> items, long since, int after, boolean hasMore) {
+        this.items = items;
+        this.since = since;
+        this.after = after;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Construye una página a partir de una consulta que pidió limit + 1 filas.
+     * Si no hay cambios, el cursor recibido se devuelve igual.
+     *
+     * @param filas Filas leídas de la base de datos (hasta limit + 1)
+     * @param limit Tamaño de página solicitado
+     * @param since Versión del cursor recibido
+     * @param after ID del cursor recibido
+     * @param version Función que obtiene la versión de fila de cada elemento
+     * @param id Función que obtiene el ID de cada elemento
+     * @return Página con a lo sumo limit elementos y el cursor para continuar
+     */
+    public static <T> CambiosDTO<T> desde(List<T> filas, int limit, long since, int after,
+                                         ToLongFunction<T> version, ToIntFunction<T> id) {
+        boolean hasMore = filas.size() > limit;
+        List<T> pagina = hasMore ? filas.subList(0, limit) : filas;
+        if (pagina.isEmpty()) {
+            return new CambiosDTO<>(pagina, since, after, false);
+        }
+        T ultimo = pagina.get(pagina.size() - 1);
+        return new CambiosDTO<>(pagina, version.applyAsLong(ultimo), id.applyAsInt(ultimo), hasMore);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public int getAfter() {
+        return after;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
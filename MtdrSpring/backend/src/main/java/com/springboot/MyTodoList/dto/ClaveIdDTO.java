@@ -0,0 +1,26 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * CLAVE → ID
+ *
+ * Par construido en una consulta JPQL para traducir una clave natural
+ * (correo de usuario, nombre de sprint) al ID de la entidad.
+ */
+public class ClaveIdDTO {
+
+    private final String clave;
+    private final int id;
+
+    public ClaveIdDTO(String clave, int id) {
+        this.clave = clave;
+        this.id = id;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,91 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MÉTRICAS DE LECTURAS COMPARTIDAS
+ *
+ * Para los métodos de lectura que comparten consultas simultáneas: cuántas llamadas hubo,
+ * cuántas consultas se ejecutaron y cuántas llamadas esperaron el resultado de otra.
+ * La tasa de coalescencia es la fracción de llamadas que no ejecutaron su propia consulta.
+ */
+public class CoalescenciaMetricasDTO {
+
+    private long llamadas;
+    private long ejecuciones;
+    private long compartidas;
+    private final List<Metodo> metodos = new ArrayList<>();
+
+    /**
+     * Añade los contadores de un método y los suma al total
+     */
+    public void agregar(String nombre, long llamadas, long ejecuciones, long compartidas) {
+        metodos.add(new Metodo(nombre, llamadas, ejecuciones, compartidas));
+        this.llamadas += llamadas;
+        this.ejecuciones += ejecuciones;
+        this.compartidas += compartidas;
+    }
+
+    public long getLlamadas() {
+        return llamadas;
+    }
+
+    public long getEjecuciones() {
+        return ejecuciones;
+    }
+
+    public long getCompartidas() {
+        return compartidas;
+    }
+
+    public double getTasaCoalescencia() {
+        return tasa(compartidas, llamadas);
+    }
+
+    public List<Metodo> getMetodos() {
+        return metodos;
+    }
+
+    private static double tasa(long compartidas, long llamadas) {
+        return llamadas == 0 ? 0 : (double) compartidas / llamadas;
+    }
+
+    /**
+     * Contadores de un método de servicio
+     */
+    public static class Metodo {
+
+        private final String nombre;
+        private final long llamadas;
+        private final long ejecuciones;
+        private final long compartidas;
+
+        public Metodo(String nombre, long llamadas, long ejecuciones, long compartidas) {
+            this.nombre = nombre;
+            this.llamadas = llamadas;
+            this.ejecuciones = ejecuciones;
+            this.compartidas = compartidas;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public long getLlamadas() {
+            return llamadas;
+        }
+
+        public long getEjecuciones() {
+            return ejecuciones;
+        }
+
+        public long getCompartidas() {
+            return compartidas;
+        }
+
+        public double getTasaCoalescencia() {
+            return tasa(compartidas, llamadas);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TAREAS COMPLETADAS DE UN USUARIO
+ *
+ * Conteos de un usuario para el tablero: completadas, total y desglose por estado.
+ */
+public class CompletadosUsuarioDTO {
+
+    private final int userId;
+    private final String firstName;
+    private final String lastName;
+    private long completadas;
+    private long total;
+    private final Map<String, Long> porEstado = new LinkedHashMap<>();
+
+    public CompletadosUsuarioDTO(int userId, String firstName, String lastName) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    /**
+     * Suma el conteo de un estado a los totales del usuario
+     *
+     * @param status Estado de la tarea
+     * @param cantidad Número de tareas en ese estado
+     * @param completado Si el estado cuenta como completado
+     */
+    public void sumar(String status, long cantidad, boolean completado) {
+        porEstado.merge(status, cantidad, Long::sum);
+        total += cantidad;
+        if (completado) {
+            completadas += cantidad;
+        }
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public long getCompletadas() {
+        return completadas;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getPorEstado() {
+        return porEstado;
+    }
+}
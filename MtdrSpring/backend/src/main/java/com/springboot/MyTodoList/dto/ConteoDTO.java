@@ -0,0 +1,25 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * CONTEO POR CLAVE
+ *
+ * Una fila de un GROUP BY sobre una sola columna (estado, prioridad, ...).
+ */
+public class ConteoDTO {
+
+    private final String clave;
+    private final long total;
+
+    public ConteoDTO(String clave, Long total) {
+        this.clave = clave;
+        this.total = total == null ? 0 : total;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,43 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * CONTEO DE TAREAS POR USUARIO Y ESTADO
+ *
+ * Una fila del GROUP BY (usuario, estado) sobre TAREA.
+ */
+public class ConteoEstadoUsuarioDTO {
+
+    private final int userId;
+    private final String firstName;
+    private final String lastName;
+    private final String status;
+    private final long total;
+
+    public ConteoEstadoUsuarioDTO(int userId, String firstName, String lastName, String status, Long total) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.status = status;
+        this.total = total == null ? 0 : total;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
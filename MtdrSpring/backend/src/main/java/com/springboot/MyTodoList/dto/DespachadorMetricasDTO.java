@@ -0,0 +1,107 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MÉTRICAS DEL DESPACHADOR DE UPDATES DEL BOT
+ *
+ * Cuántos updates de Telegram se aceptaron, cuántos se descartaron por cola llena y cuántos
+ * tuvieron que esperar lugar, más la profundidad actual y máxima de la cola de cada trabajador.
+ * Una cola que se mantiene cerca de la capacidad indica un chat (o un grupo de chats) lento.
+ */
+public class DespachadorMetricasDTO {
+
+    private final int trabajadores;
+    private final int capacidadCola;
+    private final long aceptados;
+    private final long rechazados;
+    private final long esperas;
+    private int enCola;
+    private final List<Trabajador> colas = new ArrayList<>();
+
+    public DespachadorMetricasDTO(int trabajadores, int capacidadCola, long aceptados, long rechazados,
+                                  long esperas) {
+        this.trabajadores = trabajadores;
+        this.capacidadCola = capacidadCola;
+        this.aceptados = aceptados;
+        this.rechazados = rechazados;
+        this.esperas = esperas;
+    }
+
+    /**
+     * Añade los contadores de un trabajador y suma su cola al total pendiente
+     */
+    public void agregar(int indice, int enCola, int pico, long procesados, long fallidos) {
+        colas.add(new Trabajador(indice, enCola, pico, procesados, fallidos));
+        this.enCola += enCola;
+    }
+
+    public int getTrabajadores() {
+        return trabajadores;
+    }
+
+    public int getCapacidadCola() {
+        return capacidadCola;
+    }
+
+    public long getAceptados() {
+        return aceptados;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public long getEsperas() {
+        return esperas;
+    }
+
+    public int getEnCola() {
+        return enCola;
+    }
+
+    public List<Trabajador> getColas() {
+        return colas;
+    }
+
+    /**
+     * Cola y contadores de un trabajador
+     */
+    public static class Trabajador {
+
+        private final int indice;
+        private final int enCola;
+        private final int pico;
+        private final long procesados;
+        private final long fallidos;
+
+        public Trabajador(int indice, int enCola, int pico, long procesados, long fallidos) {
+            this.indice = indice;
+            this.enCola = enCola;
+            this.pico = pico;
+            this.procesados = procesados;
+            this.fallidos = fallidos;
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public int getEnCola() {
+            return enCola;
+        }
+
+        public int getPico() {
+            return pico;
+        }
+
+        public long getProcesados() {
+            return procesados;
+        }
+
+        public long getFallidos() {
+            return fallidos;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * MÉTRICAS DE LA COLA DE ENVÍOS DEL BOT
+ *
+ * Mensajes enviados a Telegram, fallidos, rechazados por cola de chat llena, demorados por los
+ * límites de envío y reintentados tras un 429, más los chats con mensajes en curso y los pendientes.
+ * Muchos demorados o reintentos indican que el bot está cerca de los límites de Telegram.
+ */
+public class EnviosMetricasDTO {
+
+    private final int chatsActivos;
+    private final int pendientes;
+    private final long enviados;
+    private final long fallidos;
+    private final long rechazados;
+    private final long demorados;
+    private final long reintentos;
+
+    public EnviosMetricasDTO(int chatsActivos, int pendientes, long enviados, long fallidos, long rechazados,
+                             long demorados, long reintentos) {
+        this.chatsActivos = chatsActivos;
+        this.pendientes = pendientes;
+        this.enviados = enviados;
+        this.fallidos = fallidos;
+        this.rechazados = rechazados;
+        this.demorados = demorados;
+        this.reintentos = reintentos;
+    }
+
+    public int getChatsActivos() {
+        return chatsActivos;
+    }
+
+    public int getPendientes() {
+        return pendientes;
+    }
+
+    public long getEnviados() {
+        return enviados;
+    }
+
+    public long getFallidos() {
+        return fallidos;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public long getDemorados() {
+        return demorados;
+    }
+
+    public long getReintentos() {
+        return reintentos;
+    }
+}
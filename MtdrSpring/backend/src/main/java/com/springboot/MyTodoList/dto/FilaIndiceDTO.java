@@ -0,0 +1,59 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * FILA PARA EL ÍNDICE DE BÚSQUEDA
+ *
+ * Texto indexable de una entidad activa, construido en la consulta JPQL: un título (nombre de
+ * proyecto o sprint, título de tarea, nombre completo de usuario), un detalle (descripción o correo)
+ * y los IDs del proyecto y sprint a los que pertenece, cuando aplica.
+ */
+public class FilaIndiceDTO {
+
+    private final int id;
+    private final String titulo;
+    private final String detalle;
+    private final Integer proyectoId;
+    private final Integer sprintId;
+
+    /**
+     * Fila de un proyecto o usuario, que no pertenecen a otro elemento
+     */
+    public FilaIndiceDTO(int id, String titulo, String detalle) {
+        this(id, titulo, detalle, null, null);
+    }
+
+    /**
+     * Fila de un sprint: solo tiene nombre
+     */
+    public FilaIndiceDTO(int id, String titulo, Integer proyectoId) {
+        this(id, titulo, null, proyectoId, null);
+    }
+
+    public FilaIndiceDTO(int id, String titulo, String detalle, Integer proyectoId, Integer sprintId) {
+        this.id = id;
+        this.titulo = titulo;
+        this.detalle = detalle;
+        this.proyectoId = proyectoId;
+        this.sprintId = sprintId;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getDetalle() {
+        return detalle;
+    }
+
+    public Integer getProyectoId() {
+        return proyectoId;
+    }
+
+    public Integer getSprintId() {
+        return sprintId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.Date;
+
+/**
+ * FILTRO DE TAREAS
+ *
+ * Criterios opcionales para recorrer tareas activas; los que son null no filtran.
+ * Corresponden a los buscadores de TareaRepository: usuario, sprint, proyecto,
+ * estado y rango de fecha de fin (ambos extremos incluidos).
+ */
+public class FiltroTareasDTO {
+
+    private final Integer userId;
+    private final Integer sprintId;
+    private final Integer projectId;
+    private final String status;
+    private final Date endDateDesde;
+    private final Date endDateHasta;
+
+    public FiltroTareasDTO(Integer userId, Integer sprintId, Integer projectId, String status,
+                           Date endDateDesde, Date endDateHasta) {
+        this.userId = userId;
+        this.sprintId = sprintId;
+        this.projectId = projectId;
+        this.status = status;
+        this.endDateDesde = endDateDesde;
+        this.endDateHasta = endDateHasta;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Integer getSprintId() {
+        return sprintId;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Date getEndDateDesde() {
+        return endDateDesde;
+    }
+
+    public Date getEndDateHasta() {
+        return endDateHasta;
+    }
+}
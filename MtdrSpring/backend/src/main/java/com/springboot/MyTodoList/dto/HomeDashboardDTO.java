@@ -0,0 +1,90 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DATOS DEL HOME
+ *
+ * Respuesta de /dashboard/home con los datos de todos los widgets en un solo payload.
+ * tiemposMs indica cuánto tardó cada subconsulta; errores solo aparece si alguna falló.
+ */
+public class HomeDashboardDTO {
+
+    private Map<String, Long> estados;
+    private Map<String, Long> prioridadesPendientes;
+    private VencidasDTO vencidas;
+    private List<TareaEnProgresoDTO> enProgreso;
+    private List<CompletadosUsuarioDTO> completadosPorUsuario;
+    private Map<String, Long> tiemposMs;
+    private long totalMs;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> errores;
+
+    public Map<String, Long> getEstados() {
+        return estados;
+    }
+
+    public void setEstados(Map<String, Long> estados) {
+        this.estados = estados;
+    }
+
+    public Map<String, Long> getPrioridadesPendientes() {
+        return prioridadesPendientes;
+    }
+
+    public void setPrioridadesPendientes(Map<String, Long> prioridadesPendientes) {
+        this.prioridadesPendientes = prioridadesPendientes;
+    }
+
+    public VencidasDTO getVencidas() {
+        return vencidas;
+    }
+
+    public void setVencidas(VencidasDTO vencidas) {
+        this.vencidas = vencidas;
+    }
+
+    public List<TareaEnProgresoDTO> getEnProgreso() {
+        return enProgreso;
+    }
+
+    public void setEnProgreso(List<TareaEnProgresoDTO> enProgreso) {
+        this.enProgreso = enProgreso;
+    }
+
+    public List<CompletadosUsuarioDTO> getCompletadosPorUsuario() {
+        return completadosPorUsuario;
+    }
+
+    public void setCompletadosPorUsuario(List<CompletadosUsuarioDTO> completadosPorUsuario) {
+        this.completadosPorUsuario = completadosPorUsuario;
+    }
+
+    public Map<String, Long> getTiemposMs() {
+        return tiemposMs;
+    }
+
+    public void setTiemposMs(Map<String, Long> tiemposMs) {
+        this.tiemposMs = tiemposMs;
+    }
+
+    public long getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(long totalMs) {
+        this.totalMs = totalMs;
+    }
+
+    public Map<String, String> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(Map<String, String> errores) {
+        this.errores = errores;
+    }
+}
@@ -0,0 +1,57 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * PÁGINA DE RESULTADOS CON CURSOR
+ *
+ * Representa una página de un listado paginado por cursor (keyset).
+ * El cliente pide la siguiente página enviando nextCursor como parámetro "after",
+ * de modo que cada página cuesta lo mismo sin importar qué tan lejos esté del inicio.
+ */
+public class PaginaDTO<T> {
+
+    private final List<T> items;
+    private final Integer nextCursor;
+    private final int limit;
+
+    public PaginaDTO(List<T> items, Integer nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    /**
+     * Construye una página a partir de una consulta que pidió limit + 1 filas.
+     * La fila extra solo indica que existe una página siguiente y no se devuelve.
+     *
+     * @param filas Filas leídas de la base de datos (hasta limit + 1)
+     * @param limit Tamaño de página solicitado
+     * @param cursor Función que obtiene la clave de ordenamiento de cada fila
+     * @return Página con a lo sumo limit elementos y el cursor de la siguiente
+     */
+    public static <T> PaginaDTO<T> desde(List<T> filas, int limit, ToIntFunction<T> cursor) {
+        if (filas.size() > limit) {
+            List<T> pagina = filas.subList(0, limit);
+            return new PaginaDTO<>(pagina, cursor.applyAsInt(pagina.get(limit - 1)), limit);
+        }
+        return new PaginaDTO<>(filas, null, limit);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * MÉTRICAS DE LAS SESIONES DEL BOT EN LA BASE DE DATOS
+ *
+ * Sesiones pendientes de escribir, lecturas a la base, veces que el bot guardó una sesión y
+ * filas realmente escritas en lotes. La diferencia entre guardados y escrituras son las
+ * escrituras que se ahorraron al agrupar. Fallos cuenta las ventanas en las que la base rechazó
+ * la escritura; sus sesiones siguen pendientes. Conflictos son las pendientes que no se escribieron
+ * porque otra réplica guardó el chat después de que esta lo leyó (actualizaciones perdidas), y
+ * descartadas las que no cupieron en el máximo de pendientes mientras la base no respondía.
+ */
+public class PersistenciaSesionesMetricasDTO {
+
+    private final int pendientes;
+    private final long lecturas;
+    private final long guardados;
+    private final long escrituras;
+    private final long lotes;
+    private final long fallos;
+    private final long bytesEscritos;
+    private final long purgadas;
+    private final long conflictos;
+    private final long descartadas;
+
+    public PersistenciaSesionesMetricasDTO(int pendientes, long lecturas, long guardados, long escrituras,
+                                           long lotes, long fallos, long bytesEscritos, long purgadas,
+                                           long conflictos, long descartadas) {
+        this.pendientes = pendientes;
+        this.lecturas = lecturas;
+        this.guardados = guardados;
+        this.escrituras = escrituras;
+        this.lotes = lotes;
+        this.fallos = fallos;
+        this.bytesEscritos = bytesEscritos;
+        this.purgadas = purgadas;
+        this.conflictos = conflictos;
+        this.descartadas = descartadas;
+    }
+
+    public int getPendientes() {
+        return pendientes;
+    }
+
+    public long getLecturas() {
+        return lecturas;
+    }
+
+    public long getGuardados() {
+        return guardados;
+    }
+
+    public long getEscrituras() {
+        return escrituras;
+    }
+
+    public long getCoalescidos() {
+        return Math.max(0, guardados - escrituras - pendientes - conflictos - descartadas);
+    }
+
+    public long getLotes() {
+        return lotes;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    public long getBytesEscritos() {
+        return bytesEscritos;
+    }
+
+    public long getPurgadas() {
+        return purgadas;
+    }
+
+    public long getConflictos() {
+        return conflictos;
+    }
+
+    public long getDescartadas() {
+        return descartadas;
+    }
+}
@@ -0,0 +1,140 @@
+package com.springboot.MyTodoList.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * MÉTRICAS DEL POOL DE CONEXIONES
+ *
+ * Foto del estado del pool UCP. Si el DataSource activo no es un pool UCP
+ * (por ejemplo, la base embebida de las pruebas), solo se informa disponible = false.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PoolMetricasDTO {
+
+    private final boolean disponible;
+    private String nombre;
+    private Integer minimo;
+    private Integer maximo;
+    private Integer total;
+    private Integer prestadas;
+    private Integer disponibles;
+    private Integer pico;
+    private Integer solicitudesEnEspera;
+    private Long esperaPromedioMs;
+    private Long esperaPicoMs;
+    private Long esperaAcumuladaMs;
+    private Long esperasFallidas;
+    private Long prestamosAcumulados;
+
+    public PoolMetricasDTO(boolean disponible) {
+        this.disponible = disponible;
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Integer getMinimo() {
+        return minimo;
+    }
+
+    public void setMinimo(Integer minimo) {
+        this.minimo = minimo;
+    }
+
+    public Integer getMaximo() {
+        return maximo;
+    }
+
+    public void setMaximo(Integer maximo) {
+        this.maximo = maximo;
+    }
+
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+
+    public Integer getPrestadas() {
+        return prestadas;
+    }
+
+    public void setPrestadas(Integer prestadas) {
+        this.prestadas = prestadas;
+    }
+
+    public Integer getDisponibles() {
+        return disponibles;
+    }
+
+    public void setDisponibles(Integer disponibles) {
+        this.disponibles = disponibles;
+    }
+
+    public Integer getPico() {
+        return pico;
+    }
+
+    public void setPico(Integer pico) {
+        this.pico = pico;
+    }
+
+    public Integer getSolicitudesEnEspera() {
+        return solicitudesEnEspera;
+    }
+
+    public void setSolicitudesEnEspera(Integer solicitudesEnEspera) {
+        this.solicitudesEnEspera = solicitudesEnEspera;
+    }
+
+    public Long getEsperaPromedioMs() {
+        return esperaPromedioMs;
+    }
+
+    public void setEsperaPromedioMs(Long esperaPromedioMs) {
+        this.esperaPromedioMs = esperaPromedioMs;
+    }
+
+    public Long getEsperaPicoMs() {
+        return esperaPicoMs;
+    }
+
+    public void setEsperaPicoMs(Long esperaPicoMs) {
+        this.esperaPicoMs = esperaPicoMs;
+    }
+
+    public Long getEsperaAcumuladaMs() {
+        return esperaAcumuladaMs;
+    }
+
+    public void setEsperaAcumuladaMs(Long esperaAcumuladaMs) {
+        this.esperaAcumuladaMs = esperaAcumuladaMs;
+    }
+
+    public Long getEsperasFallidas() {
+        return esperasFallidas;
+    }
+
+    public void setEsperasFallidas(Long esperasFallidas) {
+        this.esperasFallidas = esperasFallidas;
+    }
+
+    public Long getPrestamosAcumulados() {
+        return prestamosAcumulados;
+    }
+
+    public void setPrestamosAcumulados(Long prestamosAcumulados) {
+        this.prestamosAcumulados = prestamosAcumulados;
+    }
+}
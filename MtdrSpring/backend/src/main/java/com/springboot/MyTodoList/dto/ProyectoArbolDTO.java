@@ -0,0 +1,111 @@
+package com.springboot.MyTodoList.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * NODO DE PROYECTO EN EL ÁRBOL
+ *
+ * Datos de un proyecto con los contadores agregados de sus sprints y tareas activos.
+ * Según la profundidad pedida incluye además sus sprints (cada uno con sus propios
+ * contadores) y las tareas de cada sprint; en profundidad 0 la lista de sprints no se envía.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProyectoArbolDTO {
+
+    private final int projectId;
+    private final String name;
+    private final String description;
+    private final Date startDate;
+    private final Date endDate;
+    private final String status;
+    private final Integer responsableId;
+    private final long totalSprints;
+    private final long totalTareas;
+    private final long tareasCompletadas;
+    private final long storyPointsCompletados;
+    private final long storyPointsTotales;
+    private List<SprintResumenDTO> sprints;
+
+    public ProyectoArbolDTO(int projectId, String name, String description, Date startDate, Date endDate,
+                            String status, Integer responsableId, Long totalSprints, Long totalTareas,
+                            Long tareasCompletadas, Long storyPointsCompletados, Long storyPointsTotales) {
+        this.projectId = projectId;
+        this.name = name;
+        this.description = description;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.responsableId = responsableId;
+        // SUM devuelve null cuando el proyecto no tiene tareas
+        this.totalSprints = totalSprints == null ? 0 : totalSprints;
+        this.totalTareas = totalTareas == null ? 0 : totalTareas;
+        this.tareasCompletadas = tareasCompletadas == null ? 0 : tareasCompletadas;
+        this.storyPointsCompletados = storyPointsCompletados == null ? 0 : storyPointsCompletados;
+        this.storyPointsTotales = storyPointsTotales == null ? 0 : storyPointsTotales;
+    }
+
+    /**
+     * Hace que el nodo envíe su lista de sprints (vacía hasta que se llene)
+     */
+    public void incluirSprints() {
+        if (sprints == null) {
+            sprints = new ArrayList<>();
+        }
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getResponsableId() {
+        return responsableId;
+    }
+
+    public long getTotalSprints() {
+        return totalSprints;
+    }
+
+    public long getTotalTareas() {
+        return totalTareas;
+    }
+
+    public long getTareasCompletadas() {
+        return tareasCompletadas;
+    }
+
+    public long getStoryPointsCompletados() {
+        return storyPointsCompletados;
+    }
+
+    public long getStoryPointsTotales() {
+        return storyPointsTotales;
+    }
+
+    public List<SprintResumenDTO> getSprints() {
+        return sprints;
+    }
+}
@@ -0,0 +1,60 @@
+package com.springboot.MyTodoList.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * RESULTADO DE BÚSQUEDA
+ *
+ * Un elemento encontrado por /buscar: su tipo (tarea, proyecto, sprint o usuario), su ID,
+ * el texto con que se muestra y el puntaje con que se ordenó.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoBusquedaDTO {
+
+    private final String tipo;
+    private final int id;
+    private final String titulo;
+    private final String detalle;
+    private final Integer proyectoId;
+    private final Integer sprintId;
+    private final int puntaje;
+
+    public ResultadoBusquedaDTO(String tipo, int id, String titulo, String detalle, Integer proyectoId,
+                                Integer sprintId, int puntaje) {
+        this.tipo = tipo;
+        this.id = id;
+        this.titulo = titulo;
+        this.detalle = detalle;
+        this.proyectoId = proyectoId;
+        this.sprintId = sprintId;
+        this.puntaje = puntaje;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getDetalle() {
+        return detalle;
+    }
+
+    public Integer getProyectoId() {
+        return proyectoId;
+    }
+
+    public Integer getSprintId() {
+        return sprintId;
+    }
+
+    public int getPuntaje() {
+        return puntaje;
+    }
+}
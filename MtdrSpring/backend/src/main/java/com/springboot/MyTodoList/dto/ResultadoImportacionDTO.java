@@ -0,0 +1,76 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.List;
+
+/**
+ * RESULTADO DE UNA IMPORTACIÓN CSV
+ *
+ * Estado del punto de control al terminar la petición (filas confirmadas y totales acumulados
+ * de la importación, incluidas ejecuciones anteriores si se reanudó) y los errores de esta
+ * ejecución, limitados a los primeros ImportacionTareasService.MAX_ERRORES.
+ */
+public class ResultadoImportacionDTO {
+
+    private final int importId;
+    private final String status;
+    private final long lineasConfirmadas;
+    private final long creadas;
+    private final long rechazadas;
+    private final List<ErrorFila> errores;
+
+    public ResultadoImportacionDTO(int importId, String status, long lineasConfirmadas, long creadas,
+                                   long rechazadas, List<ErrorFila> errores) {
+        this.importId = importId;
+        this.status = status;
+        this.lineasConfirmadas = lineasConfirmadas;
+        this.creadas = creadas;
+        this.rechazadas = rechazadas;
+        this.errores = errores;
+    }
+
+    public int getImportId() {
+        return importId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getLineasConfirmadas() {
+        return lineasConfirmadas;
+    }
+
+    public long getCreadas() {
+        return creadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public List<ErrorFila> getErrores() {
+        return errores;
+    }
+
+    /**
+     * Fila rechazada; linea es el número de fila de datos (la primera después del encabezado es 1)
+     */
+    public static class ErrorFila {
+
+        private final long linea;
+        private final String error;
+
+        public ErrorFila(long linea, String error) {
+            this.linea = linea;
+            this.error = error;
+        }
+
+        public long getLinea() {
+            return linea;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
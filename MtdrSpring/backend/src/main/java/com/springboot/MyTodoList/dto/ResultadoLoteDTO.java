@@ -0,0 +1,89 @@
+package com.springboot.MyTodoList.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * RESULTADO DE UNA CARGA MASIVA
+ *
+ * Resume cuántos elementos se recibieron y se insertaron, e indica para cada elemento
+ * (en el mismo orden de la petición) el ID con que se insertó o por qué se rechazó.
+ */
+public class ResultadoLoteDTO {
+
+    private final int recibidas;
+    private final int creadas;
+    private final long milisegundos;
+    private final List<Elemento> resultados;
+
+    public ResultadoLoteDTO(int recibidas, int creadas, long milisegundos, List<Elemento> resultados) {
+        this.recibidas = recibidas;
+        this.creadas = creadas;
+        this.milisegundos = milisegundos;
+        this.resultados = resultados;
+    }
+
+    public int getRecibidas() {
+        return recibidas;
+    }
+
+    public int getCreadas() {
+        return creadas;
+    }
+
+    public int getRechazadas() {
+        return recibidas - creadas;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public List<Elemento> getResultados() {
+        return resultados;
+    }
+
+    /**
+     * Resultado de un elemento de la petición
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Elemento {
+
+        private final int indice;
+        private final boolean ok;
+        private final Integer taskId;
+        private final String error;
+
+        private Elemento(int indice, boolean ok, Integer taskId, String error) {
+            this.indice = indice;
+            this.ok = ok;
+            this.taskId = taskId;
+            this.error = error;
+        }
+
+        public static Elemento creado(int indice, int taskId) {
+            return new Elemento(indice, true, taskId, null);
+        }
+
+        public static Elemento rechazado(int indice, String error) {
+            return new Elemento(indice, false, null, error);
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public Integer getTaskId() {
+            return taskId;
+        }
+
+        public boolean isOk() {
+            return ok;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.List;
+
+/**
+ * PÁGINA DE RESULTADOS DE BÚSQUEDA
+ *
+ * Los resultados se ordenan por relevancia, así que se paginan por posición (offset):
+ * total es el número de coincidencias y items las que caen en [offset, offset + limit).
+ */
+public class ResultadosBusquedaDTO {
+
+    private final int total;
+    private final int offset;
+    private final int limit;
+    private final List<ResultadoBusquedaDTO> items;
+
+    public ResultadosBusquedaDTO(int total, int offset, int limit, List<ResultadoBusquedaDTO> items) {
+        this.total = total;
+        this.offset = offset;
+        this.limit = limit;
+        this.items = items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public List<ResultadoBusquedaDTO> getItems() {
+        return items;
+    }
+
+    public boolean isHasMore() {
+        return offset + items.size() < total;
+    }
+}
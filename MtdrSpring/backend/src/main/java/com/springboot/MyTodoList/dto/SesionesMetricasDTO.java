@@ -0,0 +1,45 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * MÉTRICAS DE LAS SESIONES DEL BOT
+ *
+ * Sesiones vivas y su peso estimado en bytes frente al máximo configurado, más las sesiones
+ * descartadas por inactividad (expiradas) y por falta de memoria (desalojadas). Muchas
+ * desalojadas indican que el máximo es bajo para el número de chats activos.
+ */
+public class SesionesMetricasDTO {
+
+    private final long vivas;
+    private final long bytesEstimados;
+    private final long maxBytes;
+    private final long expiradas;
+    private final long desalojadas;
+
+    public SesionesMetricasDTO(long vivas, long bytesEstimados, long maxBytes, long expiradas, long desalojadas) {
+        this.vivas = vivas;
+        this.bytesEstimados = bytesEstimados;
+        this.maxBytes = maxBytes;
+        this.expiradas = expiradas;
+        this.desalojadas = desalojadas;
+    }
+
+    public long getVivas() {
+        return vivas;
+    }
+
+    public long getBytesEstimados() {
+        return bytesEstimados;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getExpiradas() {
+        return expiradas;
+    }
+
+    public long getDesalojadas() {
+        return desalojadas;
+    }
+}
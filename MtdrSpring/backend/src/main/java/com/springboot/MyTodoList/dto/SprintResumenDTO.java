@@ -0,0 +1,100 @@
+package com.springboot.MyTodoList.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.springboot.MyTodoList.util.EstadosSprint;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * RESUMEN DE SPRINT
+ *
+ * Datos de un sprint con los contadores de sus tareas activas, calculados en la misma
+ * consulta agregada. Sustituye a la entidad Sprint en los listados que no necesitan las tareas.
+ * En el árbol de proyectos puede llevar además un resumen de cada tarea; si no, tareas no se envía.
+ */
+public class SprintResumenDTO {
+
+    private final int sprintId;
+    private final String name;
+    private final Date startDate;
+    private final Date endDate;
+    private final String status;
+    private final int projectId;
+    private final long totalTareas;
+    private final long tareasCompletadas;
+    private final long storyPointsCompletados;
+    private final long storyPointsTotales;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TareaResumenDTO> tareas;
+
+    public SprintResumenDTO(int sprintId, String name, Date startDate, Date endDate, String status, int projectId,
+                            Long totalTareas, Long tareasCompletadas,
+                            Long storyPointsCompletados, Long storyPointsTotales) {
+        this.sprintId = sprintId;
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = EstadosSprint.normalizar(status);
+        this.projectId = projectId;
+        // SUM devuelve null cuando el sprint no tiene tareas
+        this.totalTareas = totalTareas == null ? 0 : totalTareas;
+        this.tareasCompletadas = tareasCompletadas == null ? 0 : tareasCompletadas;
+        this.storyPointsCompletados = storyPointsCompletados == null ? 0 : storyPointsCompletados;
+        this.storyPointsTotales = storyPointsTotales == null ? 0 : storyPointsTotales;
+    }
+
+    /**
+     * Hace que el sprint envíe su lista de tareas (vacía hasta que se llene)
+     */
+    public void incluirTareas() {
+        if (tareas == null) {
+            tareas = new ArrayList<>();
+        }
+    }
+
+    public int getSprintId() {
+        return sprintId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public long getTotalTareas() {
+        return totalTareas;
+    }
+
+    public long getTareasCompletadas() {
+        return tareasCompletadas;
+    }
+
+    public long getStoryPointsCompletados() {
+        return storyPointsCompletados;
+    }
+
+    public long getStoryPointsTotales() {
+        return storyPointsTotales;
+    }
+
+    public List<TareaResumenDTO> getTareas() {
+        return tareas;
+    }
+}
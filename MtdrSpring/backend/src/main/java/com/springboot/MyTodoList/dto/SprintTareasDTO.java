@@ -0,0 +1,33 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SPRINT CON SUS TAREAS
+ *
+ * Un sprint y la lista de tareas que le corresponden dentro de una vista agrupada.
+ */
+public class SprintTareasDTO {
+
+    private final int sprintId;
+    private final String sprintName;
+    private final List<TareaResumenDTO> tasks = new ArrayList<>();
+
+    public SprintTareasDTO(int sprintId, String sprintName) {
+        this.sprintId = sprintId;
+        this.sprintName = sprintName;
+    }
+
+    public int getSprintId() {
+        return sprintId;
+    }
+
+    public String getSprintName() {
+        return sprintName;
+    }
+
+    public List<TareaResumenDTO> getTasks() {
+        return tasks;
+    }
+}
@@ -0,0 +1,45 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.Date;
+
+/**
+ * TAREA EN PROGRESO
+ *
+ * Lo mínimo que muestra la tabla de tareas en curso del Home: título, fecha de fin y responsable.
+ */
+public class TareaEnProgresoDTO {
+
+    private final int taskId;
+    private final String title;
+    private final Date endDate;
+    private final String firstName;
+    private final String lastName;
+
+    public TareaEnProgresoDTO(int taskId, String title, Date endDate, String firstName, String lastName) {
+        this.taskId = taskId;
+        this.title = title;
+        this.endDate = endDate;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+}
@@ -0,0 +1,128 @@
+package com.springboot.MyTodoList.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Date;
+
+/**
+ * FILA DE EXPORTACIÓN DE TAREAS
+ *
+ * Una tarea con los IDs de su sprint, proyecto y usuario, construida directamente en la
+ * consulta JPQL. Al no ser una entidad, no se queda en el contexto de persistencia y la
+ * exportación usa la misma memoria sin importar cuántas filas recorra.
+ */
+@JsonPropertyOrder({"taskId", "title", "description", "status", "priority", "type", "startDate", "endDate",
+        "storyPoints", "estimatedHours", "actualHours", "sprintId", "projectId", "userId", "userEmail"})
+public class TareaExportDTO {
+
+    /**
+     * Encabezado CSV, en el mismo orden que valores()
+     */
+    public static final String[] COLUMNAS = {"taskId", "title", "description", "status", "priority", "type",
+            "startDate", "endDate", "storyPoints", "estimatedHours", "actualHours", "sprintId", "projectId",
+            "userId", "userEmail"};
+
+    private final int taskId;
+    private final String title;
+    private final String description;
+    private final String status;
+    private final String priority;
+    private final String type;
+    private final Date startDate;
+    private final Date endDate;
+    private final int storyPoints;
+    private final Double estimatedHours;
+    private final Double actualHours;
+    private final int sprintId;
+    private final int projectId;
+    private final int userId;
+    private final String userEmail;
+
+    public TareaExportDTO(int taskId, String title, String description, String status, String priority,
+                          String type, Date startDate, Date endDate, int storyPoints, Double estimatedHours,
+                          Double actualHours, int sprintId, int projectId, int userId, String userEmail) {
+        this.taskId = taskId;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.type = type;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.storyPoints = storyPoints;
+        this.estimatedHours = estimatedHours;
+        this.actualHours = actualHours;
+        this.sprintId = sprintId;
+        this.projectId = projectId;
+        this.userId = userId;
+        this.userEmail = userEmail;
+    }
+
+    /**
+     * Valores de la fila en el orden de COLUMNAS
+     */
+    public Object[] valores() {
+        return new Object[] {taskId, title, description, status, priority, type, startDate, endDate,
+                storyPoints, estimatedHours, actualHours, sprintId, projectId, userId, userEmail};
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public int getStoryPoints() {
+        return storyPoints;
+    }
+
+    public Double getEstimatedHours() {
+        return estimatedHours;
+    }
+
+    public Double getActualHours() {
+        return actualHours;
+    }
+
+    public int getSprintId() {
+        return sprintId;
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+}
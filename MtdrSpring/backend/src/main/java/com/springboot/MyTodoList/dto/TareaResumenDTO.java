@@ -0,0 +1,84 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.Date;
+
+/**
+ * RESUMEN DE TAREA
+ *
+ * Datos de una tarea sin sus relaciones (sprint, usuario), usados en vistas
+ * agrupadas donde el contexto ya lo da el contenedor.
+ */
+public class TareaResumenDTO {
+
+    private final int taskId;
+    private final String title;
+    private final String description;
+    private final String status;
+    private final String priority;
+    private final String type;
+    private final Date startDate;
+    private final Date endDate;
+    private final int storyPoints;
+    private final Double estimatedHours;
+    private final Double actualHours;
+
+    public TareaResumenDTO(int taskId, String title, String description, String status, String priority,
+                           String type, Date startDate, Date endDate, int storyPoints,
+                           Double estimatedHours, Double actualHours) {
+        this.taskId = taskId;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.type = type;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.storyPoints = storyPoints;
+        this.estimatedHours = estimatedHours;
+        this.actualHours = actualHours;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public int getStoryPoints() {
+        return storyPoints;
+    }
+
+    public Double getEstimatedHours() {
+        return estimatedHours;
+    }
+
+    public Double getActualHours() {
+        return actualHours;
+    }
+}
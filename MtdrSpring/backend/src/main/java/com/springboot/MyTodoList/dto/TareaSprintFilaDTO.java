@@ -0,0 +1,38 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.Date;
+
+/**
+ * FILA SPRINT + TAREA
+ *
+ * Una fila del LEFT JOIN entre sprints y tareas. Cuando el sprint no tiene
+ * tareas del usuario, taskId es null y solo se usan los datos del sprint.
+ */
+public class TareaSprintFilaDTO {
+
+    private final int sprintId;
+    private final String sprintName;
+    private final TareaResumenDTO tarea;
+
+    public TareaSprintFilaDTO(int sprintId, String sprintName, Integer taskId, String title, String description,
+                              String status, String priority, String type, Date startDate, Date endDate,
+                              Integer storyPoints, Double estimatedHours, Double actualHours) {
+        this.sprintId = sprintId;
+        this.sprintName = sprintName;
+        this.tarea = taskId == null ? null
+                : new TareaResumenDTO(taskId, title, description, status, priority, type, startDate, endDate,
+                        storyPoints == null ? 0 : storyPoints, estimatedHours, actualHours);
+    }
+
+    public int getSprintId() {
+        return sprintId;
+    }
+
+    public String getSprintName() {
+        return sprintName;
+    }
+
+    public TareaResumenDTO getTarea() {
+        return tarea;
+    }
+}
@@ -0,0 +1,61 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * TAREAS DE UN USUARIO ORGANIZADAS POR SPRINT
+ *
+ * Respuesta de /tareas/usuario/{userId}/proyecto/{proyectoId}/organizadas.
+ * projectId y projectName se omiten si el proyecto no existe o está eliminado.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TareasPorSprintDTO {
+
+    private final Integer projectId;
+    private final String projectName;
+    private final List<SprintTareasDTO> sprints;
+
+    public TareasPorSprintDTO(Integer projectId, String projectName, List<SprintTareasDTO> sprints) {
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.sprints = sprints;
+    }
+
+    /**
+     * Agrupa en una sola pasada filas ya ordenadas por sprint.
+     *
+     * @param projectId ID del proyecto (null si no está activo)
+     * @param projectName Nombre del proyecto (null si no está activo)
+     * @param filas Filas del LEFT JOIN sprint/tarea ordenadas por sprintId
+     * @return Estructura proyecto → sprints → tareas
+     */
+    public static TareasPorSprintDTO agrupar(Integer projectId, String projectName, List<TareaSprintFilaDTO> filas) {
+        List<SprintTareasDTO> sprints = new ArrayList<>();
+        SprintTareasDTO actual = null;
+        for (TareaSprintFilaDTO fila : filas) {
+            if (actual == null || actual.getSprintId() != fila.getSprintId()) {
+                actual = new SprintTareasDTO(fila.getSprintId(), fila.getSprintName());
+                sprints.add(actual);
+            }
+            if (fila.getTarea() != null) {
+                actual.getTasks().add(fila.getTarea());
+            }
+        }
+        return new TareasPorSprintDTO(projectId, projectName, sprints);
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public List<SprintTareasDTO> getSprints() {
+        return sprints;
+    }
+}
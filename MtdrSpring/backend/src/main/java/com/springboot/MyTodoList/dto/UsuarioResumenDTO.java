@@ -0,0 +1,57 @@
+package com.springboot.MyTodoList.dto;
+
+/**
+ * RESUMEN DE USUARIO
+ *
+ * Fila ligera con los datos públicos de un usuario. Se construye directamente
+ * en la consulta JPQL, así que no hidrata la entidad Usuario ni expone el hash de la contraseña.
+ */
+public class UsuarioResumenDTO {
+
+    private final int userId;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String phone;
+    private final String rol;
+    private final String telegramUsername;
+
+    public UsuarioResumenDTO(int userId, String firstName, String lastName, String email,
+                             String phone, String rol, String telegramUsername) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.rol = rol;
+        this.telegramUsername = telegramUsername;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getRol() {
+        return rol;
+    }
+
+    public String getTelegramUsername() {
+        return telegramUsername;
+    }
+}
@@ -0,0 +1,48 @@
+package com.springboot.MyTodoList.dto;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * RESUMEN DE TAREAS VENCIDAS
+ *
+ * Cuántas tareas abiertas ya pasaron su fecha de fin y cuántos días lleva vencida la más antigua.
+ */
+public class VencidasDTO {
+
+    private static final long MILIS_POR_DIA = 24L * 60 * 60 * 1000;
+
+    private final long total;
+    private final Date masAntigua;
+    private long diasMasAntigua;
+
+    public VencidasDTO(Long total, Date masAntigua) {
+        this.total = total == null ? 0 : total;
+        this.masAntigua = masAntigua;
+    }
+
+    /**
+     * Calcula los días de atraso de la tarea más antigua respecto a una fecha de referencia
+     *
+     * @param ahora Fecha de referencia
+     * @return Este mismo resumen
+     */
+    public VencidasDTO calcularDias(Date ahora) {
+        diasMasAntigua = masAntigua == null ? 0 : (ahora.getTime() - masAntigua.getTime()) / MILIS_POR_DIA;
+        return this;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    @JsonIgnore
+    public Date getMasAntigua() {
+        return masAntigua;
+    }
+
+    public long getDiasMasAntigua() {
+        return diasMasAntigua;
+    }
+}
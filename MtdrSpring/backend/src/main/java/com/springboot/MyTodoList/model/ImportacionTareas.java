@@ -0,0 +1,131 @@
+package com.springboot.MyTodoList.model;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * MODELO DE IMPORTACIÓN DE TAREAS
+ * 
+ * Punto de control de una importación CSV de tareas (tabla IMPORTACION_TAREAS).
+ * Se actualiza en la misma transacción que confirma cada bloque de filas, así que
+ * committedLines indica exactamente cuántas filas de datos ya quedaron procesadas:
+ * si la importación se interrumpe, puede reanudarse a partir de ahí sin duplicar tareas.
+ */
+@Entity
+@Table(name = "IMPORTACION_TAREAS")
+public class ImportacionTareas {
+
+    public static final String EN_CURSO = "In Progress";
+    public static final String COMPLETADA = "Completed";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "IMPORTACION_TAREAS_SEQ")
+    @SequenceGenerator(name = "IMPORTACION_TAREAS_SEQ", sequenceName = "IMPORTACION_TAREAS_SEQ", allocationSize = 1)
+    @Column(name = "IMPORT_ID")
+    private int importId;
+    
+    @Column(name = "PROJECT_ID", nullable = false)
+    private int projectId;
+    
+    @Column(name = "STATUS", nullable = false)
+    private String status;
+    
+    @Column(name = "COMMITTED_LINES", nullable = false)
+    private long committedLines;
+    
+    @Column(name = "CREATED_COUNT", nullable = false)
+    private long createdCount;
+    
+    @Column(name = "REJECTED_COUNT", nullable = false)
+    private long rejectedCount;
+    
+    @Column(name = "STARTED_AT", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startedAt;
+    
+    @Column(name = "UPDATED_AT", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+    
+    /**
+     * Constructor vacío requerido por JPA
+     */
+    public ImportacionTareas() {
+    }
+    
+    /**
+     * Constructor para registrar una importación nueva sobre un proyecto
+     */
+    public ImportacionTareas(int projectId) {
+        this.projectId = projectId;
+        this.status = EN_CURSO;
+        this.startedAt = new Date();
+        this.updatedAt = this.startedAt;
+    }
+    
+    // Getters y Setters
+    
+    public int getImportId() {
+        return importId;
+    }
+    
+    public void setImportId(int importId) {
+        this.importId = importId;
+    }
+    
+    public int getProjectId() {
+        return projectId;
+    }
+    
+    public void setProjectId(int projectId) {
+        this.projectId = projectId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public long getCommittedLines() {
+        return committedLines;
+    }
+    
+    public void setCommittedLines(long committedLines) {
+        this.committedLines = committedLines;
+    }
+    
+    public long getCreatedCount() {
+        return createdCount;
+    }
+    
+    public void setCreatedCount(long createdCount) {
+        this.createdCount = createdCount;
+    }
+    
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+    
+    public void setRejectedCount(long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+    
+    public Date getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -3,6 +3,10 @@ package com.springboot.MyTodoList.model;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import javax.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.Date;
 import java.util.List;
 
@@ -14,11 +18,14 @@ import java.util.List;
  * incluyendo nombre, descripción, fechas de inicio y fin, estado y el usuario responsable.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "PROYECTO")
 public class Proyecto {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PROYECTO_SEQ")
+    @SequenceGenerator(name = "PROYECTO_SEQ", sequenceName = "PROYECTO_SEQ", allocationSize = 50)
     @Column(name = "PROJECT_ID")
     private int projectId;
     
@@ -46,6 +53,10 @@ public class Proyecto {
     @Column(name = "DELETED", nullable = false)
     private int deleted;
     
+    // Versión de la transacción que escribió la fila por última vez (ver VersionesFila)
+    @Column(name = "ROW_VERSION", nullable = false)
+    private long rowVersion;
+    
     @OneToMany(mappedBy = "proyecto", cascade = CascadeType.ALL)
     @JsonManagedReference("project-sprint")  // Cambiar a @JsonManagedReference
     private List<Sprint> sprints;
@@ -137,6 +148,14 @@ public class Proyecto {
         this.deleted = deleted;
     }
     
+    public long getRowVersion() {
+        return rowVersion;
+    }
+    
+    public void setRowVersion(long rowVersion) {
+        this.rowVersion = rowVersion;
+    }
+    
     public List<Sprint> getSprints() {
         return sprints;
     }
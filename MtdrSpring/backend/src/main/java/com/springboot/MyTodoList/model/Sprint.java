@@ -2,6 +2,9 @@ package com.springboot.MyTodoList.model;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -16,11 +19,14 @@ import java.util.List;
  * incluyendo nombre, fechas de inicio y fin, estado y relación con el proyecto.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "SPRINT")
 public class Sprint {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SPRINT_SEQ")
+    @SequenceGenerator(name = "SPRINT_SEQ", sequenceName = "SPRINT_SEQ", allocationSize = 50)
     @Column(name = "SPRINT_ID")
     private int sprintId;
     
@@ -46,6 +52,10 @@ public class Sprint {
     @Column(name = "DELETED", nullable = false)
     private int deleted;
     
+    // Versión de la transacción que escribió la fila por última vez (ver VersionesFila)
+    @Column(name = "ROW_VERSION", nullable = false)
+    private long rowVersion;
+    
     @OneToMany(mappedBy = "sprint")
     @JsonManagedReference("sprint-tarea") // Cambiado a @JsonManagedReference
     private List<Tarea> tareas;
@@ -129,6 +139,14 @@ public class Sprint {
         this.deleted = deleted;
     }
     
+    public long getRowVersion() {
+        return rowVersion;
+    }
+    
+    public void setRowVersion(long rowVersion) {
+        this.rowVersion = rowVersion;
+    }
+    
     public List<Tarea> getTareas() {
         return tareas;
     }
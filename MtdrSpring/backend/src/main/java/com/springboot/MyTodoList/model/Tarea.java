@@ -19,7 +19,8 @@ import java.util.Date;
 public class Tarea {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "TAREA_SEQ")
+    @SequenceGenerator(name = "TAREA_SEQ", sequenceName = "TAREA_SEQ", allocationSize = 50)
     @Column(name = "TASK_ID")
     private int taskId;
     
@@ -61,6 +62,10 @@ public class Tarea {
     @Column(name = "DELETED", nullable = false)
     private int deleted;
     
+    // Versión de la transacción que escribió la fila por última vez (ver VersionesFila)
+    @Column(name = "ROW_VERSION", nullable = false)
+    private long rowVersion;
+    
     @Column(name = "ESTIMATED_HOURS", precision = 6, scale = 2)
     private Double estimatedHours;
     
@@ -193,6 +198,14 @@ public class Tarea {
         this.deleted = deleted;
     }
     
+    public long getRowVersion() {
+        return rowVersion;
+    }
+    
+    public void setRowVersion(long rowVersion) {
+        this.rowVersion = rowVersion;
+    }
+    
     public Double getEstimatedHours() {
         return estimatedHours;
     }
@@ -2,6 +2,9 @@ package com.springboot.MyTodoList.model;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * MODELO DE USUARIO
  * 
@@ -10,11 +13,14 @@ import javax.persistence.*;
  * de cada usuario, así como su rol y estado.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "USUARIO")
 public class Usuario {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "USUARIO_SEQ")
+    @SequenceGenerator(name = "USUARIO_SEQ", sequenceName = "USUARIO_SEQ", allocationSize = 50)
     @Column(name = "USER_ID")
     private int userId;
     
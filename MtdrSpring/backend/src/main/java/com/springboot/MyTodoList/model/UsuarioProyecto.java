@@ -16,7 +16,8 @@ import java.util.Date;
 public class UsuarioProyecto {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "USUARIO_PROYECTO_SEQ")
+    @SequenceGenerator(name = "USUARIO_PROYECTO_SEQ", sequenceName = "USUARIO_PROYECTO_SEQ", allocationSize = 50)
     @Column(name = "USER_PROJECT_ID")
     private int userProjectId;
     
@@ -0,0 +1,62 @@
+package com.springboot.MyTodoList.repository;
+
+import com.springboot.MyTodoList.model.ImportacionTareas;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * REPOSITORIO DE IMPORTACIONES DE TAREAS
+ *
+ * Acceso a los puntos de control de las importaciones CSV de tareas.
+ */
+@Repository
+public interface ImportacionTareasRepository extends JpaRepository<ImportacionTareas, Integer> {
+
+    /**
+     * Busca las importaciones de un proyecto en un estado dado, de la más reciente a la más antigua
+     *
+     * @param projectId ID del proyecto
+     * @param status Estado de la importación
+     * @return Lista de importaciones
+     */
+    List<ImportacionTareas> findByProjectIdAndStatusOrderByImportIdDesc(int projectId, String status);
+
+    /**
+     * Avanza el punto de control después de confirmar un bloque de filas
+     *
+     * Se ejecuta en la misma transacción que inserta las tareas del bloque. La condición sobre
+     * committedLines evita que dos reanudaciones simultáneas confirmen el mismo bloque dos veces.
+     *
+     * @param importId ID de la importación
+     * @param desde Filas confirmadas antes del bloque
+     * @param hasta Filas confirmadas incluyendo el bloque
+     * @param creadas Tareas creadas en el bloque
+     * @param rechazadas Filas rechazadas en el bloque
+     * @param ahora Fecha de la actualización
+     * @return 1 si se avanzó el punto de control, 0 si otro proceso ya lo había movido
+     */
+    @Modifying
+    @Query("UPDATE ImportacionTareas i SET i.committedLines = :hasta, i.createdCount = i.createdCount + :creadas, " +
+           "i.rejectedCount = i.rejectedCount + :rechazadas, i.updatedAt = :ahora " +
+           "WHERE i.importId = :importId AND i.committedLines = :desde")
+    int avanzar(@Param("importId") int importId, @Param("desde") long desde, @Param("hasta") long hasta,
+                @Param("creadas") long creadas, @Param("rechazadas") long rechazadas, @Param("ahora") Date ahora);
+
+    /**
+     * Marca la importación como completada
+     *
+     * @param importId ID de la importación
+     * @param ahora Fecha de la actualización
+     * @return Número de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE ImportacionTareas i SET i.status = '" + ImportacionTareas.COMPLETADA + "', i.updatedAt = :ahora " +
+           "WHERE i.importId = :importId")
+    int completar(@Param("importId") int importId, @Param("ahora") Date ahora);
+}
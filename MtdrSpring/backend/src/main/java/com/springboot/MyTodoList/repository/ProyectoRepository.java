@@ -1,13 +1,23 @@
 package com.springboot.MyTodoList.repository;
 
+import com.springboot.MyTodoList.config.CacheConfig;
+import com.springboot.MyTodoList.dto.FilaIndiceDTO;
+import com.springboot.MyTodoList.dto.ProyectoArbolDTO;
 import com.springboot.MyTodoList.model.Proyecto;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REPOSITORIO DE PROYECTOS
@@ -23,6 +33,9 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Integer> {
      * 
      * @return Lista de proyectos no eliminados
      */
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                 @QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.REGION_CONSULTAS)})
+    @EntityGraph(attributePaths = "usuario")
     @Query("SELECT p FROM Proyecto p WHERE p.deleted = 0")
     List<Proyecto> findActiveProyectos();
     
@@ -32,6 +45,7 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Integer> {
      * @param userId ID del usuario responsable
      * @return Lista de proyectos asignados al usuario
      */
+    @EntityGraph(attributePaths = "usuario")
     @Query("SELECT p FROM Proyecto p WHERE p.usuario.userId = :userId AND p.deleted = 0")
     List<Proyecto> findByUsuario(@Param("userId") int userId);
     
@@ -41,6 +55,7 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Integer> {
      * @param status Estado del proyecto (ej: "planificado", "en progreso", "completado")
      * @return Lista de proyectos con el estado especificado
      */
+    @EntityGraph(attributePaths = "usuario")
     List<Proyecto> findByStatusAndDeleted(String status, int deleted);
     
     /**
@@ -78,6 +93,7 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Integer> {
      * @param searchTerm Término de búsqueda
      * @return Lista de proyectos que coinciden con el término
      */
+    @EntityGraph(attributePaths = "usuario")
     @Query("SELECT p FROM Proyecto p WHERE (LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND p.deleted = 0")
     List<Proyecto> searchByNameOrDescription(@Param("searchTerm") String searchTerm);
@@ -89,4 +105,106 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Integer> {
      * @return Lista de proyectos asignados al usuario
      */
     List<Proyecto> findByUsuario_UserId(int userId);
-}
\ No newline at end of file
+
+    /**
+     * Verifica si existe un proyecto con el ID y la marca de borrado indicados
+     * 
+     * @param projectId ID del proyecto
+     * @param deleted Marca de borrado (0 = activo)
+     * @return true si existe, false en caso contrario
+     */
+    boolean existsByProjectIdAndDeleted(int projectId, int deleted);
+
+    /**
+     * Obtiene solo el nombre de un proyecto activo
+     * 
+     * @param projectId ID del proyecto
+     * @return Nombre del proyecto, o vacío si no existe o está eliminado
+     */
+    @Query("SELECT p.name FROM Proyecto p WHERE p.projectId = :projectId AND p.deleted = 0")
+    Optional<String> findActiveNameById(@Param("projectId") int projectId);
+
+    /**
+     * Inicializa la colección de sprints de los proyectos indicados con un solo JOIN FETCH
+     * 
+     * Los proyectos que ya están en el contexto de persistencia quedan con sus sprints
+     * cargados. DISTINCT se resuelve en memoria para no enviarlo a la base de datos.
+     * 
+     * @param ids IDs de los proyectos (a lo sumo 1000, límite de Oracle para IN)
+     * @return Proyectos con sus sprints inicializados
+     */
+    @Query("SELECT DISTINCT p FROM Proyecto p LEFT JOIN FETCH p.sprints WHERE p.projectId IN :ids")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Proyecto> fetchSprints(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Lista los proyectos activos con los contadores agregados de sus sprints y tareas activos
+     * 
+     * Un parámetro null no filtra. El texto se busca en nombre o descripción sin distinguir mayúsculas.
+     * 
+     * @param status Estado exacto del proyecto, o null
+     * @param term Texto a buscar, o null
+     * @param completados Estados (en minúsculas) que cuentan como tarea completada
+     * @return Un nodo por proyecto, ordenado por ID y sin sprints
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.ProyectoArbolDTO(" +
+           "p.projectId, p.name, p.description, p.startDate, p.endDate, p.status, p.usuario.userId, " +
+           "COUNT(DISTINCT s.sprintId), COUNT(t.taskId), " +
+           "SUM(CASE WHEN LOWER(TRIM(t.status)) IN :completados THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN LOWER(TRIM(t.status)) IN :completados THEN t.storyPoints ELSE 0 END), " +
+           "SUM(t.storyPoints)) " +
+           "FROM Proyecto p LEFT JOIN p.sprints s ON s.deleted = 0 LEFT JOIN s.tareas t ON t.deleted = 0 " +
+           "WHERE p.deleted = 0 AND (:status IS NULL OR p.status = :status) " +
+           "AND (:term IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :term, '%')) " +
+           "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :term, '%'))) " +
+           "GROUP BY p.projectId, p.name, p.description, p.startDate, p.endDate, p.status, p.usuario.userId " +
+           "ORDER BY p.projectId")
+    List<ProyectoArbolDTO> findArbol(@Param("status") String status,
+                                     @Param("term") String term,
+                                     @Param("completados") Collection<String> completados);
+
+    /**
+     * Marca un proyecto activo como eliminado (deleted = 1) con un UPDATE directo
+     * 
+     * @param projectId ID del proyecto
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Filas actualizadas: 1, o 0 si no existe o ya estaba eliminado
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Proyecto p SET p.deleted = 1, p.rowVersion = :version WHERE p.projectId = :projectId AND p.deleted = 0")
+    int eliminar(@Param("projectId") int projectId, @Param("version") long version);
+
+    /**
+     * Reactiva un proyecto eliminado con un UPDATE directo
+     * 
+     * @param projectId ID del proyecto
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Filas actualizadas: 1, o 0 si no existe o ya estaba activo
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Proyecto p SET p.deleted = 0, p.rowVersion = :version WHERE p.projectId = :projectId AND p.deleted <> 0")
+    int restaurar(@Param("projectId") int projectId, @Param("version") long version);
+
+    /**
+     * Parte común de las consultas que alimentan el índice de búsqueda: proyectos activos
+     */
+    String FILA_INDICE = "SELECT new com.springboot.MyTodoList.dto.FilaIndiceDTO(p.projectId, p.name, p.description) " +
+                         "FROM Proyecto p WHERE p.deleted = 0";
+
+    /**
+     * Obtiene el texto indexable de todos los proyectos activos
+     * 
+     * @return Una fila por proyecto
+     */
+    @Query(FILA_INDICE)
+    List<FilaIndiceDTO> findFilasIndice();
+
+    /**
+     * Obtiene el texto indexable de los proyectos indicados que siguen activos
+     * 
+     * @param ids IDs de los proyectos (a lo sumo 1000, límite de Oracle para IN)
+     * @return Una fila por cada proyecto activo
+     */
+    @Query(FILA_INDICE + " AND p.projectId IN :ids")
+    List<FilaIndiceDTO> findFilasIndiceByIds(@Param("ids") Collection<Integer> ids);
+}
@@ -1,11 +1,21 @@
 package com.springboot.MyTodoList.repository;
 
+import com.springboot.MyTodoList.config.CacheConfig;
+import com.springboot.MyTodoList.dto.ClaveIdDTO;
+import com.springboot.MyTodoList.dto.FilaIndiceDTO;
+import com.springboot.MyTodoList.dto.SprintResumenDTO;
 import com.springboot.MyTodoList.model.Sprint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -23,6 +33,9 @@ public interface SprintRepository extends JpaRepository<Sprint, Integer> {
      * 
      * @return Lista de sprints no eliminados
      */
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                 @QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.REGION_CONSULTAS)})
+    @EntityGraph(attributePaths = {"proyecto", "proyecto.usuario"})
     @Query("SELECT s FROM Sprint s WHERE s.deleted = 0")
     List<Sprint> findActiveSprints();
     
@@ -32,6 +45,9 @@ public interface SprintRepository extends JpaRepository<Sprint, Integer> {
      * @param projectId ID del proyecto
      * @return Lista de sprints asociados al proyecto
      */
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                 @QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.REGION_CONSULTAS)})
+    @EntityGraph(attributePaths = {"proyecto", "proyecto.usuario"})
     @Query("SELECT s FROM Sprint s WHERE s.proyecto.projectId = :projectId AND s.deleted = 0")
     List<Sprint> findByProyecto(@Param("projectId") int projectId);
     
@@ -41,6 +57,7 @@ public interface SprintRepository extends JpaRepository<Sprint, Integer> {
      * @param status Estado del sprint (ej: "planificado", "en progreso", "completado")
      * @return Lista de sprints con el estado especificado
      */
+    @EntityGraph(attributePaths = {"proyecto", "proyecto.usuario"})
     List<Sprint> findByStatusAndDeleted(String status, int deleted);
     
     /**
@@ -69,6 +86,7 @@ public interface SprintRepository extends JpaRepository<Sprint, Integer> {
      * @param currentDate Fecha actual
      * @return Lista de sprints en curso a la fecha especificada
      */
+    @EntityGraph(attributePaths = {"proyecto", "proyecto.usuario"})
     @Query("SELECT s FROM Sprint s WHERE :currentDate BETWEEN s.startDate AND s.endDate AND s.deleted = 0")
     List<Sprint> findActiveSprintsByDate(@Param("currentDate") Date currentDate);
     
@@ -78,6 +96,184 @@ public interface SprintRepository extends JpaRepository<Sprint, Integer> {
      * @param name Nombre o parte del nombre del sprint
      * @return Lista de sprints que coinciden con el nombre
      */
+    @EntityGraph(attributePaths = {"proyecto", "proyecto.usuario"})
     @Query("SELECT s FROM Sprint s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%')) AND s.deleted = 0")
     List<Sprint> findByNameContaining(@Param("name") String name);
+
+    /**
+     * Verifica si existe un sprint con el ID y la marca de borrado indicados
+     * 
+     * @param sprintId ID del sprint
+     * @param deleted Marca de borrado (0 = activo)
+     * @return true si existe, false en caso contrario
+     */
+    boolean existsBySprintIdAndDeleted(int sprintId, int deleted);
+
+    /**
+     * De los IDs indicados, devuelve los que corresponden a sprints activos
+     *
+     * @param ids IDs de sprint (a lo sumo 1000, límite de Oracle para IN)
+     * @return IDs de los sprints que existen y no están eliminados
+     */
+    @Query("SELECT s.sprintId FROM Sprint s WHERE s.sprintId IN :ids AND s.deleted = 0")
+    List<Integer> findActiveIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Traduce nombres de sprint de un proyecto a IDs de sprints activos
+     *
+     * @param projectId ID del proyecto
+     * @param names Nombres exactos (a lo sumo 1000, límite de Oracle para IN)
+     * @return Pares nombre → ID de los sprints encontrados
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.ClaveIdDTO(s.name, s.sprintId) FROM Sprint s " +
+           "WHERE s.proyecto.projectId = :projectId AND s.name IN :names AND s.deleted = 0")
+    List<ClaveIdDTO> findActiveIdsByNames(@Param("projectId") int projectId, @Param("names") Collection<String> names);
+
+    /**
+     * Inicializa las tareas (y el usuario de cada tarea) de los sprints indicados con un solo JOIN FETCH
+     * 
+     * @param ids IDs de los sprints (a lo sumo 1000, límite de Oracle para IN)
+     * @return Sprints con sus tareas inicializadas
+     */
+    @Query("SELECT DISTINCT s FROM Sprint s LEFT JOIN FETCH s.tareas t LEFT JOIN FETCH t.usuario " +
+           "WHERE s.sprintId IN :ids")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Sprint> fetchTareas(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Inicializa las tareas (y el usuario de cada tarea) de todos los sprints de los proyectos indicados
+     * 
+     * @param projectIds IDs de los proyectos (a lo sumo 1000, límite de Oracle para IN)
+     * @return Sprints de esos proyectos con sus tareas inicializadas
+     */
+    @Query("SELECT DISTINCT s FROM Sprint s LEFT JOIN FETCH s.tareas t LEFT JOIN FETCH t.usuario " +
+           "WHERE s.proyecto.projectId IN :projectIds")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Sprint> fetchTareasByProyectos(@Param("projectIds") Collection<Integer> projectIds);
+
+    /**
+     * Parte común de las consultas de resumen: datos del sprint y contadores de sus tareas activas
+     */
+    String RESUMEN = "SELECT new com.springboot.MyTodoList.dto.SprintResumenDTO(" +
+           "s.sprintId, s.name, s.startDate, s.endDate, s.status, s.proyecto.projectId, " +
+           "COUNT(t.taskId), " +
+           "SUM(CASE WHEN LOWER(TRIM(t.status)) IN :completados THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN LOWER(TRIM(t.status)) IN :completados THEN t.storyPoints ELSE 0 END), " +
+           "SUM(t.storyPoints)) " +
+           "FROM Sprint s LEFT JOIN s.tareas t ON t.deleted = 0 ";
+
+    String RESUMEN_AGRUPADO = "GROUP BY s.sprintId, s.name, s.startDate, s.endDate, s.status, s.proyecto.projectId " +
+           "ORDER BY s.sprintId";
+
+    /**
+     * Resume los sprints activos con los contadores de sus tareas activas en una sola consulta agregada
+     * 
+     * @param projectId ID del proyecto, o null para todos los proyectos
+     * @param completados Estados (en minúsculas) que cuentan como tarea completada
+     * @return Un resumen por sprint, ordenado por ID; los sprints sin tareas aparecen con contadores en 0
+     */
+    @Query(RESUMEN +
+           "WHERE s.deleted = 0 AND (:projectId IS NULL OR s.proyecto.projectId = :projectId) " +
+           RESUMEN_AGRUPADO)
+    List<SprintResumenDTO> findResumen(@Param("projectId") Integer projectId,
+                                       @Param("completados") Collection<String> completados);
+
+    /**
+     * Resume los sprints activos de varios proyectos en una sola consulta agregada
+     * 
+     * @param projectIds IDs de los proyectos (a lo sumo 1000, límite de Oracle para IN)
+     * @param completados Estados (en minúsculas) que cuentan como tarea completada
+     * @return Un resumen por sprint, ordenado por ID
+     */
+    @Query(RESUMEN +
+           "WHERE s.deleted = 0 AND s.proyecto.projectId IN :projectIds " +
+           RESUMEN_AGRUPADO)
+    List<SprintResumenDTO> findResumenByProyectos(@Param("projectIds") Collection<Integer> projectIds,
+                                                  @Param("completados") Collection<String> completados);
+
+    /**
+     * Verifica si el sprint pertenece a un proyecto cuya marca de borrado es distinta de la indicada
+     * 
+     * @param sprintId ID del sprint
+     * @param deleted Marca de borrado a excluir (0 = activo)
+     * @return true si existe, false en caso contrario
+     */
+    boolean existsBySprintIdAndProyectoDeletedNot(int sprintId, int deleted);
+
+    /**
+     * Marca un sprint activo como eliminado (deleted = 1) con un UPDATE directo
+     * 
+     * @param sprintId ID del sprint
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Filas actualizadas: 1, o 0 si no existe o ya estaba eliminado
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Sprint s SET s.deleted = 1, s.rowVersion = :version WHERE s.sprintId = :sprintId AND s.deleted = 0")
+    int eliminar(@Param("sprintId") int sprintId, @Param("version") long version);
+
+    /**
+     * Reactiva un sprint eliminado con un UPDATE directo, solo si su proyecto está activo
+     * 
+     * @param sprintId ID del sprint
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Filas actualizadas: 1, o 0 si no existe, ya estaba activo o su proyecto está eliminado
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Sprint s SET s.deleted = 0, s.rowVersion = :version WHERE s.sprintId = :sprintId AND s.deleted <> 0 " +
+           "AND s.proyecto.projectId IN (SELECT p.projectId FROM Proyecto p WHERE p.deleted = 0)")
+    int restaurar(@Param("sprintId") int sprintId, @Param("version") long version);
+
+    /**
+     * Marca como eliminados en cascada (deleted = 2) los sprints activos de un proyecto
+     * 
+     * @param projectId ID del proyecto
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Cantidad de sprints actualizados
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Sprint s SET s.deleted = 2, s.rowVersion = :version WHERE s.proyecto.projectId = :projectId AND s.deleted = 0")
+    int eliminarEnCascadaPorProyecto(@Param("projectId") int projectId, @Param("version") long version);
+
+    /**
+     * Reactiva los sprints de un proyecto que se eliminaron en cascada junto con él
+     * 
+     * @param projectId ID del proyecto
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Cantidad de sprints actualizados
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Sprint s SET s.deleted = 0, s.rowVersion = :version WHERE s.proyecto.projectId = :projectId AND s.deleted = 2")
+    int restaurarEnCascadaPorProyecto(@Param("projectId") int projectId, @Param("version") long version);
+
+    /**
+     * Parte común de las consultas que alimentan el índice de búsqueda: sprints activos con su proyecto
+     */
+    String FILA_INDICE = "SELECT new com.springboot.MyTodoList.dto.FilaIndiceDTO(s.sprintId, s.name, s.proyecto.projectId) " +
+                         "FROM Sprint s WHERE s.deleted = 0";
+
+    /**
+     * Obtiene el texto indexable de todos los sprints activos
+     * 
+     * @return Una fila por sprint
+     */
+    @Query(FILA_INDICE)
+    List<FilaIndiceDTO> findFilasIndice();
+
+    /**
+     * Obtiene el texto indexable de los sprints indicados que siguen activos
+     * 
+     * @param ids IDs de los sprints (a lo sumo 1000, límite de Oracle para IN)
+     * @return Una fila por cada sprint activo
+     */
+    @Query(FILA_INDICE + " AND s.sprintId IN :ids")
+    List<FilaIndiceDTO> findFilasIndiceByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Obtiene el texto indexable de los sprints activos de un proyecto
+     * 
+     * @param projectId ID del proyecto
+     * @return Una fila por sprint
+     */
+    @Query(FILA_INDICE + " AND s.proyecto.projectId = :projectId")
+    List<FilaIndiceDTO> findFilasIndiceByProyecto(@Param("projectId") int projectId);
 }
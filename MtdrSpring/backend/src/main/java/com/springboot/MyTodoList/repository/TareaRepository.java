@@ -1,11 +1,21 @@
 package com.springboot.MyTodoList.repository;
 
+import com.springboot.MyTodoList.dto.CambioTareaDTO;
+import com.springboot.MyTodoList.dto.ConteoDTO;
+import com.springboot.MyTodoList.dto.ConteoEstadoUsuarioDTO;
+import com.springboot.MyTodoList.dto.FilaIndiceDTO;
+import com.springboot.MyTodoList.dto.TareaEnProgresoDTO;
+import com.springboot.MyTodoList.dto.TareaSprintFilaDTO;
+import com.springboot.MyTodoList.dto.VencidasDTO;
 import com.springboot.MyTodoList.model.Tarea;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -96,4 +106,276 @@ public interface TareaRepository extends JpaRepository<Tarea, Integer> {
      */
     @Query("SELECT t FROM Tarea t WHERE t.usuario.userId = :userId AND t.sprint.sprintId = :sprintId AND t.deleted = 0")
     List<Tarea> findByUsuarioAndSprint(@Param("userId") int userId, @Param("sprintId") int sprintId);
-}
\ No newline at end of file
+
+    /**
+     * Busca tareas activas paginadas por cursor (keyset)
+     * 
+     * Ordena por ID y filtra por TASK_ID > afterId, así que cada página usa el índice
+     * de la llave primaria en lugar de saltar filas con OFFSET.
+     * 
+     * @param afterId ID de la última tarea de la página anterior (0 para la primera)
+     * @param pageable Límite de filas a devolver
+     * @return Lista de tareas ordenadas por ID a partir del cursor
+     */
+    @Query("SELECT t FROM Tarea t JOIN FETCH t.usuario JOIN FETCH t.sprint s JOIN FETCH s.proyecto p JOIN FETCH p.usuario " +
+           "WHERE t.deleted = 0 AND t.taskId > :afterId ORDER BY t.taskId")
+    List<Tarea> findActiveTareasAfter(@Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Busca tareas de un usuario paginadas por cursor (keyset)
+     * 
+     * @param userId ID del usuario
+     * @param afterId ID de la última tarea de la página anterior (0 para la primera)
+     * @param pageable Límite de filas a devolver
+     * @return Lista de tareas del usuario ordenadas por ID a partir del cursor
+     */
+    @Query("SELECT t FROM Tarea t JOIN FETCH t.usuario u JOIN FETCH t.sprint s JOIN FETCH s.proyecto p JOIN FETCH p.usuario " +
+           "WHERE u.userId = :userId AND t.deleted = 0 AND t.taskId > :afterId ORDER BY t.taskId")
+    List<Tarea> findByUsuarioAfter(@Param("userId") int userId, @Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Busca tareas de un sprint paginadas por cursor (keyset)
+     * 
+     * @param sprintId ID del sprint
+     * @param afterId ID de la última tarea de la página anterior (0 para la primera)
+     * @param pageable Límite de filas a devolver
+     * @return Lista de tareas del sprint ordenadas por ID a partir del cursor
+     */
+    @Query("SELECT t FROM Tarea t JOIN FETCH t.usuario JOIN FETCH t.sprint s JOIN FETCH s.proyecto p JOIN FETCH p.usuario " +
+           "WHERE s.sprintId = :sprintId AND t.deleted = 0 AND t.taskId > :afterId ORDER BY t.taskId")
+    List<Tarea> findBySprintAfter(@Param("sprintId") int sprintId, @Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Busca tareas por estado paginadas por cursor (keyset)
+     * 
+     * @param status Estado de la tarea
+     * @param afterId ID de la última tarea de la página anterior (0 para la primera)
+     * @param pageable Límite de filas a devolver
+     * @return Lista de tareas con el estado indicado ordenadas por ID a partir del cursor
+     */
+    @Query("SELECT t FROM Tarea t JOIN FETCH t.usuario JOIN FETCH t.sprint s JOIN FETCH s.proyecto p JOIN FETCH p.usuario " +
+           "WHERE t.status = :status AND t.deleted = 0 AND t.taskId > :afterId ORDER BY t.taskId")
+    List<Tarea> findByStatusAfter(@Param("status") String status, @Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Obtiene en una sola consulta los sprints activos de un proyecto junto con las tareas
+     * activas que el usuario tiene en cada uno
+     * 
+     * Los sprints sin tareas del usuario aparecen una vez con los campos de tarea en null.
+     * 
+     * @param userId ID del usuario
+     * @param projectId ID del proyecto
+     * @return Filas sprint/tarea ordenadas por sprint y luego por tarea
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.TareaSprintFilaDTO(s.sprintId, s.name, t.taskId, t.title, " +
+           "t.description, t.status, t.priority, t.type, t.startDate, t.endDate, t.storyPoints, " +
+           "t.estimatedHours, t.actualHours) " +
+           "FROM Sprint s LEFT JOIN s.tareas t ON t.usuario.userId = :userId AND t.deleted = 0 " +
+           "WHERE s.proyecto.projectId = :projectId AND s.deleted = 0 " +
+           "ORDER BY s.sprintId, t.taskId")
+    List<TareaSprintFilaDTO> findOrganizadasByUsuarioAndProyecto(@Param("userId") int userId,
+                                                                 @Param("projectId") int projectId);
+
+    /**
+     * Obtiene el resumen de las tareas activas de los sprints activos de varios proyectos
+     * 
+     * @param projectIds IDs de los proyectos (a lo sumo 1000, límite de Oracle para IN)
+     * @return Una fila por tarea con su sprint, ordenadas por sprint y tarea
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.TareaSprintFilaDTO(" +
+           "s.sprintId, s.name, t.taskId, t.title, t.description, t.status, t.priority, t.type, " +
+           "t.startDate, t.endDate, t.storyPoints, t.estimatedHours, t.actualHours) " +
+           "FROM Tarea t JOIN t.sprint s " +
+           "WHERE t.deleted = 0 AND s.deleted = 0 AND s.proyecto.projectId IN :projectIds " +
+           "ORDER BY s.sprintId, t.taskId")
+    List<TareaSprintFilaDTO> findFilasByProyectos(@Param("projectIds") Collection<Integer> projectIds);
+
+    /**
+     * Cuenta las tareas activas agrupadas por usuario y estado
+     * 
+     * Opcionalmente se limita a un proyecto o a un sprint; un parámetro null no filtra.
+     * 
+     * @param projectId ID del proyecto o null para todos
+     * @param sprintId ID del sprint o null para todos
+     * @return Una fila por combinación (usuario, estado) con su conteo
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.ConteoEstadoUsuarioDTO(u.userId, u.firstName, u.lastName, " +
+           "t.status, COUNT(t)) " +
+           "FROM Tarea t JOIN t.usuario u JOIN t.sprint s " +
+           "WHERE t.deleted = 0 AND u.deleted = 0 " +
+           "AND (:projectId IS NULL OR s.proyecto.projectId = :projectId) " +
+           "AND (:sprintId IS NULL OR s.sprintId = :sprintId) " +
+           "GROUP BY u.userId, u.firstName, u.lastName, t.status")
+    List<ConteoEstadoUsuarioDTO> countByUsuarioAndStatus(@Param("projectId") Integer projectId,
+                                                         @Param("sprintId") Integer sprintId);
+
+    /**
+     * Cuenta las tareas activas agrupadas por estado
+     * 
+     * @return Una fila por estado con su conteo
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.ConteoDTO(t.status, COUNT(t)) " +
+           "FROM Tarea t WHERE t.deleted = 0 GROUP BY t.status")
+    List<ConteoDTO> countByStatus();
+
+    /**
+     * Cuenta las tareas activas con un estado dado, agrupadas por prioridad
+     * 
+     * @param status Estado de las tareas a contar
+     * @return Una fila por prioridad con su conteo
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.ConteoDTO(t.priority, COUNT(t)) " +
+           "FROM Tarea t WHERE t.deleted = 0 AND t.status = :status GROUP BY t.priority")
+    List<ConteoDTO> countByPriorityForStatus(@Param("status") String status);
+
+    /**
+     * Resume las tareas abiertas cuya fecha de fin ya pasó
+     * 
+     * @param ahora Fecha de referencia
+     * @param cerrados Estados (en minúsculas) que cierran una tarea
+     * @return Total de tareas vencidas y la fecha de fin más antigua
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.VencidasDTO(COUNT(t), MIN(t.endDate)) " +
+           "FROM Tarea t WHERE t.deleted = 0 AND t.endDate < :ahora AND LOWER(t.status) NOT IN :cerrados")
+    VencidasDTO resumenVencidas(@Param("ahora") Date ahora, @Param("cerrados") List<String> cerrados);
+
+    /**
+     * Lista las tareas activas con un estado dado con solo los datos que muestra el Home
+     * 
+     * @param status Estado de las tareas
+     * @return Tareas ordenadas por fecha de fin
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.TareaEnProgresoDTO(t.taskId, t.title, t.endDate, " +
+           "u.firstName, u.lastName) " +
+           "FROM Tarea t JOIN t.usuario u WHERE t.deleted = 0 AND t.status = :status ORDER BY t.endDate, t.taskId")
+    List<TareaEnProgresoDTO> findResumenByStatus(@Param("status") String status);
+
+    /**
+     * Verifica en una sola consulta que el sprint y el usuario de una tarea existen y están activos
+     * 
+     * @param sprintId ID del sprint
+     * @param userId ID del usuario
+     * @return 1 si ambos están activos, 0 si alguno no existe o está eliminado
+     */
+    @Query("SELECT COUNT(s) FROM Sprint s, Usuario u " +
+           "WHERE s.sprintId = :sprintId AND s.deleted = 0 AND u.userId = :userId AND u.deleted = 0")
+    long countActiveSprintAndUsuario(@Param("sprintId") int sprintId, @Param("userId") int userId);
+
+    /**
+     * Marca una tarea como eliminada (deleted = 1) con un UPDATE directo, sin cargarla
+     * 
+     * @param taskId ID de la tarea
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Filas actualizadas: 1, o 0 si no existe o ya estaba eliminada
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Tarea t SET t.deleted = 1, t.rowVersion = :version WHERE t.taskId = :taskId AND t.deleted = 0")
+    int eliminar(@Param("taskId") int taskId, @Param("version") long version);
+
+    /**
+     * Marca como eliminadas en cascada (deleted = 2) las tareas activas de un sprint
+     * 
+     * @param sprintId ID del sprint
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Cantidad de tareas actualizadas
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Tarea t SET t.deleted = 2, t.rowVersion = :version WHERE t.sprint.sprintId = :sprintId AND t.deleted = 0")
+    int eliminarEnCascadaPorSprint(@Param("sprintId") int sprintId, @Param("version") long version);
+
+    /**
+     * Reactiva las tareas de un sprint que se eliminaron en cascada
+     * 
+     * @param sprintId ID del sprint
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Cantidad de tareas actualizadas
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Tarea t SET t.deleted = 0, t.rowVersion = :version WHERE t.sprint.sprintId = :sprintId AND t.deleted = 2")
+    int restaurarEnCascadaPorSprint(@Param("sprintId") int sprintId, @Param("version") long version);
+
+    /**
+     * Marca como eliminadas en cascada (deleted = 2) las tareas activas de todos los sprints de un proyecto
+     * 
+     * @param projectId ID del proyecto
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Cantidad de tareas actualizadas
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Tarea t SET t.deleted = 2, t.rowVersion = :version WHERE t.deleted = 0 AND t.sprint.sprintId IN " +
+           "(SELECT s.sprintId FROM Sprint s WHERE s.proyecto.projectId = :projectId)")
+    int eliminarEnCascadaPorProyecto(@Param("projectId") int projectId, @Param("version") long version);
+
+    /**
+     * Reactiva las tareas eliminadas en cascada de los sprints activos de un proyecto
+     * 
+     * Las tareas de un sprint que sigue eliminado se quedan así; vuelven cuando se restaure ese sprint.
+     * 
+     * @param projectId ID del proyecto
+     * @param version Versión de fila de la transacción (ver VersionesFila)
+     * @return Cantidad de tareas actualizadas
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Tarea t SET t.deleted = 0, t.rowVersion = :version WHERE t.deleted = 2 AND t.sprint.sprintId IN " +
+           "(SELECT s.sprintId FROM Sprint s WHERE s.proyecto.projectId = :projectId AND s.deleted = 0)")
+    int restaurarEnCascadaPorProyecto(@Param("projectId") int projectId, @Param("version") long version);
+
+    /**
+     * Parte común de las consultas que alimentan el índice de búsqueda: tareas activas con su sprint y proyecto
+     */
+    String FILA_INDICE = "SELECT new com.springboot.MyTodoList.dto.FilaIndiceDTO(t.taskId, t.title, t.description, " +
+                         "s.proyecto.projectId, s.sprintId) FROM Tarea t JOIN t.sprint s WHERE t.deleted = 0";
+
+    /**
+     * Obtiene el texto indexable de todas las tareas activas
+     * 
+     * @return Una fila por tarea
+     */
+    @Query(FILA_INDICE)
+    List<FilaIndiceDTO> findFilasIndice();
+
+    /**
+     * Obtiene el texto indexable de las tareas indicadas que siguen activas
+     * 
+     * @param ids IDs de las tareas (a lo sumo 1000, límite de Oracle para IN)
+     * @return Una fila por cada tarea activa
+     */
+    @Query(FILA_INDICE + " AND t.taskId IN :ids")
+    List<FilaIndiceDTO> findFilasIndiceByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Obtiene el texto indexable de las tareas activas de un proyecto
+     * 
+     * @param projectId ID del proyecto
+     * @return Una fila por tarea
+     */
+    @Query(FILA_INDICE + " AND s.proyecto.projectId = :projectId")
+    List<FilaIndiceDTO> findFilasIndiceByProyecto(@Param("projectId") int projectId);
+
+    /**
+     * Obtiene el texto indexable de las tareas activas de un sprint
+     * 
+     * @param sprintId ID del sprint
+     * @return Una fila por tarea
+     */
+    @Query(FILA_INDICE + " AND s.sprintId = :sprintId")
+    List<FilaIndiceDTO> findFilasIndiceBySprint(@Param("sprintId") int sprintId);
+
+    /**
+     * Busca las tareas creadas, modificadas o borradas lógicamente después de un cursor,
+     * ordenadas por versión de fila y ID; incluye las tareas borradas para que el cliente las quite
+     * 
+     * @param since Versión de la última tarea recibida (0 para la primera sincronización)
+     * @param afterId ID de la última tarea recibida con esa versión (0 si no hay)
+     * @param hasta Versión más alta que se puede devolver (ver VersionesFila)
+     * @param pageable Tamaño de página
+     * @return Cambios en orden de versión
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.CambioTareaDTO(t.taskId, t.sprint.sprintId, t.usuario.userId, " +
+           "t.title, t.description, t.status, t.priority, t.type, t.startDate, t.endDate, t.storyPoints, " +
+           "t.estimatedHours, t.actualHours, t.deleted, t.rowVersion) FROM Tarea t " +
+           "WHERE (t.rowVersion > :since OR (t.rowVersion = :since AND t.taskId > :afterId)) " +
+           "AND t.rowVersion <= :hasta ORDER BY t.rowVersion, t.taskId")
+    List<CambioTareaDTO> findCambios(@Param("since") long since, @Param("afterId") int afterId,
+                                     @Param("hasta") long hasta, Pageable pageable);
+}
@@ -1,7 +1,9 @@
 package com.springboot.MyTodoList.repository;
 
 import com.springboot.MyTodoList.model.UsuarioProyecto;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,10 +14,19 @@ import java.util.Optional;
 @Repository
 public interface UsuarioProyectoRepository extends JpaRepository<UsuarioProyecto, Integer> {
     
+    /**
+     * Encuentra todas las relaciones usuario-proyecto activas (deleted = 0)
+     * junto con su usuario y su proyecto en una sola consulta
+     */
+    @EntityGraph(attributePaths = {"usuario", "proyecto", "proyecto.usuario"})
+    @Query("SELECT up FROM UsuarioProyecto up WHERE up.deleted = 0")
+    List<UsuarioProyecto> findActivas();
+    
     /**
      * Encuentra todas las relaciones usuario-proyecto para un usuario específico
      * donde deleted = 0 (no eliminadas)
      */
+    @EntityGraph(attributePaths = {"usuario", "proyecto", "proyecto.usuario"})
     @Query("SELECT up FROM UsuarioProyecto up WHERE up.usuario.userId = :userId AND up.deleted = 0")
     List<UsuarioProyecto> findByUsuarioId(@Param("userId") int userId);
     
@@ -23,6 +34,7 @@ public interface UsuarioProyectoRepository extends JpaRepository<UsuarioProyecto
      * Encuentra todas las relaciones usuario-proyecto para un proyecto específico
      * donde deleted = 0 (no eliminadas)
      */
+    @EntityGraph(attributePaths = {"usuario", "proyecto", "proyecto.usuario"})
     @Query("SELECT up FROM UsuarioProyecto up WHERE up.proyecto.projectId = :projectId AND up.deleted = 0")
     List<UsuarioProyecto> findByProyectoId(@Param("projectId") int projectId);
     
@@ -30,6 +42,7 @@ public interface UsuarioProyectoRepository extends JpaRepository<UsuarioProyecto
      * Encuentra una relación usuario-proyecto específica
      * donde deleted = 0 (no eliminada)
      */
+    @EntityGraph(attributePaths = {"usuario", "proyecto", "proyecto.usuario"})
     @Query("SELECT up FROM UsuarioProyecto up WHERE up.usuario.userId = :userId AND up.proyecto.projectId = :projectId AND up.deleted = 0")
     UsuarioProyecto findByUsuarioIdAndProyectoId(@Param("userId") int userId, @Param("projectId") int projectId);
     
@@ -38,6 +51,21 @@ public interface UsuarioProyectoRepository extends JpaRepository<UsuarioProyecto
      * donde deleted = 0 (no eliminada)
      * devuelve un Optional para manejar más fácilmente los casos nulos
      */
+    @EntityGraph(attributePaths = {"usuario", "proyecto", "proyecto.usuario"})
     @Query("SELECT up FROM UsuarioProyecto up WHERE up.usuario.userId = :userId AND up.proyecto.projectId = :projectId AND up.deleted = 0")
     Optional<UsuarioProyecto> findOptionalByUsuarioIdAndProyectoId(@Param("userId") int userId, @Param("projectId") int projectId);
+
+    /**
+     * Marca como eliminadas en cascada (deleted = 2) las asignaciones activas de un proyecto
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UsuarioProyecto up SET up.deleted = 2 WHERE up.proyecto.projectId = :projectId AND up.deleted = 0")
+    int eliminarEnCascadaPorProyecto(@Param("projectId") int projectId);
+    
+    /**
+     * Reactiva las asignaciones de un proyecto que se eliminaron en cascada junto con él
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UsuarioProyecto up SET up.deleted = 0 WHERE up.proyecto.projectId = :projectId AND up.deleted = 2")
+    int restaurarEnCascadaPorProyecto(@Param("projectId") int projectId);
 }
@@ -1,11 +1,19 @@
 package com.springboot.MyTodoList.repository;
 
+import com.springboot.MyTodoList.config.CacheConfig;
+import com.springboot.MyTodoList.dto.ClaveIdDTO;
+import com.springboot.MyTodoList.dto.FilaIndiceDTO;
+import com.springboot.MyTodoList.dto.UsuarioResumenDTO;
 import com.springboot.MyTodoList.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -55,6 +63,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
      *
      * @return Lista de usuarios activos
      */
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                 @QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.REGION_CONSULTAS)})
     @Query("SELECT u FROM Usuario u WHERE u.deleted = 0")
     List<Usuario> findActiveUsers();
 
@@ -83,5 +93,74 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
      */
     long countByRol(String rol);
 
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                 @QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.REGION_CONSULTAS)})
     Optional<Usuario> findByTelegramUsername(String telegramUsername); // Added for Telegram Login
-}
\ No newline at end of file
+
+    /**
+     * Busca los usuarios que tienen tareas activas en los sprints activos de un proyecto
+     *
+     * Resuelve el recorrido proyecto → sprints → tareas → usuario con un solo JOIN/DISTINCT
+     * y devuelve filas ligeras en lugar de entidades completas.
+     *
+     * @param projectId ID del proyecto
+     * @return Lista de usuarios únicos que participan en el proyecto
+     */
+    @Query("SELECT DISTINCT new com.springboot.MyTodoList.dto.UsuarioResumenDTO(u.userId, u.firstName, u.lastName, " +
+           "u.email, u.phone, u.rol, u.telegramUsername) " +
+           "FROM Tarea t JOIN t.usuario u JOIN t.sprint s " +
+           "WHERE s.proyecto.projectId = :projectId AND s.deleted = 0 AND t.deleted = 0 " +
+           "ORDER BY u.firstName, u.lastName, u.userId")
+    List<UsuarioResumenDTO> findResumenByProyecto(@Param("projectId") int projectId);
+
+    /**
+     * Verifica si existe un usuario con el ID y la marca de borrado indicados
+     * 
+     * @param userId ID del usuario
+     * @param deleted Marca de borrado (0 = activo)
+     * @return true si existe, false en caso contrario
+     */
+    boolean existsByUserIdAndDeleted(int userId, int deleted);
+
+    /**
+     * De los IDs indicados, devuelve los que corresponden a usuarios activos
+     *
+     * @param ids IDs de usuario (a lo sumo 1000, límite de Oracle para IN)
+     * @return IDs de los usuarios que existen y no están eliminados
+     */
+    @Query("SELECT u.userId FROM Usuario u WHERE u.userId IN :ids AND u.deleted = 0")
+    List<Integer> findActiveIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Traduce correos a IDs de usuarios activos (sin distinguir mayúsculas)
+     *
+     * @param emails Correos en minúsculas (a lo sumo 1000, límite de Oracle para IN)
+     * @return Pares correo en minúsculas → ID de los usuarios encontrados
+     */
+    @Query("SELECT new com.springboot.MyTodoList.dto.ClaveIdDTO(LOWER(u.email), u.userId) FROM Usuario u " +
+           "WHERE LOWER(u.email) IN :emails AND u.deleted = 0")
+    List<ClaveIdDTO> findActiveIdsByEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Parte común de las consultas que alimentan el índice de búsqueda: nombre completo y correo de usuarios activos
+     */
+    String FILA_INDICE = "SELECT new com.springboot.MyTodoList.dto.FilaIndiceDTO(u.userId, " +
+                         "CONCAT(u.firstName, ' ', u.lastName), u.email) FROM Usuario u WHERE u.deleted = 0";
+
+    /**
+     * Obtiene el texto indexable de todos los usuarios activos
+     * 
+     * @return Una fila por usuario
+     */
+    @Query(FILA_INDICE)
+    List<FilaIndiceDTO> findFilasIndice();
+
+    /**
+     * Obtiene el texto indexable de los usuarios indicados que siguen activos
+     * 
+     * @param ids IDs de los usuarios (a lo sumo 1000, límite de Oracle para IN)
+     * @return Una fila por cada usuario activo
+     */
+    @Query(FILA_INDICE + " AND u.userId IN :ids")
+    List<FilaIndiceDTO> findFilasIndiceByIds(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,162 @@
+package com.springboot.MyTodoList.service;
+
+import com.springboot.MyTodoList.dto.CompletadosUsuarioDTO;
+import com.springboot.MyTodoList.dto.ConteoDTO;
+import com.springboot.MyTodoList.dto.ConteoEstadoUsuarioDTO;
+import com.springboot.MyTodoList.dto.HomeDashboardDTO;
+import com.springboot.MyTodoList.dto.TareaEnProgresoDTO;
+import com.springboot.MyTodoList.dto.VencidasDTO;
+import com.springboot.MyTodoList.repository.TareaRepository;
+import com.springboot.MyTodoList.util.EstadosTarea;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * SERVICIO DEL TABLERO
+ * 
+ * Esta clase calcula los datos agregados que muestran los widgets del Home.
+ * Los conteos se resuelven en la base de datos con GROUP BY para no
+ * transferir listas completas de tareas al cliente.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private Executor dashboardExecutor;
+
+    @Value("${dashboard.timeout-ms:10000}")
+    private long timeoutMs;
+
+    /**
+     * Obtiene, por usuario, cuántas tareas tiene completadas y en cada estado
+     * 
+     * @param proyectoId ID del proyecto para limitar el conteo, o null para todos
+     * @param sprintId ID del sprint para limitar el conteo, o null para todos
+     * @return Conteos por usuario ordenados de mayor a menor número de completadas
+     */
+    @Transactional(readOnly = true)
+    public List<CompletadosUsuarioDTO> getCompletadosPorUsuario(Integer proyectoId, Integer sprintId) {
+        Map<Integer, CompletadosUsuarioDTO> porUsuario = new LinkedHashMap<>();
+        for (ConteoEstadoUsuarioDTO fila : tareaRepository.countByUsuarioAndStatus(proyectoId, sprintId)) {
+            porUsuario
+                .computeIfAbsent(fila.getUserId(),
+                        id -> new CompletadosUsuarioDTO(id, fila.getFirstName(), fila.getLastName()))
+                .sumar(fila.getStatus(), fila.getTotal(), EstadosTarea.esCompletado(fila.getStatus()));
+        }
+
+        List<CompletadosUsuarioDTO> resultado = new ArrayList<>(porUsuario.values());
+        resultado.sort(Comparator.comparingLong(CompletadosUsuarioDTO::getCompletadas).reversed()
+                .thenComparingInt(CompletadosUsuarioDTO::getUserId));
+        return resultado;
+    }
+
+    /**
+     * Obtiene los datos de todos los widgets del Home en una sola llamada
+     * 
+     * Las subconsultas son independientes, así que se lanzan en paralelo sobre el
+     * ejecutor acotado del tablero. Cada una registra su duración en tiemposMs; si una
+     * falla o excede el tiempo límite, su sección queda en null y se reporta en errores.
+     * 
+     * @return Datos agregados del Home con los tiempos de cada subconsulta
+     */
+    public HomeDashboardDTO getHome() {
+        long inicio = System.nanoTime();
+        Date ahora = new Date();
+        Map<String, Long> tiempos = new ConcurrentHashMap<>();
+        Map<String, String> errores = new ConcurrentHashMap<>();
+
+        CompletableFuture<Map<String, Long>> estados = ejecutar("estados",
+                () -> aMapa(tareaRepository.countByStatus()), tiempos, errores);
+        CompletableFuture<Map<String, Long>> prioridades = ejecutar("prioridadesPendientes",
+                () -> aMapa(tareaRepository.countByPriorityForStatus(EstadosTarea.PENDIENTE)), tiempos, errores);
+        CompletableFuture<VencidasDTO> vencidas = ejecutar("vencidas",
+                () -> tareaRepository.resumenVencidas(ahora, EstadosTarea.CERRADOS).calcularDias(ahora), tiempos, errores);
+        CompletableFuture<List<TareaEnProgresoDTO>> enProgreso = ejecutar("enProgreso",
+                () -> tareaRepository.findResumenByStatus(EstadosTarea.EN_PROGRESO), tiempos, errores);
+        CompletableFuture<List<CompletadosUsuarioDTO>> completados = ejecutar("completadosPorUsuario",
+                () -> getCompletadosPorUsuario(null, null), tiempos, errores);
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        HomeDashboardDTO home = new HomeDashboardDTO();
+        home.setEstados(esperar("estados", estados, limite, errores));
+        home.setPrioridadesPendientes(esperar("prioridadesPendientes", prioridades, limite, errores));
+        home.setVencidas(esperar("vencidas", vencidas, limite, errores));
+        home.setEnProgreso(esperar("enProgreso", enProgreso, limite, errores));
+        home.setCompletadosPorUsuario(esperar("completadosPorUsuario", completados, limite, errores));
+        home.setTiemposMs(new TreeMap<>(tiempos));
+        home.setErrores(new TreeMap<>(errores));
+        home.setTotalMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        return home;
+    }
+
+    /**
+     * Lanza una subconsulta en el ejecutor del tablero midiendo cuánto tarda
+     */
+    private <T> CompletableFuture<T> ejecutar(String nombre, Supplier<T> consulta,
+                                              Map<String, Long> tiempos, Map<String, String> errores) {
+        return CompletableFuture.supplyAsync(() -> {
+            long inicio = System.nanoTime();
+            try {
+                return consulta.get();
+            } catch (RuntimeException e) {
+                logger.error("Error en la subconsulta {} del tablero", nombre, e);
+                errores.put(nombre, e.getClass().getSimpleName());
+                return null;
+            } finally {
+                tiempos.put(nombre, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            }
+        }, dashboardExecutor);
+    }
+
+    /**
+     * Espera el resultado de una subconsulta sin pasar del tiempo límite común
+     */
+    private <T> T esperar(String nombre, CompletableFuture<T> futuro, long limiteNanos, Map<String, String> errores) {
+        try {
+            return futuro.get(Math.max(0, limiteNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            errores.put(nombre, "Tiempo de espera agotado");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errores.put(nombre, "Interrumpido");
+        } catch (ExecutionException e) {
+            errores.put(nombre, e.getCause().getClass().getSimpleName());
+        }
+        return null;
+    }
+
+    private static Map<String, Long> aMapa(List<ConteoDTO> conteos) {
+        Map<String, Long> mapa = new LinkedHashMap<>();
+        for (ConteoDTO conteo : conteos) {
+            mapa.put(conteo.getClave(), conteo.getTotal());
+        }
+        return mapa;
+    }
+}
\ No newline at end of file
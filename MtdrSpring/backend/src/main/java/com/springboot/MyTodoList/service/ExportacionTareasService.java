@@ -0,0 +1,170 @@
+package com.springboot.MyTodoList.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.springboot.MyTodoList.dto.FiltroTareasDTO;
+import com.springboot.MyTodoList.dto.TareaExportDTO;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+/**
+ * SERVICIO DE EXPORTACIÓN DE TAREAS
+ *
+ * Escribe las tareas activas que cumplen un filtro en formato NDJSON (un objeto JSON por línea)
+ * o CSV. Las filas se leen con un cursor de la base de datos (tamaño de fetch configurable en
+ * tareas.export.fetch-size) y se escriben conforme llegan, así que la memoria usada no depende
+ * del número de tareas exportadas.
+ *
+ * Las fechas de ambos formatos se escriben en la zona de tareas.zona-horaria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportacionTareasService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    public static final String PATRON_FECHA = "yyyy-MM-dd";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tareas.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${tareas.zona-horaria:UTC}")
+    private TimeZone zonaHoraria;
+
+    /**
+     * Indica si el formato solicitado es uno de los soportados
+     */
+    public static boolean esFormatoValido(String formato) {
+        return NDJSON.equals(formato) || CSV.equals(formato);
+    }
+
+    /**
+     * Exporta las tareas que cumplen el filtro, ordenadas por ID
+     *
+     * @param filtro Criterios de búsqueda (los campos null no filtran)
+     * @param formato NDJSON o CSV
+     * @param salida Destino de la exportación; no se cierra al terminar
+     * @return Número de tareas escritas
+     * @throws IOException Si falla la escritura en la salida
+     */
+    public long exportarTareas(FiltroTareasDTO filtro, String formato, Writer salida) throws IOException {
+        boolean csv = CSV.equals(formato);
+        SimpleDateFormat fechas = new SimpleDateFormat(PATRON_FECHA);
+        fechas.setTimeZone(zonaHoraria);
+        // Jackson clona el formato de fecha en cada escritura, así que CSV y NDJSON pueden compartirlo
+        ObjectWriter escritorJson = objectMapper.writerFor(TareaExportDTO.class)
+                .with(fechas)
+                .with(zonaHoraria);
+        if (csv) {
+            escribirLineaCsv(salida, TareaExportDTO.COLUMNAS, fechas);
+        }
+
+        long filas = 0;
+        try (Stream<TareaExportDTO> tareas = consultaExportacion(filtro).getResultStream()) {
+            Iterator<TareaExportDTO> it = tareas.iterator();
+            while (it.hasNext()) {
+                TareaExportDTO tarea = it.next();
+                if (csv) {
+                    escribirLineaCsv(salida, tarea.valores(), fechas);
+                } else {
+                    salida.write(escritorJson.writeValueAsString(tarea));
+                    salida.write('\n');
+                }
+                filas++;
+            }
+        }
+        salida.flush();
+        return filas;
+    }
+
+    /**
+     * Construye la consulta con solo las condiciones que trae el filtro
+     */
+    private TypedQuery<TareaExportDTO> consultaExportacion(FiltroTareasDTO filtro) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.springboot.MyTodoList.dto.TareaExportDTO(t.taskId, t.title, t.description, " +
+                "t.status, t.priority, t.type, t.startDate, t.endDate, t.storyPoints, t.estimatedHours, " +
+                "t.actualHours, s.sprintId, s.proyecto.projectId, u.userId, u.email) " +
+                "FROM Tarea t JOIN t.sprint s JOIN t.usuario u WHERE t.deleted = 0");
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        if (filtro.getUserId() != null) {
+            jpql.append(" AND u.userId = :userId");
+            parametros.put("userId", filtro.getUserId());
+        }
+        if (filtro.getSprintId() != null) {
+            jpql.append(" AND s.sprintId = :sprintId");
+            parametros.put("sprintId", filtro.getSprintId());
+        }
+        if (filtro.getProjectId() != null) {
+            jpql.append(" AND s.proyecto.projectId = :projectId");
+            parametros.put("projectId", filtro.getProjectId());
+        }
+        if (filtro.getStatus() != null) {
+            jpql.append(" AND t.status = :status");
+            parametros.put("status", filtro.getStatus());
+        }
+        if (filtro.getEndDateDesde() != null) {
+            jpql.append(" AND t.endDate >= :desde");
+            parametros.put("desde", filtro.getEndDateDesde());
+        }
+        if (filtro.getEndDateHasta() != null) {
+            jpql.append(" AND t.endDate <= :hasta");
+            parametros.put("hasta", filtro.getEndDateHasta());
+        }
+        jpql.append(" ORDER BY t.taskId");
+
+        TypedQuery<TareaExportDTO> consulta = entityManager.createQuery(jpql.toString(), TareaExportDTO.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true);
+        parametros.forEach(consulta::setParameter);
+        return consulta;
+    }
+
+    /**
+     * Escribe una línea CSV (RFC 4180): los valores con comas, comillas o saltos de línea van entre comillas
+     */
+    private static void escribirLineaCsv(Writer salida, Object[] valores, SimpleDateFormat fechas) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            Object valor = valores[i];
+            if (valor == null) {
+                continue;
+            }
+            String texto = valor instanceof Date ? fechas.format((Date) valor) : valor.toString();
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                salida.write('"');
+                salida.write(texto.replace("\"", "\"\""));
+                salida.write('"');
+            } else {
+                salida.write(texto);
+            }
+        }
+        salida.write("\r\n");
+    }
+}
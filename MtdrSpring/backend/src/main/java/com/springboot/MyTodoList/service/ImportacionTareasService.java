@@ -0,0 +1,421 @@
+package com.springboot.MyTodoList.service;
+
+import com.springboot.MyTodoList.dto.ClaveIdDTO;
+import com.springboot.MyTodoList.dto.NuevaTareaDTO;
+import com.springboot.MyTodoList.dto.ResultadoImportacionDTO;
+import com.springboot.MyTodoList.dto.ResultadoLoteDTO;
+import com.springboot.MyTodoList.model.ImportacionTareas;
+import com.springboot.MyTodoList.repository.ImportacionTareasRepository;
+import com.springboot.MyTodoList.repository.ProyectoRepository;
+import com.springboot.MyTodoList.repository.SprintRepository;
+import com.springboot.MyTodoList.repository.UsuarioRepository;
+import com.springboot.MyTodoList.util.LectorCsv;
+import com.springboot.MyTodoList.util.Lotes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Reader;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.function.Function;
+
+/**
+ * SERVICIO DE IMPORTACIÓN DE TAREAS
+ *
+ * Importa tareas desde un CSV leído en streaming, sin cargar el archivo en memoria ni
+ * ejecutar toda la importación en una sola transacción:
+ *
+ * - Las filas se agrupan en bloques de tareas.import.chunk-size; cada bloque se inserta con
+ *   TareaService.addTareasLote (mismas validaciones que addTarea) y se confirma en su propia transacción.
+ * - En esa misma transacción se avanza el punto de control (ImportacionTareas), así que si la
+ *   importación se interrumpe, al reanudarla con su importId se saltan exactamente las filas ya confirmadas.
+ * - Los correos de usuario y los nombres de sprint se traducen a IDs con una consulta IN por bloque,
+ *   solo para las claves que aún no están en la caché de la importación.
+ *
+ * Por eso esta clase no es transaccional: cada bloque abre y confirma la suya.
+ */
+@Service
+public class ImportacionTareasService {
+
+    /**
+     * Máximo de errores por fila que se devuelven en la respuesta
+     */
+    public static final int MAX_ERRORES = 100;
+
+    /**
+     * Máximo de claves que guarda cada caché de búsqueda durante una importación
+     */
+    static final int MAX_CACHE = 10000;
+
+    private static final List<String> COLUMNAS_OBLIGATORIAS = Arrays.asList(
+            "title", "description", "status", "priority", "type", "startDate", "endDate", "sprintName", "userEmail");
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private ImportacionTareasRepository importacionTareasRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${tareas.import.chunk-size:500}")
+    private int tamanoBloque;
+
+    @Value("${tareas.zona-horaria:UTC}")
+    private TimeZone zonaHoraria;
+
+    /**
+     * Importa (o reanuda) la carga de tareas de un proyecto desde un CSV
+     *
+     * El CSV debe tener encabezado con al menos las columnas title, description, status, priority,
+     * type, startDate, endDate (yyyy-MM-dd), sprintName y userEmail; storyPoints, estimatedHours y
+     * actualHours son opcionales y las demás columnas se ignoran. Los sprints se buscan por nombre
+     * dentro del proyecto.
+     *
+     * @param proyectoId ID del proyecto al que pertenecen los sprints
+     * @param importId ID de una importación interrumpida que se quiere reanudar, o null para empezar una nueva
+     * @param csv Contenido del archivo; se lee una sola vez de principio a fin
+     * @return Estado del punto de control y errores de esta ejecución
+     * @throws Exception Si el proyecto o la importación no son válidos, falta una columna
+     *                   o la lectura se interrumpe (el mensaje indica cómo reanudar)
+     */
+    public ResultadoImportacionDTO importarTareas(int proyectoId, Integer importId, Reader csv) throws Exception {
+        // El encabezado se valida antes de registrar la importación
+        LectorCsv lector = new LectorCsv(csv);
+        List<String> encabezado = lector.siguiente();
+        if (encabezado == null) {
+            throw new Exception("El archivo está vacío");
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.size(); i++) {
+            columnas.put(encabezado.get(i).trim(), i);
+        }
+        for (String columna : COLUMNAS_OBLIGATORIAS) {
+            if (!columnas.containsKey(columna)) {
+                throw new Exception("Falta la columna " + columna);
+            }
+        }
+
+        ImportacionTareas importacion = importId == null ? iniciar(proyectoId) : reanudable(importId, proyectoId);
+        Progreso progreso = new Progreso(importacion);
+
+        try {
+            Claves claves = new Claves(proyectoId);
+            List<List<String>> bloque = new ArrayList<>(tamanoBloque);
+            long linea = 0;
+            List<String> registro;
+            while ((registro = lector.siguiente()) != null) {
+                if (registro.size() == 1 && registro.get(0).trim().isEmpty()) {
+                    // Las líneas en blanco no cuentan como filas de datos
+                    continue;
+                }
+                linea++;
+                if (linea <= progreso.confirmadas) {
+                    continue;
+                }
+                bloque.add(registro);
+                if (bloque.size() == tamanoBloque) {
+                    confirmarBloque(bloque, columnas, claves, progreso);
+                    bloque.clear();
+                }
+            }
+            if (!bloque.isEmpty()) {
+                confirmarBloque(bloque, columnas, claves, progreso);
+            }
+        } catch (Exception e) {
+            throw new Exception("Importación " + progreso.importId + " detenida con " + progreso.confirmadas +
+                    " filas confirmadas (reanude con importId=" + progreso.importId + "): " + e.getMessage(), e);
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado ->
+                importacionTareasRepository.completar(progreso.importId, new Date()));
+        return new ResultadoImportacionDTO(progreso.importId, ImportacionTareas.COMPLETADA, progreso.confirmadas,
+                progreso.creadas, progreso.rechazadas, progreso.errores);
+    }
+
+    /**
+     * Busca una importación por su ID
+     *
+     * @param importId ID de la importación
+     * @return Punto de control de la importación, o null si no existe
+     */
+    public ImportacionTareas getImportacion(int importId) {
+        return importacionTareasRepository.findById(importId).orElse(null);
+    }
+
+    /**
+     * Lista las importaciones de un proyecto que quedaron sin completar, de la más reciente a la más antigua
+     *
+     * @param proyectoId ID del proyecto
+     * @return Importaciones que se pueden reanudar
+     */
+    public List<ImportacionTareas> getImportacionesPendientes(int proyectoId) {
+        return importacionTareasRepository.findByProjectIdAndStatusOrderByImportIdDesc(proyectoId, ImportacionTareas.EN_CURSO);
+    }
+
+    private ImportacionTareas iniciar(int proyectoId) throws Exception {
+        if (!proyectoRepository.existsByProjectIdAndDeleted(proyectoId, 0)) {
+            throw new Exception("Proyecto no encontrado o inactivo");
+        }
+        return importacionTareasRepository.save(new ImportacionTareas(proyectoId));
+    }
+
+    private ImportacionTareas reanudable(int importId, int proyectoId) throws Exception {
+        ImportacionTareas importacion = importacionTareasRepository.findById(importId)
+                .orElseThrow(() -> new Exception("Importación no encontrada"));
+        if (importacion.getProjectId() != proyectoId) {
+            throw new Exception("La importación pertenece a otro proyecto");
+        }
+        if (ImportacionTareas.COMPLETADA.equals(importacion.getStatus())) {
+            throw new Exception("La importación ya está completada");
+        }
+        return importacion;
+    }
+
+    /**
+     * Inserta un bloque de filas y avanza el punto de control en la misma transacción
+     */
+    private void confirmarBloque(List<List<String>> bloque, Map<String, Integer> columnas, Claves claves,
+                                 Progreso progreso) {
+        claves.resolver(bloque, columnas);
+
+        SimpleDateFormat fechas = new SimpleDateFormat(ExportacionTareasService.PATRON_FECHA);
+        fechas.setLenient(false);
+        fechas.setTimeZone(zonaHoraria);
+        List<NuevaTareaDTO> tareas = new ArrayList<>(bloque.size());
+        List<Long> lineas = new ArrayList<>(bloque.size());
+        List<ResultadoImportacionDTO.ErrorFila> errores = new ArrayList<>();
+        for (int i = 0; i < bloque.size(); i++) {
+            long linea = progreso.confirmadas + i + 1;
+            try {
+                tareas.add(aTarea(bloque.get(i), columnas, claves, fechas));
+                lineas.add(linea);
+            } catch (Exception e) {
+                errores.add(new ResultadoImportacionDTO.ErrorFila(linea, e.getMessage()));
+            }
+        }
+
+        long desde = progreso.confirmadas;
+        long hasta = desde + bloque.size();
+        ResultadoLoteDTO resultado = new TransactionTemplate(transactionManager).execute(estado -> {
+            ResultadoLoteDTO lote = tareas.isEmpty() ? null : tareaService.addTareasLote(tareas);
+            long creadas = lote == null ? 0 : lote.getCreadas();
+            if (importacionTareasRepository.avanzar(progreso.importId, desde, hasta, creadas,
+                    bloque.size() - creadas, new Date()) == 0) {
+                throw new IllegalStateException("Otro proceso avanzó la importación; reanúdela de nuevo");
+            }
+            return lote;
+        });
+
+        if (resultado != null) {
+            for (ResultadoLoteDTO.Elemento elemento : resultado.getResultados()) {
+                if (!elemento.isOk()) {
+                    errores.add(new ResultadoImportacionDTO.ErrorFila(lineas.get(elemento.getIndice()), elemento.getError()));
+                }
+            }
+        }
+        errores.sort(Comparator.comparingLong(ResultadoImportacionDTO.ErrorFila::getLinea));
+        long creadas = resultado == null ? 0 : resultado.getCreadas();
+        progreso.avanzar(hasta, creadas, bloque.size() - creadas, errores);
+    }
+
+    /**
+     * Convierte una fila del CSV en la tarea a insertar
+     *
+     * @throws Exception Si un valor no tiene el formato esperado o no se encontró el usuario o el sprint
+     */
+    private static NuevaTareaDTO aTarea(List<String> fila, Map<String, Integer> columnas, Claves claves,
+                                        SimpleDateFormat fechas) throws Exception {
+        NuevaTareaDTO tarea = new NuevaTareaDTO();
+        tarea.setTitle(valor(fila, columnas, "title"));
+        tarea.setDescription(valor(fila, columnas, "description"));
+        tarea.setStatus(valor(fila, columnas, "status"));
+        tarea.setPriority(valor(fila, columnas, "priority"));
+        tarea.setType(valor(fila, columnas, "type"));
+        tarea.setStartDate(fecha(valor(fila, columnas, "startDate"), fechas));
+        tarea.setEndDate(fecha(valor(fila, columnas, "endDate"), fechas));
+        try {
+            String storyPoints = valor(fila, columnas, "storyPoints");
+            tarea.setStoryPoints(storyPoints == null ? 0 : Integer.parseInt(storyPoints));
+            String estimadas = valor(fila, columnas, "estimatedHours");
+            tarea.setEstimatedHours(estimadas == null ? null : Double.valueOf(estimadas));
+            String reales = valor(fila, columnas, "actualHours");
+            tarea.setActualHours(reales == null ? null : Double.valueOf(reales));
+        } catch (NumberFormatException e) {
+            throw new Exception("Valor numérico inválido: " + e.getMessage());
+        }
+
+        String email = valor(fila, columnas, "userEmail");
+        tarea.setUserId(email == null ? null : claves.usuario(email));
+        if (tarea.getUserId() == null) {
+            throw new Exception("Usuario no encontrado o inactivo: " + email);
+        }
+        String sprint = valor(fila, columnas, "sprintName");
+        tarea.setSprintId(sprint == null ? null : claves.sprint(sprint));
+        if (tarea.getSprintId() == null) {
+            throw new Exception("Sprint no encontrado o inactivo: " + sprint);
+        }
+        return tarea;
+    }
+
+    /**
+     * Valor de una columna en la fila, sin espacios alrededor; null si la columna no existe o está vacía
+     */
+    private static String valor(List<String> fila, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= fila.size()) {
+            return null;
+        }
+        String valor = fila.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static Date fecha(String valor, SimpleDateFormat fechas) throws Exception {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return fechas.parse(valor);
+        } catch (ParseException e) {
+            throw new Exception("Fecha inválida (se espera yyyy-MM-dd): " + valor);
+        }
+    }
+
+    /**
+     * Cachés de correo → userId y nombre de sprint → sprintId de una importación.
+     * Las claves que no existen también se guardan (con valor null) para no volver a consultarlas.
+     * Las claves del bloque en curso se copian a mapas aparte: al cargar las que faltan la caché
+     * puede descartar otras que el mismo bloque usa.
+     */
+    private class Claves {
+
+        private final int proyectoId;
+        private final Map<String, Integer> usuarios = new Cache();
+        private final Map<String, Integer> sprints = new Cache();
+        private Map<String, Integer> usuariosDelBloque = new HashMap<>();
+        private Map<String, Integer> sprintsDelBloque = new HashMap<>();
+
+        Claves(int proyectoId) {
+            this.proyectoId = proyectoId;
+        }
+
+        /**
+         * Consulta, con una sentencia IN por cada 1000 claves, las que el bloque usa y aún no están en caché
+         */
+        void resolver(List<List<String>> bloque, Map<String, Integer> columnas) {
+            usuariosDelBloque = cargar(bloque, columnas, "userEmail", String::toLowerCase, usuarios,
+                    usuarioRepository::findActiveIdsByEmails);
+            sprintsDelBloque = cargar(bloque, columnas, "sprintName", Function.identity(), sprints,
+                    nombres -> sprintRepository.findActiveIdsByNames(proyectoId, nombres));
+        }
+
+        /**
+         * @return ID del usuario activo con ese correo en el bloque resuelto, o null si no existe
+         */
+        Integer usuario(String email) {
+            return usuariosDelBloque.get(email.toLowerCase());
+        }
+
+        /**
+         * @return ID del sprint activo del proyecto con ese nombre en el bloque resuelto, o null si no existe
+         */
+        Integer sprint(String nombre) {
+            return sprintsDelBloque.get(nombre);
+        }
+
+        private Map<String, Integer> cargar(List<List<String>> bloque, Map<String, Integer> columnas, String columna,
+                                            Function<String, String> normalizar, Map<String, Integer> cache,
+                                            Function<List<String>, List<ClaveIdDTO>> consulta) {
+            Map<String, Integer> delBloque = new HashMap<>();
+            List<String> faltantes = new ArrayList<>();
+            for (List<String> fila : bloque) {
+                String texto = valor(fila, columnas, columna);
+                if (texto == null) {
+                    continue;
+                }
+                String clave = normalizar.apply(texto);
+                if (delBloque.containsKey(clave)) {
+                    continue;
+                }
+                if (cache.containsKey(clave)) {
+                    // get() también la marca como usada recientemente
+                    delBloque.put(clave, cache.get(clave));
+                } else {
+                    delBloque.put(clave, null);
+                    faltantes.add(clave);
+                }
+            }
+            Lotes.porLotes(faltantes, lote ->
+                    consulta.apply(lote).forEach(par -> delBloque.put(par.getClave(), par.getId())));
+            faltantes.forEach(clave -> cache.put(clave, delBloque.get(clave)));
+            return delBloque;
+        }
+    }
+
+    /**
+     * Caché con tamaño máximo que descarta la clave usada hace más tiempo
+     */
+    private static class Cache extends LinkedHashMap<String, Integer> {
+
+        Cache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_CACHE;
+        }
+    }
+
+    /**
+     * Avance de la importación en esta ejecución
+     */
+    private static class Progreso {
+
+        private final int importId;
+        private long confirmadas;
+        private long creadas;
+        private long rechazadas;
+        private final List<ResultadoImportacionDTO.ErrorFila> errores = new ArrayList<>();
+
+        Progreso(ImportacionTareas importacion) {
+            this.importId = importacion.getImportId();
+            this.confirmadas = importacion.getCommittedLines();
+            this.creadas = importacion.getCreatedCount();
+            this.rechazadas = importacion.getRejectedCount();
+        }
+
+        void avanzar(long hasta, long creadasBloque, long rechazadasBloque, List<ResultadoImportacionDTO.ErrorFila> erroresBloque) {
+            confirmadas = hasta;
+            creadas += creadasBloque;
+            rechazadas += rechazadasBloque;
+            for (ResultadoImportacionDTO.ErrorFila error : erroresBloque) {
+                if (errores.size() < MAX_ERRORES) {
+                    errores.add(error);
+                }
+            }
+        }
+    }
+}
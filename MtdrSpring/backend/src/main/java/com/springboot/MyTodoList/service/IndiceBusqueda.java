@@ -0,0 +1,557 @@
+package com.springboot.MyTodoList.service;
+
+import com.springboot.MyTodoList.dto.FilaIndiceDTO;
+import com.springboot.MyTodoList.dto.ResultadoBusquedaDTO;
+import com.springboot.MyTodoList.dto.ResultadosBusquedaDTO;
+import com.springboot.MyTodoList.repository.ProyectoRepository;
+import com.springboot.MyTodoList.repository.SprintRepository;
+import com.springboot.MyTodoList.repository.TareaRepository;
+import com.springboot.MyTodoList.repository.UsuarioRepository;
+import com.springboot.MyTodoList.util.Lotes;
+import com.springboot.MyTodoList.util.TextoBusqueda;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * ÍNDICE DE BÚSQUEDA DE TEXTO
+ *
+ * Índice invertido en memoria sobre tareas, proyectos, sprints y usuarios activos, para que
+ * buscar no recorra las tablas con LIKE '%texto%'. Cada documento se separa en términos
+ * normalizados (ver TextoBusqueda) y se guardan dos listas de postings:
+ *
+ * - término -> documentos, ordenado, para buscar por prefijo los términos de 1 o 2 letras
+ * - trigrama -> documentos, para buscar subcadenas de 3 o más letras: se intersectan los
+ *   postings de los trigramas del término y se confirma la subcadena en los candidatos
+ *
+ * Cada término de la consulta debe aparecer en el documento. El puntaje premia las coincidencias
+ * en el título sobre las del detalle, y las exactas sobre las de prefijo o subcadena.
+ *
+ * El índice se construye al arrancar la aplicación (o en la primera búsqueda) y los servicios
+ * lo refrescan al escribir: la recarga de las filas afectadas ocurre después del commit, en su
+ * propia transacción de solo lectura, así que una transacción revertida no deja rastro.
+ */
+@Component
+public class IndiceBusqueda {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceBusqueda.class);
+
+    /**
+     * Tipos de elemento indexados
+     */
+    public enum Tipo {
+        TAREA, PROYECTO, SPRINT, USUARIO;
+
+        /**
+         * Nombre con que el tipo aparece en la API
+         */
+        public String nombre() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Interpreta el nombre de un tipo sin distinguir mayúsculas
+         *
+         * @throws IllegalArgumentException Si el nombre no corresponde a ningún tipo
+         */
+        public static Tipo desde(String nombre) {
+            for (Tipo tipo : values()) {
+                if (tipo.name().equalsIgnoreCase(nombre.trim())) {
+                    return tipo;
+                }
+            }
+            throw new IllegalArgumentException("Tipo de búsqueda no válido: " + nombre);
+        }
+    }
+
+    /**
+     * Tamaño máximo de página de resultados
+     */
+    public static final int MAX_RESULTADOS = 100;
+
+    // Puntaje de un término de la consulta según dónde y cómo coincide
+    private static final int TITULO_EXACTO = 10;
+    private static final int TITULO_PREFIJO = 6;
+    private static final int TITULO_SUBCADENA = 3;
+    private static final int DETALLE_EXACTO = 4;
+    private static final int DETALLE_PREFIJO = 2;
+    private static final int DETALLE_SUBCADENA = 1;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Estructuras protegidas por lock
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final TreeMap<String, Set<Long>> postingsTermino = new TreeMap<>();
+    private final Map<String, Set<Long>> postingsTrigrama = new HashMap<>();
+
+    /**
+     * Serializa a quienes escriben en el índice (construcción y refrescos), de modo que un
+     * refresco no se pierda bajo una construcción que leyó la base de datos antes que él
+     */
+    private final Object escritura = new Object();
+
+    private volatile boolean construido;
+
+    /**
+     * Construye el índice al terminar de arrancar, para que la primera búsqueda no pague el costo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        try {
+            construir();
+        } catch (RuntimeException e) {
+            // Sin índice la aplicación sigue funcionando; se intentará en la primera búsqueda
+            logger.warn("No se pudo construir el índice de búsqueda al arrancar", e);
+        }
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de la base de datos
+     */
+    public void construir() {
+        synchronized (escritura) {
+            List<FilaIndiceDTO> tareas = leer(tareaRepository::findFilasIndice);
+            List<FilaIndiceDTO> sprints = leer(sprintRepository::findFilasIndice);
+            List<FilaIndiceDTO> proyectos = leer(proyectoRepository::findFilasIndice);
+            List<FilaIndiceDTO> usuarios = leer(usuarioRepository::findFilasIndice);
+
+            lock.writeLock().lock();
+            try {
+                documentos.clear();
+                postingsTermino.clear();
+                postingsTrigrama.clear();
+                tareas.forEach(fila -> agregar(Tipo.TAREA, fila));
+                sprints.forEach(fila -> agregar(Tipo.SPRINT, fila));
+                proyectos.forEach(fila -> agregar(Tipo.PROYECTO, fila));
+                usuarios.forEach(fila -> agregar(Tipo.USUARIO, fila));
+                construido = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Índice de búsqueda construido: {} documentos, {} términos, {} trigramas",
+                    documentos.size(), postingsTermino.size(), postingsTrigrama.size());
+        }
+    }
+
+    /**
+     * Busca los elementos que contienen todos los términos de la consulta
+     *
+     * @param consulta Texto a buscar; acentos y mayúsculas no importan
+     * @param tipos Tipos a incluir, o vacío para incluir todos
+     * @param offset Posición del primer resultado a devolver
+     * @param limit Máximo de resultados a devolver (entre 1 y MAX_RESULTADOS)
+     * @return Página de resultados ordenados por puntaje, tipo e ID
+     */
+    public ResultadosBusquedaDTO buscar(String consulta, Set<Tipo> tipos, int offset, int limit) {
+        offset = Math.max(0, offset);
+        limit = Math.max(1, Math.min(limit, MAX_RESULTADOS));
+        List<String> terminos = TextoBusqueda.terminos(consulta);
+        if (terminos.isEmpty()) {
+            return new ResultadosBusquedaDTO(0, offset, limit, Collections.emptyList());
+        }
+        if (!construido) {
+            synchronized (escritura) {
+                if (!construido) {
+                    construir();
+                }
+            }
+        }
+        Set<Tipo> filtro = tipos == null || tipos.isEmpty() ? EnumSet.allOf(Tipo.class) : tipos;
+
+        List<Coincidencia> coincidencias = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (long clave : candidatos(terminos)) {
+                Documento documento = documentos.get(clave);
+                if (documento == null || !filtro.contains(documento.tipo)) {
+                    continue;
+                }
+                int puntaje = puntaje(documento, terminos);
+                if (puntaje > 0) {
+                    coincidencias.add(new Coincidencia(documento, puntaje));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        coincidencias.sort(Comparator.comparingInt((Coincidencia c) -> -c.puntaje)
+                .thenComparing(c -> c.documento.tipo)
+                .thenComparingInt(c -> c.documento.id));
+        List<ResultadoBusquedaDTO> pagina = coincidencias.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Coincidencia::resultado)
+                .collect(Collectors.toList());
+        return new ResultadosBusquedaDTO(coincidencias.size(), offset, limit, pagina);
+    }
+
+    /**
+     * Vuelve a indexar los elementos indicados después del commit de la transacción actual
+     *
+     * Los que ya no existen o están eliminados salen del índice.
+     *
+     * @param tipo Tipo de los elementos
+     * @param ids IDs de los elementos
+     */
+    public void refrescar(Tipo tipo, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Integer> copia = new ArrayList<>(ids);
+        despuesDelCommit(() -> {
+            List<FilaIndiceDTO> filas = leer(() -> {
+                List<FilaIndiceDTO> leidas = new ArrayList<>();
+                Lotes.porLotes(copia, lote -> leidas.addAll(consultaPorIds(tipo).apply(lote)));
+                return leidas;
+            });
+            lock.writeLock().lock();
+            try {
+                copia.forEach(id -> quitar(clave(tipo, id)));
+                filas.forEach(fila -> agregar(tipo, fila));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Versión de refrescar para un solo elemento
+     */
+    public void refrescar(Tipo tipo, int id) {
+        refrescar(tipo, Collections.singletonList(id));
+    }
+
+    /**
+     * Vuelve a indexar un proyecto con sus sprints y tareas después del commit;
+     * se usa cuando una operación en cascada cambió todo el proyecto
+     *
+     * @param projectId ID del proyecto
+     */
+    public void refrescarProyecto(int projectId) {
+        despuesDelCommit(() -> {
+            List<FilaIndiceDTO> proyectos = leer(() -> proyectoRepository.findFilasIndiceByIds(
+                    Collections.singletonList(projectId)));
+            List<FilaIndiceDTO> sprints = leer(() -> sprintRepository.findFilasIndiceByProyecto(projectId));
+            List<FilaIndiceDTO> tareas = leer(() -> tareaRepository.findFilasIndiceByProyecto(projectId));
+            lock.writeLock().lock();
+            try {
+                quitar(clave(Tipo.PROYECTO, projectId));
+                quitarSi(documento -> documento.proyectoId != null && documento.proyectoId == projectId);
+                proyectos.forEach(fila -> agregar(Tipo.PROYECTO, fila));
+                sprints.forEach(fila -> agregar(Tipo.SPRINT, fila));
+                tareas.forEach(fila -> agregar(Tipo.TAREA, fila));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Vuelve a indexar un sprint con sus tareas después del commit;
+     * se usa cuando una operación en cascada cambió todo el sprint
+     *
+     * @param sprintId ID del sprint
+     */
+    public void refrescarSprint(int sprintId) {
+        despuesDelCommit(() -> {
+            List<FilaIndiceDTO> sprints = leer(() -> sprintRepository.findFilasIndiceByIds(
+                    Collections.singletonList(sprintId)));
+            List<FilaIndiceDTO> tareas = leer(() -> tareaRepository.findFilasIndiceBySprint(sprintId));
+            lock.writeLock().lock();
+            try {
+                quitar(clave(Tipo.SPRINT, sprintId));
+                quitarSi(documento -> documento.tipo == Tipo.TAREA
+                        && documento.sprintId != null && documento.sprintId == sprintId);
+                sprints.forEach(fila -> agregar(Tipo.SPRINT, fila));
+                tareas.forEach(fila -> agregar(Tipo.TAREA, fila));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Número de documentos indexados
+     */
+    public int getDocumentos() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ejecuta un refresco cuando la transacción actual confirma, o de inmediato si no hay transacción
+     *
+     * Si el índice aún no se construye no hay nada que refrescar: la construcción leerá el estado nuevo.
+     * Si el refresco falla, el índice se marca para reconstruirse en la siguiente búsqueda.
+     */
+    private void despuesDelCommit(Runnable refresco) {
+        Runnable seguro = () -> {
+            synchronized (escritura) {
+                if (!construido) {
+                    return;
+                }
+                try {
+                    refresco.run();
+                } catch (RuntimeException e) {
+                    construido = false;
+                    logger.warn("No se pudo refrescar el índice de búsqueda; se reconstruirá", e);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    seguro.run();
+                }
+            });
+        } else {
+            seguro.run();
+        }
+    }
+
+    /**
+     * Lee filas en una transacción nueva de solo lectura (también desde afterCommit,
+     * cuando la transacción del servicio ya no puede ejecutar consultas)
+     */
+    private List<FilaIndiceDTO> leer(Supplier<List<FilaIndiceDTO>> consulta) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        tx.setReadOnly(true);
+        return tx.execute(estado -> consulta.get());
+    }
+
+    private Function<List<Integer>, List<FilaIndiceDTO>> consultaPorIds(Tipo tipo) {
+        switch (tipo) {
+            case TAREA:
+                return tareaRepository::findFilasIndiceByIds;
+            case SPRINT:
+                return sprintRepository::findFilasIndiceByIds;
+            case PROYECTO:
+                return proyectoRepository::findFilasIndiceByIds;
+            default:
+                return usuarioRepository::findFilasIndiceByIds;
+        }
+    }
+
+    /**
+     * Documentos que pueden contener todos los términos: para cada término se obtienen sus
+     * candidatos y se intersectan, empezando por el conjunto más pequeño
+     */
+    private Set<Long> candidatos(List<String> terminos) {
+        List<Set<Long>> conjuntos = new ArrayList<>();
+        for (String termino : terminos) {
+            Set<Long> candidatos = candidatosTermino(termino);
+            if (candidatos.isEmpty()) {
+                return Collections.emptySet();
+            }
+            conjuntos.add(candidatos);
+        }
+        return interseccion(conjuntos);
+    }
+
+    private Set<Long> candidatosTermino(String termino) {
+        if (termino.length() < 3) {
+            // Sin trigramas: se buscan los términos del índice que empiezan así
+            Set<Long> candidatos = new HashSet<>();
+            postingsTermino.subMap(termino, termino + Character.MAX_VALUE).values().forEach(candidatos::addAll);
+            return candidatos;
+        }
+        List<Set<Long>> conjuntos = new ArrayList<>();
+        for (String trigrama : TextoBusqueda.trigramas(termino)) {
+            Set<Long> postings = postingsTrigrama.get(trigrama);
+            if (postings == null) {
+                return Collections.emptySet();
+            }
+            conjuntos.add(postings);
+        }
+        return interseccion(conjuntos);
+    }
+
+    private static Set<Long> interseccion(List<Set<Long>> conjuntos) {
+        conjuntos.sort(Comparator.comparingInt(Set::size));
+        Set<Long> resultado = new HashSet<>(conjuntos.get(0));
+        for (int i = 1; i < conjuntos.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(conjuntos.get(i));
+        }
+        return resultado;
+    }
+
+    /**
+     * Suma el puntaje de cada término de la consulta; 0 si alguno no aparece
+     * (los trigramas solo garantizan que el documento es candidato)
+     */
+    private static int puntaje(Documento documento, List<String> terminos) {
+        int total = 0;
+        for (String termino : terminos) {
+            int puntaje = coincidencia(documento.terminosTitulo, termino,
+                    TITULO_EXACTO, TITULO_PREFIJO, TITULO_SUBCADENA)
+                    + coincidencia(documento.terminosDetalle, termino,
+                    DETALLE_EXACTO, DETALLE_PREFIJO, DETALLE_SUBCADENA);
+            if (puntaje == 0) {
+                return 0;
+            }
+            total += puntaje;
+        }
+        return total;
+    }
+
+    private static int coincidencia(List<String> terminosDocumento, String termino,
+                                    int exacto, int prefijo, int subcadena) {
+        int mejor = 0;
+        for (String terminoDocumento : terminosDocumento) {
+            if (terminoDocumento.equals(termino)) {
+                return exacto;
+            } else if (terminoDocumento.startsWith(termino)) {
+                mejor = Math.max(mejor, prefijo);
+            } else if (terminoDocumento.contains(termino)) {
+                mejor = Math.max(mejor, subcadena);
+            }
+        }
+        return mejor;
+    }
+
+    private void agregar(Tipo tipo, FilaIndiceDTO fila) {
+        long clave = clave(tipo, fila.getId());
+        quitar(clave);
+        Documento documento = new Documento(tipo, fila);
+        documentos.put(clave, documento);
+        for (String termino : documento.terminos()) {
+            postingsTermino.computeIfAbsent(termino, t -> new HashSet<>()).add(clave);
+            if (termino.length() >= 3) {
+                for (String trigrama : TextoBusqueda.trigramas(termino)) {
+                    postingsTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(clave);
+                }
+            }
+        }
+    }
+
+    private void quitar(long clave) {
+        Documento documento = documentos.remove(clave);
+        if (documento == null) {
+            return;
+        }
+        for (String termino : documento.terminos()) {
+            quitarPosting(postingsTermino, termino, clave);
+            if (termino.length() >= 3) {
+                for (String trigrama : TextoBusqueda.trigramas(termino)) {
+                    quitarPosting(postingsTrigrama, trigrama, clave);
+                }
+            }
+        }
+    }
+
+    private void quitarSi(Predicate<Documento> condicion) {
+        List<Long> claves = documentos.entrySet().stream()
+                .filter(entrada -> condicion.test(entrada.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        claves.forEach(this::quitar);
+    }
+
+    private static void quitarPosting(Map<String, Set<Long>> postings, String llave, long clave) {
+        Set<Long> documentos = postings.get(llave);
+        if (documentos != null) {
+            documentos.remove(clave);
+            if (documentos.isEmpty()) {
+                postings.remove(llave);
+            }
+        }
+    }
+
+    /**
+     * Clave única de un documento: el tipo en los 32 bits altos y el ID en los bajos
+     */
+    private static long clave(Tipo tipo, int id) {
+        return ((long) tipo.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static final class Documento {
+        final Tipo tipo;
+        final int id;
+        final String titulo;
+        final String detalle;
+        final Integer proyectoId;
+        final Integer sprintId;
+        final List<String> terminosTitulo;
+        final List<String> terminosDetalle;
+
+        Documento(Tipo tipo, FilaIndiceDTO fila) {
+            this.tipo = tipo;
+            this.id = fila.getId();
+            this.titulo = fila.getTitulo();
+            this.detalle = fila.getDetalle();
+            this.proyectoId = fila.getProyectoId();
+            this.sprintId = fila.getSprintId();
+            this.terminosTitulo = TextoBusqueda.terminos(titulo);
+            this.terminosDetalle = TextoBusqueda.terminos(detalle);
+        }
+
+        Set<String> terminos() {
+            Set<String> terminos = new HashSet<>(terminosTitulo);
+            terminos.addAll(terminosDetalle);
+            return terminos;
+        }
+    }
+
+    private static final class Coincidencia {
+        final Documento documento;
+        final int puntaje;
+
+        Coincidencia(Documento documento, int puntaje) {
+            this.documento = documento;
+            this.puntaje = puntaje;
+        }
+
+        ResultadoBusquedaDTO resultado() {
+            return new ResultadoBusquedaDTO(documento.tipo.nombre(), documento.id, documento.titulo,
+                    documento.detalle, documento.proyectoId, documento.sprintId, puntaje);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.springboot.MyTodoList.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * LECTURA COMPARTIDA
+ *
+ * Marca un método de lectura de un servicio cuyas llamadas simultáneas con los mismos
+ * argumentos pueden compartir una sola consulta (ver LecturasCompartidas). Solo debe usarse
+ * en métodos sin efectos secundarios cuyo resultado los llamadores no modifican: todos
+ * reciben las mismas entidades.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LecturaCompartida {
+}
@@ -0,0 +1,171 @@
+package com.springboot.MyTodoList.service;
+
+import com.springboot.MyTodoList.dto.CoalescenciaMetricasDTO;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LECTURAS COMPARTIDAS
+ *
+ * Cuando varias peticiones piden a la vez el mismo listado (por ejemplo, los widgets del Home
+ * al cargar, o todo el equipo en el stand-up), solo la primera llamada a un método marcado con
+ * LecturaCompartida ejecuta la consulta; las que llegan mientras sigue en curso esperan y reciben
+ * su mismo resultado. No es una caché: en cuanto la consulta termina, la siguiente llamada vuelve
+ * a la base de datos.
+ *
+ * Una llamada solo se une a una consulta en curso si no se ha confirmado ningún cambio desde que
+ * esa consulta empezó (ver VersionesTablas.cambiosConfirmados). Si no, podría recibir filas
+ * anteriores a un commit que ya vio, por ejemplo en la versión de la ETag que leyó antes de
+ * llamar; en ese caso ejecuta su propia consulta y las siguientes se unen a ella.
+ *
+ * El aspecto se ejecuta antes que el de transacciones, así que quien espera no abre una
+ * transacción ni ocupa una conexión del pool. Si quien llama ya está dentro de una transacción,
+ * la llamada no se comparte: las entidades de otra sesión no deben entrar a la suya.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LecturasCompartidas {
+
+    private final Map<Clave, EnCurso> enCurso = new ConcurrentHashMap<>();
+    private final Map<String, Contadores> contadoresPorMetodo = new ConcurrentHashMap<>();
+    private final VersionesTablas versionesTablas;
+
+    public LecturasCompartidas(VersionesTablas versionesTablas) {
+        this.versionesTablas = versionesTablas;
+    }
+
+    @Around("@annotation(com.springboot.MyTodoList.service.LecturaCompartida)")
+    public Object compartir(ProceedingJoinPoint llamada) throws Throwable {
+        Method metodo = ((MethodSignature) llamada.getSignature()).getMethod();
+        Contadores contadores = contadoresPorMetodo.computeIfAbsent(
+                metodo.getDeclaringClass().getSimpleName() + "." + metodo.getName(), nombre -> new Contadores());
+        contadores.llamadas.increment();
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            contadores.ejecuciones.increment();
+            return llamada.proceed();
+        }
+
+        Clave clave = new Clave(metodo, llamada.getArgs());
+        // Se lee antes de registrar la consulta, así que es anterior a cualquier fila que lea
+        EnCurso propia = new EnCurso(versionesTablas.cambiosConfirmados());
+        EnCurso existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            if (existente.cambios == propia.cambios) {
+                contadores.compartidas.increment();
+                return copia(esperar(existente.resultado));
+            }
+            // La consulta en curso empezó antes de un commit: esta la sustituye para las siguientes
+            // llamadas; si otra ya la sustituyó, esta se ejecuta sin registrarse
+            enCurso.replace(clave, existente, propia);
+        }
+
+        contadores.ejecuciones.increment();
+        try {
+            Object resultado = llamada.proceed();
+            propia.resultado.complete(resultado);
+            return resultado;
+        } catch (Throwable e) {
+            propia.resultado.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * Obtiene las llamadas, ejecuciones y llamadas compartidas desde el arranque, en total y por método
+     *
+     * @return Métricas de coalescencia
+     */
+    public CoalescenciaMetricasDTO getMetricas() {
+        CoalescenciaMetricasDTO metricas = new CoalescenciaMetricasDTO();
+        contadoresPorMetodo.forEach((nombre, contadores) -> metricas.agregar(nombre,
+                contadores.llamadas.sum(), contadores.ejecuciones.sum(), contadores.compartidas.sum()));
+        metricas.getMetodos().sort((a, b) -> a.getNombre().compareTo(b.getNombre()));
+        return metricas;
+    }
+
+    private static Object esperar(CompletableFuture<Object> resultado) throws Throwable {
+        try {
+            return resultado.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Cada llamador recibe su propia lista para que ordenarla o filtrarla no afecte a los demás;
+     * las entidades sí son las mismas
+     */
+    private static Object copia(Object resultado) {
+        if (resultado instanceof List) {
+            return new ArrayList<>((List<?>) resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Consulta en curso y cambios confirmados cuando empezó
+     */
+    private static final class EnCurso {
+        final CompletableFuture<Object> resultado = new CompletableFuture<>();
+        final long cambios;
+
+        EnCurso(long cambios) {
+            this.cambios = cambios;
+        }
+    }
+
+    private static final class Contadores {
+        final LongAdder llamadas = new LongAdder();
+        final LongAdder ejecuciones = new LongAdder();
+        final LongAdder compartidas = new LongAdder();
+    }
+
+    /**
+     * Método y argumentos de una llamada
+     */
+    private static final class Clave {
+        private final Method metodo;
+        private final Object[] argumentos;
+        private final int hash;
+
+        Clave(Method metodo, Object[] argumentos) {
+            this.metodo = metodo;
+            this.argumentos = argumentos;
+            this.hash = 31 * metodo.hashCode() + Arrays.hashCode(argumentos);
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            if (!(otro instanceof Clave)) {
+                return false;
+            }
+            Clave clave = (Clave) otro;
+            return metodo.equals(clave.metodo) && Arrays.equals(argumentos, clave.argumentos);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
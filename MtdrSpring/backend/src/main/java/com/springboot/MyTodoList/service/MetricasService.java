@@ -0,0 +1,193 @@
+package com.springboot.MyTodoList.service;
+
+import com.springboot.MyTodoList.bot.AlmacenSesiones;
+import com.springboot.MyTodoList.bot.ColaEnvios;
+import com.springboot.MyTodoList.bot.DespachadorUpdates;
+import com.springboot.MyTodoList.bot.RepositorioSesionesJdbc;
+import com.springboot.MyTodoList.config.CacheConfig;
+import com.springboot.MyTodoList.dto.CacheMetricasDTO;
+import com.springboot.MyTodoList.dto.CoalescenciaMetricasDTO;
+import com.springboot.MyTodoList.dto.DespachadorMetricasDTO;
+import com.springboot.MyTodoList.dto.EnviosMetricasDTO;
+import com.springboot.MyTodoList.dto.PersistenciaSesionesMetricasDTO;
+import com.springboot.MyTodoList.dto.PoolMetricasDTO;
+import com.springboot.MyTodoList.dto.SesionesMetricasDTO;
+import oracle.ucp.jdbc.JDBCConnectionPoolStatistics;
+import oracle.ucp.jdbc.PoolDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SERVICIO DE MÉTRICAS
+ * 
+ * Esta clase reúne métricas de ejecución de la aplicación para exponerlas por REST.
+ * Lee las estadísticas del pool de conexiones UCP, de la caché de segundo nivel
+ * de Hibernate, de las lecturas compartidas y del despachador del bot sin tocar la base de datos.
+ */
+@Service
+public class MetricasService {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired(required = false)
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired(required = false)
+    private LecturasCompartidas lecturasCompartidas;
+
+    @Autowired(required = false)
+    private DespachadorUpdates despachadorUpdates;
+
+    @Autowired(required = false)
+    private ColaEnvios colaEnvios;
+
+    @Autowired(required = false)
+    private AlmacenSesiones almacenSesiones;
+
+    @Autowired(required = false)
+    private RepositorioSesionesJdbc repositorioSesionesJdbc;
+
+    /**
+     * Obtiene las estadísticas actuales del pool de conexiones
+     * 
+     * Los tiempos de espera que reporta UCP ya están en milisegundos.
+     * 
+     * @return Métricas del pool, o disponible = false si el DataSource no es un pool UCP
+     */
+    public PoolMetricasDTO getPool() {
+        PoolDataSource pool = comoPool(dataSource);
+        if (pool == null) {
+            return new PoolMetricasDTO(false);
+        }
+
+        PoolMetricasDTO metricas = new PoolMetricasDTO(true);
+        metricas.setNombre(pool.getConnectionPoolName());
+        metricas.setMinimo(pool.getMinPoolSize());
+        metricas.setMaximo(pool.getMaxPoolSize());
+
+        // El pool se crea con la primera conexión; antes de eso no hay estadísticas
+        JDBCConnectionPoolStatistics estadisticas = pool.getStatistics();
+        if (estadisticas != null) {
+            metricas.setTotal(estadisticas.getTotalConnectionsCount());
+            metricas.setPrestadas(estadisticas.getBorrowedConnectionsCount());
+            metricas.setDisponibles(estadisticas.getAvailableConnectionsCount());
+            metricas.setPico(estadisticas.getPeakConnectionsCount());
+            metricas.setSolicitudesEnEspera(estadisticas.getPendingRequestsCount());
+            metricas.setEsperaPromedioMs(estadisticas.getAverageConnectionWaitTime());
+            metricas.setEsperaPicoMs(estadisticas.getPeakConnectionWaitTime());
+            metricas.setEsperaAcumuladaMs(estadisticas.getCumulativeConnectionWaitTime());
+            metricas.setEsperasFallidas(estadisticas.getCumulativeFailedConnectionWaitCount());
+            metricas.setPrestamosAcumulados(estadisticas.getCumulativeConnectionBorrowedCount());
+        }
+        return metricas;
+    }
+
+    /**
+     * Obtiene los aciertos y fallos de la caché de segundo nivel, en total y por región
+     * 
+     * @return Métricas de la caché, o disponible = false si Hibernate no genera estadísticas
+     */
+    public CacheMetricasDTO getCache() {
+        if (entityManagerFactory == null) {
+            return new CacheMetricasDTO(false);
+        }
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!estadisticas.isStatisticsEnabled()) {
+            return new CacheMetricasDTO(false);
+        }
+
+        CacheMetricasDTO metricas = new CacheMetricasDTO(true);
+        metricas.setAciertos(estadisticas.getSecondLevelCacheHitCount());
+        metricas.setFallos(estadisticas.getSecondLevelCacheMissCount());
+        metricas.setEscrituras(estadisticas.getSecondLevelCachePutCount());
+        metricas.setConsultasAciertos(estadisticas.getQueryCacheHitCount());
+        metricas.setConsultasFallos(estadisticas.getQueryCacheMissCount());
+
+        List<String> regiones = new ArrayList<>();
+        CacheConfig.ENTIDADES.forEach(entidad -> regiones.add(entidad.getName()));
+        regiones.add(CacheConfig.REGION_CONSULTAS);
+        regiones.add(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        for (String nombre : regiones) {
+            // Una región de consultas existe hasta que se usa por primera vez
+            CacheRegionStatistics region = estadisticas.getCacheRegionStatistics(nombre);
+            if (region != null) {
+                metricas.getRegiones().add(new CacheMetricasDTO.Region(nombre, region.getHitCount(),
+                        region.getMissCount(), region.getPutCount()));
+            }
+        }
+        return metricas;
+    }
+
+    /**
+     * Obtiene cuántas llamadas a lecturas de servicios compartieron una consulta en curso
+     * 
+     * @return Métricas de coalescencia, vacías si el aspecto no está activo
+     */
+    public CoalescenciaMetricasDTO getCoalescencia() {
+        if (lecturasCompartidas == null) {
+            return new CoalescenciaMetricasDTO();
+        }
+        return lecturasCompartidas.getMetricas();
+    }
+
+    /**
+     * Obtiene la profundidad de las colas del bot y los updates aceptados y descartados
+     * 
+     * @return Métricas del despachador, o null si el bot no está configurado
+     */
+    public DespachadorMetricasDTO getBot() {
+        return despachadorUpdates == null ? null : despachadorUpdates.getMetricas();
+    }
+
+    /**
+     * Obtiene los mensajes del bot enviados, pendientes, demorados por los límites y reintentados
+     * 
+     * @return Métricas de la cola de envíos, o null si el bot no está configurado
+     */
+    public EnviosMetricasDTO getEnviosBot() {
+        return colaEnvios == null ? null : colaEnvios.getMetricas();
+    }
+
+    /**
+     * Obtiene las sesiones del bot vivas, su peso estimado y las descartadas
+     * 
+     * @return Métricas del almacén de sesiones, o null si el bot no está configurado
+     */
+    public SesionesMetricasDTO getSesionesBot() {
+        return almacenSesiones == null ? null : almacenSesiones.getMetricas();
+    }
+
+    /**
+     * Obtiene las lecturas y escrituras agrupadas de las sesiones del bot en la base de datos
+     * 
+     * @return Métricas del repositorio JDBC, o null si las sesiones se guardan en memoria
+     */
+    public PersistenciaSesionesMetricasDTO getPersistenciaSesionesBot() {
+        return repositorioSesionesJdbc == null ? null : repositorioSesionesJdbc.getMetricas();
+    }
+
+    private static PoolDataSource comoPool(DataSource dataSource) {
+        if (dataSource instanceof PoolDataSource) {
+            return (PoolDataSource) dataSource;
+        }
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(PoolDataSource.class)) {
+                return dataSource.unwrap(PoolDataSource.class);
+            }
+        } catch (SQLException e) {
+            // No es un pool UCP
+        }
+        return null;
+    }
+}
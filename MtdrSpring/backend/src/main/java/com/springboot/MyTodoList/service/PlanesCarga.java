@@ -0,0 +1,85 @@
+package com.springboot.MyTodoList.service;
+
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.repository.ProyectoRepository;
+import com.springboot.MyTodoList.repository.SprintRepository;
+import com.springboot.MyTodoList.util.Lotes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * PLANES DE CARGA
+ *
+ * Con open-session-in-view desactivado, las colecciones perezosas deben quedar cargadas
+ * antes de que termine la transacción del servicio, porque el JSON se escribe después.
+ * Esta clase inicializa de forma explícita el grafo que serializan los controladores:
+ *
+ * - Proyecto -> sprints -> tareas -> usuario: dos consultas sin importar cuántos proyectos haya
+ * - Sprint -> tareas -> usuario: una consulta sin importar cuántos sprints haya
+ *
+ * Los IDs se envían en lotes (ver Lotes) por el límite de Oracle en las listas IN.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class PlanesCarga {
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    /**
+     * Carga los sprints de cada proyecto y las tareas de cada sprint
+     *
+     * @param proyectos Proyectos administrados por la transacción actual
+     * @return Los mismos proyectos, listos para serializarse fuera de la transacción
+     */
+    public List<Proyecto> conSprintsYTareas(List<Proyecto> proyectos) {
+        List<Integer> ids = proyectos.stream()
+                .map(Proyecto::getProjectId)
+                .distinct()
+                .collect(Collectors.toList());
+        Lotes.porLotes(ids, proyectoRepository::fetchSprints);
+        Lotes.porLotes(ids, sprintRepository::fetchTareasByProyectos);
+        return proyectos;
+    }
+
+    /**
+     * Versión de conSprintsYTareas para un solo proyecto
+     */
+    public Proyecto conSprintsYTareas(Proyecto proyecto) {
+        conSprintsYTareas(Collections.singletonList(proyecto));
+        return proyecto;
+    }
+
+    /**
+     * Carga las tareas de cada sprint junto con el usuario asignado
+     *
+     * @param sprints Sprints administrados por la transacción actual
+     * @return Los mismos sprints, listos para serializarse fuera de la transacción
+     */
+    public List<Sprint> conTareas(List<Sprint> sprints) {
+        List<Integer> ids = sprints.stream()
+                .map(Sprint::getSprintId)
+                .distinct()
+                .collect(Collectors.toList());
+        Lotes.porLotes(ids, sprintRepository::fetchTareas);
+        return sprints;
+    }
+
+    /**
+     * Versión de conTareas para un solo sprint
+     */
+    public Sprint conTareas(Sprint sprint) {
+        conTareas(Collections.singletonList(sprint));
+        return sprint;
+    }
+}
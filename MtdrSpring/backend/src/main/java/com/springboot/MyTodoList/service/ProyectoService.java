@@ -1,22 +1,33 @@
 package com.springboot.MyTodoList.service;
 
+import com.springboot.MyTodoList.dto.BorradoCascadaDTO;
+import com.springboot.MyTodoList.dto.ProyectoArbolDTO;
+import com.springboot.MyTodoList.dto.SprintResumenDTO;
+import com.springboot.MyTodoList.dto.TareaSprintFilaDTO;
+import com.springboot.MyTodoList.dto.UsuarioResumenDTO;
 import com.springboot.MyTodoList.model.Proyecto;
 import com.springboot.MyTodoList.model.Usuario;
 import com.springboot.MyTodoList.repository.ProyectoRepository;
+import com.springboot.MyTodoList.repository.SprintRepository;
+import com.springboot.MyTodoList.repository.TareaRepository;
+import com.springboot.MyTodoList.repository.UsuarioProyectoRepository;
 import com.springboot.MyTodoList.repository.UsuarioRepository;
+import com.springboot.MyTodoList.util.EstadosTarea;
+import com.springboot.MyTodoList.util.Lotes;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import com.springboot.MyTodoList.model.Sprint;
-import com.springboot.MyTodoList.model.Tarea;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * SERVICIO DE PROYECTOS
@@ -25,8 +36,11 @@ import java.util.Set;
  * Actúa como una capa intermedia entre el controlador y el repositorio,
  * proporcionando métodos para crear, leer, actualizar y eliminar proyectos,
  * así como para realizar consultas específicas y validaciones.
+ * Los proyectos que se devuelven a los controladores salen con sprints y tareas
+ * ya cargados (ver PlanesCarga), porque se serializan fuera de la transacción.
  */
 @Service
+@Transactional(readOnly = true)
 public class ProyectoService {
     
     @Autowired
@@ -36,12 +50,27 @@ public class ProyectoService {
     
     @Autowired
     private UsuarioRepository usuarioRepository;
-
+    
     @Autowired
-    private SprintService sprintService;
+    private SprintRepository sprintRepository;
+    
+    @Autowired
+    private TareaRepository tareaRepository;
+    
+    @Autowired
+    private UsuarioProyectoRepository usuarioProyectoRepository;
+    
+    @Autowired
+    private PlanesCarga planesCarga;
+    
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
 
     @Autowired
-    private TareaService tareaService;
+    private VersionesTablas versionesTablas;
+    
+    @Autowired
+    private VersionesFila versionesFila;
     
     /**
      * Obtiene todos los proyectos activos del sistema
@@ -49,46 +78,83 @@ public class ProyectoService {
      * @return Lista de proyectos no eliminados
      */
     public List<Proyecto> findAll() {
-        return proyectoRepository.findActiveProyectos();
+        return planesCarga.conSprintsYTareas(proyectoRepository.findActiveProyectos());
     }
 
 
     /**
- * Obtiene todos los usuarios asociados a un proyecto a través de sus tareas en los sprints
- * 
- * @param proyectoId ID del proyecto
- * @return Lista de usuarios únicos que participan en el proyecto
- */
-    public List<Usuario> getUsuariosByProyecto(int proyectoId) {
-        // 1. Verificar que el proyecto existe y está activo
-        Optional<Proyecto> proyecto = proyectoRepository.findById(proyectoId);
-        if (!proyecto.isPresent() || proyecto.get().getDeleted() == 1) {
+     * Obtiene todos los usuarios asociados a un proyecto a través de sus tareas en los sprints
+     * 
+     * Usa una sola consulta JOIN/DISTINCT en lugar de recorrer sprint por sprint,
+     * así que el número de sentencias no depende de cuántos sprints tenga el proyecto.
+     * 
+     * @param proyectoId ID del proyecto
+     * @return Lista de usuarios únicos que participan en el proyecto
+     */
+    public List<UsuarioResumenDTO> getUsuariosByProyecto(int proyectoId) {
+        // Verificar que el proyecto existe y está activo
+        if (!proyectoRepository.existsByProjectIdAndDeleted(proyectoId, 0)) {
             throw new RuntimeException("Proyecto no encontrado o inactivo");
         }
 
-        // 2. Obtener todos los sprints activos del proyecto
-        List<Sprint> sprints = sprintService.getSprintsByProyecto(proyectoId);
-
-        // 3. Usar un Set para evitar duplicados
-        Set<Usuario> usuariosUnicos = new HashSet<>();
-
-        // 4. Recorrer sprints y sus tareas
-        for (Sprint sprint : sprints) {
-            // Solo considerar sprints activos
-            if (sprint.getDeleted() == 0) {
-                List<Tarea> tareas = tareaService.getTareasBySprint(sprint.getSprintId());
-
-                // 5. Obtener usuarios de cada tarea
-                for (Tarea tarea : tareas) {
-                    // Solo considerar tareas activas y con usuario asignado
-                    if (tarea.getDeleted() == 0 && tarea.getUsuario() != null) {
-                        usuariosUnicos.add(tarea.getUsuario());
-                    }
-                }
+        return usuarioRepository.findResumenByProyecto(proyectoId);
+    }
+    
+    /**
+     * Obtiene el árbol de proyectos activos con contadores agregados en cada nivel
+     * 
+     * Cada nivel se arma con una sola consulta para todos los proyectos, así que el costo
+     * no depende de cuántos proyectos o sprints haya:
+     * - profundidad 0: proyectos con sus contadores de sprints, tareas y story points
+     * - profundidad 1: además, los sprints activos de cada proyecto con sus contadores
+     * - profundidad 2: además, el resumen de las tareas activas de cada sprint
+     * 
+     * @param depth Profundidad (0, 1 o 2)
+     * @param status Estado exacto del proyecto, o null para no filtrar
+     * @param term Texto a buscar en nombre o descripción, o null para no filtrar
+     * @return Lista de proyectos ordenada por ID
+     * @throws IllegalArgumentException Si la profundidad no es 0, 1 o 2
+     */
+    public List<ProyectoArbolDTO> getArbolProyectos(int depth, String status, String term) {
+        if (depth < 0 || depth > 2) {
+            throw new IllegalArgumentException("La profundidad debe ser 0, 1 o 2");
+        }
+        
+        // Un filtro vacío equivale a no filtrar
+        String filtroStatus = status == null || status.trim().isEmpty() ? null : status;
+        String filtroTexto = term == null || term.trim().isEmpty() ? null : term.trim();
+        
+        List<ProyectoArbolDTO> proyectos = proyectoRepository.findArbol(filtroStatus, filtroTexto,
+                EstadosTarea.COMPLETADOS);
+        if (depth == 0 || proyectos.isEmpty()) {
+            return proyectos;
+        }
+        
+        Map<Integer, ProyectoArbolDTO> proyectosPorId = proyectos.stream()
+                .collect(Collectors.toMap(ProyectoArbolDTO::getProjectId, Function.identity()));
+        List<Integer> ids = proyectos.stream()
+                .map(ProyectoArbolDTO::getProjectId)
+                .collect(Collectors.toList());
+        proyectos.forEach(ProyectoArbolDTO::incluirSprints);
+        
+        Map<Integer, SprintResumenDTO> sprintsPorId = new HashMap<>();
+        Lotes.porLotes(ids, lote -> {
+            for (SprintResumenDTO sprint : sprintRepository.findResumenByProyectos(lote, EstadosTarea.COMPLETADOS)) {
+                proyectosPorId.get(sprint.getProjectId()).getSprints().add(sprint);
+                sprintsPorId.put(sprint.getSprintId(), sprint);
             }
+        });
+        if (depth == 1) {
+            return proyectos;
         }
-
-        return new ArrayList<>(usuariosUnicos);
+        
+        sprintsPorId.values().forEach(SprintResumenDTO::incluirTareas);
+        Lotes.porLotes(ids, lote -> {
+            for (TareaSprintFilaDTO fila : tareaRepository.findFilasByProyectos(lote)) {
+                sprintsPorId.get(fila.getSprintId()).getTareas().add(fila.getTarea());
+            }
+        });
+        return proyectos;
     }
     
     /**
@@ -100,7 +166,7 @@ public class ProyectoService {
     public ResponseEntity<Proyecto> getProyectoById(int id) {
         Optional<Proyecto> proyectoData = proyectoRepository.findById(id);
         if (proyectoData.isPresent() && proyectoData.get().getDeleted() == 0) {
-            return new ResponseEntity<>(proyectoData.get(), HttpStatus.OK);
+            return new ResponseEntity<>(planesCarga.conSprintsYTareas(proyectoData.get()), HttpStatus.OK);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -113,25 +179,32 @@ public class ProyectoService {
      * @return Proyecto creado con su ID generado
      * @throws Exception Si ocurre un error en la validación o creación
      */
+    @Transactional(rollbackFor = Exception.class)
     public Proyecto addProyecto(Proyecto proyecto) throws Exception {
-        // Validar que el usuario existe
-        Optional<Usuario> usuario = usuarioRepository.findById(proyecto.getUsuario().getUserId());
-        if (!usuario.isPresent() || usuario.get().getDeleted() == 1) {
-            throw new Exception("Usuario no encontrado o inactivo");
-        }
-        
         // Validar fechas
         if (proyecto.getEndDate().before(proyecto.getStartDate())) {
             throw new Exception("La fecha de fin no puede ser anterior a la fecha de inicio");
         }
         
-        // Asignar usuario encontrado
-        proyecto.setUsuario(usuario.get());
+        // Validar que el usuario existe y está activo sin cargarlo;
+        // para la llave foránea basta una referencia
+        int userId = proyecto.getUsuario().getUserId();
+        if (!usuarioRepository.existsByUserIdAndDeleted(userId, 0)) {
+            throw new Exception("Usuario no encontrado o inactivo");
+        }
+        proyecto.setUsuario(usuarioRepository.getById(userId));
         
         // Establecer marca de borrado a 0 (no borrado)
         proyecto.setDeleted(0);
+        proyecto.setRowVersion(versionesFila.versionDeTransaccion());
         
-        return proyectoRepository.save(proyecto);
+        Proyecto guardado = proyectoRepository.save(proyecto);
+        // La respuesta lleva el usuario cargado (casi siempre desde la caché de segundo nivel),
+        // no el objeto recibido que solo trae el ID
+        guardado.setUsuario((Usuario) Hibernate.unproxy(guardado.getUsuario()));
+        indiceBusqueda.refrescar(IndiceBusqueda.Tipo.PROYECTO, guardado.getProjectId());
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.PROYECTO);
+        return guardado;
     }
     
     /**
@@ -142,6 +215,7 @@ public class ProyectoService {
      * @return Proyecto actualizado o null si no existe
      * @throws Exception Si hay error en validación de datos
      */
+    @Transactional(rollbackFor = Exception.class)
     public Proyecto updateProyecto(int id, Proyecto proyectoDetails) throws Exception {
         Optional<Proyecto> proyectoData = proyectoRepository.findById(id);
         if (proyectoData.isPresent() && proyectoData.get().getDeleted() == 0) {
@@ -165,42 +239,86 @@ public class ProyectoService {
                 throw new Exception("La fecha de fin no puede ser anterior a la fecha de inicio");
             }
             
-            // Actualizar usuario si se proporciona
-            if (proyectoDetails.getUsuario() != null && proyectoDetails.getUsuario().getUserId() > 0) {
-                Optional<Usuario> usuario = usuarioRepository.findById(proyectoDetails.getUsuario().getUserId());
-                if (usuario.isPresent() && usuario.get().getDeleted() == 0) {
-                    proyecto.setUsuario(usuario.get());
-                } else {
+            // Actualizar usuario solo si cambió
+            Usuario usuario = proyectoDetails.getUsuario();
+            if (usuario != null && usuario.getUserId() > 0
+                    && usuario.getUserId() != proyecto.getUsuario().getUserId()) {
+                if (!usuarioRepository.existsByUserIdAndDeleted(usuario.getUserId(), 0)) {
                     throw new Exception("Usuario no encontrado o inactivo");
                 }
+                proyecto.setUsuario((Usuario) Hibernate.unproxy(usuarioRepository.getById(usuario.getUserId())));
             }
+            proyecto.setRowVersion(versionesFila.versionDeTransaccion());
             
-            return proyectoRepository.save(proyecto);
+            indiceBusqueda.refrescar(IndiceBusqueda.Tipo.PROYECTO, id);
+            versionesTablas.registrarCambio(VersionesTablas.Tabla.PROYECTO);
+            return planesCarga.conSprintsYTareas(proyectoRepository.save(proyecto));
         } else {
             return null;
         }
     }
     
     /**
-     * Elimina un proyecto del sistema (borrado lógico)
+     * Elimina un proyecto del sistema (borrado lógico en cascada)
      * 
      * @param id ID del proyecto a eliminar
-     * @return true si la eliminación fue exitosa, false en caso contrario
+     * @return true si se eliminó, false si no existe o ya estaba eliminado
      */
+    @Transactional
     public boolean deleteProyecto(int id) {
-        try {
-            Optional<Proyecto> proyecto = proyectoRepository.findById(id);
-            if (proyecto.isPresent()) {
-                Proyecto proyectoToDelete = proyecto.get();
-                // Realizamos un borrado lógico cambiando el flag 'deleted' a 1
-                proyectoToDelete.setDeleted(1);
-                proyectoRepository.save(proyectoToDelete);
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            return false;
+        return eliminarEnCascada(id).getProyectos() > 0;
+    }
+    
+    /**
+     * Elimina un proyecto junto con sus sprints, tareas y asignaciones de usuarios
+     * 
+     * Cada tabla se actualiza con un solo UPDATE, sin cargar ninguna fila, así que el costo
+     * no crece con el número de tareas en memoria. Los hijos quedan marcados como
+     * eliminados en cascada (ver Borrado) para que restaurarEnCascada los distinga.
+     * 
+     * @param id ID del proyecto
+     * @return Filas eliminadas por tabla; todo en 0 si el proyecto no existe o ya estaba eliminado
+     */
+    @Transactional
+    public BorradoCascadaDTO eliminarEnCascada(int id) {
+        long version = versionesFila.versionDeTransaccion();
+        int proyectos = proyectoRepository.eliminar(id, version);
+        if (proyectos == 0) {
+            return BorradoCascadaDTO.vacio();
+        }
+        
+        // Las tareas se marcan antes que los sprints; la subconsulta no depende del estado del sprint
+        int tareas = tareaRepository.eliminarEnCascadaPorProyecto(id, version);
+        int sprints = sprintRepository.eliminarEnCascadaPorProyecto(id, version);
+        int asignaciones = usuarioProyectoRepository.eliminarEnCascadaPorProyecto(id);
+        indiceBusqueda.refrescarProyecto(id);
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.PROYECTO, VersionesTablas.Tabla.SPRINT, VersionesTablas.Tabla.TAREA);
+        return new BorradoCascadaDTO(proyectos, sprints, tareas, asignaciones);
+    }
+    
+    /**
+     * Restaura un proyecto eliminado y los sprints, tareas y asignaciones que se eliminaron con él
+     * 
+     * Los hijos que ya estaban eliminados antes del borrado del proyecto siguen eliminados.
+     * 
+     * @param id ID del proyecto
+     * @return Filas restauradas por tabla; todo en 0 si el proyecto no existe o ya estaba activo
+     */
+    @Transactional
+    public BorradoCascadaDTO restaurarEnCascada(int id) {
+        long version = versionesFila.versionDeTransaccion();
+        int proyectos = proyectoRepository.restaurar(id, version);
+        if (proyectos == 0) {
+            return BorradoCascadaDTO.vacio();
         }
+        
+        // Primero los sprints: solo vuelven las tareas cuyo sprint quedó activo
+        int sprints = sprintRepository.restaurarEnCascadaPorProyecto(id, version);
+        int tareas = tareaRepository.restaurarEnCascadaPorProyecto(id, version);
+        int asignaciones = usuarioProyectoRepository.restaurarEnCascadaPorProyecto(id);
+        indiceBusqueda.refrescarProyecto(id);
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.PROYECTO, VersionesTablas.Tabla.SPRINT, VersionesTablas.Tabla.TAREA);
+        return new BorradoCascadaDTO(proyectos, sprints, tareas, asignaciones);
     }
     
     /**
@@ -210,6 +328,18 @@ public class ProyectoService {
      * @return Lista de proyectos asignados al usuario
      */
     public List<Proyecto> getProyectosByUsuario(int userId) {
+        return planesCarga.conSprintsYTareas(proyectoRepository.findByUsuario(userId));
+    }
+    
+    /**
+     * Busca proyectos por usuario responsable sin cargar sus sprints
+     * 
+     * Para listados que solo usan los datos del proyecto; los sprints quedan sin inicializar.
+     * 
+     * @param userId ID del usuario
+     * @return Lista de proyectos asignados al usuario
+     */
+    public List<Proyecto> getProyectosBasicosByUsuario(int userId) {
         return proyectoRepository.findByUsuario(userId);
     }
     
@@ -220,7 +350,7 @@ public class ProyectoService {
      * @return Lista de proyectos con el estado especificado
      */
     public List<Proyecto> getProyectosByStatus(String status) {
-        return proyectoRepository.findByStatusAndDeleted(status, 0);
+        return planesCarga.conSprintsYTareas(proyectoRepository.findByStatusAndDeleted(status, 0));
     }
     
     /**
@@ -229,7 +359,7 @@ public class ProyectoService {
      * @return Lista de proyectos en curso a la fecha actual
      */
     public List<Proyecto> getActiveProyectos() {
-        return proyectoRepository.findActiveProyectos(); 
+        return planesCarga.conSprintsYTareas(proyectoRepository.findActiveProyectos());
         // return proyectoRepository.findActiveProyectosByDate(new Date());
     }
     
@@ -240,6 +370,6 @@ public class ProyectoService {
      * @return Lista de proyectos que coinciden con el término
      */
     public List<Proyecto> searchProyectos(String searchTerm) {
-        return proyectoRepository.searchByNameOrDescription(searchTerm);
+        return planesCarga.conSprintsYTareas(proyectoRepository.searchByNameOrDescription(searchTerm));
     }
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.springboot.MyTodoList.service;
 
+import com.springboot.MyTodoList.dto.BorradoCascadaDTO;
+import com.springboot.MyTodoList.dto.SprintResumenDTO;
 import com.springboot.MyTodoList.model.Proyecto;
 import com.springboot.MyTodoList.model.Sprint;
 import com.springboot.MyTodoList.repository.ProyectoRepository;
 import com.springboot.MyTodoList.repository.SprintRepository;
+import com.springboot.MyTodoList.repository.TareaRepository;
+import com.springboot.MyTodoList.util.Borrado;
+import com.springboot.MyTodoList.util.EstadosTarea;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
@@ -20,8 +27,13 @@ import java.util.Optional;
  * Actúa como una capa intermedia entre el controlador y el repositorio,
  * proporcionando métodos para crear, leer, actualizar y eliminar sprints,
  * así como para realizar consultas específicas y validaciones.
+ * Cada método corre en una sola transacción; las consultas son de solo lectura.
+ * Los sprints que se devuelven a los controladores salen con sus tareas ya cargadas
+ * (ver PlanesCarga), porque se serializan fuera de la transacción.
+ * Los listados marcados con LecturaCompartida comparten la consulta entre llamadas simultáneas.
  */
 @Service
+@Transactional(readOnly = true)
 public class SprintService {
     
     @Autowired
@@ -30,15 +42,58 @@ public class SprintService {
     @Autowired
     private ProyectoRepository proyectoRepository;
     
+    @Autowired
+    private TareaRepository tareaRepository;
+    
+    @Autowired
+    private PlanesCarga planesCarga;
+    
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+    
+    @Autowired
+    private VersionesFila versionesFila;
+    
     /**
      * Obtiene todos los sprints activos del sistema
      * 
      * @return Lista de sprints no eliminados
      */
+    @LecturaCompartida
     public List<Sprint> findAll() {
+        return planesCarga.conTareas(sprintRepository.findActiveSprints());
+    }
+    
+    /**
+     * Obtiene todos los sprints activos sin cargar sus tareas
+     * 
+     * Para consumidores que solo usan los datos del sprint (por ejemplo, el bot);
+     * las tareas quedan sin inicializar.
+     * 
+     * @return Lista de sprints no eliminados
+     */
+    @LecturaCompartida
+    public List<Sprint> findAllBasicos() {
         return sprintRepository.findActiveSprints();
     }
     
+    /**
+     * Obtiene el resumen de los sprints activos: datos del sprint más
+     * tareas totales, tareas completadas y story points completados/totales
+     * 
+     * No carga ninguna tarea; los contadores salen de una sola consulta agregada.
+     * 
+     * @param proyectoId ID del proyecto, o null para todos los proyectos
+     * @return Lista de resúmenes ordenada por ID de sprint
+     */
+    @LecturaCompartida
+    public List<SprintResumenDTO> getResumenSprints(Integer proyectoId) {
+        return sprintRepository.findResumen(proyectoId, EstadosTarea.COMPLETADOS);
+    }
+    
     /**
      * Busca un sprint específico por su ID
      * 
@@ -48,7 +103,7 @@ public class SprintService {
     public ResponseEntity<Sprint> getSprintById(int id) {
         Optional<Sprint> sprintData = sprintRepository.findById(id);
         if (sprintData.isPresent() && sprintData.get().getDeleted() == 0) {
-            return new ResponseEntity<>(sprintData.get(), HttpStatus.OK);
+            return new ResponseEntity<>(planesCarga.conTareas(sprintData.get()), HttpStatus.OK);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -61,25 +116,31 @@ public class SprintService {
      * @return Sprint creado con su ID generado
      * @throws Exception Si ocurre un error en la validación o creación
      */
+    @Transactional(rollbackFor = Exception.class)
     public Sprint addSprint(Sprint sprint) throws Exception {
-        // Validar que el proyecto existe
-        Optional<Proyecto> proyecto = proyectoRepository.findById(sprint.getProyecto().getProjectId());
-        if (!proyecto.isPresent() || proyecto.get().getDeleted() == 1) {
-            throw new Exception("Proyecto no encontrado o inactivo");
-        }
-        
         // Validar fechas
         if (sprint.getEndDate().before(sprint.getStartDate())) {
             throw new Exception("La fecha de fin no puede ser anterior a la fecha de inicio");
         }
         
-        // Asignar proyecto encontrado
-        sprint.setProyecto(proyecto.get());
+        // Validar que el proyecto existe y está activo sin cargarlo;
+        // para la llave foránea basta una referencia
+        int projectId = sprint.getProyecto().getProjectId();
+        if (!proyectoRepository.existsByProjectIdAndDeleted(projectId, 0)) {
+            throw new Exception("Proyecto no encontrado o inactivo");
+        }
+        sprint.setProyecto(proyectoRepository.getById(projectId));
         
         // Establecer marca de borrado a 0 (no borrado)
         sprint.setDeleted(0);
+        sprint.setRowVersion(versionesFila.versionDeTransaccion());
         
-        return sprintRepository.save(sprint);
+        Sprint guardado = sprintRepository.save(sprint);
+        // El sprint devuelto lleva el proyecto cargado, no el objeto recibido que solo trae el ID
+        guardado.setProyecto((Proyecto) Hibernate.unproxy(guardado.getProyecto()));
+        indiceBusqueda.refrescar(IndiceBusqueda.Tipo.SPRINT, guardado.getSprintId());
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.SPRINT);
+        return guardado;
     }
     
     /**
@@ -90,6 +151,7 @@ public class SprintService {
      * @return Sprint actualizado o null si no existe
      * @throws Exception Si hay error en validación de datos
      */
+    @Transactional(rollbackFor = Exception.class)
     public Sprint updateSprint(int id, Sprint sprintDetails) throws Exception {
         Optional<Sprint> sprintData = sprintRepository.findById(id);
         if (sprintData.isPresent() && sprintData.get().getDeleted() == 0) {
@@ -112,42 +174,76 @@ public class SprintService {
                 throw new Exception("La fecha de fin no puede ser anterior a la fecha de inicio");
             }
             
-            // Actualizar proyecto si se proporciona
-            if (sprintDetails.getProyecto() != null && sprintDetails.getProyecto().getProjectId() > 0) {
-                Optional<Proyecto> proyecto = proyectoRepository.findById(sprintDetails.getProyecto().getProjectId());
-                if (proyecto.isPresent() && proyecto.get().getDeleted() == 0) {
-                    sprint.setProyecto(proyecto.get());
-                } else {
+            // Actualizar proyecto solo si cambió
+            Proyecto proyecto = sprintDetails.getProyecto();
+            if (proyecto != null && proyecto.getProjectId() > 0
+                    && proyecto.getProjectId() != sprint.getProyecto().getProjectId()) {
+                if (!proyectoRepository.existsByProjectIdAndDeleted(proyecto.getProjectId(), 0)) {
                     throw new Exception("Proyecto no encontrado o inactivo");
                 }
+                sprint.setProyecto((Proyecto) Hibernate.unproxy(proyectoRepository.getById(proyecto.getProjectId())));
             }
+            sprint.setRowVersion(versionesFila.versionDeTransaccion());
             
-            return sprintRepository.save(sprint);
+            // Las tareas también se reindexan porque guardan el proyecto de su sprint
+            indiceBusqueda.refrescarSprint(id);
+            versionesTablas.registrarCambio(VersionesTablas.Tabla.SPRINT, VersionesTablas.Tabla.TAREA);
+            return planesCarga.conTareas(sprintRepository.save(sprint));
         } else {
             return null;
         }
     }
     
     /**
-     * Elimina un sprint del sistema (borrado lógico)
+     * Elimina un sprint del sistema (borrado lógico en cascada)
      * 
      * @param id ID del sprint a eliminar
-     * @return true si la eliminación fue exitosa, false en caso contrario
+     * @return true si se eliminó, false si no existe o ya estaba eliminado
      */
+    @Transactional
     public boolean deleteSprint(int id) {
-        try {
-            Optional<Sprint> sprint = sprintRepository.findById(id);
-            if (sprint.isPresent()) {
-                Sprint sprintToDelete = sprint.get();
-                // Realizamos un borrado lógico cambiando el flag 'deleted' a 1
-                sprintToDelete.setDeleted(1);
-                sprintRepository.save(sprintToDelete);
-                return true;
+        return eliminarEnCascada(id).getSprints() > 0;
+    }
+    
+    /**
+     * Elimina un sprint junto con sus tareas, con un UPDATE por tabla y sin cargar filas
+     * 
+     * @param id ID del sprint
+     * @return Filas eliminadas por tabla; todo en 0 si el sprint no existe o ya estaba eliminado
+     */
+    @Transactional
+    public BorradoCascadaDTO eliminarEnCascada(int id) {
+        long version = versionesFila.versionDeTransaccion();
+        int sprints = sprintRepository.eliminar(id, version);
+        if (sprints == 0) {
+            return BorradoCascadaDTO.vacio();
+        }
+        indiceBusqueda.refrescarSprint(id);
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.SPRINT, VersionesTablas.Tabla.TAREA);
+        return new BorradoCascadaDTO(0, sprints, tareaRepository.eliminarEnCascadaPorSprint(id, version), 0);
+    }
+    
+    /**
+     * Restaura un sprint eliminado y las tareas que se eliminaron en cascada con él
+     * 
+     * @param id ID del sprint
+     * @return Filas restauradas por tabla; todo en 0 si el sprint no existe o ya estaba activo
+     * @throws IllegalStateException Si el proyecto del sprint está eliminado
+     */
+    @Transactional
+    public BorradoCascadaDTO restaurarEnCascada(int id) {
+        long version = versionesFila.versionDeTransaccion();
+        int sprints = sprintRepository.restaurar(id, version);
+        if (sprints == 0) {
+            // Sin cambios: el sprint no existe, ya estaba activo o su proyecto sigue eliminado
+            if (sprintRepository.existsBySprintIdAndProyectoDeletedNot(id, Borrado.ACTIVO)) {
+                throw new IllegalStateException("El proyecto del sprint está eliminado; restaure primero el proyecto");
             }
-            return false;
-        } catch (Exception e) {
-            return false;
+            return BorradoCascadaDTO.vacio();
         }
+        indiceBusqueda.refrescarSprint(id);
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.SPRINT, VersionesTablas.Tabla.TAREA);
+        return new BorradoCascadaDTO(0, sprints, tareaRepository.restaurarEnCascadaPorSprint(id, version), 0);
     }
     
     /**
@@ -156,8 +252,9 @@ public class SprintService {
      * @param proyectoId ID del proyecto
      * @return Lista de sprints asociados al proyecto
      */
+    @LecturaCompartida
     public List<Sprint> getSprintsByProyecto(int proyectoId) {
-        return sprintRepository.findByProyecto(proyectoId);
+        return planesCarga.conTareas(sprintRepository.findByProyecto(proyectoId));
     }
     
     /**
@@ -166,8 +263,9 @@ public class SprintService {
      * @param status Estado del sprint
      * @return Lista de sprints con el estado especificado
      */
+    @LecturaCompartida
     public List<Sprint> getSprintsByStatus(String status) {
-        return sprintRepository.findByStatusAndDeleted(status, 0);
+        return planesCarga.conTareas(sprintRepository.findByStatusAndDeleted(status, 0));
     }
     
     /**
@@ -175,8 +273,9 @@ public class SprintService {
      * 
      * @return Lista de sprints en curso a la fecha actual
      */
+    @LecturaCompartida
     public List<Sprint> getActiveSprints() {
-        return sprintRepository.findActiveSprintsByDate(new Date());
+        return planesCarga.conTareas(sprintRepository.findActiveSprintsByDate(new Date()));
     }
     
     /**
@@ -186,6 +285,6 @@ public class SprintService {
      * @return Lista de sprints que coinciden con el nombre
      */
     public List<Sprint> searchSprintsByName(String name) {
-        return sprintRepository.findByNameContaining(name);
+        return planesCarga.conTareas(sprintRepository.findByNameContaining(name));
     }
 }
\ No newline at end of file
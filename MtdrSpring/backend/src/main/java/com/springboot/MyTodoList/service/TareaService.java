@@ -1,5 +1,11 @@
 package com.springboot.MyTodoList.service;
 
+import com.springboot.MyTodoList.dto.CambioTareaDTO;
+import com.springboot.MyTodoList.dto.CambiosDTO;
+import com.springboot.MyTodoList.dto.NuevaTareaDTO;
+import com.springboot.MyTodoList.dto.PaginaDTO;
+import com.springboot.MyTodoList.dto.ResultadoLoteDTO;
+import com.springboot.MyTodoList.dto.TareasPorSprintDTO;
 import com.springboot.MyTodoList.model.Sprint;
 import com.springboot.MyTodoList.model.Tarea;
 import com.springboot.MyTodoList.model.Usuario;
@@ -7,14 +13,28 @@ import com.springboot.MyTodoList.repository.ProyectoRepository;
 import com.springboot.MyTodoList.repository.SprintRepository;
 import com.springboot.MyTodoList.repository.TareaRepository;
 import com.springboot.MyTodoList.repository.UsuarioRepository;
+import com.springboot.MyTodoList.util.Lotes;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * SERVICIO DE TAREAS
@@ -23,10 +43,23 @@ import java.util.Optional;
  * Actúa como una capa intermedia entre el controlador y el repositorio,
  * proporcionando métodos para crear, leer, actualizar y eliminar tareas,
  * así como para realizar consultas específicas y validaciones.
+ * Cada método corre en una sola transacción; las consultas son de solo lectura.
+ * Los listados marcados con LecturaCompartida comparten la consulta entre llamadas simultáneas.
  */
 @Service
+@Transactional(readOnly = true)
 public class TareaService {
     
+    /**
+     * Tamaño máximo de página para los listados paginados por cursor
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Máximo de tareas que acepta una sola petición de carga masiva
+     */
+    public static final int MAX_LOTE = 5000;
+    
     @Autowired
     private TareaRepository tareaRepository;
     
@@ -41,12 +74,32 @@ public class TareaService {
 
     @Autowired
     private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    @Autowired
+    private VersionesFila versionesFila;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Cada cuántas tareas se vacía el contexto de persistencia en la carga masiva;
+     * coincide con el tamaño de lote JDBC de Hibernate
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanoLote;
         
     /**
      * Obtiene todas las tareas activas del sistema
      * 
      * @return Lista de tareas no eliminadas
      */
+    @LecturaCompartida
     public List<Tarea> findAll() {
         return tareaRepository.findActiveTareas();
     }
@@ -73,29 +126,137 @@ public class TareaService {
      * @return Tarea creada con su ID generado
      * @throws Exception Si ocurre un error en la validación o creación
      */
+    @Transactional(rollbackFor = Exception.class)
     public Tarea addTarea(Tarea tarea) throws Exception {
-        // Validar que el usuario existe
-        Optional<Usuario> usuario = usuarioRepository.findById(tarea.getUsuario().getUserId());
-        if (!usuario.isPresent() || usuario.get().getDeleted() == 1) {
-            throw new Exception("Usuario no encontrado o inactivo");
-        }
-        
-        // Validar que el sprint existe
-        Optional<Sprint> sprint = sprintRepository.findById(tarea.getSprint().getSprintId());
-        if (!sprint.isPresent() || sprint.get().getDeleted() == 1) {
+        // Validar con una sola consulta que el usuario y el sprint existen y están activos
+        int userId = tarea.getUsuario().getUserId();
+        int sprintId = tarea.getSprint().getSprintId();
+        if (tareaRepository.countActiveSprintAndUsuario(sprintId, userId) == 0) {
+            // Solo en el caso de error se averigua cuál de los dos falta
+            if (!usuarioRepository.existsByUserIdAndDeleted(userId, 0)) {
+                throw new Exception("Usuario no encontrado o inactivo");
+            }
             throw new Exception("Sprint no encontrado o inactivo");
         }
         
-        // Asignar usuario y sprint encontrados
-        tarea.setUsuario(usuario.get());
-        tarea.setSprint(sprint.get());
+        // Para la llave foránea basta una referencia; los objetos recibidos solo traen el ID
+        tarea.setUsuario(entityManager.getReference(Usuario.class, userId));
+        tarea.setSprint(entityManager.getReference(Sprint.class, sprintId));
         
         // Establecer marca de borrado a 0 (no borrado)
         tarea.setDeleted(0);
+        tarea.setRowVersion(versionesFila.versionDeTransaccion());
         
-        return tareaRepository.save(tarea);
+        Tarea guardada = tareaRepository.save(tarea);
+        // La respuesta lleva los padres cargados (casi siempre desde la caché de segundo nivel)
+        guardada.setUsuario((Usuario) Hibernate.unproxy(guardada.getUsuario()));
+        guardada.setSprint((Sprint) Hibernate.unproxy(guardada.getSprint()));
+        indiceBusqueda.refrescar(IndiceBusqueda.Tipo.TAREA, guardada.getTaskId());
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.TAREA);
+        return guardada;
     }
     
+    /**
+     * Crea varias tareas en una sola transacción
+     * 
+     * Los usuarios y sprints referenciados se validan con una consulta IN para cada tipo
+     * (por lotes de 1000) en lugar de una consulta por tarea. Como los IDs salen de una secuencia
+     * pooled-lo, persistir no ejecuta el INSERT: Hibernate los envía en lotes JDBC al vaciar el
+     * contexto, cada tamanoLote tareas. Una tarea inválida no impide que se creen las demás:
+     * el resultado indica, en el orden de la petición, el ID de cada tarea creada o por qué se rechazó.
+     * 
+     * @param tareas Tareas a crear (a lo sumo MAX_LOTE)
+     * @return Resultado por elemento y totales de la carga
+     */
+    @Transactional
+    public ResultadoLoteDTO addTareasLote(List<NuevaTareaDTO> tareas) {
+        long inicio = System.nanoTime();
+
+        Set<Integer> usuariosActivos = idsActivos(tareas, NuevaTareaDTO::getUserId, usuarioRepository::findActiveIds);
+        Set<Integer> sprintsActivos = idsActivos(tareas, NuevaTareaDTO::getSprintId, sprintRepository::findActiveIds);
+
+        List<ResultadoLoteDTO.Elemento> resultados = new ArrayList<>(tareas.size());
+        List<Integer> idsCreados = new ArrayList<>();
+        long version = versionesFila.versionDeTransaccion();
+        int creadas = 0;
+        for (int i = 0; i < tareas.size(); i++) {
+            NuevaTareaDTO nueva = tareas.get(i);
+            String error = validarNuevaTarea(nueva, usuariosActivos, sprintsActivos);
+            if (error != null) {
+                resultados.add(ResultadoLoteDTO.Elemento.rechazado(i, error));
+                continue;
+            }
+
+            // El usuario y el sprint ya se validaron, así que basta una referencia para la llave foránea
+            Tarea tarea = new Tarea(0, nueva.getTitle(), nueva.getDescription(), nueva.getStatus(),
+                    nueva.getPriority(), nueva.getType(), nueva.getStartDate(), nueva.getEndDate(),
+                    nueva.getStoryPoints(), entityManager.getReference(Sprint.class, nueva.getSprintId()),
+                    entityManager.getReference(Usuario.class, nueva.getUserId()), 0,
+                    nueva.getEstimatedHours(), nueva.getActualHours());
+            tarea.setRowVersion(version);
+            entityManager.persist(tarea);
+            resultados.add(ResultadoLoteDTO.Elemento.creado(i, tarea.getTaskId()));
+            idsCreados.add(tarea.getTaskId());
+
+            if (++creadas % tamanoLote == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        indiceBusqueda.refrescar(IndiceBusqueda.Tipo.TAREA, idsCreados);
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.TAREA);
+
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return new ResultadoLoteDTO(tareas.size(), creadas, milisegundos, resultados);
+    }
+
+    /**
+     * Obtiene, de los IDs referenciados por las tareas, los que están activos
+     */
+    private Set<Integer> idsActivos(List<NuevaTareaDTO> tareas, Function<NuevaTareaDTO, Integer> id,
+                                    Function<List<Integer>, List<Integer>> consulta) {
+        List<Integer> ids = tareas.stream()
+                .filter(Objects::nonNull)
+                .map(id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Set<Integer> activos = new HashSet<>();
+        Lotes.porLotes(ids, lote -> activos.addAll(consulta.apply(lote)));
+        return activos;
+    }
+
+    /**
+     * Valida una tarea de la carga masiva
+     * 
+     * @return Mensaje de error, o null si la tarea puede insertarse
+     */
+    private String validarNuevaTarea(NuevaTareaDTO tarea, Set<Integer> usuariosActivos, Set<Integer> sprintsActivos) {
+        if (tarea == null) {
+            return "Elemento vacío";
+        }
+        if (isBlank(tarea.getTitle()) || isBlank(tarea.getDescription()) || isBlank(tarea.getStatus())
+                || isBlank(tarea.getPriority()) || isBlank(tarea.getType())) {
+            return "Faltan campos obligatorios (title, description, status, priority, type)";
+        }
+        if (tarea.getStartDate() == null || tarea.getEndDate() == null) {
+            return "Faltan las fechas de inicio o fin";
+        }
+        if (tarea.getUserId() == null || !usuariosActivos.contains(tarea.getUserId())) {
+            return "Usuario no encontrado o inactivo";
+        }
+        if (tarea.getSprintId() == null || !sprintsActivos.contains(tarea.getSprintId())) {
+            return "Sprint no encontrado o inactivo";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
+
     /**
      * Actualiza los datos de una tarea existente
      * 
@@ -103,6 +264,7 @@ public class TareaService {
      * @param tareaDetails Nuevos datos de la tarea
      * @return Tarea actualizada o null si no existe
      */
+    @Transactional
     public Tarea updateTarea(int id, Tarea tareaDetails) {
         Optional<Tarea> tareaData = tareaRepository.findById(id);
         if (tareaData.isPresent() && tareaData.get().getDeleted() == 0) {
@@ -120,21 +282,22 @@ public class TareaService {
             tarea.setEstimatedHours(tareaDetails.getEstimatedHours());
             tarea.setActualHours(tareaDetails.getActualHours());
             
-            // Actualizar referencias si se proporcionan
-            if (tareaDetails.getUsuario() != null && tareaDetails.getUsuario().getUserId() > 0) {
-                Optional<Usuario> usuario = usuarioRepository.findById(tareaDetails.getUsuario().getUserId());
-                if (usuario.isPresent()) {
-                    tarea.setUsuario(usuario.get());
-                }
+            // Actualizar referencias solo si cambiaron; basta verificar que el nuevo destino está activo
+            Usuario usuario = tareaDetails.getUsuario();
+            if (usuario != null && usuario.getUserId() > 0 && usuario.getUserId() != tarea.getUsuario().getUserId()
+                    && usuarioRepository.existsByUserIdAndDeleted(usuario.getUserId(), 0)) {
+                tarea.setUsuario((Usuario) Hibernate.unproxy(entityManager.getReference(Usuario.class, usuario.getUserId())));
             }
             
-            if (tareaDetails.getSprint() != null && tareaDetails.getSprint().getSprintId() > 0) {
-                Optional<Sprint> sprint = sprintRepository.findById(tareaDetails.getSprint().getSprintId());
-                if (sprint.isPresent()) {
-                    tarea.setSprint(sprint.get());
-                }
+            Sprint sprint = tareaDetails.getSprint();
+            if (sprint != null && sprint.getSprintId() > 0 && sprint.getSprintId() != tarea.getSprint().getSprintId()
+                    && sprintRepository.existsBySprintIdAndDeleted(sprint.getSprintId(), 0)) {
+                tarea.setSprint((Sprint) Hibernate.unproxy(entityManager.getReference(Sprint.class, sprint.getSprintId())));
             }
+            tarea.setRowVersion(versionesFila.versionDeTransaccion());
             
+            indiceBusqueda.refrescar(IndiceBusqueda.Tipo.TAREA, id);
+            versionesTablas.registrarCambio(VersionesTablas.Tabla.TAREA);
             return tareaRepository.save(tarea);
         } else {
             return null;
@@ -145,22 +308,17 @@ public class TareaService {
      * Elimina una tarea del sistema (borrado lógico)
      * 
      * @param id ID de la tarea a eliminar
-     * @return true si la eliminación fue exitosa, false en caso contrario
+     * @return true si se eliminó, false si no existe o ya estaba eliminada
      */
+    @Transactional
     public boolean deleteTarea(int id) {
-        try {
-            Optional<Tarea> tarea = tareaRepository.findById(id);
-            if (tarea.isPresent()) {
-                Tarea tareaToDelete = tarea.get();
-                // Realizamos un borrado lógico cambiando el flag 'deleted' a 1
-                tareaToDelete.setDeleted(1);
-                tareaRepository.save(tareaToDelete);
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
+        // Borrado lógico con un UPDATE directo, sin cargar la tarea
+        if (tareaRepository.eliminar(id, versionesFila.versionDeTransaccion()) == 0) {
             return false;
         }
+        indiceBusqueda.refrescar(IndiceBusqueda.Tipo.TAREA, id);
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.TAREA);
+        return true;
     }
     
     /**
@@ -169,6 +327,7 @@ public class TareaService {
      * @param userId ID del usuario
      * @return Lista de tareas asignadas al usuario
      */
+    @LecturaCompartida
     public List<Tarea> getTareasByUsuario(int userId) {
         return tareaRepository.findByUsuario(userId);
     }
@@ -179,6 +338,7 @@ public class TareaService {
      * @param sprintId ID del sprint
      * @return Lista de tareas del sprint
      */
+    @LecturaCompartida
     public List<Tarea> getTareasBySprint(int sprintId) {
         return tareaRepository.findBySprint(sprintId);
     }
@@ -189,6 +349,7 @@ public class TareaService {
      * @param status Estado de la tarea
      * @return Lista de tareas con el estado especificado
      */
+    @LecturaCompartida
     public List<Tarea> getTareasByStatus(String status) {
         return tareaRepository.findByStatusAndDeleted(status, 0);
     }
@@ -199,6 +360,7 @@ public class TareaService {
      * @param priority Prioridad de la tarea
      * @return Lista de tareas con la prioridad especificada
      */
+    @LecturaCompartida
     public List<Tarea> getTareasByPriority(String priority) {
         return tareaRepository.findByPriorityAndDeleted(priority, 0);
     }
@@ -209,6 +371,7 @@ public class TareaService {
      * @param type Tipo de tarea
      * @return Lista de tareas del tipo especificado
      */
+    @LecturaCompartida
     public List<Tarea> getTareasByType(String type) {
         return tareaRepository.findByTypeAndDeleted(type, 0);
     }
@@ -223,6 +386,25 @@ public class TareaService {
         return tareaRepository.searchByTitleOrDescription(searchTerm);
     }
     
+    /**
+     * Obtiene las tareas de un usuario en un proyecto agrupadas por sprint
+     * 
+     * Usa una consulta para el nombre del proyecto y otra para todas las filas sprint/tarea,
+     * y agrupa el resultado en una sola pasada.
+     * 
+     * @param userId ID del usuario
+     * @param proyectoId ID del proyecto
+     * @return Estructura proyecto → sprints activos → tareas activas del usuario
+     */
+    @LecturaCompartida
+    public TareasPorSprintDTO getTareasOrganizadasPorSprint(int userId, int proyectoId) {
+        Optional<String> nombreProyecto = proyectoRepository.findActiveNameById(proyectoId);
+        return TareasPorSprintDTO.agrupar(
+                nombreProyecto.isPresent() ? proyectoId : null,
+                nombreProyecto.orElse(null),
+                tareaRepository.findOrganizadasByUsuarioAndProyecto(userId, proyectoId));
+    }
+    
     /**
      * Busca tareas por usuario y sprint
      * 
@@ -230,7 +412,92 @@ public class TareaService {
      * @param sprintId ID del sprint
      * @return Lista de tareas asignadas al usuario en el sprint específico
      */
+    @LecturaCompartida
     public List<Tarea> getTareasByUsuarioAndSprint(int userId, int sprintId) {
         return tareaRepository.findByUsuarioAndSprint(userId, sprintId);
     }
+
+    /**
+     * Obtiene una página de tareas activas usando paginación por cursor
+     * 
+     * @param afterId ID de la última tarea recibida (0 para la primera página)
+     * @param limit Número máximo de tareas a devolver
+     * @return Página de tareas con el cursor de la siguiente página
+     */
+    @LecturaCompartida
+    public PaginaDTO<Tarea> findAllPaginado(int afterId, int limit) {
+        int size = normalizarLimite(limit);
+        return PaginaDTO.desde(tareaRepository.findActiveTareasAfter(afterId, PageRequest.of(0, size + 1)),
+                size, Tarea::getTaskId);
+    }
+    
+    /**
+     * Obtiene una página de tareas de un usuario usando paginación por cursor
+     * 
+     * @param userId ID del usuario
+     * @param afterId ID de la última tarea recibida (0 para la primera página)
+     * @param limit Número máximo de tareas a devolver
+     * @return Página de tareas con el cursor de la siguiente página
+     */
+    @LecturaCompartida
+    public PaginaDTO<Tarea> getTareasByUsuarioPaginado(int userId, int afterId, int limit) {
+        int size = normalizarLimite(limit);
+        return PaginaDTO.desde(tareaRepository.findByUsuarioAfter(userId, afterId, PageRequest.of(0, size + 1)),
+                size, Tarea::getTaskId);
+    }
+    
+    /**
+     * Obtiene una página de tareas de un sprint usando paginación por cursor
+     * 
+     * @param sprintId ID del sprint
+     * @param afterId ID de la última tarea recibida (0 para la primera página)
+     * @param limit Número máximo de tareas a devolver
+     * @return Página de tareas con el cursor de la siguiente página
+     */
+    @LecturaCompartida
+    public PaginaDTO<Tarea> getTareasBySprintPaginado(int sprintId, int afterId, int limit) {
+        int size = normalizarLimite(limit);
+        return PaginaDTO.desde(tareaRepository.findBySprintAfter(sprintId, afterId, PageRequest.of(0, size + 1)),
+                size, Tarea::getTaskId);
+    }
+    
+    /**
+     * Obtiene una página de tareas por estado usando paginación por cursor
+     * 
+     * @param status Estado de la tarea
+     * @param afterId ID de la última tarea recibida (0 para la primera página)
+     * @param limit Número máximo de tareas a devolver
+     * @return Página de tareas con el cursor de la siguiente página
+     */
+    @LecturaCompartida
+    public PaginaDTO<Tarea> getTareasByStatusPaginado(String status, int afterId, int limit) {
+        int size = normalizarLimite(limit);
+        return PaginaDTO.desde(tareaRepository.findByStatusAfter(status, afterId, PageRequest.of(0, size + 1)),
+                size, Tarea::getTaskId);
+    }
+    
+    /**
+     * Obtiene las tareas creadas, modificadas o borradas lógicamente después de un cursor
+     * 
+     * Solo devuelve cambios de transacciones ya confirmadas y anteriores a cualquier escritura
+     * en curso, de modo que el cursor nunca se salta una tarea que todavía no es visible.
+     * 
+     * @param since Versión de la última tarea recibida (0 para la primera sincronización)
+     * @param afterId ID de la última tarea recibida con esa versión (0 si no hay)
+     * @param limit Número máximo de tareas a devolver
+     * @return Página de cambios con el cursor para continuar
+     */
+    public CambiosDTO<CambioTareaDTO> getCambios(long since, int afterId, int limit) {
+        int size = normalizarLimite(limit);
+        long hasta = versionesFila.limiteVisible();
+        return CambiosDTO.desde(tareaRepository.findCambios(since, afterId, hasta, PageRequest.of(0, size + 1)),
+                size, since, afterId, CambioTareaDTO::getRowVersion, CambioTareaDTO::getTaskId);
+    }
+    
+    /**
+     * Ajusta el tamaño de página solicitado al rango permitido [1, MAX_PAGE_SIZE]
+     */
+    private int normalizarLimite(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
@@ -18,6 +19,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class UsuarioProyectoService {
     
     @Autowired
@@ -29,17 +31,19 @@ public class UsuarioProyectoService {
     @Autowired
     private ProyectoRepository proyectoRepository;
     
+    @Autowired
+    private PlanesCarga planesCarga;
+    
     /**
      * Encuentra todas las asignaciones usuario-proyecto
      */
     public List<UsuarioProyecto> findAll() {
-        return usuarioProyectoRepository.findAll().stream()
-                .filter(up -> up.getDeleted() == 0)
-                .collect(Collectors.toList());
+        return conProyectosCompletos(usuarioProyectoRepository.findActivas());
     }
     
     /**
      * Encuentra todas las asignaciones para un usuario específico
+     * (los sprints de cada proyecto quedan sin inicializar)
      */
     public List<UsuarioProyecto> findByUsuarioId(int userId) {
         return usuarioProyectoRepository.findByUsuarioId(userId);
@@ -49,10 +53,11 @@ public class UsuarioProyectoService {
      * Encuentra todos los proyectos asignados a un usuario específico
      */
     public List<Proyecto> findProyectosByUsuarioId(int userId) {
-        return usuarioProyectoRepository.findByUsuarioId(userId)
+        List<Proyecto> proyectos = usuarioProyectoRepository.findByUsuarioId(userId)
                 .stream()
                 .map(UsuarioProyecto::getProyecto)
                 .collect(Collectors.toList());
+        return planesCarga.conSprintsYTareas(proyectos);
     }
     
     /**
@@ -75,6 +80,7 @@ public class UsuarioProyectoService {
     /**
      * Asigna un usuario a un proyecto
      */
+    @Transactional
     public UsuarioProyecto assignUsuarioToProyecto(int userId, int projectId, String role) {
         // Verificar si el usuario existe
         Optional<Usuario> optUsuario = usuarioRepository.findById(userId);
@@ -91,16 +97,16 @@ public class UsuarioProyectoService {
         // Verificar si ya existe la asignación
         UsuarioProyecto existingAssignment = usuarioProyectoRepository.findByUsuarioIdAndProyectoId(userId, projectId);
         if (existingAssignment != null) {
-            if (existingAssignment.getDeleted() == 1) {
+            if (existingAssignment.getDeleted() != 0) {
                 // Si estaba eliminado lógicamente, lo reactivamos
                 existingAssignment.setDeleted(0);
                 existingAssignment.setRole(role);
                 existingAssignment.setAssignmentDate(new Date());
-                return usuarioProyectoRepository.save(existingAssignment);
+                return conProyectoCompleto(usuarioProyectoRepository.save(existingAssignment));
             } else {
                 // Si ya existe y está activo, actualizamos el rol
                 existingAssignment.setRole(role);
-                return usuarioProyectoRepository.save(existingAssignment);
+                return conProyectoCompleto(usuarioProyectoRepository.save(existingAssignment));
             }
         }
         
@@ -112,12 +118,13 @@ public class UsuarioProyectoService {
                 new Date()
         );
         
-        return usuarioProyectoRepository.save(usuarioProyecto);
+        return conProyectoCompleto(usuarioProyectoRepository.save(usuarioProyecto));
     }
     
     /**
      * Elimina la asignación de un usuario a un proyecto
      */
+    @Transactional
     public boolean removeUsuarioFromProyecto(int userId, int projectId) {
         UsuarioProyecto assignment = usuarioProyectoRepository.findByUsuarioIdAndProyectoId(userId, projectId);
         if (assignment != null) {
@@ -134,7 +141,7 @@ public class UsuarioProyectoService {
     public ResponseEntity<UsuarioProyecto> getUsuarioProyectoById(int userProjectId) {
         Optional<UsuarioProyecto> optUsuarioProyecto = usuarioProyectoRepository.findById(userProjectId);
         if (optUsuarioProyecto.isPresent() && optUsuarioProyecto.get().getDeleted() == 0) {
-            return new ResponseEntity<>(optUsuarioProyecto.get(), HttpStatus.OK);
+            return new ResponseEntity<>(conProyectoCompleto(optUsuarioProyecto.get()), HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
@@ -142,11 +149,12 @@ public class UsuarioProyectoService {
     /**
      * Actualiza el rol de un usuario en un proyecto
      */
+    @Transactional
     public UsuarioProyecto updateUsuarioRole(int userId, int projectId, String newRole) {
         UsuarioProyecto assignment = usuarioProyectoRepository.findByUsuarioIdAndProyectoId(userId, projectId);
         if (assignment != null) {
             assignment.setRole(newRole);
-            return usuarioProyectoRepository.save(assignment);
+            return conProyectoCompleto(usuarioProyectoRepository.save(assignment));
         }
         throw new RuntimeException("Asignación no encontrada para el usuario " + userId + " y proyecto " + projectId);
     }
@@ -157,4 +165,19 @@ public class UsuarioProyectoService {
     public Optional<UsuarioProyecto> findByUsuarioIdAndProyectoId(int userId, int projectId) {
         return usuarioProyectoRepository.findOptionalByUsuarioIdAndProyectoId(userId, projectId);
     }
+
+    /**
+     * Carga sprints y tareas del proyecto de cada asignación, que se serializan junto con ella
+     */
+    private List<UsuarioProyecto> conProyectosCompletos(List<UsuarioProyecto> asignaciones) {
+        planesCarga.conSprintsYTareas(asignaciones.stream()
+                .map(UsuarioProyecto::getProyecto)
+                .collect(Collectors.toList()));
+        return asignaciones;
+    }
+    
+    private UsuarioProyecto conProyectoCompleto(UsuarioProyecto asignacion) {
+        planesCarga.conSprintsYTareas(asignacion.getProyecto());
+        return asignacion;
+    }
 }
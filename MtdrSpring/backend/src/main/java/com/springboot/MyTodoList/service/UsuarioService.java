@@ -21,6 +21,7 @@ import java.util.Optional;
  * así como para realizar operaciones más complejas como autenticación.
  */
 @Service
+@Transactional(readOnly = true)
 public class UsuarioService {
 
     @Autowired
@@ -29,6 +30,12 @@ public class UsuarioService {
     @Autowired
     private PasswordEncoder passwordEncoder; // Inject PasswordEncoder
 
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
     /**
      * Obtiene todos los usuarios activos del sistema
      *
@@ -109,7 +116,10 @@ public class UsuarioService {
         // Hash the password before saving
         String hashedPassword = passwordEncoder.encode(usuario.getPasswordHash()); // Assuming passwordHash field temporarily holds plaintext password
         usuario.setPasswordHash(hashedPassword); // Set hashed password
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        indiceBusqueda.refrescar(IndiceBusqueda.Tipo.USUARIO, guardado.getUserId());
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.USUARIO);
+        return guardado;
     }
 
     /**
@@ -141,6 +151,8 @@ public class UsuarioService {
                 usuario.setRol(usuarioDetails.getRol());
             }
 
+            indiceBusqueda.refrescar(IndiceBusqueda.Tipo.USUARIO, id);
+            versionesTablas.registrarCambio(VersionesTablas.Tabla.USUARIO);
             return usuarioRepository.save(usuario);
         } else {
             return null;
@@ -151,22 +163,21 @@ public class UsuarioService {
      * Elimina un usuario del sistema (borrado lógico)
      *
      * @param id ID del usuario a eliminar
-     * @return true si la eliminación fue exitosa, false en caso contrario
+     * @return true si se eliminó, false si no existe o ya estaba eliminado
      */
+    @Transactional
     public boolean deleteUsuario(int id) {
-        try {
-            Optional<Usuario> usuario = usuarioRepository.findById(id);
-            if (usuario.isPresent()) {
-                Usuario usuarioToDelete = usuario.get();
-                // Realizamos un borrado lógico cambiando el flag 'deleted' a 1
-                usuarioToDelete.setDeleted(1);
-                usuarioRepository.save(usuarioToDelete);
-                return true;
-            }
-            return false;
-        } catch (Exception e) {
-            return false;
+        Optional<Usuario> usuario = usuarioRepository.findById(id);
+        if (usuario.isPresent() && usuario.get().getDeleted() == 0) {
+            Usuario usuarioToDelete = usuario.get();
+            // Realizamos un borrado lógico cambiando el flag 'deleted' a 1
+            usuarioToDelete.setDeleted(1);
+            usuarioRepository.save(usuarioToDelete);
+            indiceBusqueda.refrescar(IndiceBusqueda.Tipo.USUARIO, id);
+            versionesTablas.registrarCambio(VersionesTablas.Tabla.USUARIO);
+            return true;
         }
+        return false;
     }
 
     /**
@@ -212,6 +223,7 @@ public class UsuarioService {
             String hashedPassword = passwordEncoder.encode(newPlainPassword);
             usuario.setPasswordHash(hashedPassword);
 
+            versionesTablas.registrarCambio(VersionesTablas.Tabla.USUARIO);
             return usuarioRepository.save(usuario); // Guarda el usuario con el nuevo hash
         } else {
             return null; // Usuario no encontrado
@@ -0,0 +1,148 @@
+package com.springboot.MyTodoList.service;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * VERSIONES DE FILA
+ *
+ * Asigna a cada transacción que escribe tareas, sprints o proyectos un valor de la secuencia
+ * CAMBIO_SEQ, que los servicios guardan en la columna ROW_VERSION de las filas que crean,
+ * modifican o borran lógicamente. Así /tareas/changes puede devolver solo lo que cambió desde
+ * la última versión que recibió el cliente.
+ *
+ * Los valores se asignan al empezar a escribir pero las transacciones confirman en otro orden:
+ * si el feed devolviera la versión 8 mientras la 7 sigue en curso, el cliente avanzaría su
+ * cursor y nunca vería la 7. Por eso se llevan las versiones asignadas que aún no terminan, y
+ * el feed solo devuelve filas con una versión menor a la más antigua de ellas.
+ *
+ * Las versiones en curso se llevan en memoria: con varias instancias de la aplicación cada una
+ * solo conoce las suyas. Por eso, con "despliegue.varias-instancias=true" el feed además se
+ * atrasa: cada tanto se toma un valor de la secuencia (ORDER) y se anota cuándo; el feed solo
+ * devuelve versiones menores al último valor tomado hace al menos "versiones.fila.retraso-ms",
+ * que debe ser mayor que la transacción de escritura más larga. Cualquier instancia obtuvo esas
+ * versiones antes de ese momento, así que sus transacciones ya terminaron. Hasta tener un valor
+ * con esa antigüedad, por ejemplo recién arrancada la instancia, el feed no devuelve nada.
+ */
+@Component
+public class VersionesFila {
+
+    private static final String SECUENCIA = "CAMBIO_SEQ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${despliegue.varias-instancias:false}")
+    private boolean variasInstancias;
+
+    @Value("${versiones.fila.retraso-ms:30000}")
+    private long retrasoMs;
+
+    private final ConcurrentSkipListSet<Long> enCurso = new ConcurrentSkipListSet<>();
+
+    /**
+     * Valores de la secuencia tomados por el feed con varias instancias, por hora en milisegundos
+     */
+    private final ConcurrentSkipListMap<Long, Long> muestras = new ConcurrentSkipListMap<>();
+
+    /**
+     * Quien asigna toma el candado de lectura desde NEXTVAL hasta registrar el valor, y el feed
+     * toma el de escritura: así nunca calcula su límite con un valor obtenido pero aún no registrado
+     */
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private volatile String siguienteValorSql;
+
+    /**
+     * Obtiene la versión de la transacción actual, asignándola en la primera llamada
+     *
+     * @return Versión que deben llevar las filas que escribe esta transacción
+     */
+    public long versionDeTransaccion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("La versión de fila solo se asigna dentro de una transacción");
+        }
+        Long asignada = (Long) TransactionSynchronizationManager.getResource(this);
+        if (asignada != null) {
+            return asignada;
+        }
+
+        long version;
+        candado.readLock().lock();
+        try {
+            version = siguienteValor();
+            enCurso.add(version);
+        } finally {
+            candado.readLock().unlock();
+        }
+        TransactionSynchronizationManager.bindResource(this, version);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(VersionesFila.this);
+                enCurso.remove(version);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * Obtiene la versión más alta que el feed puede devolver sin saltarse una transacción en curso
+     *
+     * @return Versión anterior a la transacción en curso más antigua, o Long.MAX_VALUE si no hay ninguna;
+     *         con varias instancias, además, no más que el límite con retraso
+     */
+    public long limiteVisible() {
+        long conRetraso = variasInstancias ? limiteConRetraso() : Long.MAX_VALUE;
+        candado.writeLock().lock();
+        try {
+            return Math.min(conRetraso, enCurso.isEmpty() ? Long.MAX_VALUE : enCurso.first() - 1);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Toma un valor de la secuencia si la última muestra tiene más de una décima del retraso y
+     * devuelve la versión más alta que ya no puede pertenecer a una transacción en curso
+     *
+     * @return Valor anterior a la muestra más reciente con al menos el retraso, o 0 si no hay ninguna
+     */
+    private long limiteConRetraso() {
+        long ahora = System.currentTimeMillis();
+        Map.Entry<Long, Long> ultima = muestras.lastEntry();
+        if (ultima == null || ahora - ultima.getKey() >= Math.max(1, retrasoMs / 10)) {
+            muestras.put(ahora, siguienteValor() - 1);
+        }
+        Map.Entry<Long, Long> vigente = muestras.floorEntry(ahora - retrasoMs);
+        if (vigente == null) {
+            return 0;
+        }
+        muestras.headMap(vigente.getKey()).clear();
+        return vigente.getValue();
+    }
+
+    private long siguienteValor() {
+        if (siguienteValorSql == null) {
+            siguienteValorSql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect().getSequenceNextValString(SECUENCIA);
+        }
+        // El espacio sincronizado evita que Hibernate vacíe el contexto antes de leer la secuencia
+        Number valor = (Number) entityManager.createNativeQuery(siguienteValorSql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(SECUENCIA)
+                .getSingleResult();
+        return valor.longValue();
+    }
+}
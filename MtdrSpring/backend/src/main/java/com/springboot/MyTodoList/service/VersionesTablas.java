@@ -0,0 +1,151 @@
+package com.springboot.MyTodoList.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * VERSIONES DE TABLAS
+ *
+ * Lleva un contador de cambios por tabla que los servicios incrementan al escribir, para que
+ * los listados respondan 304 (Not Modified) sin consultar la base de datos ni serializar nada
+ * cuando el cliente ya tiene la versión actual. La ETag de un listado combina los contadores
+ * de las tablas que aparecen en su JSON.
+ *
+ * El contador se incrementa después del commit. Por eso el controlador debe leer la versión
+ * antes de consultar los datos: si una escritura confirma entre ambas lecturas, la respuesta
+ * lleva datos nuevos con la ETag vieja y el cliente simplemente los vuelve a pedir en la
+ * siguiente consulta; nunca se etiquetan datos viejos con una versión nueva. Por lo mismo,
+ * LecturasCompartidas no une una llamada a una consulta que empezó antes del último commit
+ * (ver cambiosConfirmados).
+ *
+ * Los contadores viven en memoria de esta instancia y la ETag incluye su hora de arranque,
+ * así que reiniciar la aplicación invalida todas las ETags emitidas antes. Una instancia no ve
+ * las escrituras de otra: con "despliegue.varias-instancias=true" los listados no emiten ETag
+ * ni Last-Modified y siempre responden con los datos.
+ */
+@Component
+public class VersionesTablas {
+
+    /**
+     * Tablas cuyo contenido aparece en los listados
+     */
+    public enum Tabla {
+        PROYECTO, SPRINT, TAREA, USUARIO
+    }
+
+    @Value("${despliegue.varias-instancias:false}")
+    private boolean variasInstancias;
+
+    private final long arranque = System.currentTimeMillis();
+    private final String epoca = Long.toString(arranque, 36);
+    private final AtomicLongArray versiones = new AtomicLongArray(Tabla.values().length);
+    private final AtomicLongArray modificadas = new AtomicLongArray(Tabla.values().length);
+    private final AtomicLong confirmados = new AtomicLong();
+
+    public VersionesTablas() {
+        for (Tabla tabla : Tabla.values()) {
+            modificadas.set(tabla.ordinal(), arranque);
+        }
+    }
+
+    /**
+     * Registra que la transacción actual cambió las tablas indicadas; el contador se
+     * incrementa al confirmar, o de inmediato si no hay transacción
+     *
+     * @param tablas Tablas modificadas
+     */
+    public void registrarCambio(Tabla... tablas) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementar(tablas);
+                }
+            });
+        } else {
+            incrementar(tablas);
+        }
+    }
+
+    /**
+     * Obtiene la versión actual de un listado que muestra las tablas indicadas
+     *
+     * @param tablas Tablas cuyo contenido aparece en la respuesta
+     * @return ETag débil y fecha de la última modificación de esas tablas; con varias instancias,
+     *         una versión que nunca responde 304
+     */
+    public Version version(Tabla... tablas) {
+        if (variasInstancias) {
+            return Version.SIN_CONDICIONAL;
+        }
+        StringBuilder etag = new StringBuilder("W/\"").append(epoca);
+        long ultimaModificacion = 0;
+        for (Tabla tabla : tablas) {
+            etag.append('-').append(Long.toString(versiones.get(tabla.ordinal()), 36));
+            ultimaModificacion = Math.max(ultimaModificacion, modificadas.get(tabla.ordinal()));
+        }
+        return new Version(etag.append('"').toString(), ultimaModificacion, true);
+    }
+
+    /**
+     * Cuenta los cambios confirmados en cualquier tabla. Aumenta antes que los contadores por
+     * tabla, así que quien ya leyó una versión nueva ve también el total nuevo
+     *
+     * @return Número de cambios confirmados desde el arranque
+     */
+    public long cambiosConfirmados() {
+        return confirmados.get();
+    }
+
+    private void incrementar(Tabla... tablas) {
+        confirmados.incrementAndGet();
+        long ahora = System.currentTimeMillis();
+        for (Tabla tabla : tablas) {
+            versiones.incrementAndGet(tabla.ordinal());
+            modificadas.accumulateAndGet(tabla.ordinal(), ahora, Math::max);
+        }
+    }
+
+    /**
+     * Versión de un listado, lista para los encabezados ETag y Last-Modified
+     */
+    public static final class Version {
+
+        static final Version SIN_CONDICIONAL = new Version(null, -1, false);
+
+        private final String etag;
+        private final long ultimaModificacion;
+        private final boolean condicional;
+
+        Version(String etag, long ultimaModificacion, boolean condicional) {
+            this.etag = etag;
+            this.ultimaModificacion = ultimaModificacion;
+            this.condicional = condicional;
+        }
+
+        /**
+         * Compara la versión con los encabezados condicionales de la petición y agrega
+         * ETag y Last-Modified a la respuesta
+         *
+         * @param request Petición del listado
+         * @return true si el cliente ya tiene esta versión y basta responder 304
+         */
+        public boolean noModificado(WebRequest request) {
+            return condicional && request.checkNotModified(etag, ultimaModificacion);
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getUltimaModificacion() {
+            return ultimaModificacion;
+        }
+    }
+}
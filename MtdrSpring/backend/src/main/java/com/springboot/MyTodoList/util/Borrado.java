@@ -0,0 +1,30 @@
+package com.springboot.MyTodoList.util;
+
+/**
+ * VALORES DE LA COLUMNA DELETED
+ *
+ * Las consultas tratan como activa solo a la fila con deleted = 0. El borrado en cascada
+ * marca a los hijos con un valor distinto al del borrado directo, para que al restaurar
+ * el padre vuelvan solo los hijos que se borraron junto con él y no los que ya estaban borrados.
+ * Las sentencias UPDATE de los repositorios usan estos mismos valores como literales.
+ */
+public final class Borrado {
+
+    /**
+     * Fila activa
+     */
+    public static final int ACTIVO = 0;
+
+    /**
+     * Fila borrada directamente por el usuario
+     */
+    public static final int ELIMINADO = 1;
+
+    /**
+     * Fila borrada porque se borró su proyecto o su sprint
+     */
+    public static final int ELIMINADO_EN_CASCADA = 2;
+
+    private Borrado() {
+    }
+}
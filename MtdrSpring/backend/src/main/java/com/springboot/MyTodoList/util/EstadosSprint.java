@@ -0,0 +1,46 @@
+package com.springboot.MyTodoList.util;
+
+/**
+ * ESTADOS DE SPRINT
+ *
+ * Los sprints guardan el estado como texto libre (en inglés o en español).
+ * Esta clase lo traduce a uno de los tres estados que muestra el frontend.
+ */
+public final class EstadosSprint {
+
+    public static final String COMPLETADO = "Completed";
+    public static final String EN_PROGRESO = "In Progress";
+    public static final String PENDIENTE = "Pending";
+
+    private EstadosSprint() {
+    }
+
+    /**
+     * Normaliza el estado de un sprint
+     *
+     * @param status Estado tal como está guardado (puede ser null)
+     * @return Completed, In Progress o Pending
+     */
+    public static String normalizar(String status) {
+        if (status == null) {
+            return PENDIENTE;
+        }
+
+        switch (status.toLowerCase()) {
+            case "completed":
+            case "completado":
+            case "complete":
+            case "done":
+            case "finalizado":
+                return COMPLETADO;
+            case "in progress":
+            case "inprogress":
+            case "en progreso":
+            case "active":
+            case "activo":
+                return EN_PROGRESO;
+            default:
+                return PENDIENTE;
+        }
+    }
+}
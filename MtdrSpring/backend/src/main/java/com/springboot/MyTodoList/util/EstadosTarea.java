@@ -0,0 +1,49 @@
+package com.springboot.MyTodoList.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ESTADOS DE TAREA
+ *
+ * Valores de estado que el sistema interpreta igual sin importar cómo se escribieron.
+ * Las tareas guardan el estado como texto libre, así que las comparaciones no distinguen mayúsculas.
+ */
+public final class EstadosTarea {
+
+    /**
+     * Estados (en minúsculas) que cuentan como tarea completada
+     */
+    public static final List<String> COMPLETADOS = Collections.unmodifiableList(
+            Arrays.asList("completed", "done", "finalizada", "completado"));
+
+    /**
+     * Estados (en minúsculas) que cierran una tarea; una tarea cerrada no puede estar vencida
+     */
+    public static final List<String> CERRADOS = Collections.unmodifiableList(
+            Arrays.asList("completed", "done", "finalizada", "completado", "finish", "finished"));
+
+    /**
+     * Estado de las tareas pendientes por iniciar
+     */
+    public static final String PENDIENTE = "Incomplete";
+
+    /**
+     * Estado de las tareas en curso
+     */
+    public static final String EN_PROGRESO = "In Progress";
+
+    private EstadosTarea() {
+    }
+
+    /**
+     * Indica si un estado cuenta como completado
+     *
+     * @param status Estado de la tarea tal como está guardado
+     * @return true si el estado es uno de los completados
+     */
+    public static boolean esCompletado(String status) {
+        return status != null && COMPLETADOS.contains(status.trim().toLowerCase());
+    }
+}
@@ -0,0 +1,97 @@
+package com.springboot.MyTodoList.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LECTOR CSV EN STREAMING
+ *
+ * Lee un registro CSV (RFC 4180) a la vez desde un Reader, sin cargar el archivo en memoria.
+ * Acepta campos entre comillas con comas, comillas dobles ("") y saltos de línea, y
+ * finales de línea \n o \r\n. Un BOM UTF-8 al inicio se ignora.
+ */
+public class LectorCsv {
+
+    private final Reader entrada;
+    private final char[] buffer = new char[8192];
+    private int posicion;
+    private int limite;
+    private boolean inicio = true;
+
+    public LectorCsv(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * Lee el siguiente registro
+     *
+     * @return Campos del registro, o null al llegar al final de la entrada
+     * @throws IOException Si falla la lectura o una comilla queda sin cerrar
+     */
+    public List<String> siguiente() throws IOException {
+        int c = leer();
+        if (inicio) {
+            inicio = false;
+            if (c == '\uFEFF') {
+                c = leer();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IOException("Comilla sin cerrar al final del archivo");
+                }
+                if (c == '"') {
+                    int despues = leer();
+                    if (despues == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = despues;
+                        continue;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int despues = leer();
+                    if (despues != '\n' && despues != -1) {
+                        posicion--;
+                    }
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+    }
+
+    private int leer() throws IOException {
+        if (posicion == limite) {
+            limite = entrada.read(buffer, 0, buffer.length);
+            posicion = 0;
+            if (limite <= 0) {
+                limite = 0;
+                return -1;
+            }
+        }
+        return buffer[posicion++];
+    }
+}
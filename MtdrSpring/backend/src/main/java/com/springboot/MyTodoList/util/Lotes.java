@@ -0,0 +1,33 @@
+package com.springboot.MyTodoList.util;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * LOTES PARA CONSULTAS IN
+ *
+ * Oracle acepta a lo sumo 1000 expresiones en una lista IN, así que las consultas
+ * que reciben una colección de IDs se ejecutan una vez por cada lote.
+ */
+public final class Lotes {
+
+    /**
+     * Máximo de elementos que Oracle admite en una lista IN
+     */
+    public static final int MAX_IN = 1000;
+
+    private Lotes() {
+    }
+
+    /**
+     * Ejecuta la consulta una vez por cada lote de a lo sumo MAX_IN elementos
+     *
+     * @param ids Elementos a enviar (puede estar vacía; entonces no se consulta nada)
+     * @param consulta Consulta que recibe cada lote
+     */
+    public static <T> void porLotes(List<T> ids, Consumer<List<T>> consulta) {
+        for (int inicio = 0; inicio < ids.size(); inicio += MAX_IN) {
+            consulta.accept(ids.subList(inicio, Math.min(ids.size(), inicio + MAX_IN)));
+        }
+    }
+}
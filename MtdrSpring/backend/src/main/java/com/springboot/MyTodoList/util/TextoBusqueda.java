@@ -0,0 +1,69 @@
+package com.springboot.MyTodoList.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * NORMALIZACIÓN DE TEXTO PARA BÚSQUEDA
+ *
+ * Convierte texto libre en los términos que usa el índice de búsqueda: minúsculas, sin acentos
+ * ni diéresis ("Planeación" y "planeacion" dan el mismo término, la ñ se trata como n) y
+ * separado en palabras de letras y dígitos.
+ */
+public final class TextoBusqueda {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private TextoBusqueda() {
+    }
+
+    /**
+     * Quita acentos y pasa a minúsculas
+     *
+     * @param texto Texto original (puede ser null)
+     * @return Texto normalizado, vacío si el original era null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Separa el texto normalizado en términos únicos, en el orden en que aparecen
+     *
+     * @param texto Texto original (puede ser null)
+     * @return Términos normalizados sin repetir
+     */
+    public static List<String> terminos(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String termino : SEPARADORES.split(normalizar(texto))) {
+            if (!termino.isEmpty()) {
+                terminos.add(termino);
+            }
+        }
+        return new ArrayList<>(terminos);
+    }
+
+    /**
+     * Trigramas (subcadenas de 3 caracteres) de un término normalizado
+     *
+     * @param termino Término de al menos 3 caracteres
+     * @return Trigramas únicos del término
+     */
+    public static Set<String> trigramas(String termino) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= termino.length(); i++) {
+            trigramas.add(termino.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+}
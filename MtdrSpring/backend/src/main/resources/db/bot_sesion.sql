@@ -0,0 +1,18 @@
+-- TABLA DE SESIONES DEL BOT DE TELEGRAM
+--
+-- Solo se usa con bot.sesiones.almacen=jdbc. Cada fila es la sesión de un chat en el formato
+-- binario de FormatoSesion; ACTUALIZADA es la última vez que el bot la guardó. El bot ignora
+-- y borra periódicamente las filas más antiguas que bot.sesiones.inactividad. VERSION aumenta
+-- en cada escritura y solo se reemplaza la fila si sigue en la versión que la réplica leyó.
+--
+-- Para una tabla creada antes de VERSION:
+-- ALTER TABLE BOT_SESION ADD (VERSION NUMBER(19) DEFAULT 0 NOT NULL);
+
+CREATE TABLE BOT_SESION (
+    CHAT_ID     NUMBER(19)  PRIMARY KEY,
+    DATOS       BLOB        NOT NULL,
+    ACTUALIZADA TIMESTAMP   NOT NULL,
+    VERSION     NUMBER(19)  NOT NULL
+);
+
+CREATE INDEX BOT_SESION_ACTUALIZADA_IX ON BOT_SESION (ACTUALIZADA);
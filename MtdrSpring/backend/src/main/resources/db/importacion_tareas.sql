@@ -0,0 +1,19 @@
+-- TABLA DE PUNTOS DE CONTROL PARA /tareas/import
+--
+-- Cada fila registra una importación CSV de tareas y cuántas filas de datos ya quedaron
+-- confirmadas; la aplicación la actualiza en la misma transacción que inserta cada bloque.
+
+CREATE SEQUENCE IMPORTACION_TAREAS_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE TABLE IMPORTACION_TAREAS (
+    IMPORT_ID       NUMBER        DEFAULT ON NULL IMPORTACION_TAREAS_SEQ.NEXTVAL PRIMARY KEY,
+    PROJECT_ID      NUMBER        NOT NULL REFERENCES PROYECTO (PROJECT_ID),
+    STATUS          VARCHAR2(20)  NOT NULL,
+    COMMITTED_LINES NUMBER(19)    DEFAULT 0 NOT NULL,
+    CREATED_COUNT   NUMBER(19)    DEFAULT 0 NOT NULL,
+    REJECTED_COUNT  NUMBER(19)    DEFAULT 0 NOT NULL,
+    STARTED_AT      TIMESTAMP     NOT NULL,
+    UPDATED_AT      TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IMPORTACION_TAREAS_PROYECTO_IX ON IMPORTACION_TAREAS (PROJECT_ID, STATUS);
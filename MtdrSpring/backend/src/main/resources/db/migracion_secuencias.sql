@@ -0,0 +1,42 @@
+-- MIGRACIÓN: IDs IDENTITY -> SECUENCIAS (pooled-lo)
+--
+-- Las entidades Usuario, Proyecto, Sprint, Tarea y UsuarioProyecto obtienen su ID de una
+-- secuencia con INCREMENT BY 50 (igual al allocationSize de @SequenceGenerator): cada NEXTVAL
+-- reserva un bloque de 50 IDs y Hibernate ya no necesita ejecutar cada INSERT al momento de
+-- persistir, así que puede agruparlos en lotes JDBC.
+--
+-- Los IDs existentes no cambian: la columna deja de ser IDENTITY y cada secuencia empieza
+-- después del ID más alto de su tabla. La columna queda con DEFAULT ON NULL <secuencia>.NEXTVAL
+-- para que los INSERT que no envían el ID (scripts, cargas manuales) sigan funcionando; esos
+-- consumen un bloque completo, pero nunca chocan con los bloques que reserva Hibernate.
+--
+-- Ejecutar una sola vez como el dueño de las tablas, con la aplicación detenida.
+
+DECLARE
+    PROCEDURE migrar(p_tabla VARCHAR2, p_columna VARCHAR2, p_secuencia VARCHAR2) IS
+        v_inicio NUMBER;
+        v_identity NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'LOCK TABLE ' || p_tabla || ' IN EXCLUSIVE MODE';
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(' || p_columna || '), 0) + 1 FROM ' || p_tabla INTO v_inicio;
+
+        SELECT COUNT(*) INTO v_identity
+          FROM USER_TAB_IDENTITY_COLS
+         WHERE TABLE_NAME = p_tabla AND COLUMN_NAME = p_columna;
+        IF v_identity > 0 THEN
+            EXECUTE IMMEDIATE 'ALTER TABLE ' || p_tabla || ' MODIFY ' || p_columna || ' DROP IDENTITY';
+        END IF;
+
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_secuencia ||
+                          ' START WITH ' || v_inicio || ' INCREMENT BY 50 NOCYCLE CACHE 20';
+        EXECUTE IMMEDIATE 'ALTER TABLE ' || p_tabla || ' MODIFY ' || p_columna ||
+                          ' DEFAULT ON NULL ' || p_secuencia || '.NEXTVAL';
+    END;
+BEGIN
+    migrar('USUARIO', 'USER_ID', 'USUARIO_SEQ');
+    migrar('PROYECTO', 'PROJECT_ID', 'PROYECTO_SEQ');
+    migrar('SPRINT', 'SPRINT_ID', 'SPRINT_SEQ');
+    migrar('TAREA', 'TASK_ID', 'TAREA_SEQ');
+    migrar('USUARIO_PROYECTO', 'USER_PROJECT_ID', 'USUARIO_PROYECTO_SEQ');
+END;
+/
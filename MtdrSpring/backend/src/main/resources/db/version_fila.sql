@@ -0,0 +1,18 @@
+-- VERSIÓN DE FILA PARA /tareas/changes
+--
+-- TAREA, SPRINT y PROYECTO guardan en ROW_VERSION el valor de CAMBIO_SEQ que la aplicación
+-- asignó a la transacción que creó, modificó o borró lógicamente la fila; todas las filas que
+-- escribe una misma transacción comparten el valor. Los clientes sincronizan pidiendo solo las
+-- filas con una versión mayor a la última que recibieron.
+--
+-- ORDER garantiza valores crecientes aun con varias instancias de RAC. Las filas existentes
+-- quedan con versión 0 y aparecen en la primera sincronización (since=0). Los cambios hechos
+-- con SQL fuera de la aplicación no actualizan ROW_VERSION y no llegan por el feed.
+
+CREATE SEQUENCE CAMBIO_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE ORDER CACHE 100;
+
+ALTER TABLE TAREA ADD (ROW_VERSION NUMBER(19) DEFAULT 0 NOT NULL);
+ALTER TABLE SPRINT ADD (ROW_VERSION NUMBER(19) DEFAULT 0 NOT NULL);
+ALTER TABLE PROYECTO ADD (ROW_VERSION NUMBER(19) DEFAULT 0 NOT NULL);
+
+CREATE INDEX TAREA_ROW_VERSION_IX ON TAREA (ROW_VERSION, TASK_ID);
@@ -0,0 +1,87 @@
+package com.springboot.MyTodoList.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.springboot.MyTodoList.dto.SesionesMetricasDTO;
+
+public class AlmacenSesionesTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    @Test
+    public void unaSesionInactivaExpiraYElChatEmpiezaDeNuevo() {
+        AlmacenSesiones almacen = new AlmacenSesiones(Duration.ofMinutes(30), Long.MAX_VALUE, reloj::get);
+        UserSession sesion = almacen.obtener(1L);
+        sesion.setAuthenticatedUser(new UserSession.Persona(7, "Ana", "López"));
+        almacen.guardar(1L, sesion);
+
+        reloj.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        assertSame(sesion, almacen.obtener(1L));
+
+        // Cada uso reinicia la inactividad: expira 30 minutos después del último
+        reloj.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        UserSession nueva = almacen.obtener(1L);
+        assertNotSame(sesion, nueva);
+        assertFalse(nueva.isAuthenticated());
+
+        SesionesMetricasDTO metricas = almacen.getMetricas();
+        assertEquals(1, metricas.getExpiradas());
+        assertEquals(1, metricas.getVivas());
+    }
+
+    @Test
+    public void alLlegarAlMaximoDeBytesSeDescartanSesiones() {
+        long maxBytes = 20_000;
+        AlmacenSesiones almacen = new AlmacenSesiones(Duration.ofHours(1), maxBytes, reloj::get);
+        for (long chatId = 1; chatId <= 20; chatId++) {
+            UserSession sesion = almacen.obtener(chatId);
+            sesion.setCurrentTaskList(filas(10));
+            almacen.guardar(chatId, sesion);
+        }
+
+        SesionesMetricasDTO metricas = almacen.getMetricas();
+        assertTrue(metricas.getDesalojadas() > 0);
+        assertTrue(metricas.getVivas() < 20);
+        assertTrue(metricas.getBytesEstimados() <= maxBytes);
+        assertEquals(maxBytes, metricas.getMaxBytes());
+    }
+
+    @Test
+    public void guardarRecalculaElPesoDeLaSesion() {
+        AlmacenSesiones almacen = new AlmacenSesiones(Duration.ofHours(1), Long.MAX_VALUE, reloj::get);
+        UserSession sesion = almacen.obtener(3L);
+        long vacia = almacen.getMetricas().getBytesEstimados();
+
+        sesion.setCurrentTaskList(filas(50));
+        almacen.guardar(3L, sesion);
+        long conLista = almacen.getMetricas().getBytesEstimados();
+        assertEquals(sesion.pesoEstimado(), conLista);
+        assertTrue(conLista > vacia + 50 * 200);
+
+        sesion.setCurrentTaskList(new ArrayList<>());
+        almacen.guardar(3L, sesion);
+        assertEquals(vacia, almacen.getMetricas().getBytesEstimados());
+    }
+
+    private static List<UserSession.FilaTarea> filas(int cuantas) {
+        List<UserSession.FilaTarea> filas = new ArrayList<>();
+        for (int i = 0; i < cuantas; i++) {
+            filas.add(new UserSession.FilaTarea(i, "Tarea número " + i, "In progress", "High", "Ana", "López",
+                    "Sprint 1", 4.0, 1.5, new Date()));
+        }
+        return filas;
+    }
+}
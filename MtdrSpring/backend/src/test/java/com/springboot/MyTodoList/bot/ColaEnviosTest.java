@@ -0,0 +1,191 @@
+package com.springboot.MyTodoList.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.ApiResponse;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.MyTodoList.dto.EnviosMetricasDTO;
+
+public class ColaEnviosTest {
+
+    private final ScheduledExecutorService telegram = Executors.newScheduledThreadPool(4);
+    private ColaEnvios cola;
+
+    @AfterEach
+    void cerrar() {
+        telegram.shutdownNow();
+        if (cola != null) {
+            cola.cerrar();
+        }
+    }
+
+    @Test
+    public void losMensajesDeUnChatSalenEnOrdenConUnoEnVuelo() throws Exception {
+        cola = new ColaEnvios(1000, 1000, 1000, 1000, 0);
+        List<String> recibidos = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger enVuelo = new AtomicInteger();
+        AtomicInteger maximoEnVuelo = new AtomicInteger();
+
+        // Telegram responde con demoras aleatorias: sin la cola, los mensajes llegarían desordenados
+        ColaEnvios.Transporte transporte = mensaje -> {
+            maximoEnVuelo.accumulateAndGet(enVuelo.incrementAndGet(), Math::max);
+            CompletableFuture<Message> respuesta = new CompletableFuture<>();
+            telegram.schedule(() -> {
+                recibidos.add(mensaje.getText());
+                enVuelo.decrementAndGet();
+                respuesta.complete(new Message());
+            }, ThreadLocalRandom.current().nextInt(3), TimeUnit.MILLISECONDS);
+            return respuesta;
+        };
+
+        List<CompletableFuture<Message>> envios = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            envios.add(cola.enviar(mensaje(9L, "m" + i), transporte));
+        }
+        CompletableFuture.allOf(envios.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("m" + i, recibidos.get(i));
+        }
+        assertEquals(1, maximoEnVuelo.get());
+        assertEquals(50, cola.getMetricas().getEnviados());
+    }
+
+    @Test
+    public void elLimitePorChatDemoraSinBloquearAQuienEnvia() throws Exception {
+        cola = new ColaEnvios(1000, 1, 20, 1000, 0);
+        List<Long> momentos = Collections.synchronizedList(new ArrayList<>());
+        ColaEnvios.Transporte transporte = mensaje -> {
+            momentos.add(System.nanoTime());
+            return CompletableFuture.completedFuture(new Message());
+        };
+
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Message>> envios = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            envios.add(cola.enviar(mensaje(5L, "m" + i), transporte));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 40);
+
+        CompletableFuture.allOf(envios.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        // Ráfaga de 1 y 20 por segundo: el tercero sale al menos 100 ms después del primero
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(momentos.get(2) - momentos.get(0)) >= 90);
+        assertEquals(2, cola.getMetricas().getDemorados());
+    }
+
+    @Test
+    public void un429ReintentaElMismoMensajeDespuesDeRetryAfter() throws Exception {
+        cola = new ColaEnvios(1000, 1000, 1000, 1000, 3);
+        List<Long> intentos = Collections.synchronizedList(new ArrayList<>());
+        List<String> recibidos = Collections.synchronizedList(new ArrayList<>());
+        ColaEnvios.Transporte transporte = mensaje -> {
+            if (mensaje.getText().equals("primero") && intentos.isEmpty()) {
+                intentos.add(System.nanoTime());
+                return CompletableFuture.failedFuture(demasiadasSolicitudes(1));
+            }
+            if (mensaje.getText().equals("primero")) {
+                intentos.add(System.nanoTime());
+            }
+            recibidos.add(mensaje.getText());
+            return CompletableFuture.completedFuture(new Message());
+        };
+
+        CompletableFuture<Message> primero = cola.enviar(mensaje(3L, "primero"), transporte);
+        CompletableFuture<Message> segundo = cola.enviar(mensaje(3L, "segundo"), transporte);
+        CompletableFuture.allOf(primero, segundo).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("primero", "segundo"), recibidos);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(intentos.get(1) - intentos.get(0)) >= 900);
+        EnviosMetricasDTO metricas = cola.getMetricas();
+        assertEquals(1, metricas.getReintentos());
+        assertEquals(2, metricas.getEnviados());
+        assertEquals(0, metricas.getFallidos());
+    }
+
+    @Test
+    public void losErroresSeEntreganAlQueEnviaYElChatSigue() throws Exception {
+        cola = new ColaEnvios(1000, 1000, 1000, 1, 0);
+        CompletableFuture<Message> pendiente = new CompletableFuture<>();
+        ColaEnvios.Transporte transporte = mensaje -> mensaje.getText().equals("lento")
+                ? pendiente
+                : CompletableFuture.completedFuture(new Message());
+
+        CompletableFuture<Message> lento = cola.enviar(mensaje(4L, "lento"), transporte);
+        CompletableFuture<Message> rechazado = cola.enviar(mensaje(4L, "lleno"), transporte);
+        assertTrue(rechazado.isCompletedExceptionally());
+
+        pendiente.completeExceptionally(new TelegramApiRequestException("Bad Request: message is too long"));
+        Throwable error = lento.handle((enviado, e) -> e).get(5, TimeUnit.SECONDS);
+        assertTrue(ColaEnvios.causa(error).getMessage().contains("message is too long"));
+
+        cola.enviar(mensaje(4L, "siguiente"), transporte).get(5, TimeUnit.SECONDS);
+        EnviosMetricasDTO metricas = cola.getMetricas();
+        assertEquals(1, metricas.getRechazados());
+        assertEquals(1, metricas.getFallidos());
+        assertEquals(1, metricas.getEnviados());
+    }
+
+    @Test
+    public void losChatsInactivosSeDescartanCuandoSuCuboSeLlena() throws Exception {
+        // Ráfaga de 5 y 20 por segundo: tras el último envío el cubo tarda unos 150 ms en llenarse
+        cola = new ColaEnvios(1000, 5, 20, 1000, 0);
+        ColaEnvios.Transporte transporte = mensaje -> CompletableFuture.completedFuture(new Message());
+
+        List<CompletableFuture<Message>> envios = new ArrayList<>();
+        for (long chatId = 1; chatId <= 3; chatId++) {
+            for (int i = 0; i < 3; i++) {
+                envios.add(cola.enviar(mensaje(chatId, "m" + i), transporte));
+            }
+        }
+        CompletableFuture.allOf(envios.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(3, cola.getMetricas().getChatsActivos());
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cola.getMetricas().getChatsActivos() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, cola.getMetricas().getChatsActivos());
+
+        // Un chat descartado vuelve a funcionar con un cubo nuevo
+        cola.enviar(mensaje(1L, "otra vez"), transporte).get(5, TimeUnit.SECONDS);
+        assertEquals(10, cola.getMetricas().getEnviados());
+    }
+
+    private static SendMessage mensaje(long chatId, String texto) {
+        SendMessage mensaje = new SendMessage();
+        mensaje.setChatId(chatId);
+        mensaje.setText(texto);
+        return mensaje;
+    }
+
+    private static CompletionException demasiadasSolicitudes(int retryAfter) {
+        try {
+            ApiResponse<Message> respuesta = new ObjectMapper().readValue(
+                    "{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests\","
+                            + "\"parameters\":{\"retry_after\":" + retryAfter + "}}",
+                    new TypeReference<ApiResponse<Message>>() { });
+            return new CompletionException(new TelegramApiRequestException("Error sending message", respuesta));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
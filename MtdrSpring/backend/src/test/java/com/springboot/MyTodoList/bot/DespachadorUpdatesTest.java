@@ -0,0 +1,150 @@
+package com.springboot.MyTodoList.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.springboot.MyTodoList.dto.DespachadorMetricasDTO;
+
+public class DespachadorUpdatesTest {
+
+    private DespachadorUpdates despachador;
+
+    @AfterEach
+    void cerrar() {
+        if (despachador != null) {
+            despachador.cerrar();
+        }
+    }
+
+    @Test
+    public void losUpdatesDeUnChatSeProcesanEnOrden() throws Exception {
+        despachador = new DespachadorUpdates(4, 1000, 1000);
+        List<Integer> procesados = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch fin = new CountDownLatch(500);
+
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            assertTrue(despachador.despachar(42L, () -> {
+                procesados.add(n);
+                fin.countDown();
+            }));
+        }
+
+        assertTrue(fin.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, procesados.get(i));
+        }
+    }
+
+    @Test
+    public void unChatLentoNoDetieneAChatsDeOtroTrabajador() throws Exception {
+        despachador = new DespachadorUpdates(2, 10, 1000);
+        long chatLento = 1L;
+        long chatRapido = 2L;
+        assertNotEquals(despachador.indice(chatLento), despachador.indice(chatRapido));
+
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        CountDownLatch rapidoProcesado = new CountDownLatch(1);
+        despachador.despachar(chatLento, () -> esperar(liberarLento));
+        despachador.despachar(chatRapido, rapidoProcesado::countDown);
+
+        try {
+            assertTrue(rapidoProcesado.await(2, TimeUnit.SECONDS));
+        } finally {
+            liberarLento.countDown();
+        }
+    }
+
+    @Test
+    public void colaLlenaEsperaYLuegoDescartaReportandoProfundidad() throws Exception {
+        despachador = new DespachadorUpdates(1, 2, 50);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        despachador.despachar(7L, () -> {
+            ocupado.countDown();
+            esperar(liberar);
+        });
+        assertTrue(ocupado.await(2, TimeUnit.SECONDS));
+        assertTrue(despachador.despachar(7L, () -> { }));
+        assertTrue(despachador.despachar(7L, () -> { }));
+
+        long inicio = System.nanoTime();
+        assertFalse(despachador.despachar(7L, () -> { }));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) >= 40);
+
+        DespachadorMetricasDTO metricas = despachador.getMetricas();
+        assertEquals(2, metricas.getEnCola());
+        assertEquals(2, metricas.getColas().get(0).getPico());
+        assertEquals(3, metricas.getAceptados());
+        assertEquals(1, metricas.getRechazados());
+        assertEquals(1, metricas.getEsperas());
+
+        liberar.countDown();
+    }
+
+    @Test
+    public void unaContinuacionConLaColaLlenaSeReintentaSinBloquear() throws Exception {
+        despachador = new DespachadorUpdates(1, 1, 50);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch continuada = new CountDownLatch(1);
+
+        despachador.despachar(7L, () -> {
+            ocupado.countDown();
+            esperar(liberar);
+        });
+        assertTrue(ocupado.await(2, TimeUnit.SECONDS));
+        assertTrue(despachador.despachar(7L, () -> { }));
+
+        long inicio = System.nanoTime();
+        despachador.despacharContinuacion(7L, continuada::countDown);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 40);
+
+        // Sigue esperando lugar mientras el trabajador está ocupado y entra en cuanto se libera
+        Thread.sleep(3 * DespachadorUpdates.REINTENTO_MS);
+        assertEquals(1, continuada.getCount());
+        liberar.countDown();
+        assertTrue(continuada.await(2, TimeUnit.SECONDS));
+
+        DespachadorMetricasDTO metricas = despachador.getMetricas();
+        assertEquals(0, metricas.getRechazados());
+        assertTrue(metricas.getEsperas() >= 2);
+    }
+
+    @Test
+    public void unUpdateQueFallaNoDetieneAlTrabajador() throws Exception {
+        despachador = new DespachadorUpdates(1, 10, 1000);
+        CountDownLatch siguiente = new CountDownLatch(1);
+
+        despachador.despachar(3L, () -> {
+            throw new IllegalStateException("fallo de prueba");
+        });
+        despachador.despachar(3L, () -> {
+            throw new AssertionError("error de prueba");
+        });
+        despachador.despachar(3L, siguiente::countDown);
+
+        assertTrue(siguiente.await(2, TimeUnit.SECONDS));
+        assertEquals(2, despachador.getMetricas().getColas().get(0).getFallidos());
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.springboot.MyTodoList.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+import com.springboot.MyTodoList.controller.TaskBotController;
+import com.springboot.MyTodoList.dto.PersistenciaSesionesMetricasDTO;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.service.SprintService;
+import com.springboot.MyTodoList.service.TareaService;
+import com.springboot.MyTodoList.service.UsuarioService;
+import com.springboot.MyTodoList.util.BotLabels;
+import com.springboot.MyTodoList.util.BotMessages;
+
+/**
+ * Cada prueba crea dos repositorios sobre la misma base H2, como dos réplicas del bot.
+ * La ventana de coalescencia es larga para que las pruebas decidan cuándo se escribe.
+ */
+public class RepositorioSesionesJdbcTest {
+
+    private static final Duration INACTIVIDAD = Duration.ofHours(2);
+
+    private EmbeddedDatabase baseDatos;
+    private JdbcTemplate jdbcTemplate;
+    private final RelojManual reloj = new RelojManual(Instant.parse("2025-05-01T10:00:00Z"));
+    private RepositorioSesionesJdbc replicaA;
+    private RepositorioSesionesJdbc replicaB;
+
+    @BeforeEach
+    void setUp() {
+        baseDatos = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+        jdbcTemplate = new JdbcTemplate(baseDatos);
+        jdbcTemplate.execute("CREATE TABLE BOT_SESION (CHAT_ID NUMBER(19) PRIMARY KEY, "
+                + "DATOS BLOB NOT NULL, ACTUALIZADA TIMESTAMP NOT NULL, VERSION NUMBER(19) NOT NULL)");
+        replicaA = new RepositorioSesionesJdbc(jdbcTemplate, INACTIVIDAD, 60_000, 1000, reloj);
+        replicaB = new RepositorioSesionesJdbc(jdbcTemplate, INACTIVIDAD, 60_000, 1000, reloj);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaA.cerrar();
+        replicaB.cerrar();
+        baseDatos.shutdown();
+    }
+
+    @Test
+    public void elFormatoCompactoConservaLaSesion() {
+        UserSession sesion = new UserSession();
+        sesion.setState(BotState.WAITING_SPRINT);
+        sesion.setAuthenticatedUser(new UserSession.Persona(7, "Ana", "López"));
+        sesion.getCurrentTask().setTitle("Registrar usuarios");
+        sesion.getCurrentTask().setPriority("High");
+        sesion.getCurrentTask().setStoryPoints(5);
+        sesion.getCurrentTask().setEstimatedHours(6.5);
+        sesion.getCurrentTask().setUsuario(new UserSession.Persona(9, "Luis", "Pérez"));
+        sesion.setAvailableSprints(List.of(new UserSession.SprintOpcion(3, "3"), new UserSession.SprintOpcion(4, "4")));
+        sesion.setCurrentPage(1);
+        sesion.setCurrentTaskList(List.of(new UserSession.FilaTarea(42, "Login", "Done", "Low", "Ana", "López",
+                "3", 2.0, null, new Date(1_700_000_000_000L))));
+
+        byte[] datos = FormatoSesion.escribir(sesion);
+        assertTrue(datos.length < 256, "La sesión ocupó " + datos.length + " bytes");
+
+        UserSession leida = FormatoSesion.leer(datos);
+        assertEquals(BotState.WAITING_SPRINT, leida.getState());
+        assertEquals(7, leida.getAuthenticatedUser().getUserId());
+        assertEquals("López", leida.getAuthenticatedUser().getLastName());
+        assertEquals("Registrar usuarios", leida.getCurrentTask().getTitle());
+        assertNull(leida.getCurrentTask().getDescription());
+        assertEquals(5, leida.getCurrentTask().getStoryPoints());
+        assertEquals(6.5, leida.getCurrentTask().getEstimatedHours());
+        assertNull(leida.getCurrentTask().getActualHours());
+        assertEquals(9, leida.getCurrentTask().getUsuario().getUserId());
+        assertNull(leida.getCurrentTask().getSprint());
+        assertEquals(2, leida.getAvailableSprints().size());
+        assertEquals(1, leida.getCurrentPage());
+        UserSession.FilaTarea fila = leida.getCurrentTaskList().get(0);
+        assertEquals(42, fila.getTaskId());
+        assertEquals("3", fila.getSprintName());
+        assertEquals(1_700_000_000_000L, fila.getEndDate().getTime());
+    }
+
+    @Test
+    public void losGuardadosDeUnChatSeAgrupanEnUnaEscrituraPorLote() {
+        for (int i = 0; i < 10; i++) {
+            UserSession sesion = replicaA.obtener(1L);
+            sesion.setCurrentPage(i);
+            replicaA.guardar(1L, sesion);
+        }
+        replicaA.guardar(2L, new UserSession());
+
+        // Antes de escribir, la réplica que guardó lee su versión pendiente y la otra no la ve
+        assertEquals(9, replicaA.obtener(1L).getCurrentPage());
+        assertEquals(0, replicaB.obtener(1L).getCurrentPage());
+        assertEquals(0, contarFilas());
+
+        assertEquals(2, replicaA.vaciar());
+        assertEquals(2, contarFilas());
+        assertEquals(9, replicaB.obtener(1L).getCurrentPage());
+
+        PersistenciaSesionesMetricasDTO metricas = replicaA.getMetricas();
+        assertEquals(11, metricas.getGuardados());
+        assertEquals(2, metricas.getEscrituras());
+        assertEquals(9, metricas.getCoalescidos());
+        assertEquals(1, metricas.getLotes());
+        assertEquals(0, metricas.getPendientes());
+    }
+
+    @Test
+    public void unaSesionInactivaSeIgnoraYSeBorra() {
+        UserSession sesion = replicaA.obtener(5L);
+        sesion.setAuthenticatedUser(new UserSession.Persona(7, "Ana", "López"));
+        replicaA.guardar(5L, sesion);
+        replicaA.vaciar();
+
+        reloj.avanzar(INACTIVIDAD.plusMinutes(1));
+        assertFalse(replicaB.obtener(5L).isAuthenticated());
+        assertEquals(1, replicaB.purgar());
+        assertEquals(0, contarFilas());
+    }
+
+    @Test
+    public void unaEscrituraDeOtraReplicaDespuesDeLeerSeDetectaComoConflicto() {
+        // Las dos réplicas leen el chat (por ejemplo, dos updates entregados por webhook a la vez)
+        UserSession enA = replicaA.obtener(1L);
+        UserSession enB = replicaB.obtener(1L);
+        enA.setCurrentPage(1);
+        replicaA.guardar(1L, enA);
+        enB.setCurrentPage(2);
+        replicaB.guardar(1L, enB);
+        assertEquals(1, replicaB.vaciar());
+
+        // La fila ya no está en la versión que leyó A: su pendiente no se escribe
+        assertEquals(0, replicaA.vaciar());
+        PersistenciaSesionesMetricasDTO metricas = replicaA.getMetricas();
+        assertEquals(1, metricas.getConflictos());
+        assertEquals(0, metricas.getPendientes());
+        assertEquals(0, metricas.getEscrituras());
+
+        // A vuelve a cargar la sesión de la base y sus siguientes escrituras se aplican
+        UserSession recargada = replicaA.obtener(1L);
+        assertEquals(2, recargada.getCurrentPage());
+        recargada.setCurrentPage(3);
+        replicaA.guardar(1L, recargada);
+        assertEquals(1, replicaA.vaciar());
+        assertEquals(3, replicaB.obtener(1L).getCurrentPage());
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT VERSION FROM BOT_SESION WHERE CHAT_ID = 1", Long.class));
+    }
+
+    @Test
+    public void elRelojDeLaReplicaNoDecideQueEscrituraGana() {
+        UserSession sesion = replicaA.obtener(1L);
+        sesion.setCurrentPage(1);
+        replicaA.guardar(1L, sesion);
+        replicaA.vaciar();
+
+        // La réplica B tiene el reloj atrasado: su escritura posterior igual se aplica
+        reloj.avanzar(Duration.ofMinutes(-5));
+        sesion = replicaB.obtener(1L);
+        sesion.setCurrentPage(2);
+        replicaB.guardar(1L, sesion);
+        assertEquals(1, replicaB.vaciar());
+
+        assertEquals(2, replicaA.obtener(1L).getCurrentPage());
+        assertEquals(0, replicaB.getMetricas().getConflictos());
+    }
+
+    @Test
+    public void siOtraReplicaInsertaALaVezElLoteSeEscribeFilaPorFila() {
+        replicaB.guardar(1L, sesionEnPagina(2));
+        replicaB.vaciar();
+
+        // Simula la clave duplicada de dos réplicas que insertan la misma fila a la vez
+        JdbcTemplate conChoque = spy(jdbcTemplate);
+        doThrow(new DuplicateKeyException("BOT_SESION_PK"))
+                .when(conChoque).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        RepositorioSesionesJdbc replicaC = new RepositorioSesionesJdbc(conChoque, INACTIVIDAD, 60_000, 1000, reloj);
+        try {
+            replicaC.guardar(1L, sesionEnPagina(1));
+            replicaC.guardar(2L, sesionEnPagina(1));
+
+            assertEquals(1, replicaC.vaciar());
+            assertEquals(1, replicaC.getMetricas().getConflictos());
+            assertEquals(2, replicaA.obtener(1L).getCurrentPage());
+            assertEquals(1, replicaA.obtener(2L).getCurrentPage());
+        } finally {
+            replicaC.cerrar();
+        }
+    }
+
+    @Test
+    public void lasPendientesTienenUnMaximoDeChats() {
+        RepositorioSesionesJdbc acotado = new RepositorioSesionesJdbc(jdbcTemplate, INACTIVIDAD, 60_000, 2, reloj);
+        try {
+            acotado.guardar(1L, sesionEnPagina(1));
+            acotado.guardar(2L, sesionEnPagina(1));
+            acotado.guardar(3L, sesionEnPagina(1));
+            // Un chat que ya estaba pendiente sí puede reemplazar su sesión
+            acotado.guardar(1L, sesionEnPagina(2));
+
+            PersistenciaSesionesMetricasDTO metricas = acotado.getMetricas();
+            assertEquals(2, metricas.getPendientes());
+            assertEquals(1, metricas.getDescartadas());
+            assertEquals(2, acotado.obtener(1L).getCurrentPage());
+        } finally {
+            acotado.cerrar();
+        }
+    }
+
+    @Test
+    public void otraReplicaContinuaElFlujoDeUnChatConSesionIniciada() throws Exception {
+        UsuarioService usuarioService = mock(UsuarioService.class);
+        Usuario usuario = new Usuario();
+        usuario.setUserId(7);
+        usuario.setFirstName("Ana");
+        usuario.setLastName("López");
+        usuario.setEmail("ana@example.com");
+        when(usuarioService.findByTelegramUsername("ana")).thenReturn(Optional.of(usuario));
+        when(usuarioService.authenticate("ana@example.com", "secreto")).thenReturn(usuario);
+
+        TaskBotController botA = bot(usuarioService, replicaA);
+        botA.onUpdateReceived(mensaje("/login"));
+        botA.onUpdateReceived(mensaje("secreto"));
+        replicaA.vaciar();
+
+        // La réplica B (o el mismo pod después de reiniciar) recibe el siguiente mensaje del chat
+        TaskBotController botB = bot(usuarioService, replicaB);
+        botB.onUpdateReceived(mensaje(BotLabels.CREATE_TASK.getLabel()));
+
+        verify(botB).executeAsync(argThat((SendMessage enviado) ->
+                enviado.getText().equals(BotMessages.ENTER_TASK_TITLE.getMessage())));
+    }
+
+    private TaskBotController bot(UsuarioService usuarioService, RepositorioSesiones sesiones) throws Exception {
+        TaskBotController bot = spy(new TaskBotController("token", "botName", mock(TareaService.class),
+                usuarioService, mock(SprintService.class), DespachadorUpdates.enHiloLlamador(),
+                ColaEnvios.sinLimites(), sesiones));
+        doReturn(CompletableFuture.completedFuture(null)).when(bot).executeAsync(any(SendMessage.class));
+        return bot;
+    }
+
+    private static UserSession sesionEnPagina(int pagina) {
+        UserSession sesion = new UserSession();
+        sesion.setCurrentPage(pagina);
+        return sesion;
+    }
+
+    private static Update mensaje(String texto) {
+        Chat chat = new Chat();
+        chat.setId(555L);
+        chat.setType("private");
+        User usuario = new User();
+        usuario.setId(7L);
+        usuario.setUserName("ana");
+        Message mensaje = new Message();
+        mensaje.setChat(chat);
+        mensaje.setFrom(usuario);
+        mensaje.setText(texto);
+        Update update = new Update();
+        update.setMessage(mensaje);
+        return update;
+    }
+
+    private int contarFilas() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOT_SESION", Integer.class);
+    }
+
+    private static final class RelojManual extends Clock {
+
+        private Instant ahora;
+
+        private RelojManual(Instant ahora) {
+            this.ahora = ahora;
+        }
+
+        private void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zona) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.springboot.MyTodoList.bot;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,7 +56,7 @@ public class TaskBotControllerTest {
     @BeforeEach
     void setUp() throws Exception {
         controller = spy(new TaskBotController("token", "botName", tareaService, usuarioService, sprintService));
-        doReturn(null).when(controller).execute(any(SendMessage.class));
+        doReturn(CompletableFuture.completedFuture(null)).when(controller).executeAsync(any(SendMessage.class));
 
         when(update.hasMessage()).thenReturn(true);
         when(update.getMessage()).thenReturn(message);
@@ -71,7 +72,7 @@ public class TaskBotControllerTest {
 
         controller.onUpdateReceived(update);
 
-        verify(controller).execute(captor.capture());
+        verify(controller).executeAsync(captor.capture());
         SendMessage sent = captor.getValue();
 
         assert sent.getText().equals("Bienvenido/a al gestor de tareas. Inicia sesión para continuar.");
@@ -84,7 +85,7 @@ public class TaskBotControllerTest {
 
         controller.onUpdateReceived(update);
 
-        verify(controller).execute(captor.capture());
+        verify(controller).executeAsync(captor.capture());
         assert captor.getValue().getText().equals("🔑 Por favor, introduce tu contraseña:");
     }
 
@@ -99,7 +100,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> sm.getText().equals("❌ Usuario no registrado. Contacta al administrador.")));
+            .executeAsync(argThat((SendMessage sm) -> sm.getText().equals("❌ Usuario no registrado. Contacta al administrador.")));
     }
 
     @Test
@@ -119,7 +120,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> sm.getText().contains("✅ Inicio de sesión exitoso. Bienvenido/a, Carlos")));
+            .executeAsync(argThat((SendMessage sm) -> sm.getText().contains("✅ Inicio de sesión exitoso. Bienvenido/a, Carlos")));
     }
 
     @Test
@@ -143,7 +144,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("login") || 
                 sm.getText().contains("contraseña") ||
                 sm.getText().contains("título") ||
@@ -171,7 +172,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> sm.getText().equals("🔒 Sesión cerrada.")));
+            .executeAsync(argThat((SendMessage sm) -> sm.getText().equals("🔒 Sesión cerrada.")));
     }
 
     @Test
@@ -191,7 +192,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> sm.getText().equals("❌ Contraseña incorrecta. Inténtalo de nuevo.")));
+            .executeAsync(argThat((SendMessage sm) -> sm.getText().equals("❌ Contraseña incorrecta. Inténtalo de nuevo.")));
     }
 
     @Test
@@ -203,7 +204,7 @@ public class TaskBotControllerTest {
 
         verify(controller).onUpdateReceived(update);
         
-        verify(controller, never()).execute(any(SendMessage.class));
+        verify(controller, never()).executeAsync(any(SendMessage.class));
     }
 
     @Test
@@ -228,7 +229,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("tareas") || 
                 sm.getText().contains("No tienes tareas")
             ));
@@ -256,7 +257,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("alta prioridad") || 
                 sm.getText().contains("No se encontraron")
             ));
@@ -284,7 +285,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("KPIs") || 
                 sm.getText().contains("desempeño") ||
                 sm.getText().contains("No tienes tareas registradas")
@@ -313,7 +314,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("No tienes tareas asignadas") || 
                 sm.getText().contains("Selecciona la tarea") ||
                 sm.getText().contains("finalizar")
@@ -342,7 +343,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("prioridad media") || 
                 sm.getText().contains("No se encontraron") ||
                 sm.getText().contains("Mostrando")
@@ -385,7 +386,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("Por favor, ingresa un número válido entre 1 y 13") ||
                 sm.getText().contains("login") ||
                 sm.getText().contains("contraseña") ||
@@ -415,7 +416,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("Ya estás en la primera página") ||
                 sm.getText().contains("página")
             ));
@@ -470,7 +471,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("Por favor, ingresa un número válido mayor que 0") ||
                 sm.getText().contains("login") ||
                 sm.getText().contains("contraseña") ||
@@ -520,7 +521,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("Por favor, ingresa un número válido mayor o igual a 0") ||
                 sm.getText().contains("login") ||
                 sm.getText().contains("contraseña") ||
@@ -548,7 +549,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("Bienvenido/a, Carlos") ||
                 sm.getText().contains("¿Qué deseas hacer?")
             ));
@@ -576,7 +577,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("Ya estás en la última página") ||
                 sm.getText().contains("página") ||
                 sm.getText().contains("Página")
@@ -591,7 +592,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("No has iniciado sesión") ||
                 sm.getText().contains("Bienvenido/a al gestor de tareas")
             ));
@@ -649,7 +650,7 @@ public class TaskBotControllerTest {
         controller.onUpdateReceived(update);
 
         verify(controller, atLeastOnce())
-            .execute(argThat((SendMessage sm) -> 
+            .executeAsync(argThat((SendMessage sm) -> 
                 sm.getText().contains("Por favor, ingresa un número válido mayor o igual a 0") ||
                 sm.getText().contains("No tienes tareas") ||
                 sm.getText().contains("Selecciona la tarea")
@@ -0,0 +1,142 @@
+package com.springboot.MyTodoList.bot;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+
+import com.springboot.MyTodoList.controller.TaskBotController;
+import com.springboot.MyTodoList.controller.TelegramWebhookController;
+import com.springboot.MyTodoList.service.SprintService;
+import com.springboot.MyTodoList.service.TareaService;
+import com.springboot.MyTodoList.service.UsuarioService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * El bot habla con un servidor HTTP local que hace de API de Telegram: registra a qué método
+ * llamó el bot y con qué cuerpo, y responde como Telegram.
+ */
+public class TaskBotWebhookTest {
+
+    private static final String TOKEN = "123:token";
+    private static final String SECRETO = "secreto-de-prueba";
+    private static final String START = "{\"update_id\":1,\"message\":{\"message_id\":10,\"date\":0,"
+            + "\"chat\":{\"id\":555,\"type\":\"private\"},"
+            + "\"from\":{\"id\":7,\"is_bot\":false,\"first_name\":\"Ana\",\"username\":\"ana\"},"
+            + "\"text\":\"/start\"}}";
+
+    private HttpServer telegram;
+    private final BlockingQueue<String[]> llamadas = new LinkedBlockingQueue<>();
+    private DespachadorUpdates despachador;
+    private TaskBotWebhook webhook;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        telegram = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        telegram.createContext("/bot" + TOKEN + "/", this::responderComoTelegram);
+        telegram.start();
+
+        DefaultBotOptions opciones = new DefaultBotOptions();
+        opciones.setBaseUrl("http://localhost:" + telegram.getAddress().getPort() + "/bot");
+        despachador = new DespachadorUpdates(2, 10, 100);
+        TaskBotController bot = new TaskBotController(opciones, TOKEN, "botName", mock(TareaService.class),
+                mock(UsuarioService.class), mock(SprintService.class), despachador, ColaEnvios.sinLimites(),
+                AlmacenSesiones.sinLimites());
+        webhook = new TaskBotWebhook(opciones, TOKEN, bot, "chisops", SECRETO, "https://chisops.example.com", 25);
+
+        TelegramWebhookController controlador = new TelegramWebhookController();
+        ReflectionTestUtils.setField(controlador, "taskBotWebhook", webhook);
+        mockMvc = MockMvcBuilders.standaloneSetup(controlador).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        despachador.cerrar();
+        telegram.stop(0);
+    }
+
+    @Test
+    public void registrarEnviaUrlTokenSecretoYMaximoDeConexiones() throws Exception {
+        webhook.registrar();
+
+        String[] llamada = llamadas.poll(5, TimeUnit.SECONDS);
+        assertNotNull(llamada);
+        assertTrue(llamada[0].endsWith("/setWebhook"));
+        assertTrue(llamada[1].contains("https://chisops.example.com/callback/chisops"));
+        assertTrue(llamada[1].contains(SECRETO));
+        assertTrue(llamada[1].contains("max_connections"));
+        assertTrue(llamada[1].contains("25"));
+    }
+
+    @Test
+    public void unUpdateConElTokenSecretoSeProcesaYLaRespuestaSaleAlEndpointDeTelegram() throws Exception {
+        mockMvc.perform(post("/callback/chisops")
+                        .header("X-Telegram-Bot-Api-Secret-Token", SECRETO)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(START))
+                .andExpect(status().isOk());
+
+        String[] llamada = llamadas.poll(5, TimeUnit.SECONDS);
+        assertNotNull(llamada);
+        assertTrue(llamada[0].endsWith("/sendmessage"));
+        assertTrue(llamada[1].contains("\"chat_id\":\"555\""));
+        assertTrue(llamada[1].contains("Inicia sesión para continuar"));
+    }
+
+    @Test
+    public void sinElTokenSecretoOConOtraRutaNoSeProcesa() throws Exception {
+        mockMvc.perform(post("/callback/chisops")
+                        .header("X-Telegram-Bot-Api-Secret-Token", "otro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(START))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/callback/chisops")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(START))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/callback/otra")
+                        .header("X-Telegram-Bot-Api-Secret-Token", SECRETO)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(START))
+                .andExpect(status().isNotFound());
+
+        assertNull(llamadas.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    private void responderComoTelegram(HttpExchange intercambio) throws IOException {
+        String cuerpo = new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String ruta = intercambio.getRequestURI().getPath();
+        llamadas.add(new String[] { ruta, cuerpo });
+
+        String respuesta = ruta.endsWith("/setWebhook")
+                ? "{\"ok\":true,\"result\":true}"
+                : "{\"ok\":true,\"result\":{\"message_id\":11,\"date\":0,\"chat\":{\"id\":555,\"type\":\"private\"}}}";
+        byte[] bytes = respuesta.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+}
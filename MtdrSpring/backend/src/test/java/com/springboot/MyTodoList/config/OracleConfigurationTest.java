@@ -0,0 +1,83 @@
+package com.springboot.MyTodoList.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.springboot.MyTodoList.dto.PoolMetricasDTO;
+import com.springboot.MyTodoList.service.MetricasService;
+
+import oracle.jdbc.OracleConnection;
+import oracle.ucp.jdbc.PoolDataSource;
+
+class OracleConfigurationTest {
+
+    private DataSource crearDataSource(MockEnvironment env) throws Exception {
+        OracleConfiguration configuracion = new OracleConfiguration();
+        ReflectionTestUtils.setField(configuracion, "env", env
+                .withProperty("db_url", "jdbc:oracle:thin:@localhost:1521/TEST")
+                .withProperty("db_user", "TODOUSER")
+                .withProperty("dbpassword", "secreto"));
+        return configuracion.dataSource();
+    }
+
+    @Test
+    void dataSourceEsUnPoolUcpConLaConfiguracionIndicada() throws Exception {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty(OracleConfiguration.UCP + "initial-pool-size", "4")
+                .withProperty(OracleConfiguration.UCP + "min-pool-size", "2")
+                .withProperty(OracleConfiguration.UCP + "max-pool-size", "8")
+                .withProperty(OracleConfiguration.UCP + "max-statements", "25")
+                .withProperty(OracleConfiguration.UCP + "row-prefetch", "100")
+                .withProperty(OracleConfiguration.UCP + "connection-wait-timeout", "7");
+
+        DataSource dataSource = crearDataSource(env);
+
+        assertTrue(dataSource instanceof PoolDataSource);
+        PoolDataSource pool = (PoolDataSource) dataSource;
+        assertEquals("jdbc:oracle:thin:@localhost:1521/TEST", pool.getURL());
+        assertEquals(4, pool.getInitialPoolSize());
+        assertEquals(2, pool.getMinPoolSize());
+        assertEquals(8, pool.getMaxPoolSize());
+        assertEquals(25, pool.getMaxStatements());
+        assertEquals(7, pool.getConnectionWaitTimeout());
+        assertTrue(pool.getValidateConnectionOnBorrow());
+        assertEquals("100", pool.getConnectionProperty(OracleConnection.CONNECTION_PROPERTY_DEFAULT_ROW_PREFETCH));
+    }
+
+    @Test
+    void dataSourceUsaValoresPorDefectoDelPool() throws Exception {
+        PoolDataSource pool = (PoolDataSource) crearDataSource(new MockEnvironment());
+
+        assertEquals(15, pool.getInitialPoolSize());
+        assertEquals(10, pool.getMinPoolSize());
+        assertEquals(30, pool.getMaxPoolSize());
+        assertEquals("select 1 from dual", pool.getSQLForValidateConnection());
+    }
+
+    @Test
+    void metricasReportanElPoolAunSinConexiones() throws Exception {
+        MetricasService metricasService = new MetricasService();
+        ReflectionTestUtils.setField(metricasService, "dataSource", crearDataSource(new MockEnvironment()));
+
+        PoolMetricasDTO metricas = metricasService.getPool();
+
+        assertTrue(metricas.isDisponible());
+        assertEquals(30, metricas.getMaximo());
+        assertEquals("connectionPoolName1", metricas.getNombre());
+    }
+
+    @Test
+    void metricasSinPoolUcpNoEstanDisponibles() {
+        MetricasService metricasService = new MetricasService();
+        ReflectionTestUtils.setField(metricasService, "dataSource", null);
+
+        assertFalse(metricasService.getPool().isDisponible());
+    }
+}
@@ -0,0 +1,151 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.springboot.MyTodoList.config.CacheConfig;
+import com.springboot.MyTodoList.dto.CacheMetricasDTO;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.repository.SprintRepository;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+/**
+ * Sin transacción de prueba: cada llamada a un servicio usa su propia sesión, así que
+ * lo que no sale de la base de datos sale de la caché de segundo nivel.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheConfig.class, SprintService.class, PlanesCarga.class, IndiceBusqueda.class, VersionesTablas.class, VersionesFila.class, MetricasService.class})
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SprintService sprintService;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private MetricasService metricasService;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+
+    private Sprint sprint1;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        tx.executeWithoutResult(estado -> {
+            Usuario ana = DatosPrueba.usuario(em, "Ana");
+            Proyecto proyecto = DatosPrueba.proyecto(em, ana, "ChisOps");
+            sprint1 = DatosPrueba.sprint(em, proyecto, "Sprint 1");
+            DatosPrueba.sprint(em, proyecto, "Sprint 2");
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(estado -> {
+            for (String entidad : new String[] {"Tarea", "Sprint", "Proyecto", "Usuario"}) {
+                em.getEntityManager().createQuery("DELETE FROM " + entidad).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void lasMarcasDeTablaNoSeDesalojan() {
+        CaffeineConfiguration<?, ?> marcas = hibernateCacheManager
+                .getCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME)
+                .getConfiguration(CaffeineConfiguration.class);
+        CaffeineConfiguration<?, ?> consultas = hibernateCacheManager
+                .getCache(CacheConfig.REGION_CONSULTAS)
+                .getConfiguration(CaffeineConfiguration.class);
+
+        assertFalse(marcas.getMaximumSize().isPresent());
+        assertFalse(marcas.getExpireAfterWrite().isPresent());
+        assertTrue(consultas.getMaximumSize().isPresent());
+    }
+
+    @Test
+    void listadoRepetidoNoConsultaLaBaseDeDatos() {
+        assertEquals(2, sprintService.findAllBasicos().size());
+
+        // Los IDs salen de la caché de consultas y cada sprint, con su proyecto y usuario, de la de entidades
+        statistics.clear();
+        List<Sprint> sprints = sprintService.findAllBasicos();
+        assertEquals(2, sprints.size());
+        assertEquals("ana@chisops.test", sprints.get(0).getProyecto().getUsuario().getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        CacheMetricasDTO metricas = metricasService.getCache();
+        assertTrue(metricas.isDisponible());
+        CacheMetricasDTO.Region regionSprint = metricas.getRegiones().stream()
+                .filter(region -> region.getNombre().equals(Sprint.class.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(regionSprint.getAciertos() >= 2);
+        assertTrue(regionSprint.getTasaAciertos() > 0);
+    }
+
+    @Test
+    void escriturasDeLosServiciosInvalidanLaCache() throws Exception {
+        sprintService.findAllBasicos();
+
+        Sprint cambios = new Sprint();
+        cambios.setName("Sprint 1 renombrado");
+        cambios.setStatus("Active");
+        sprintService.updateSprint(sprint1.getSprintId(), cambios);
+
+        List<Sprint> sprints = sprintService.findAllBasicos();
+        assertTrue(sprints.stream().anyMatch(sprint -> sprint.getName().equals("Sprint 1 renombrado")));
+
+        // Un UPDATE masivo vacía la región de la entidad y descarta los resultados de consultas guardados
+        sprintService.eliminarEnCascada(sprint1.getSprintId());
+        assertEquals(1, sprintService.findAllBasicos().size());
+        assertEquals(1, sprintRepository.findById(sprint1.getSprintId()).orElseThrow().getDeleted());
+    }
+}
@@ -0,0 +1,100 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.MyTodoList.config.DashboardExecutorConfig;
+import com.springboot.MyTodoList.dto.HomeDashboardDTO;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+/**
+ * El tablero con el pool real de DashboardExecutorConfig: los datos se confirman antes de
+ * cada prueba para que las subconsultas, cada una en su hilo y con su propia conexión, los vean.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DashboardService.class, DashboardExecutorConfig.class})
+class DashboardConcurrenteTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private ThreadPoolTaskExecutor dashboardExecutor;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(estado -> {
+            Usuario ana = DatosPrueba.usuario(em, "Ana");
+            Usuario luis = DatosPrueba.usuario(em, "Luis");
+            Proyecto proyecto = DatosPrueba.proyecto(em, ana, "ChisOps");
+            Sprint sprint = DatosPrueba.sprint(em, proyecto, "Sprint 1");
+            DatosPrueba.tarea(em, sprint, ana, "A1", "Completed");
+            DatosPrueba.tarea(em, sprint, ana, "A2", "In Progress");
+            DatosPrueba.tarea(em, sprint, luis, "L1", "Completed");
+            DatosPrueba.tarea(em, sprint, luis, "L2", "Incomplete").setPriority("High");
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(estado -> {
+            for (String entidad : new String[] {"Tarea", "Sprint", "Proyecto", "Usuario"}) {
+                em.getEntityManager().createQuery("DELETE FROM " + entidad).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void homeReuneLasSubconsultasEjecutadasEnElPool() {
+        long tareasAntes = dashboardExecutor.getThreadPoolExecutor().getTaskCount();
+
+        // Varias cargas seguidas ocupan todos los hilos del pool a la vez
+        for (int i = 0; i < 3; i++) {
+            HomeDashboardDTO home = dashboardService.getHome();
+
+            assertTrue(home.getErrores().isEmpty(), "Errores: " + home.getErrores());
+            assertEquals(2L, home.getEstados().get("Completed"));
+            assertEquals(1L, home.getPrioridadesPendientes().get("High"));
+            assertEquals(1, home.getEnProgreso().size());
+            assertEquals("A2", home.getEnProgreso().get(0).getTitle());
+            assertEquals(2, home.getCompletadosPorUsuario().size());
+            assertEquals(1, home.getCompletadosPorUsuario().get(0).getCompletadas());
+            assertEquals(5, home.getTiemposMs().size());
+        }
+
+        assertEquals(15, dashboardExecutor.getThreadPoolExecutor().getTaskCount() - tareasAntes);
+    }
+}
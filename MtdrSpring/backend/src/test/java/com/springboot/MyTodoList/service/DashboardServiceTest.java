@@ -0,0 +1,144 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.springboot.MyTodoList.dto.CompletadosUsuarioDTO;
+import com.springboot.MyTodoList.dto.HomeDashboardDTO;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import({DashboardService.class, DashboardServiceTest.EjecutorSincrono.class})
+class DashboardServiceTest {
+
+    /**
+     * Los datos de prueba no se confirman, así que las subconsultas deben correr
+     * en el hilo de la prueba para ver la misma transacción.
+     */
+    @TestConfiguration
+    static class EjecutorSincrono {
+        @Bean(name = "dashboardExecutor")
+        Executor dashboardExecutor() {
+            return Runnable::run;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    private Usuario ana;
+    private Usuario luis;
+    private Proyecto proyecto;
+    private Sprint sprint1;
+
+    @BeforeEach
+    void setUp() {
+        ana = DatosPrueba.usuario(em, "Ana");
+        luis = DatosPrueba.usuario(em, "Luis");
+        proyecto = DatosPrueba.proyecto(em, ana, "ChisOps");
+        Proyecto otro = DatosPrueba.proyecto(em, ana, "Otro");
+        sprint1 = DatosPrueba.sprint(em, proyecto, "Sprint 1");
+        Sprint sprint2 = DatosPrueba.sprint(em, proyecto, "Sprint 2");
+        Sprint ajeno = DatosPrueba.sprint(em, otro, "Sprint ajeno");
+
+        DatosPrueba.tarea(em, sprint1, ana, "A1", "Completed");
+        DatosPrueba.tarea(em, sprint1, ana, "A2", "done");
+        Tarea vencida = DatosPrueba.tarea(em, sprint2, ana, "A3", "In Progress");
+        vencida.setEndDate(haceDias(5));
+        DatosPrueba.tarea(em, sprint2, luis, "L1", "Completed");
+        DatosPrueba.tarea(em, ajeno, luis, "L2", "Completed").setEndDate(haceDias(9));
+        DatosPrueba.tarea(em, ajeno, luis, "L4", "Incomplete").setPriority("High");
+        DatosPrueba.tarea(em, ajeno, luis, "L3", "Completed").setDeleted(1);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void completadosPorUsuarioAgrupaEnUnaConsulta() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CompletadosUsuarioDTO> resultado = dashboardService.getCompletadosPorUsuario(null, null);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, resultado.size());
+        assertEquals(ana.getUserId(), resultado.get(0).getUserId());
+        assertEquals(2, resultado.get(0).getCompletadas());
+        assertEquals(3, resultado.get(0).getTotal());
+        assertEquals(2, resultado.get(1).getCompletadas());
+    }
+
+    @Test
+    void completadosPorUsuarioFiltraPorProyectoYSprint() {
+        List<CompletadosUsuarioDTO> porProyecto =
+                dashboardService.getCompletadosPorUsuario(proyecto.getProjectId(), null);
+        assertEquals(2, porProyecto.size());
+        assertEquals(1, porProyecto.get(1).getCompletadas());
+
+        List<CompletadosUsuarioDTO> porSprint =
+                dashboardService.getCompletadosPorUsuario(null, sprint1.getSprintId());
+        assertEquals(1, porSprint.size());
+        assertEquals(ana.getUserId(), porSprint.get(0).getUserId());
+        assertEquals(2, porSprint.get(0).getCompletadas());
+    }
+
+    @Test
+    void homeReuneTodosLosWidgetsConSusTiempos() {
+        HomeDashboardDTO home = dashboardService.getHome();
+
+        assertEquals(3L, home.getEstados().get("Completed"));
+        assertEquals(1L, home.getEstados().get("Incomplete"));
+        assertEquals(1L, home.getPrioridadesPendientes().get("High"));
+        assertEquals(1, home.getVencidas().getTotal());
+        assertEquals(5, home.getVencidas().getDiasMasAntigua());
+        assertEquals(1, home.getEnProgreso().size());
+        assertEquals("A3", home.getEnProgreso().get(0).getTitle());
+        assertEquals(2, home.getCompletadosPorUsuario().size());
+        assertEquals(5, home.getTiemposMs().size());
+        assertTrue(home.getTiemposMs().containsKey("vencidas"));
+        assertTrue(home.getErrores().isEmpty());
+        assertNull(home.getErrores().get("estados"));
+    }
+
+    private static Date haceDias(int dias) {
+        Calendar calendario = Calendar.getInstance();
+        calendario.add(Calendar.DAY_OF_MONTH, -dias);
+        calendario.add(Calendar.HOUR_OF_DAY, -1);
+        return calendario.getTime();
+    }
+}
\ No newline at end of file
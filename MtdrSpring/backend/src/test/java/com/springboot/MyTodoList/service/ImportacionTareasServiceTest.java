@@ -0,0 +1,242 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.MyTodoList.controller.TareaController;
+import com.springboot.MyTodoList.dto.ResultadoImportacionDTO;
+import com.springboot.MyTodoList.model.ImportacionTareas;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+/**
+ * Cada bloque se confirma en su propia transacción, así que las pruebas corren sin
+ * transacción de prueba y limpian las tablas al terminar.
+ */
+@DataJpaTest(properties = "tareas.import.chunk-size=3")
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ImportacionTareasService.class, TareaService.class, SprintService.class, PlanesCarga.class,
+        IndiceBusqueda.class, VersionesTablas.class, VersionesFila.class, ExportacionTareasService.class, TareaController.class})
+class ImportacionTareasServiceTest {
+
+    private static final String ENCABEZADO =
+            "title,description,status,priority,type,startDate,endDate,storyPoints,sprintName,userEmail,ignorada\r\n";
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ImportacionTareasService importacionTareasService;
+
+    @Autowired
+    private TareaController tareaController;
+
+    private TransactionTemplate tx;
+    private MockMvc mockMvc;
+    private Proyecto chisops;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        mockMvc = MockMvcBuilders.standaloneSetup(tareaController).build();
+        tx.executeWithoutResult(estado -> {
+            Usuario ana = DatosPrueba.usuario(em, "Ana");
+            chisops = DatosPrueba.proyecto(em, ana, "ChisOps");
+            DatosPrueba.sprint(em, chisops, "Sprint 1");
+            DatosPrueba.sprint(em, chisops, "Sprint 2");
+            DatosPrueba.sprint(em, DatosPrueba.proyecto(em, ana, "Otro"), "Sprint 3");
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(estado -> {
+            for (String entidad : new String[] {"ImportacionTareas", "Tarea", "Sprint", "Proyecto", "Usuario"}) {
+                em.getEntityManager().createQuery("DELETE FROM " + entidad).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void importaPorBloquesYReportaErroresPorFila() throws Exception {
+        String csv = ENCABEZADO +
+                fila("Tarea 1", "Sprint 1", "ANA@chisops.test") +
+                "\"Con coma, y\nsalto\",Descripción,Incomplete,High,Bug,2026-01-05,2026-01-09,3,Sprint 2,ana@chisops.test,x\r\n" +
+                fila("Sin usuario", "Sprint 1", "nadie@chisops.test") +
+                "\r\n" +
+                fila("Sprint de otro proyecto", "Sprint 3", "ana@chisops.test") +
+                "Fecha mala,Descripción,Incomplete,High,Bug,2026-13-45,2026-01-09,3,Sprint 1,ana@chisops.test,x\r\n" +
+                ",Descripción,Incomplete,High,Bug,2026-01-05,2026-01-09,3,Sprint 1,ana@chisops.test,x\r\n" +
+                fila("Tarea 7", "Sprint 2", "ana@chisops.test");
+
+        ResultadoImportacionDTO resultado = importacionTareasService.importarTareas(
+                chisops.getProjectId(), null, new StringReader(csv));
+
+        assertEquals(ImportacionTareas.COMPLETADA, resultado.getStatus());
+        assertEquals(7, resultado.getLineasConfirmadas());
+        assertEquals(3, resultado.getCreadas());
+        assertEquals(4, resultado.getRechazadas());
+        assertEquals(4, resultado.getErrores().size());
+        assertEquals(3, resultado.getErrores().get(0).getLinea());
+        assertEquals("Usuario no encontrado o inactivo: nadie@chisops.test", resultado.getErrores().get(0).getError());
+        assertEquals("Sprint no encontrado o inactivo: Sprint 3", resultado.getErrores().get(1).getError());
+        assertEquals("Fecha inválida (se espera yyyy-MM-dd): 2026-13-45", resultado.getErrores().get(2).getError());
+        assertEquals(6, resultado.getErrores().get(3).getLinea());
+        assertTrue(resultado.getErrores().get(3).getError().startsWith("Faltan campos obligatorios"));
+
+        List<Tarea> tareas = tareasImportadas();
+        assertEquals(3, tareas.size());
+        assertEquals("Con coma, y\nsalto", tareas.get(1).getTitle());
+        assertEquals("Sprint 2", tareas.get(1).getSprint().getName());
+    }
+
+    @Test
+    void importacionInterrumpidaSeReanudaSinDuplicar() throws Exception {
+        StringBuilder csv = new StringBuilder(ENCABEZADO);
+        for (int i = 1; i <= 10; i++) {
+            csv.append(fila("Tarea " + i, i % 2 == 0 ? "Sprint 2" : "Sprint 1", "ana@chisops.test"));
+        }
+        // La conexión se corta a mitad de la fila 8: los bloques 1-3, 4-6 ya se confirmaron
+        int corte = csv.indexOf("Tarea 8") + 3;
+
+        Exception error = assertThrows(Exception.class, () -> importacionTareasService.importarTareas(
+                chisops.getProjectId(), null, new LectorQueFalla(csv.toString(), corte)));
+        assertTrue(error.getMessage().contains("con 6 filas confirmadas"), error.getMessage());
+        assertEquals(6, tareasImportadas().size());
+
+        List<ImportacionTareas> pendientes = importacionTareasService.getImportacionesPendientes(chisops.getProjectId());
+        assertEquals(1, pendientes.size());
+        int importId = pendientes.get(0).getImportId();
+        assertEquals(6, pendientes.get(0).getCommittedLines());
+
+        ResultadoImportacionDTO resultado = importacionTareasService.importarTareas(
+                chisops.getProjectId(), importId, new StringReader(csv.toString()));
+        assertEquals(10, resultado.getLineasConfirmadas());
+        assertEquals(10, resultado.getCreadas());
+        assertEquals(10, tareasImportadas().size());
+        assertEquals("Tarea 10", tareasImportadas().get(9).getTitle());
+
+        Exception completada = assertThrows(Exception.class, () -> importacionTareasService.importarTareas(
+                chisops.getProjectId(), importId, new StringReader(csv.toString())));
+        assertEquals("La importación ya está completada", completada.getMessage());
+    }
+
+    @Test
+    void endpointDeImportacion() throws Exception {
+        mockMvc.perform(post("/tareas/import").param("proyectoId", String.valueOf(chisops.getProjectId()))
+                        .contentType("text/csv")
+                        .content(ENCABEZADO + fila("Tarea 1", "Sprint 1", "ana@chisops.test")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.creadas").value(1))
+                .andExpect(jsonPath("$.status").value(ImportacionTareas.COMPLETADA));
+
+        mockMvc.perform(post("/tareas/import").param("proyectoId", String.valueOf(chisops.getProjectId()))
+                        .contentType("text/csv")
+                        .content("title,description\r\nA,B\r\n"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/tareas/import").param("proyectoId", String.valueOf(chisops.getProjectId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void lasClavesDelBloqueNoSeDescartanAlLlenarseLaCache() throws Exception {
+        // Bloques de 3 filas: el primero guarda el correo de Ana en la caché y los siguientes la
+        // llenan con correos inexistentes (repitiendo el último para cerrar el bloque)
+        StringBuilder csv = new StringBuilder(ENCABEZADO).append(fila("Primera", "Sprint 1", "ana@chisops.test"));
+        for (int i = 1; i < ImportacionTareasService.MAX_CACHE; i++) {
+            csv.append(fila("Sin usuario", "Sprint 1", "nadie" + i + "@chisops.test"));
+        }
+        String ultimo = "nadie" + (ImportacionTareasService.MAX_CACHE - 1) + "@chisops.test";
+        csv.append(fila("Sin usuario", "Sprint 1", ultimo)).append(fila("Sin usuario", "Sprint 1", ultimo));
+        // Con la caché llena, Ana es la clave más vieja y llega en el mismo bloque que dos correos nuevos
+        csv.append(fila("Última", "Sprint 1", "ana@chisops.test"))
+                .append(fila("Sin usuario", "Sprint 1", "otro1@chisops.test"))
+                .append(fila("Sin usuario", "Sprint 1", "otro2@chisops.test"));
+
+        ResultadoImportacionDTO resultado = importacionTareasService.importarTareas(
+                chisops.getProjectId(), null, new StringReader(csv.toString()));
+
+        assertEquals(ImportacionTareas.COMPLETADA, resultado.getStatus());
+        assertEquals(2, resultado.getCreadas());
+        assertEquals("Última", tareasImportadas().get(1).getTitle());
+    }
+
+    private List<Tarea> tareasImportadas() {
+        return tx.execute(estado -> em.getEntityManager()
+                .createQuery("SELECT t FROM Tarea t JOIN FETCH t.sprint ORDER BY t.taskId", Tarea.class)
+                .getResultList());
+    }
+
+    private static String fila(String titulo, String sprint, String email) {
+        return titulo + ",Descripción,Incomplete,High,Bug,2026-01-05,2026-01-09,3," + sprint + "," + email + ",x\r\n";
+    }
+
+    /**
+     * Entrega el texto en pedazos pequeños y falla al llegar a la posición indicada,
+     * como una subida que se corta a la mitad
+     */
+    private static class LectorQueFalla extends Reader {
+
+        private final StringReader texto;
+        private int leidos;
+        private final int corte;
+
+        LectorQueFalla(String texto, int corte) {
+            this.texto = new StringReader(texto);
+            this.corte = corte;
+        }
+
+        @Override
+        public int read(char[] buffer, int desde, int cantidad) throws IOException {
+            if (leidos >= corte) {
+                throw new IOException("Conexión interrumpida");
+            }
+            int n = texto.read(buffer, desde, Math.min(Math.min(cantidad, 16), corte - leidos));
+            leidos += Math.max(n, 0);
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
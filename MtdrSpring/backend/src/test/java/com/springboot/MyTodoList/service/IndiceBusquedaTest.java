@@ -0,0 +1,187 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.MyTodoList.controller.BusquedaController;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+/**
+ * Los servicios se llaman sin transacción de prueba para que sus transacciones confirmen:
+ * el índice solo se refresca después del commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({IndiceBusqueda.class, VersionesTablas.class, VersionesFila.class, TareaService.class, SprintService.class, ProyectoService.class, PlanesCarga.class,
+        BusquedaController.class})
+class IndiceBusquedaTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Autowired
+    private BusquedaController busquedaController;
+
+    private TransactionTemplate tx;
+    private MockMvc mockMvc;
+
+    private Usuario ana;
+    private Proyecto planeacion;
+    private Sprint sprint;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        mockMvc = MockMvcBuilders.standaloneSetup(busquedaController).build();
+
+        tx.executeWithoutResult(estado -> {
+            ana = DatosPrueba.usuario(em, "Ana");
+            planeacion = DatosPrueba.proyecto(em, ana, "Planeación anual");
+            sprint = DatosPrueba.sprint(em, planeacion, "Sprint de planeacion");
+            DatosPrueba.tarea(em, sprint, ana, "Planeación del release", "In Progress");
+            DatosPrueba.tarea(em, sprint, ana, "Revisar despliegue", "Completed");
+            Proyecto otro = DatosPrueba.proyecto(em, ana, "Soporte");
+            DatosPrueba.tarea(em, DatosPrueba.sprint(em, otro, "Sprint 1"), ana, "Atender incidentes", "Pending");
+        });
+        // Los datos se insertaron sin pasar por los servicios
+        indiceBusqueda.construir();
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(estado -> {
+            for (String entidad : new String[] {"Tarea", "Sprint", "Proyecto", "Usuario"}) {
+                em.getEntityManager().createQuery("DELETE FROM " + entidad).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void buscaSinAcentosOrdenaPorRelevanciaYPagina() throws Exception {
+        // Título y descripción con la palabra completa (14) antes que solo el título (10);
+        // los empates se ordenan por tipo: tarea, proyecto, sprint, usuario
+        mockMvc.perform(get("/buscar").param("q", "PLANEACION"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.items[0].tipo").value("tarea"))
+                .andExpect(jsonPath("$.items[0].titulo").value("Planeación del release"))
+                .andExpect(jsonPath("$.items[0].proyectoId").value(planeacion.getProjectId()))
+                .andExpect(jsonPath("$.items[0].sprintId").value(sprint.getSprintId()))
+                .andExpect(jsonPath("$.items[0].puntaje").value(14))
+                .andExpect(jsonPath("$.items[1].tipo").value("proyecto"))
+                .andExpect(jsonPath("$.items[2].tipo").value("sprint"))
+                .andExpect(jsonPath("$.items[2].puntaje").value(10))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // Subcadena (trigramas) y prefijo corto (términos ordenados)
+        mockMvc.perform(get("/buscar").param("q", "neac"))
+                .andExpect(jsonPath("$.total").value(3));
+        mockMvc.perform(get("/buscar").param("q", "at"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].titulo").value("Atender incidentes"));
+
+        // Todas las palabras deben aparecer
+        mockMvc.perform(get("/buscar").param("q", "planeación release"))
+                .andExpect(jsonPath("$.total").value(1));
+
+        mockMvc.perform(get("/buscar").param("q", "planeacion").param("tipos", "sprint,proyecto"))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.items[0].tipo").value("proyecto"));
+
+        mockMvc.perform(get("/buscar").param("q", "planeacion").param("offset", "1").param("limit", "1"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].tipo").value("proyecto"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        mockMvc.perform(get("/buscar").param("q", "ana@chisops"))
+                .andExpect(jsonPath("$.items[0].tipo").value("usuario"))
+                .andExpect(jsonPath("$.items[0].titulo").value("Ana Prueba"));
+
+        mockMvc.perform(get("/buscar").param("q", "  "))
+                .andExpect(jsonPath("$.total").value(0));
+
+        mockMvc.perform(get("/buscar").param("q", "ana").param("tipos", "epica"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Tipo de búsqueda no válido: epica"));
+    }
+
+    @Test
+    void seRefrescaDespuesDelCommitDeLosServicios() throws Exception {
+        Tarea nueva = new Tarea();
+        nueva.setTitle("Migración de datos");
+        nueva.setDescription("Mover el histórico");
+        nueva.setStatus("Pending");
+        nueva.setPriority("High");
+        nueva.setType("Feature");
+        nueva.setStartDate(new Date());
+        nueva.setEndDate(new Date());
+        nueva.setSprint(sprint);
+        nueva.setUsuario(ana);
+        int taskId = tareaService.addTarea(nueva).getTaskId();
+
+        assertEquals(1, indiceBusqueda.buscar("migracion", Collections.emptySet(), 0, 20).getTotal());
+
+        // Una transacción revertida no cambia el índice
+        tx.executeWithoutResult(estado -> {
+            tareaService.deleteTarea(taskId);
+            estado.setRollbackOnly();
+        });
+        assertEquals(1, indiceBusqueda.buscar("migracion", Collections.emptySet(), 0, 20).getTotal());
+
+        nueva.setTitle("Migración de usuarios");
+        tareaService.updateTarea(taskId, nueva);
+        assertEquals(0, indiceBusqueda.buscar("datos", Collections.emptySet(), 0, 20).getTotal());
+        assertEquals(1, indiceBusqueda.buscar("migracion usuarios", Collections.emptySet(), 0, 20).getTotal());
+
+        // El borrado en cascada saca del índice al proyecto, sus sprints y sus tareas
+        proyectoService.eliminarEnCascada(planeacion.getProjectId());
+        assertEquals(0, indiceBusqueda.buscar("planeacion", Collections.emptySet(), 0, 20).getTotal());
+        assertEquals(0, indiceBusqueda.buscar("migracion", Collections.emptySet(), 0, 20).getTotal());
+        assertEquals(1, indiceBusqueda.buscar("incidentes", Collections.emptySet(), 0, 20).getTotal());
+
+        proyectoService.restaurarEnCascada(planeacion.getProjectId());
+        assertEquals(3, indiceBusqueda.buscar("planeacion", Collections.emptySet(), 0, 20).getTotal());
+        assertEquals(1, indiceBusqueda.buscar("migracion", Collections.emptySet(), 0, 20).getTotal());
+    }
+}
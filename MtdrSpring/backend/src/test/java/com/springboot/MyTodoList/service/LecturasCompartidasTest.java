@@ -0,0 +1,195 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.springboot.MyTodoList.dto.CoalescenciaMetricasDTO;
+
+class LecturasCompartidasTest {
+
+    private static final int LLAMADORES = 8;
+
+    private VersionesTablas versionesTablas;
+    private LecturasCompartidas lecturasCompartidas;
+    private Lector lector;
+    private Lector proxy;
+    private ExecutorService hilos;
+
+    @BeforeEach
+    void setUp() {
+        versionesTablas = new VersionesTablas();
+        lecturasCompartidas = new LecturasCompartidas(versionesTablas);
+        lector = new Lector();
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(lector);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(lecturasCompartidas);
+        proxy = fabrica.getProxy();
+        hilos = Executors.newFixedThreadPool(LLAMADORES);
+    }
+
+    @AfterEach
+    void cerrar() {
+        hilos.shutdownNow();
+    }
+
+    @Test
+    void llamadasSimultaneasCompartenUnaConsulta() throws Exception {
+        List<Future<List<String>>> resultados = new ArrayList<>();
+        for (int i = 0; i < LLAMADORES; i++) {
+            resultados.add(hilos.submit(() -> proxy.leer("Incomplete")));
+        }
+        // Se libera la consulta cuando todos los llamadores ya están esperando
+        esperarLlamadas(LLAMADORES);
+        lector.liberar.countDown();
+
+        List<String> primera = resultados.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<List<String>> resultado : resultados) {
+            List<String> lista = resultado.get(5, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("Incomplete", "1"), lista);
+            if (lista != primera) {
+                // Cada llamador recibe su propia lista con los mismos elementos
+                assertSame(primera.get(0), lista.get(0));
+            }
+        }
+        assertEquals(1, lector.ejecuciones.get());
+
+        CoalescenciaMetricasDTO metricas = lecturasCompartidas.getMetricas();
+        assertEquals(LLAMADORES, metricas.getLlamadas());
+        assertEquals(1, metricas.getEjecuciones());
+        assertEquals(LLAMADORES - 1, metricas.getCompartidas());
+        assertEquals((LLAMADORES - 1) / (double) LLAMADORES, metricas.getTasaCoalescencia());
+        assertEquals("Lector.leer", metricas.getMetodos().get(0).getNombre());
+
+        // Terminada la consulta, la siguiente llamada vuelve a ejecutarla
+        assertEquals(Arrays.asList("Incomplete", "2"), proxy.leer("Incomplete"));
+    }
+
+    @Test
+    void argumentosDistintosNoSeComparten() throws Exception {
+        Future<List<String>> incompletas = hilos.submit(() -> proxy.leer("Incomplete"));
+        Future<List<String>> completadas = hilos.submit(() -> proxy.leer("Completed"));
+        esperarLlamadas(2);
+        lector.liberar.countDown();
+
+        assertEquals("Incomplete", incompletas.get(5, TimeUnit.SECONDS).get(0));
+        assertEquals("Completed", completadas.get(5, TimeUnit.SECONDS).get(0));
+        assertEquals(2, lector.ejecuciones.get());
+    }
+
+    @Test
+    void noSeUneAUnaConsultaQueEmpezoAntesDeUnCommit() throws Exception {
+        Future<List<String>> anterior = hilos.submit(() -> proxy.leer("Incomplete"));
+        esperarEjecuciones(1);
+
+        // Un commit termina mientras la consulta sigue en curso: quien llega después ya puede
+        // haber leído la ETag nueva, así que no debe recibir las filas de antes del commit
+        versionesTablas.registrarCambio(VersionesTablas.Tabla.TAREA);
+        Future<List<String>> posterior = hilos.submit(() -> proxy.leer("Incomplete"));
+        esperarEjecuciones(2);
+        Future<List<String>> siguiente = hilos.submit(() -> proxy.leer("Incomplete"));
+        esperarLlamadas(3);
+        lector.liberar.countDown();
+
+        assertEquals(Arrays.asList("Incomplete", "1"), anterior.get(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("Incomplete", "2"), posterior.get(5, TimeUnit.SECONDS));
+        // Las llamadas siguientes se unen a la consulta que empezó después del commit
+        assertEquals(Arrays.asList("Incomplete", "2"), siguiente.get(5, TimeUnit.SECONDS));
+        assertEquals(2, lector.ejecuciones.get());
+        assertEquals(1, lecturasCompartidas.getMetricas().getCompartidas());
+    }
+
+    @Test
+    void elErrorDeLaConsultaLlegaATodosLosLlamadores() throws Exception {
+        lector.fallar = true;
+        List<Future<List<String>>> resultados = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            resultados.add(hilos.submit(() -> proxy.leer("Incomplete")));
+        }
+        esperarLlamadas(3);
+        lector.liberar.countDown();
+
+        for (Future<List<String>> resultado : resultados) {
+            Exception error = assertThrows(Exception.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertEquals("Base de datos no disponible", error.getCause().getMessage());
+        }
+        assertEquals(1, lector.ejecuciones.get());
+    }
+
+    @Test
+    void dentroDeUnaTransaccionNoSeComparte() throws Exception {
+        lector.liberar.countDown();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertNotSame(proxy.leer("Incomplete"), proxy.leer("Incomplete"));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(2, lector.ejecuciones.get());
+        assertEquals(0, lecturasCompartidas.getMetricas().getCompartidas());
+    }
+
+    /**
+     * Espera a que cada llamada haya ejecutado la consulta o se haya unido a una en curso
+     */
+    private void esperarLlamadas(int llamadas) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (atendidas() < llamadas && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(llamadas, atendidas());
+    }
+
+    /**
+     * Espera a que el lector haya empezado el número indicado de consultas
+     */
+    private void esperarEjecuciones(int ejecuciones) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (lector.ejecuciones.get() < ejecuciones && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(ejecuciones, lector.ejecuciones.get());
+    }
+
+    private long atendidas() {
+        CoalescenciaMetricasDTO metricas = lecturasCompartidas.getMetricas();
+        return metricas.getEjecuciones() + metricas.getCompartidas();
+    }
+
+    /**
+     * Lectura lenta: no termina hasta que la prueba la libera
+     */
+    public static class Lector {
+
+        final CountDownLatch liberar = new CountDownLatch(1);
+        final AtomicInteger ejecuciones = new AtomicInteger();
+        volatile boolean fallar;
+
+        @LecturaCompartida
+        public List<String> leer(String status) throws InterruptedException {
+            int ejecucion = ejecuciones.incrementAndGet();
+            liberar.await(5, TimeUnit.SECONDS);
+            if (fallar) {
+                throw new IllegalStateException("Base de datos no disponible");
+            }
+            return new ArrayList<>(Arrays.asList(status, String.valueOf(ejecucion)));
+        }
+    }
+}
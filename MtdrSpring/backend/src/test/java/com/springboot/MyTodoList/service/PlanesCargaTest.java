@@ -0,0 +1,235 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.MyTodoList.controller.ProyectoController;
+import com.springboot.MyTodoList.controller.SprintController;
+import com.springboot.MyTodoList.controller.UsuarioProyectoController;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.model.UsuarioProyecto;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+/**
+ * Las peticiones se hacen sin transacción de prueba y sin open-session-in-view,
+ * igual que en producción: si un servicio deja una colección perezosa sin cargar,
+ * Jackson lanza LazyInitializationException al escribir la respuesta y la prueba falla.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PlanesCarga.class, IndiceBusqueda.class, VersionesTablas.class, VersionesFila.class, ProyectoService.class, SprintService.class,
+        UsuarioProyectoService.class, ProyectoController.class, SprintController.class,
+        UsuarioProyectoController.class})
+class PlanesCargaTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProyectoController proyectoController;
+
+    @Autowired
+    private SprintController sprintController;
+
+    @Autowired
+    private UsuarioProyectoController usuarioProyectoController;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private TransactionTemplate tx;
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    private Usuario ana;
+    private Proyecto chisops;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(proyectoController, sprintController, usuarioProyectoController)
+                .build();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        tx.executeWithoutResult(estado -> {
+            ana = DatosPrueba.usuario(em, "Ana");
+            Usuario luis = DatosPrueba.usuario(em, "Luis");
+            for (int p = 0; p < 3; p++) {
+                Proyecto proyecto = DatosPrueba.proyecto(em, p == 0 ? ana : luis, "Proyecto " + p);
+                for (int s = 0; s < 2; s++) {
+                    Sprint sprint = DatosPrueba.sprint(em, proyecto, "Sprint " + p + "." + s);
+                    DatosPrueba.tarea(em, sprint, ana, "Tarea A" + p + s, "In Progress");
+                    DatosPrueba.tarea(em, sprint, luis, "Tarea B" + p + s, "Completed");
+                }
+                if (p == 0) {
+                    chisops = proyecto;
+                }
+            }
+            em.persist(new UsuarioProyecto(ana, chisops, "Developer", new Date()));
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(estado -> {
+            for (String entidad : new String[] {"UsuarioProyecto", "Tarea", "Sprint", "Proyecto", "Usuario"}) {
+                em.getEntityManager().createQuery("DELETE FROM " + entidad).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void openSessionInViewDesactivado() {
+        assertEquals(false, openInView);
+    }
+
+    @Test
+    void proyectoSeSerializaConSprintsYTareasFueraDeLaTransaccion() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/proyectos/{id}", chisops.getProjectId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sprints.length()").value(2))
+                .andExpect(jsonPath("$.sprints[0].tareas.length()").value(2))
+                .andExpect(jsonPath("$.sprints[0].tareas[0].usuario.firstName").exists());
+
+        // Proyecto, sprints y tareas: una sentencia cada uno
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listadoDeProyectosUsaNumeroConstanteDeSentencias() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/proyectos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].sprints[1].tareas[1].usuario.firstName").exists());
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void sprintsDeProyectoSeSerializanConTareas() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/sprints/proyecto/{id}", chisops.getProjectId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].tareas.length()").value(2));
+
+        // Sprints con su proyecto y tareas con su usuario
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listadoSinCambiosRespondeNotModifiedSinConsultar() throws Exception {
+        String etag = mockMvc.perform(get("/proyectos"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        statistics.clear();
+        mockMvc.perform(get("/proyectos").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Una escritura confirmada por el servicio cambia la versión del listado
+        mockMvc.perform(put("/proyectos/{id}", chisops.getProjectId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"ChisOps\",\"description\":\"Renombrado\",\"status\":\"Active\"}"))
+                .andExpect(status().isOk());
+        String nueva = mockMvc.perform(get("/proyectos").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, nueva);
+
+        // Los sprints no cambiaron: su listado sigue vigente con la ETag anterior
+        String etagSprints = mockMvc.perform(get("/sprints/proyecto/{id}", chisops.getProjectId()))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/sprints/proyecto/{id}", chisops.getProjectId()).header("If-None-Match", etagSprints))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void conVariasInstanciasLosListadosNoSonCondicionales() throws Exception {
+        ReflectionTestUtils.setField(versionesTablas, "variasInstancias", true);
+        try {
+            mockMvc.perform(get("/proyectos").header("If-None-Match", "*"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"))
+                    .andExpect(header().doesNotExist("Last-Modified"))
+                    .andExpect(jsonPath("$.length()").value(3));
+        } finally {
+            ReflectionTestUtils.setField(versionesTablas, "variasInstancias", false);
+        }
+    }
+
+    @Test
+    void actualizarProyectoDevuelveElGrafoCompleto() throws Exception {
+        mockMvc.perform(put("/proyectos/{id}", chisops.getProjectId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"ChisOps\",\"description\":\"Renombrado\",\"status\":\"Active\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("ChisOps"))
+                .andExpect(jsonPath("$.sprints[0].tareas.length()").value(2));
+    }
+
+    @Test
+    void proyectosAsignadosAUsuarioSeSerializanCompletos() throws Exception {
+        mockMvc.perform(get("/usuarios/{userId}/proyectos", ana.getUserId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].sprints[1].tareas.length()").value(2));
+
+        mockMvc.perform(get("/usuarios/{userId}/proyectos/simplificados", ana.getUserId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].role").value("Developer"));
+    }
+}
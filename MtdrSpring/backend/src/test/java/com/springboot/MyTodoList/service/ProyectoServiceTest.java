@@ -0,0 +1,230 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.springboot.MyTodoList.controller.ProyectoController;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.model.UsuarioProyecto;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import({ProyectoService.class, SprintService.class, PlanesCarga.class, IndiceBusqueda.class, VersionesTablas.class, VersionesFila.class, ProyectoController.class})
+class ProyectoServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ProyectoController proyectoController;
+
+    @Autowired
+    private SprintService sprintService;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(proyectoController).build();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void usuariosPorProyectoUsaNumeroConstanteDeSentencias() throws Exception {
+        Usuario responsable = DatosPrueba.usuario(em, "Ana");
+        Usuario luis = DatosPrueba.usuario(em, "Luis");
+        Usuario sofia = DatosPrueba.usuario(em, "Sofia");
+        Usuario ajeno = DatosPrueba.usuario(em, "Pedro");
+        Proyecto proyecto = DatosPrueba.proyecto(em, responsable, "ChisOps");
+        Proyecto otro = DatosPrueba.proyecto(em, responsable, "Otro");
+
+        for (int i = 0; i < 12; i++) {
+            Sprint sprint = DatosPrueba.sprint(em, proyecto, "Sprint " + i);
+            DatosPrueba.tarea(em, sprint, responsable, "Tarea A" + i, "In Progress");
+            DatosPrueba.tarea(em, sprint, luis, "Tarea B" + i, "Completed");
+            DatosPrueba.tarea(em, sprint, i % 2 == 0 ? sofia : luis, "Tarea C" + i, "Incomplete");
+        }
+        DatosPrueba.tarea(em, DatosPrueba.sprint(em, otro, "Sprint ajeno"), ajeno, "Ajena", "Incomplete");
+        em.flush();
+        em.clear();
+
+        statistics.clear();
+        mockMvc.perform(get("/proyectos/{id}/usuarios", proyecto.getProjectId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].firstName").value("Ana"))
+                .andExpect(jsonPath("$[0].passwordHash").doesNotExist());
+
+        // Una verificación de existencia y una consulta JOIN, sin importar cuántos sprints haya
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void usuariosPorProyectoInexistenteDevuelveNotFound() throws Exception {
+        mockMvc.perform(get("/proyectos/{id}/usuarios", 9999))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void arbolDeProyectosUsaUnaConsultaPorNivel() throws Exception {
+        Usuario ana = DatosPrueba.usuario(em, "Ana");
+        Proyecto chisops = DatosPrueba.proyecto(em, ana, "ChisOps");
+        Proyecto vacio = DatosPrueba.proyecto(em, ana, "Vacío");
+        Proyecto borrado = DatosPrueba.proyecto(em, ana, "Borrado");
+        borrado.setDeleted(1);
+
+        for (int i = 0; i < 3; i++) {
+            Sprint sprint = DatosPrueba.sprint(em, chisops, "Sprint " + i);
+            DatosPrueba.tarea(em, sprint, ana, "Hecha " + i, "Done");
+            DatosPrueba.tarea(em, sprint, ana, "Pendiente " + i, "Incomplete");
+        }
+        Sprint sprintBorrado = DatosPrueba.sprint(em, chisops, "Sprint borrado");
+        sprintBorrado.setDeleted(1);
+        DatosPrueba.tarea(em, sprintBorrado, ana, "En sprint borrado", "Done");
+        Tarea tareaBorrada = DatosPrueba.tarea(em, DatosPrueba.sprint(em, vacio, "Sprint sin tareas"), ana,
+                "Borrada", "Done");
+        tareaBorrada.setDeleted(1);
+        em.flush();
+        em.clear();
+
+        statistics.clear();
+        mockMvc.perform(get("/proyectos/arbol"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("ChisOps"))
+                .andExpect(jsonPath("$[0].totalSprints").value(3))
+                .andExpect(jsonPath("$[0].totalTareas").value(6))
+                .andExpect(jsonPath("$[0].tareasCompletadas").value(3))
+                .andExpect(jsonPath("$[0].storyPointsCompletados").value(9))
+                .andExpect(jsonPath("$[0].storyPointsTotales").value(18))
+                .andExpect(jsonPath("$[0].sprints").doesNotExist())
+                .andExpect(jsonPath("$[1].totalSprints").value(1))
+                .andExpect(jsonPath("$[1].totalTareas").value(0));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mockMvc.perform(get("/proyectos/arbol").param("depth", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sprints.length()").value(3))
+                .andExpect(jsonPath("$[0].sprints[0].totalTareas").value(2))
+                .andExpect(jsonPath("$[0].sprints[0].tareas").doesNotExist())
+                .andExpect(jsonPath("$[1].sprints.length()").value(1));
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mockMvc.perform(get("/proyectos/arbol").param("depth", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sprints[2].tareas.length()").value(2))
+                .andExpect(jsonPath("$[0].sprints[2].tareas[0].title").value("Hecha 2"))
+                .andExpect(jsonPath("$[1].sprints[0].tareas.length()").value(0));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void arbolDeProyectosFiltraPorTextoYValidaProfundidad() throws Exception {
+        Usuario ana = DatosPrueba.usuario(em, "Ana");
+        DatosPrueba.proyecto(em, ana, "ChisOps");
+        DatosPrueba.proyecto(em, ana, "Otro");
+        em.flush();
+        em.clear();
+
+        mockMvc.perform(get("/proyectos/arbol").param("term", "chis").param("status", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("ChisOps"));
+
+        mockMvc.perform(get("/proyectos/arbol").param("depth", "3"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void borradoEnCascadaUsaUnUpdatePorTablaYRestauraSoloLoQueBorro() throws Exception {
+        Usuario ana = DatosPrueba.usuario(em, "Ana");
+        Proyecto proyecto = DatosPrueba.proyecto(em, ana, "ChisOps");
+        Proyecto otro = DatosPrueba.proyecto(em, ana, "Otro");
+        Sprint sprint1 = DatosPrueba.sprint(em, proyecto, "Sprint 1");
+        Sprint sprint2 = DatosPrueba.sprint(em, proyecto, "Sprint 2");
+        Tarea activa = DatosPrueba.tarea(em, sprint1, ana, "Activa", "Incomplete");
+        Tarea borradaAntes = DatosPrueba.tarea(em, sprint1, ana, "Borrada antes", "Incomplete");
+        borradaAntes.setDeleted(1);
+        Tarea delSprint2 = DatosPrueba.tarea(em, sprint2, ana, "Del sprint 2", "Incomplete");
+        Tarea ajena = DatosPrueba.tarea(em, DatosPrueba.sprint(em, otro, "Ajeno"), ana, "Ajena", "Incomplete");
+        UsuarioProyecto asignacion = em.persist(new UsuarioProyecto(ana, proyecto, "Developer", new Date()));
+        em.flush();
+
+        // El sprint 2 se borra por separado antes que el proyecto
+        sprintService.eliminarEnCascada(sprint2.getSprintId());
+
+        statistics.clear();
+        mockMvc.perform(delete("/proyectos/{id}/cascada", proyecto.getProjectId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proyectos").value(1))
+                .andExpect(jsonPath("$.sprints").value(1))
+                .andExpect(jsonPath("$.tareas").value(1))
+                .andExpect(jsonPath("$.asignaciones").value(1));
+        assertEquals(4, statistics.getPrepareStatementCount());
+
+        assertEquals(1, em.find(Proyecto.class, proyecto.getProjectId()).getDeleted());
+        assertEquals(2, em.find(Sprint.class, sprint1.getSprintId()).getDeleted());
+        assertEquals(2, em.find(Tarea.class, activa.getTaskId()).getDeleted());
+        assertEquals(1, em.find(Tarea.class, borradaAntes.getTaskId()).getDeleted());
+        assertEquals(2, em.find(UsuarioProyecto.class, asignacion.getUserProjectId()).getDeleted());
+        assertEquals(0, em.find(Tarea.class, ajena.getTaskId()).getDeleted());
+
+        // Borrar otra vez no encuentra nada
+        mockMvc.perform(delete("/proyectos/{id}/cascada", proyecto.getProjectId()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(put("/proyectos/{id}/restaurar", proyecto.getProjectId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proyectos").value(1))
+                .andExpect(jsonPath("$.sprints").value(1))
+                .andExpect(jsonPath("$.tareas").value(1))
+                .andExpect(jsonPath("$.asignaciones").value(1));
+        em.clear();
+
+        assertEquals(0, em.find(Proyecto.class, proyecto.getProjectId()).getDeleted());
+        assertEquals(0, em.find(Sprint.class, sprint1.getSprintId()).getDeleted());
+        assertEquals(0, em.find(Tarea.class, activa.getTaskId()).getDeleted());
+        assertEquals(1, em.find(Tarea.class, borradaAntes.getTaskId()).getDeleted());
+        assertEquals(0, em.find(UsuarioProyecto.class, asignacion.getUserProjectId()).getDeleted());
+        // El sprint borrado por separado sigue borrado, con sus tareas
+        assertEquals(1, em.find(Sprint.class, sprint2.getSprintId()).getDeleted());
+        assertEquals(2, em.find(Tarea.class, delSprint2.getTaskId()).getDeleted());
+
+        assertEquals(1, sprintService.restaurarEnCascada(sprint2.getSprintId()).getTareas());
+        em.clear();
+        assertEquals(0, em.find(Tarea.class, delSprint2.getTaskId()).getDeleted());
+    }
+}
@@ -0,0 +1,165 @@
+package com.springboot.MyTodoList.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.util.NestedServletException;
+
+import com.springboot.MyTodoList.controller.SprintController;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@Import({SprintService.class, PlanesCarga.class, IndiceBusqueda.class, VersionesTablas.class, VersionesFila.class, SprintController.class})
+class SprintServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private SprintController sprintController;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(sprintController).build();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void resumenCuentaTareasYStoryPointsConUnaConsulta() throws Exception {
+        Usuario ana = DatosPrueba.usuario(em, "Ana");
+        Proyecto proyecto = DatosPrueba.proyecto(em, ana, "ChisOps");
+        Proyecto otro = DatosPrueba.proyecto(em, ana, "Otro");
+
+        Sprint sprint1 = DatosPrueba.sprint(em, proyecto, "Sprint 1");
+        DatosPrueba.tarea(em, sprint1, ana, "Hecha", "Completed");
+        DatosPrueba.tarea(em, sprint1, ana, "Hecha también", " DONE ");
+        DatosPrueba.tarea(em, sprint1, ana, "En curso", "In Progress");
+        Tarea borrada = DatosPrueba.tarea(em, sprint1, ana, "Borrada", "Completed");
+        borrada.setDeleted(1);
+
+        Sprint vacio = DatosPrueba.sprint(em, proyecto, "Sprint vacío");
+        vacio.setStatus("planificado");
+
+        Sprint eliminado = DatosPrueba.sprint(em, proyecto, "Eliminado");
+        eliminado.setDeleted(1);
+
+        DatosPrueba.tarea(em, DatosPrueba.sprint(em, otro, "Sprint ajeno"), ana, "Ajena", "Completed");
+        em.flush();
+        em.clear();
+
+        statistics.clear();
+        mockMvc.perform(get("/sprints/resumen").param("proyectoId", String.valueOf(proyecto.getProjectId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Sprint 1"))
+                .andExpect(jsonPath("$[0].status").value("In Progress"))
+                .andExpect(jsonPath("$[0].projectId").value(proyecto.getProjectId()))
+                .andExpect(jsonPath("$[0].totalTareas").value(3))
+                .andExpect(jsonPath("$[0].tareasCompletadas").value(2))
+                .andExpect(jsonPath("$[0].storyPointsCompletados").value(6))
+                .andExpect(jsonPath("$[0].storyPointsTotales").value(9))
+                .andExpect(jsonPath("$[0].tareas").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value("Pending"))
+                .andExpect(jsonPath("$[1].totalTareas").value(0))
+                .andExpect(jsonPath("$[1].storyPointsTotales").value(0));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Sin proyectoId se resumen los sprints activos de todos los proyectos
+        mockMvc.perform(get("/sprints/resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void listadoNormalizaElEstadoSinModificarLasEntidades() throws Exception {
+        Usuario ana = DatosPrueba.usuario(em, "Ana");
+        Sprint sprint = DatosPrueba.sprint(em, DatosPrueba.proyecto(em, ana, "ChisOps"), "Sprint 1");
+        em.flush();
+
+        mockMvc.perform(get("/sprints"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("In Progress"));
+
+        // La entidad que devolvió el servicio (compartida entre peticiones) conserva su estado
+        assertEquals("Active", sprint.getStatus());
+    }
+
+    @Test
+    void sprintNoSeRestauraSiSuProyectoEstaEliminado() throws Exception {
+        Usuario ana = DatosPrueba.usuario(em, "Ana");
+        Proyecto proyecto = DatosPrueba.proyecto(em, ana, "ChisOps");
+        Sprint sprint = DatosPrueba.sprint(em, proyecto, "Sprint 1");
+        Tarea tarea = DatosPrueba.tarea(em, sprint, ana, "Tarea", "Incomplete");
+        em.flush();
+
+        mockMvc.perform(delete("/sprints/{id}/cascada", sprint.getSprintId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sprints").value(1))
+                .andExpect(jsonPath("$.tareas").value(1));
+
+        proyecto = em.find(Proyecto.class, proyecto.getProjectId());
+        proyecto.setDeleted(1);
+        em.flush();
+
+        mockMvc.perform(put("/sprints/{id}/restaurar", sprint.getSprintId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("El proyecto del sprint está eliminado; restaure primero el proyecto"));
+
+        em.clear();
+        assertEquals(1, em.find(Sprint.class, sprint.getSprintId()).getDeleted());
+        assertEquals(2, em.find(Tarea.class, tarea.getTaskId()).getDeleted());
+    }
+
+    @Test
+    void unFalloAlRestaurarQueNoEsDelDominioNoSeReportaComo400() {
+        SprintService fallando = mock(SprintService.class);
+        when(fallando.restaurarEnCascada(1)).thenThrow(new DataAccessResourceFailureException("Sin conexión"));
+        SprintController controller = new SprintController();
+        ReflectionTestUtils.setField(controller, "sprintService", fallando);
+        MockMvc aislado = MockMvcBuilders.standaloneSetup(controller).build();
+
+        // Sin manejar, el contenedor lo responde como 500
+        NestedServletException e = assertThrows(NestedServletException.class,
+                () -> aislado.perform(put("/sprints/{id}/restaurar", 1)));
+        assertInstanceOf(DataAccessResourceFailureException.class, e.getCause());
+    }
+}
@@ -0,0 +1,507 @@
+package com.springboot.MyTodoList.service;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.MyTodoList.controller.TareaController;
+import com.springboot.MyTodoList.dto.CambioTareaDTO;
+import com.springboot.MyTodoList.dto.CambiosDTO;
+import com.springboot.MyTodoList.dto.FiltroTareasDTO;
+import com.springboot.MyTodoList.dto.NuevaTareaDTO;
+import com.springboot.MyTodoList.dto.ResultadoLoteDTO;
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.ToDoItem;
+import com.springboot.MyTodoList.model.Usuario;
+import com.springboot.MyTodoList.support.DatosPrueba;
+import com.springboot.MyTodoList.support.JpaTestConfig;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({TareaService.class, SprintService.class, PlanesCarga.class, IndiceBusqueda.class, VersionesTablas.class, VersionesFila.class,
+        ExportacionTareasService.class, ImportacionTareasService.class, TareaController.class})
+class TareaServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TareaController tareaController;
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private ExportacionTareasService exportacionTareasService;
+
+    @Autowired
+    private VersionesFila versionesFila;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(tareaController).build();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void tareasOrganizadasUsaNumeroConstanteDeSentencias() throws Exception {
+        Usuario usuario = DatosPrueba.usuario(em, "Ana");
+        Usuario otro = DatosPrueba.usuario(em, "Luis");
+        Proyecto proyecto = DatosPrueba.proyecto(em, usuario, "ChisOps");
+
+        Sprint primero = null;
+        for (int i = 0; i < 10; i++) {
+            Sprint sprint = DatosPrueba.sprint(em, proyecto, "Sprint " + i);
+            if (primero == null) {
+                primero = sprint;
+            }
+            if (i % 3 != 2) {
+                DatosPrueba.tarea(em, sprint, usuario, "Tarea " + i + "a", "Incomplete");
+                DatosPrueba.tarea(em, sprint, usuario, "Tarea " + i + "b", "Completed");
+            }
+            DatosPrueba.tarea(em, sprint, otro, "Ajena " + i, "Incomplete");
+        }
+        Tarea borrada = DatosPrueba.tarea(em, primero, usuario, "Borrada", "Incomplete");
+        borrada.setDeleted(1);
+        Sprint eliminado = DatosPrueba.sprint(em, proyecto, "Sprint eliminado");
+        eliminado.setDeleted(1);
+        em.flush();
+        em.clear();
+
+        statistics.clear();
+        mockMvc.perform(get("/tareas/usuario/{userId}/proyecto/{proyectoId}/organizadas",
+                        usuario.getUserId(), proyecto.getProjectId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectId").value(proyecto.getProjectId()))
+                .andExpect(jsonPath("$.projectName").value("ChisOps"))
+                .andExpect(jsonPath("$.sprints.length()").value(10))
+                .andExpect(jsonPath("$.sprints[0].sprintName").value("Sprint 0"))
+                .andExpect(jsonPath("$.sprints[0].tasks.length()").value(2))
+                .andExpect(jsonPath("$.sprints[0].tasks[0].title").value("Tarea 0a"))
+                .andExpect(jsonPath("$.sprints[2].tasks.length()").value(0));
+
+        // Nombre del proyecto y filas sprint/tarea, sin importar cuántos sprints haya
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void tareasOrganizadasOmiteProyectoInexistente() throws Exception {
+        mockMvc.perform(get("/tareas/usuario/{userId}/proyecto/{proyectoId}/organizadas", 1, 9999))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectId").doesNotExist())
+                .andExpect(jsonPath("$.sprints.length()").value(0));
+    }
+
+    @Test
+    void addTareaValidaPadresSinCargarlosYDevuelveLosPadresCompletos() throws Exception {
+        Usuario usuario = DatosPrueba.usuario(em, "Ana");
+        Sprint sprint = DatosPrueba.sprint(em, DatosPrueba.proyecto(em, usuario, "ChisOps"), "Sprint 1");
+        em.flush();
+        em.clear();
+
+        Tarea nueva = nuevaTarea(usuario.getUserId(), sprint.getSprintId());
+        statistics.clear();
+        Tarea creada = tareaService.addTarea(nueva);
+        em.flush();
+
+        // Validación + versión de fila + INSERT, más un NEXTVAL solo cuando se agota el bloque de IDs.
+        // La respuesta carga el usuario y el sprint; fuera de las pruebas suelen salir de la caché
+        // de segundo nivel, aquí la transacción no se confirma y se leen de la base
+        assertTrue(statistics.getPrepareStatementCount() <= 6);
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals("Ana", creada.getUsuario().getFirstName());
+        assertEquals("Sprint 1", creada.getSprint().getName());
+        assertEquals(sprint.getSprintId(), em.find(Tarea.class, creada.getTaskId()).getSprint().getSprintId());
+    }
+
+    @Test
+    void addTareaRechazaPadresInactivos() {
+        Usuario usuario = DatosPrueba.usuario(em, "Ana");
+        Usuario inactivo = DatosPrueba.usuario(em, "Luis");
+        inactivo.setDeleted(1);
+        Sprint sprint = DatosPrueba.sprint(em, DatosPrueba.proyecto(em, usuario, "ChisOps"), "Sprint 1");
+        em.flush();
+
+        Exception sinUsuario = assertThrows(Exception.class,
+                () -> tareaService.addTarea(nuevaTarea(inactivo.getUserId(), sprint.getSprintId())));
+        assertEquals("Usuario no encontrado o inactivo", sinUsuario.getMessage());
+
+        Exception sinSprint = assertThrows(Exception.class,
+                () -> tareaService.addTarea(nuevaTarea(usuario.getUserId(), 9999)));
+        assertEquals("Sprint no encontrado o inactivo", sinSprint.getMessage());
+    }
+
+    @Test
+    void updateTareaSinCambioDePadresSoloLeeYActualiza() {
+        Usuario usuario = DatosPrueba.usuario(em, "Ana");
+        Usuario otro = DatosPrueba.usuario(em, "Luis");
+        Sprint sprint = DatosPrueba.sprint(em, DatosPrueba.proyecto(em, usuario, "ChisOps"), "Sprint 1");
+        Tarea tarea = DatosPrueba.tarea(em, sprint, usuario, "Original", "Incomplete");
+        em.flush();
+        em.clear();
+
+        Tarea cambios = nuevaTarea(usuario.getUserId(), sprint.getSprintId());
+        cambios.setStatus("Completed");
+        statistics.clear();
+        tareaService.updateTarea(tarea.getTaskId(), cambios);
+        em.flush();
+
+        // Antes: SELECT tarea + SELECT usuario + SELECT sprint + SELECT del merge + UPDATE = 5
+        // Ahora: SELECT tarea + versión de fila + UPDATE
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        em.clear();
+        cambios.getUsuario().setUserId(otro.getUserId());
+        statistics.clear();
+        tareaService.updateTarea(tarea.getTaskId(), cambios);
+        em.flush();
+
+        // Cambio de responsable: lectura + verificación de existencia + carga del nuevo responsable + UPDATE;
+        // la transacción ya tiene versión
+        assertEquals(4, statistics.getPrepareStatementCount());
+        em.clear();
+        assertEquals(otro.getUserId(), em.find(Tarea.class, tarea.getTaskId()).getUsuario().getUserId());
+    }
+
+    @Test
+    void loteInsertaLasValidasYReportaCadaElemento() throws Exception {
+        Usuario usuario = DatosPrueba.usuario(em, "Ana");
+        Usuario inactivo = DatosPrueba.usuario(em, "Luis");
+        inactivo.setDeleted(1);
+        Sprint sprint = DatosPrueba.sprint(em, DatosPrueba.proyecto(em, usuario, "ChisOps"), "Sprint 1");
+        em.flush();
+        em.clear();
+
+        String tarea = "{\"title\":\"%s\",\"description\":\"Descripción\",\"status\":\"Incomplete\"," +
+                "\"priority\":\"High\",\"type\":\"Bug\",\"startDate\":\"2026-01-05\",\"endDate\":\"2026-01-09\"," +
+                "\"storyPoints\":5,\"estimatedHours\":%s,\"userId\":%d,\"sprintId\":%d}";
+        String cuerpo = "[" +
+                String.format(tarea, "Válida 1", "4.5", usuario.getUserId(), sprint.getSprintId()) + "," +
+                String.format(tarea, "Usuario inactivo", "null", inactivo.getUserId(), sprint.getSprintId()) + "," +
+                String.format(tarea, "Sprint inexistente", "null", usuario.getUserId(), 9999) + "," +
+                String.format(tarea, "", "null", usuario.getUserId(), sprint.getSprintId()) + "," +
+                String.format(tarea, "Válida 2", "null", usuario.getUserId(), sprint.getSprintId()) + "]";
+
+        statistics.clear();
+        mockMvc.perform(post("/tareas/batch").contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recibidas").value(5))
+                .andExpect(jsonPath("$.creadas").value(2))
+                .andExpect(jsonPath("$.rechazadas").value(3))
+                .andExpect(jsonPath("$.resultados[0].ok").value(true))
+                .andExpect(jsonPath("$.resultados[0].taskId").isNumber())
+                .andExpect(jsonPath("$.resultados[0].error").doesNotExist())
+                .andExpect(jsonPath("$.resultados[1].error").value("Usuario no encontrado o inactivo"))
+                .andExpect(jsonPath("$.resultados[2].error").value("Sprint no encontrado o inactivo"))
+                .andExpect(jsonPath("$.resultados[3].indice").value(3))
+                .andExpect(jsonPath("$.resultados[3].ok").value(false))
+                .andExpect(jsonPath("$.resultados[4].ok").value(true));
+
+        // Una consulta IN para usuarios, otra para sprints, la versión de fila, un lote de INSERT y a lo
+        // sumo un NEXTVAL; los usuarios y sprints no se cargan
+        assertTrue(statistics.getPrepareStatementCount() <= 5);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getEntityInsertCount());
+
+        List<Tarea> creadas = em.getEntityManager()
+                .createQuery("SELECT t FROM Tarea t WHERE t.sprint.sprintId = :sprintId ORDER BY t.title", Tarea.class)
+                .setParameter("sprintId", sprint.getSprintId())
+                .getResultList();
+        assertEquals(2, creadas.size());
+        assertEquals("Válida 1", creadas.get(0).getTitle());
+        assertEquals(4.5, creadas.get(0).getEstimatedHours());
+        assertEquals(0, creadas.get(1).getDeleted());
+        assertEquals(usuario.getUserId(), creadas.get(1).getUsuario().getUserId());
+
+        mockMvc.perform(post("/tareas/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void loteConSecuenciaAgrupaLosInsert() throws Exception {
+        Usuario usuario = DatosPrueba.usuario(em, "Ana");
+        Sprint sprint = DatosPrueba.sprint(em, DatosPrueba.proyecto(em, usuario, "ChisOps"), "Sprint 1");
+        em.flush();
+        em.clear();
+        int n = 500;
+
+        // Antes: con IDs IDENTITY (ToDoItem todavía los usa) cada persist ejecuta su propio INSERT
+        statistics.clear();
+        for (int i = 0; i < n; i++) {
+            em.persist(new ToDoItem(0, "Elemento " + i, null, false));
+        }
+        em.flush();
+        assertEquals(n, statistics.getPrepareStatementCount());
+        em.clear();
+
+        // Después: Tarea usa una secuencia pooled-lo y los INSERT viajan en lotes de 50
+        List<NuevaTareaDTO> lote = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            NuevaTareaDTO tarea = new NuevaTareaDTO();
+            tarea.setTitle("Lote " + i);
+            tarea.setDescription("Descripción");
+            tarea.setStatus("Incomplete");
+            tarea.setPriority("High");
+            tarea.setType("Bug");
+            tarea.setStartDate(new Date());
+            tarea.setEndDate(new Date());
+            tarea.setStoryPoints(5);
+            tarea.setUserId(usuario.getUserId());
+            tarea.setSprintId(sprint.getSprintId());
+            lote.add(tarea);
+        }
+        statistics.clear();
+        ResultadoLoteDTO resultado = tareaService.addTareasLote(lote);
+
+        assertEquals(n, resultado.getCreadas());
+        assertEquals(n, resultado.getResultados().stream().map(ResultadoLoteDTO.Elemento::getTaskId).distinct().count());
+        // 2 consultas IN + versión de fila + 10 lotes de INSERT + a lo sumo 11 NEXTVAL (uno por bloque de 50 IDs)
+        assertTrue(statistics.getPrepareStatementCount() <= 24);
+        assertEquals(Long.valueOf(n), em.getEntityManager()
+                .createQuery("SELECT COUNT(t) FROM Tarea t WHERE t.sprint.sprintId = :sprintId", Long.class)
+                .setParameter("sprintId", sprint.getSprintId())
+                .getSingleResult());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void cambiosDevuelveSoloLoConfirmadoDesdeElCursor() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            Tarea plantilla = tx.execute(estado -> {
+                Usuario usuario = DatosPrueba.usuario(em, "Ana");
+                return nuevaTarea(usuario.getUserId(),
+                        DatosPrueba.sprint(em, DatosPrueba.proyecto(em, usuario, "ChisOps"), "Sprint 1").getSprintId());
+            });
+            List<NuevaTareaDTO> lote = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                NuevaTareaDTO tarea = new NuevaTareaDTO();
+                tarea.setTitle("Tarea " + i);
+                tarea.setDescription("Descripción");
+                tarea.setStatus("Incomplete");
+                tarea.setPriority("High");
+                tarea.setType("Bug");
+                tarea.setStartDate(new Date());
+                tarea.setEndDate(new Date());
+                tarea.setUserId(plantilla.getUsuario().getUserId());
+                tarea.setSprintId(plantilla.getSprint().getSprintId());
+                lote.add(tarea);
+            }
+            tareaService.addTareasLote(lote);
+
+            // Las tres tareas comparten la versión de su transacción; el ID desempata entre páginas
+            CambiosDTO<CambioTareaDTO> primera = tareaService.getCambios(0, 0, 2);
+            assertEquals(2, primera.getItems().size());
+            assertTrue(primera.isHasMore());
+            CambioTareaDTO creada = primera.getItems().get(0);
+            assertTrue(creada.getRowVersion() > 0);
+            assertEquals(plantilla.getSprint().getSprintId(), creada.getSprintId());
+            CambiosDTO<CambioTareaDTO> segunda = tareaService.getCambios(primera.getSince(), primera.getAfter(), 2);
+            assertEquals(1, segunda.getItems().size());
+            assertFalse(segunda.isHasMore());
+            assertEquals(creada.getRowVersion(), segunda.getSince());
+
+            // Sin cambios, el cursor vuelve igual
+            CambiosDTO<CambioTareaDTO> vacia = tareaService.getCambios(segunda.getSince(), segunda.getAfter(), 2);
+            assertEquals(0, vacia.getItems().size());
+            assertEquals(segunda.getAfter(), vacia.getAfter());
+
+            // Un borrado lógico llega como cambio con una versión mayor
+            assertTrue(tareaService.deleteTarea(creada.getTaskId()));
+            CambiosDTO<CambioTareaDTO> borrado = tareaService.getCambios(segunda.getSince(), segunda.getAfter(), 2);
+            assertEquals(1, borrado.getItems().size());
+            assertEquals(creada.getTaskId(), borrado.getItems().get(0).getTaskId());
+            assertEquals(1, borrado.getItems().get(0).getDeleted());
+            assertTrue(borrado.getSince() > creada.getRowVersion());
+
+            // Borrarla otra vez no cambia nada ni vuelve a aparecer en el feed
+            assertFalse(tareaService.deleteTarea(creada.getTaskId()));
+            assertEquals(0, tareaService.getCambios(borrado.getSince(), borrado.getAfter(), 2).getItems().size());
+
+            // Mientras una escritura no confirma, el feed no pasa de la versión anterior a la suya
+            int pendiente = segunda.getItems().get(0).getTaskId();
+            tx.executeWithoutResult(estado -> {
+                tareaService.updateTarea(pendiente, plantilla);
+                long version = versionesFila.versionDeTransaccion();
+                assertEquals(version - 1, versionesFila.limiteVisible());
+            });
+            assertEquals(Long.MAX_VALUE, versionesFila.limiteVisible());
+
+            mockMvc.perform(get("/tareas/changes").param("since", String.valueOf(borrado.getSince()))
+                            .param("after", String.valueOf(borrado.getAfter())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.items[0].taskId").value(pendiente))
+                    .andExpect(jsonPath("$.items[0].userId").value(plantilla.getUsuario().getUserId()))
+                    .andExpect(jsonPath("$.hasMore").value(false));
+        } finally {
+            tx.executeWithoutResult(estado -> {
+                for (String entidad : new String[] {"Tarea", "Sprint", "Proyecto", "Usuario"}) {
+                    em.getEntityManager().createQuery("DELETE FROM " + entidad).executeUpdate();
+                }
+            });
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void conVariasInstanciasElFeedSeAtrasaYEmpiezaCerrado() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ReflectionTestUtils.setField(versionesFila, "variasInstancias", true);
+        ReflectionTestUtils.setField(versionesFila, "retrasoMs", 300L);
+        try {
+            long anterior = tx.execute(estado -> versionesFila.versionDeTransaccion());
+
+            // Aún no hay una muestra con el retraso: el feed no devuelve nada
+            assertEquals(0, versionesFila.limiteVisible());
+            long posterior = tx.execute(estado -> versionesFila.versionDeTransaccion());
+
+            Thread.sleep(400);
+            long limite = versionesFila.limiteVisible();
+            assertTrue(limite >= anterior);
+            assertTrue(limite < posterior);
+        } finally {
+            ReflectionTestUtils.setField(versionesFila, "variasInstancias", false);
+        }
+    }
+
+    @Test
+    void exportacionAplicaFiltrosYNoRetieneEntidades() throws Exception {
+        SimpleDateFormat formato = new SimpleDateFormat("yyyy-MM-dd");
+        formato.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Usuario ana = DatosPrueba.usuario(em, "Ana");
+        Usuario luis = DatosPrueba.usuario(em, "Luis");
+        Proyecto proyecto = DatosPrueba.proyecto(em, ana, "ChisOps");
+        Sprint sprint = DatosPrueba.sprint(em, proyecto, "Sprint 1");
+        Sprint otro = DatosPrueba.sprint(em, DatosPrueba.proyecto(em, ana, "Otro"), "Sprint ajeno");
+
+        Tarea conComas = DatosPrueba.tarea(em, sprint, ana, "Revisar \"login\", registro", "Completed");
+        conComas.setEndDate(formato.parse("2026-03-10"));
+        Tarea deLuis = DatosPrueba.tarea(em, sprint, luis, "De Luis", "Completed");
+        deLuis.setEndDate(formato.parse("2026-03-12"));
+        Tarea fueraDeRango = DatosPrueba.tarea(em, sprint, ana, "Fuera de rango", "Completed");
+        fueraDeRango.setEndDate(formato.parse("2026-05-01"));
+        DatosPrueba.tarea(em, sprint, ana, "En curso", "In Progress").setEndDate(formato.parse("2026-03-10"));
+        DatosPrueba.tarea(em, otro, ana, "Ajena", "Completed").setEndDate(formato.parse("2026-03-10"));
+        DatosPrueba.tarea(em, sprint, ana, "Borrada", "Completed").setDeleted(1);
+        em.flush();
+        em.clear();
+
+        FiltroTareasDTO filtro = new FiltroTareasDTO(null, null, proyecto.getProjectId(), "Completed",
+                formato.parse("2026-03-01"), formato.parse("2026-03-31"));
+        StringWriter csv = new StringWriter();
+        assertEquals(2, exportacionTareasService.exportarTareas(filtro, ExportacionTareasService.CSV, csv));
+
+        String[] lineas = csv.toString().split("\r\n");
+        assertEquals(3, lineas.length);
+        assertTrue(lineas[0].startsWith("taskId,title,description,status,"));
+        assertEquals(conComas.getTaskId() + ",\"Revisar \"\"login\"\", registro\","
+                + "\"Descripción de Revisar \"\"login\"\", registro\",Completed,Medium,Feature,"
+                + formato.format(conComas.getStartDate()) + ",2026-03-10,3,2.0,," + sprint.getSprintId() + ","
+                + proyecto.getProjectId() + "," + ana.getUserId() + ",ana@chisops.test", lineas[1]);
+        assertTrue(lineas[2].startsWith(deLuis.getTaskId() + ",De Luis,"));
+        assertTrue(lineas[2].endsWith("," + sprint.getSprintId() + "," + proyecto.getProjectId() + ","
+                + luis.getUserId() + ",luis@chisops.test"));
+
+        StringWriter ndjson = new StringWriter();
+        filtro = new FiltroTareasDTO(luis.getUserId(), sprint.getSprintId(), null, null, null, null);
+        assertEquals(1, exportacionTareasService.exportarTareas(filtro, ExportacionTareasService.NDJSON, ndjson));
+        assertEquals("{\"taskId\":" + deLuis.getTaskId() + ",\"title\":\"De Luis\"",
+                ndjson.toString().substring(0, ndjson.toString().indexOf(",\"description\"")));
+        assertTrue(ndjson.toString().contains("\"endDate\":\"2026-03-12\""));
+        assertTrue(ndjson.toString().endsWith("}\n"));
+
+        // Las filas son DTO: el contexto de persistencia no crece con la exportación
+        assertEquals(0, em.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void exportacionSeTransmiteComoRespuestaAsincrona() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/tareas/export").param("formato", "csv").param("desde", "2026-03-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"tareas.csv\""))
+                .andExpect(content().string(startsWith("taskId,title,")));
+
+        mockMvc.perform(get("/tareas/export").param("formato", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Tarea nuevaTarea(int userId, int sprintId) {
+        Usuario usuario = new Usuario();
+        usuario.setUserId(userId);
+        Sprint sprint = new Sprint();
+        sprint.setSprintId(sprintId);
+
+        Tarea tarea = new Tarea();
+        tarea.setTitle("Nueva");
+        tarea.setDescription("Descripción");
+        tarea.setStatus("Incomplete");
+        tarea.setPriority("High");
+        tarea.setType("Bug");
+        tarea.setStartDate(new Date());
+        tarea.setEndDate(new Date());
+        tarea.setStoryPoints(5);
+        tarea.setUsuario(usuario);
+        tarea.setSprint(sprint);
+        return tarea;
+    }
+}
\ No newline at end of file
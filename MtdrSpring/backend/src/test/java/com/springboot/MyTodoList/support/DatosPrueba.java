@@ -0,0 +1,68 @@
+package com.springboot.MyTodoList.support;
+
+import java.util.Date;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.springboot.MyTodoList.model.Proyecto;
+import com.springboot.MyTodoList.model.Sprint;
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.model.Usuario;
+
+/**
+ * Constructores de datos de prueba persistidos con TestEntityManager.
+ */
+public final class DatosPrueba {
+
+    private DatosPrueba() {
+    }
+
+    public static Usuario usuario(TestEntityManager em, String nombre) {
+        Usuario usuario = new Usuario();
+        usuario.setFirstName(nombre);
+        usuario.setLastName("Prueba");
+        usuario.setEmail(nombre.toLowerCase() + "@chisops.test");
+        usuario.setPhone("5550000000");
+        usuario.setPasswordHash("hash");
+        usuario.setRol("user");
+        usuario.setTelegramUsername("@" + nombre.toLowerCase());
+        return em.persist(usuario);
+    }
+
+    public static Proyecto proyecto(TestEntityManager em, Usuario responsable, String nombre) {
+        Proyecto proyecto = new Proyecto();
+        proyecto.setName(nombre);
+        proyecto.setDescription("Proyecto " + nombre);
+        proyecto.setStartDate(new Date());
+        proyecto.setEndDate(new Date());
+        proyecto.setStatus("Active");
+        proyecto.setUsuario(responsable);
+        return em.persist(proyecto);
+    }
+
+    public static Sprint sprint(TestEntityManager em, Proyecto proyecto, String nombre) {
+        Sprint sprint = new Sprint();
+        sprint.setName(nombre);
+        sprint.setStartDate(new Date());
+        sprint.setEndDate(new Date());
+        sprint.setStatus("Active");
+        sprint.setProyecto(proyecto);
+        return em.persist(sprint);
+    }
+
+    public static Tarea tarea(TestEntityManager em, Sprint sprint, Usuario usuario, String titulo, String status) {
+        Tarea tarea = new Tarea();
+        tarea.setTitle(titulo);
+        tarea.setDescription("Descripción de " + titulo);
+        tarea.setStatus(status);
+        tarea.setPriority("Medium");
+        tarea.setType("Feature");
+        tarea.setStartDate(new Date());
+        tarea.setEndDate(new Date());
+        tarea.setStoryPoints(3);
+        tarea.setEstimatedHours(2.0);
+        tarea.setSprint(sprint);
+        tarea.setUsuario(usuario);
+        return em.persist(tarea);
+    }
+}
@@ -0,0 +1,20 @@
+package com.springboot.MyTodoList.support;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.springboot.MyTodoList.model.Tarea;
+import com.springboot.MyTodoList.repository.TareaRepository;
+
+/**
+ * Configuración mínima para pruebas JPA.
+ *
+ * Registra entidades y repositorios sin cargar MyTodoListApplication,
+ * que registraría el bot de Telegram al arrancar.
+ */
+@Configuration
+@EntityScan(basePackageClasses = Tarea.class)
+@EnableJpaRepositories(basePackageClasses = TareaRepository.class)
+public class JpaTestConfig {
+}
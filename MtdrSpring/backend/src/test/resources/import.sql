@@ -0,0 +1,3 @@
+-- Secuencia de versiones de fila (ver db/version_fila.sql); Hibernate no la crea porque
+-- ninguna entidad la usa como generador de ID
+CREATE SEQUENCE IF NOT EXISTS CAMBIO_SEQ START WITH 1 INCREMENT BY 1;